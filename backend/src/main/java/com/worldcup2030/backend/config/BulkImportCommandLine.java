@@ -0,0 +1,75 @@
+package com.worldcup2030.backend.config;
+
+import com.worldcup2030.backend.dto.BulkImportResult;
+import com.worldcup2030.backend.service.BulkDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Import en masse en ligne de commande, sans passer par l'API :
+ * {@code java -jar app.jar --spring.main.web-application-type=none --import-hotels=hotels.csv --import-transports=transports.ndjson}
+ * <p>
+ * Le format est déduit de l'extension (.csv, .ndjson ou .jsonl). L'application s'arrête après l'import,
+ * avec le code de sortie 1 si une ligne a été rejetée ou si un fichier n'a pas pu être lu.
+ * Sans ces options, l'application démarre normalement.
+ */
+@Component
+public class BulkImportCommandLine implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportCommandLine.class);
+
+    private final BulkDataService bulkDataService;
+    private final ConfigurableApplicationContext context;
+
+    public BulkImportCommandLine(BulkDataService bulkDataService, ConfigurableApplicationContext context) {
+        this.bulkDataService = bulkDataService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> hotels = args.getOptionValues("import-hotels");
+        List<String> transports = args.getOptionValues("import-transports");
+        if (hotels == null && transports == null) {
+            return;
+        }
+
+        boolean ok = true;
+        for (String file : hotels == null ? List.<String>of() : hotels) {
+            ok &= importFile(file, true);
+        }
+        for (String file : transports == null ? List.<String>of() : transports) {
+            ok &= importFile(file, false);
+        }
+        int exitCode = ok ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private boolean importFile(String file, boolean hotels) {
+        Path path = Paths.get(file);
+        try (InputStream in = Files.newInputStream(path)) {
+            BulkDataService.Format format = BulkDataService.Format.of(path.getFileName().toString());
+            BulkImportResult result = hotels
+                    ? bulkDataService.importHotels(in, format)
+                    : bulkDataService.importTransports(in, format);
+            logger.info("📥 {} : {} imported, {} rejected in {} ms", path, result.getImported(),
+                    result.getRejected(), result.getDurationMs());
+            result.getErrors().forEach(error -> logger.warn("   {}", error));
+            return result.getRejected() == 0;
+        } catch (Exception e) {
+            logger.error("❌ Import of {} failed: {}", path, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.worldcup2030.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class BulkImportConfig {
+
+    /**
+     * Pool de conversion et de validation des lignes importées (travail CPU, un thread par cœur par défaut).
+     * La file n'a pas besoin d'être bornée : BulkDataService limite lui-même les blocs en cours.
+     */
+    @Bean(name = "bulkImportExecutor")
+    public Executor bulkImportExecutor(@Value("${worldcup.bulk.validation-threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.worldcup2030.backend.config;
+
+import com.worldcup2030.backend.model.IdBlockGenerator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Petit pool réservé aux blocs d'identifiants (voir IdBlockGenerator), copié du pool principal.
+ * Ses connexions ne servent qu'à réserver un bloc et sont rendues aussitôt : une insertion qui attend
+ * un bloc ne dépend plus des connexions tenues par les autres requêtes.
+ */
+@Component
+public class IdBlockConnections implements HibernatePropertiesCustomizer, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdBlockConnections.class);
+
+    // Un bloc toutes les ALLOCATION_SIZE insertions d'une entité : deux connexions suffisent
+    private static final int POOL_SIZE = 2;
+
+    private final HikariDataSource connections;
+
+    public IdBlockConnections(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            logger.warn("⚠️ DataSource is not Hikari, id blocks share the application pool");
+            this.connections = null;
+            return;
+        }
+        HikariConfig config = new HikariConfig();
+        dataSource.unwrap(HikariDataSource.class).copyStateTo(config);
+        config.setPoolName((config.getPoolName() != null ? config.getPoolName() : "HikariPool") + "-id-blocks");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(0);
+        config.setAutoCommit(false);
+        this.connections = new HikariDataSource(config);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (connections != null) {
+            hibernateProperties.put(IdBlockGenerator.CONNECTIONS, connections);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (connections != null) {
+            connections.close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.worldcup2030.backend.config;
+
+import com.worldcup2030.backend.model.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migration vers les générateurs par blocs : avant la première insertion, le compteur de chaque
+ * entité est placé au-delà du plus grand identifiant existant (lignes créées en IDENTITY ou
+ * importées), pour qu'aucun bloc réservé ne chevauche des lignes déjà en base.
+ * Le compteur n'est jamais reculé : plusieurs nœuds peuvent démarrer en même temps.
+ */
+@Component
+public class IdGeneratorAlignment {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAlignment.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // L'EntityManagerFactory est injectée pour que le schéma soit créé avant l'alignement
+    public IdGeneratorAlignment(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        IdGenerators.TABLES.forEach(this::align);
+    }
+
+    // Le compteur porte le nom de la table de l'entité
+    private void align(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        // Un bloc entier d'avance : le premier identifiant distribué dépasse maxId quelle que soit la valeur lue
+        long floor = maxId + IdGenerators.ALLOCATION_SIZE + 1;
+
+        String update = "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ? WHERE "
+                + IdGenerators.NAME_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?";
+        if (jdbcTemplate.update(update, floor, table, floor) > 0) {
+            logger.info("🔢 Id generator '{}' moved past existing ids (next {})", table, floor);
+            return;
+        }
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + IdGenerators.TABLE + " WHERE "
+                + IdGenerators.NAME_COLUMN + " = ?", Integer.class, table);
+        if (rows == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN + ", "
+                        + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)", table, floor);
+                logger.info("🔢 Id generator '{}' initialized (next {})", table, floor);
+            } catch (DuplicateKeyException e) {
+                // Créé au même moment par un autre nœud
+                jdbcTemplate.update(update, floor, table, floor);
+            }
+        }
+    }
+}
@@ -3,11 +3,16 @@ package com.worldcup2030.backend.config;
 import com.worldcup2030.backend.model.User;
 import com.worldcup2030.backend.repository.UserRepository;
 import com.worldcup2030.backend.service.JwtService;
+import com.worldcup2030.backend.service.ParsedToken;
+import com.worldcup2030.backend.service.VerifiedTokenCache;
+import com.worldcup2030.backend.service.VerifiedTokenCache.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,12 +25,29 @@ import java.util.List;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    // Attribut de requête portant l'identifiant de l'utilisateur authentifié, lu par les contrôleurs
+    public static final String USER_ID_ATTRIBUTE = "worldcup.authenticatedUserId";
+
     @Autowired
     private JwtService jwtService;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    // Mode sans état : l'authentification est construite à partir des claims du jeton, sans requête SQL
+    @Value("${worldcup.security.jwt.stateless:false}")
+    private boolean stateless;
+
+    // Les réponses en flux (NDJSON) se terminent par un dispatch ASYNC, lui aussi contrôlé par Spring Security :
+    // le jeton y est relu (depuis le cache) pour que la requête reste authentifiée
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -36,19 +58,30 @@ public class JwtFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
 
             try {
-                String email = jwtService.extractUsername(token);
+                // Signature et expiration vérifiées une seule fois, puis servies depuis le cache
+                VerifiedToken verified = tokenCache.get(token);
+                if (verified == null) {
+                    ParsedToken parsed = jwtService.parse(token);
+                    if (parsed.getTokenType() != null) {
+                        // Jeton de salle d'attente : même signature, mais il n'authentifie personne
+                        throw new JwtException("Jeton non destiné à l'authentification");
+                    }
+                    verified = tokenCache.put(token, parsed);
+                }
+                String email = verified.getEmail();
 
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    User user = userRepository.findByEmail(email).orElse(null);
+                    User user = stateless ? null : userRepository.findByEmail(email).orElse(null);
 
-                    if (user != null && jwtService.isTokenValid(token, user)) {
+                    if (stateless || user != null) {
+                        String role = stateless ? verified.getRole() : user.getRole();
                         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                                user.getEmail(),
+                                email,
                                 null,
-                                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
+                                List.of(new SimpleGrantedAuthority("ROLE_" + role))
                         );
                         SecurityContextHolder.getContext().setAuthentication(auth);
-                        System.out.println("✅ JWT Authentication successful for user: " + email);
+                        request.setAttribute(USER_ID_ATTRIBUTE, stateless ? verified.getUserId() : user.getId());
                     } else {
                         System.out.println("❌ JWT Token validation failed for user: " + email);
                         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -66,4 +99,4 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
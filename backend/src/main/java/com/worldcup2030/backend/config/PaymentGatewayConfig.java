@@ -0,0 +1,48 @@
+package com.worldcup2030.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class PaymentGatewayConfig {
+
+    /**
+     * Pool borné pour les réponses de la passerelle de paiement, séparé du pool de Tomcat :
+     * une passerelle lente ne bloque plus les threads qui servent les requêtes HTTP.
+     */
+    @Bean(name = "paymentGatewayExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor paymentGatewayExecutor(@Value("${worldcup.payment.gateway.threads:8}") int threads,
+                                           @Value("${worldcup.payment.gateway.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-gateway-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Mode threads virtuels (spring.threads.virtual.enabled=true, Java 21) : un thread virtuel par
+     * réponse de la passerelle. Le nombre d'appels simultanés reste borné par PaymentGatewayService.
+     * Tomcat, @Async et @Scheduled passent aussi en threads virtuels via l'auto-configuration Spring Boot.
+     */
+    @Bean(name = "paymentGatewayExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualPaymentGatewayExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("payment-gateway-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(10_000);
+        return executor;
+    }
+}
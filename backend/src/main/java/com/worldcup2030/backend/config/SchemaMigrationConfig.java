@@ -0,0 +1,58 @@
+package com.worldcup2030.backend.config;
+
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.sql.DatabaseMetaData;
+
+/**
+ * Le schéma appartient aux migrations Flyway (src/main/resources/db/migration), exécutées au
+ * démarrage avant Hibernate : les scripts de common s'appliquent partout, ceux du dossier de la base
+ * (mysql, h2) contiennent ce qui diffère, comme les index construits en ligne sur MySQL.
+ * Une base déjà créée par l'auto-DDL d'Hibernate, sans historique Flyway, est reprise à la version
+ * {@value #HIBERNATE_SCHEMA_VERSION} : seules les migrations suivantes y sont jouées.
+ */
+@Configuration
+public class SchemaMigrationConfig {
+
+    // Dernière migration qui reproduit le schéma créé par Hibernate
+    public static final String HIBERNATE_SCHEMA_VERSION = "1.1";
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationConfig.class);
+
+    /**
+     * spring.flyway.locations et spring.flyway.baseline-on-migrate, s'ils sont fixés, restent prioritaires.
+     */
+    @Bean
+    public FlywayConfigurationCustomizer schemaMigrationCustomizer(
+            @Value("${spring.flyway.locations:}") String configuredLocations,
+            @Value("${spring.flyway.baseline-on-migrate:true}") boolean baselineOnMigrate) {
+        return configuration -> {
+            if (configuredLocations.isBlank()) {
+                String vendor = vendor(configuration);
+                configuration.locations("classpath:db/migration/common", "classpath:db/migration/" + vendor);
+                logger.info("🗄️ Schema migrations: common + {}", vendor);
+            }
+            configuration.baselineOnMigrate(baselineOnMigrate)
+                    .baselineVersion(HIBERNATE_SCHEMA_VERSION)
+                    .baselineDescription("Schéma créé par Hibernate");
+        };
+    }
+
+    private static String vendor(FluentConfiguration configuration) {
+        try {
+            String url = JdbcUtils.extractDatabaseMetaData(configuration.getDataSource(), DatabaseMetaData::getURL);
+            return DatabaseDriver.fromJdbcUrl(url).getId();
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Base de données inaccessible pour les migrations", e);
+        }
+    }
+}
@@ -28,17 +28,17 @@ public class SecurityConfig {
         this.jwtFilter = jwtFilter;
     }
 
-    // 1) Chaîne pour les endpoints publics (auth, registration)
+    // 1) Chaîne pour les endpoints publics (auth, registration, suivi de la salle d'attente)
     @Bean
     @Order(1)
     public SecurityFilterChain publicApiFilterChain(HttpSecurity http) throws Exception {
         http
-                .securityMatcher("/api/auth/**", "/api/register/**", "/oauth2/**", "/login/**")
+                .securityMatcher("/api/auth/**", "/api/register/**", "/api/waiting-room/*/status", "/api/waiting-room/stats", "/oauth2/**", "/login/**")
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**", "/api/register/**", "/oauth2/**", "/login/**").permitAll()
+                        .requestMatchers("/api/auth/**", "/api/register/**", "/api/waiting-room/*/status", "/api/waiting-room/stats", "/oauth2/**", "/login/**").permitAll()
                         .anyRequest().permitAll()
                 )
                 .anonymous(anonymous -> anonymous.disable())
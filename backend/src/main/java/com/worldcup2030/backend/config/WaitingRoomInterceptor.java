@@ -0,0 +1,72 @@
+package com.worldcup2030.backend.config;
+
+import com.worldcup2030.backend.service.WaitingRoom;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Exige un laissez-passer de la salle d'attente (en-tête {@value #PASS_HEADER}) pour créer une
+ * réservation pendant une ouverture de ventes. Le laissez-passer doit être au nom de l'utilisateur
+ * authentifié et ne sert qu'une fois ; il est rendu si la réservation échoue. Les lectures et les
+ * autres méthodes ne sont pas filtrées.
+ */
+@Component
+public class WaitingRoomInterceptor implements HandlerInterceptor {
+
+    public static final String PASS_HEADER = "X-Waiting-Room-Pass";
+
+    // Numéro du laissez-passer consommé par la requête, pour le rendre en cas d'échec
+    private static final String REDEEMED_ATTRIBUTE = "worldcup.waitingRoomPass";
+
+    private final WaitingRoom waitingRoom;
+
+    public WaitingRoomInterceptor(WaitingRoom waitingRoom) {
+        this.waitingRoom = waitingRoom;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!waitingRoom.isEnabled() || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String queue = queueFor(request.getRequestURI());
+        if (queue == null) {
+            return true;
+        }
+        long ticket = waitingRoom.redeemPass(queue, request.getHeader(PASS_HEADER),
+                (Long) request.getAttribute(JwtFilter.USER_ID_ATTRIBUTE));
+        if (ticket >= 0) {
+            request.setAttribute(REDEEMED_ATTRIBUTE, ticket);
+            return true;
+        }
+
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Passez par la salle d'attente\",\"queue\":\"" + queue
+                + "\",\"status\":403,\"timestamp\":" + System.currentTimeMillis() + "}");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object ticket = request.getAttribute(REDEEMED_ATTRIBUTE);
+        if (ticket != null && (ex != null || response.getStatus() >= 400)) {
+            waitingRoom.restorePass(queueFor(request.getRequestURI()), (Long) ticket);
+        }
+    }
+
+    // Seule la création (POST sur la racine de la ressource) passe par la file
+    private static String queueFor(String uri) {
+        if (uri.equals("/api/tickets")) {
+            return WaitingRoom.TICKETS;
+        }
+        if (uri.equals("/api/hotel-reservations")) {
+            return WaitingRoom.HOTELS;
+        }
+        return null;
+    }
+}
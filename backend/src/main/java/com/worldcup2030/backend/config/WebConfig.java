@@ -2,12 +2,19 @@ package com.worldcup2030.backend.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final WaitingRoomInterceptor waitingRoomInterceptor;
+
+    public WebConfig(WaitingRoomInterceptor waitingRoomInterceptor) {
+        this.waitingRoomInterceptor = waitingRoomInterceptor;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -17,6 +24,13 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Créations de billets et de réservations d'hôtel soumises à la salle d'attente
+        registry.addInterceptor(waitingRoomInterceptor)
+                .addPathPatterns("/api/tickets", "/api/hotel-reservations");
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/uploads/**")
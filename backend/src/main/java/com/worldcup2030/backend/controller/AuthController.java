@@ -13,6 +13,7 @@ import com.worldcup2030.backend.dto.LoginRequest;
 import com.worldcup2030.backend.dto.RegisterRequest;
 import com.worldcup2030.backend.model.User;
 import com.worldcup2030.backend.service.JwtService;
+import com.worldcup2030.backend.service.ParsedToken;
 import com.worldcup2030.backend.service.UserService;
 
 @RestController
@@ -95,9 +96,10 @@ public class AuthController {
             // Effectuer le debug du token
 
 
-            // Extraire les informations
-            Long userId = jwtService.extractUserId(token);
-            String email = jwtService.extractUsername(token);
+            // Extraire les informations (une seule vérification du token)
+            ParsedToken parsed = jwtService.parse(token);
+            Long userId = parsed.getUserId();
+            String email = parsed.getEmail();
 
             Map<String, Object> response = new HashMap<>();
             response.put("valid", userId != null && userId > 0);
@@ -140,8 +142,9 @@ public class AuthController {
             String token = jwtService.generateToken(user);
 
             // Extraire immédiatement les données
-            Long extractedUserId = jwtService.extractUserId(token);
-            String extractedEmail = jwtService.extractUsername(token);
+            ParsedToken parsed = jwtService.parse(token);
+            Long extractedUserId = parsed.getUserId();
+            String extractedEmail = parsed.getEmail();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
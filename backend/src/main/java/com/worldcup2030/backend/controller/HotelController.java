@@ -1,18 +1,30 @@
 package com.worldcup2030.backend.controller;
 
+import com.worldcup2030.backend.dto.BulkImportResult;
+import com.worldcup2030.backend.dto.HotelAvailabilityDTO;
+import com.worldcup2030.backend.dto.HotelPriceCalendarDTO;
+import com.worldcup2030.backend.dto.RoomTypeAvailabilityDTO;
 import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.KeysetPage;
 import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.service.BulkDataService;
 import com.worldcup2030.backend.service.HotelService;
 import com.worldcup2030.backend.service.FileService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Arrays;
 
 @RestController
@@ -23,11 +35,14 @@ public class HotelController {
     private final HotelService hotelService;
     private final FileService fileService;
     private final ObjectMapper objectMapper;
+    private final BulkDataService bulkDataService;
 
-    public HotelController(HotelService hotelService, FileService fileService, ObjectMapper objectMapper) {
+    public HotelController(HotelService hotelService, FileService fileService, ObjectMapper objectMapper,
+                           BulkDataService bulkDataService) {
         this.hotelService = hotelService;
         this.fileService = fileService;
         this.objectMapper = objectMapper;
+        this.bulkDataService = bulkDataService;
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -51,7 +66,8 @@ public class HotelController {
             @RequestParam("address") String address,
             @RequestParam(value = "description", required = false) String description,
             @RequestParam("services") String servicesJson,
-            @RequestParam(value = "photo", required = false) MultipartFile photo) {
+            @RequestParam(value = "photo", required = false) MultipartFile photo,
+            @RequestParam(value = "totalRooms", required = false) Integer totalRooms) {
 
         System.out.println("Requête multipart reçue - name: " + name + ", city: " + city);
 
@@ -66,6 +82,7 @@ public class HotelController {
             dto.setAddress(address);
             dto.setDescription(description);
             dto.setServices(services);
+            dto.setTotalRooms(totalRooms);
 
             // Gérer le fichier photo
             if (photo != null && !photo.isEmpty()) {
@@ -96,6 +113,179 @@ public class HotelController {
         }
     }
 
+    // Pagination par clé : ?size=50 puis ?after=<nextCursor de la page précédente>
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<HotelDTO>> getHotelsPage(@RequestParam(value = "after", required = false) String after,
+                                                              @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(hotelService.getHotelsPage(after, size));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Curseur de pagination invalide : " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la récupération des hôtels : " + e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // Tous les hôtels en NDJSON, lus en base et écrits au fil de la lecture
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamHotels() {
+        return NdjsonResponses.stream(objectMapper, hotelService::streamHotels);
+    }
+
+    // Import en masse : fichier CSV (en-tête name,city,stars,address,...) ou NDJSON envoyé tel quel dans le corps
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<BulkImportResult> importHotels(HttpServletRequest request) {
+        try {
+            BulkDataService.Format format = BulkDataService.Format.of(request.getContentType());
+            return ResponseEntity.ok(bulkDataService.importHotels(request.getInputStream(), format));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Import d'hôtels refusé : " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors de l'import des hôtels : " + e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // Export complet en flux : ?format=csv (défaut, relisible par /import) ou ?format=ndjson
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportHotels(@RequestParam(value = "format", defaultValue = "csv") String format) {
+        BulkDataService.Format exportFormat;
+        try {
+            exportFormat = BulkDataService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (exportFormat == BulkDataService.Format.NDJSON) {
+            return NdjsonResponses.stream(objectMapper, hotelService::streamHotels);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"hotels.csv\"")
+                .body(bulkDataService::exportHotelsCsv);
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<List<HotelAvailabilityDTO>> getAvailability(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "hotelIds", required = false) List<Long> hotelIds) {
+        try {
+            return ResponseEntity.ok(hotelService.getAvailability(from, to, hotelIds));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Paramètres de disponibilité invalides : " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors du calcul des disponibilités : " + e.getMessage());
+            return ResponseEntity.status(404).build();
+        }
+    }
+
+    /**
+     * Prix par nuit (centimes de dirham) et disponibilités, par ex. ?from=2030-06-10&to=2030-07-20&rooms=2 ;
+     * tous les hôtels si hotelIds n'est pas précisé.
+     */
+    @GetMapping("/prices")
+    public ResponseEntity<List<HotelPriceCalendarDTO>> getPriceCalendar(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "rooms", defaultValue = "1") int rooms,
+            @RequestParam(value = "hotelIds", required = false) List<Long> hotelIds) {
+        try {
+            return ResponseEntity.ok(hotelService.getPriceCalendar(from, to, rooms, hotelIds));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Paramètres de tarification invalides : " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors du calcul des prix : " + e.getMessage());
+            return ResponseEntity.status(404).build();
+        }
+    }
+
+    /**
+     * Ajoute des chambres d'un type, par ex. POST /12/rooms?roomType=Suite&pricePerNight=2400&count=4 ;
+     * renvoie la nouvelle capacité de l'hôtel.
+     */
+    @PostMapping("/{id}/rooms")
+    public ResponseEntity<Map<String, Object>> addRooms(@PathVariable Long id,
+                                                        @RequestParam("roomType") String roomType,
+                                                        @RequestParam(value = "pricePerNight", required = false) BigDecimal pricePerNight,
+                                                        @RequestParam(value = "count", defaultValue = "1") int count) {
+        try {
+            int totalRooms = hotelService.addRooms(id, roomType, pricePerNight, count);
+            return ResponseEntity.status(201).body(Map.of("hotelId", id, "roomType", roomType.trim(),
+                    "added", count, "totalRooms", totalRooms));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Chambres invalides : " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors de l'ajout des chambres : " + e.getMessage());
+            return ResponseEntity.status(404).build();
+        }
+    }
+
+    @GetMapping("/{id}/rooms/availability")
+    public ResponseEntity<List<RoomTypeAvailabilityDTO>> getRoomAvailability(
+            @PathVariable Long id,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(hotelService.getRoomAvailability(id, from, to));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Paramètres de disponibilité invalides : " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors du calcul des disponibilités par type : " + e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    @GetMapping("/prices/stats")
+    public ResponseEntity<Map<String, Object>> getPricingStats() {
+        return ResponseEntity.ok(hotelService.getPricingStats());
+    }
+
+    /**
+     * Recherche paginée, par ex. ?q=riad spa&city=Marrakech&minStars=4&services=Piscine&matchId=12&maxDistanceKm=10
+     * ; sort = relevance, stars, distance ou name. Réponse : total, page d'hôtels et facettes.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchHotels(
+            @RequestParam(value = "q", required = false) String text,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "minStars", required = false) Integer minStars,
+            @RequestParam(value = "maxStars", required = false) Integer maxStars,
+            @RequestParam(value = "services", required = false) List<String> services,
+            @RequestParam(value = "matchId", required = false) Long matchId,
+            @RequestParam(value = "stadium", required = false) String stadium,
+            @RequestParam(value = "maxDistanceKm", required = false) Double maxDistanceKm,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(hotelService.search(text, city, minStars, maxStars, services, matchId, stadium,
+                    maxDistanceKm, sort, page, size));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Recherche d'hôtels invalide : " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la recherche d'hôtels : " + e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    @GetMapping("/search/stats")
+    public ResponseEntity<Map<String, Object>> getSearchStats() {
+        return ResponseEntity.ok(hotelService.getSearchStats());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCatalogCacheStats() {
+        return ResponseEntity.ok(hotelService.getCatalogCacheStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<HotelDTO> getHotelById(@PathVariable Long id) {
         try {
@@ -152,6 +342,9 @@ public class HotelController {
         try {
             Hotel hotel = hotelService.updateHotel(id, dto);
             return ResponseEntity.ok(hotel);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Mise à jour de l'hôtel refusée : " + e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             System.err.println("Erreur lors de la mise à jour de l'hôtel : " + e.getMessage());
             return ResponseEntity.status(500).build();
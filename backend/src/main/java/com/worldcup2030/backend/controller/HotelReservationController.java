@@ -3,9 +3,11 @@ package com.worldcup2030.backend.controller;
 import com.worldcup2030.backend.dto.HotelReservationDTO;
 import com.worldcup2030.backend.model.PaymentStatus;
 import com.worldcup2030.backend.service.HotelReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.validation.annotation.Validated;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,9 +25,11 @@ public class HotelReservationController {
 
     private static final Logger logger = LoggerFactory.getLogger(HotelReservationController.class);
     private final HotelReservationService reservationService;
+    private final ObjectMapper objectMapper;
 
-    public HotelReservationController(HotelReservationService reservationService) {
+    public HotelReservationController(HotelReservationService reservationService, ObjectMapper objectMapper) {
         this.reservationService = reservationService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -144,6 +148,73 @@ public class HotelReservationController {
         }
     }
 
+    // Pagination par clé : ?size=50 puis ?after=<nextCursor de la page précédente>
+    @GetMapping("/page")
+    public ResponseEntity<?> getReservationsPage(@RequestParam(value = "after", required = false) String after,
+                                                 @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(reservationService.getReservationsPage(after, size));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("❌ Error getting reservations page", e);
+            return createErrorResponse("Erreur lors de la récupération des réservations: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<?> getUserReservationsPage(@PathVariable Long userId,
+                                                     @RequestParam(value = "after", required = false) String after,
+                                                     @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(reservationService.getUserReservationsPage(userId, after, size));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("❌ Error getting user reservations page", e);
+            return createErrorResponse("Erreur lors de la récupération des réservations: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/hotel/{hotelId}/page")
+    public ResponseEntity<?> getHotelReservationsPage(@PathVariable Long hotelId,
+                                                      @RequestParam(value = "after", required = false) String after,
+                                                      @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(reservationService.getHotelReservationsPage(hotelId, after, size));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("❌ Error getting hotel reservations page", e);
+            return createErrorResponse("Erreur lors de la récupération des réservations: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<?> getReservationsByStatusPage(@PathVariable String status,
+                                                         @RequestParam(value = "after", required = false) String after,
+                                                         @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(reservationService.getReservationsByStatusPage(
+                    PaymentStatus.valueOf(status.toUpperCase()), after, size));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse("Statut ou curseur invalide: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("❌ Error getting reservations page by status", e);
+            return createErrorResponse("Erreur lors de la récupération des réservations: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Toutes les réservations en NDJSON, écrites au fil de la lecture
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamReservations() {
+        return NdjsonResponses.stream(objectMapper, reservationService::streamAllReservations);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getReservationById(@PathVariable Long id) {
         logger.info("📖 Getting reservation by id: {}", id);
@@ -197,6 +268,32 @@ public class HotelReservationController {
         }
     }
 
+    /**
+     * Arrivée du client : attribue des chambres précises à la réservation et renvoie leurs identifiants.
+     */
+    @PutMapping("/{id}/check-in")
+    public ResponseEntity<?> checkIn(@PathVariable Long id) {
+        logger.info("🛎️ Checking in reservation: {}", id);
+
+        try {
+            HotelReservationDTO reservation = reservationService.checkIn(id);
+            logger.info("✅ Reservation {} checked in: rooms {}", id, reservation.getRoomIds());
+            return ResponseEntity.ok(reservation);
+
+        } catch (IllegalArgumentException e) {
+            logger.error("❌ Validation error: {}", e.getMessage());
+            return createErrorResponse("Erreur de validation: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+
+        } catch (RuntimeException e) {
+            logger.error("❌ Error checking in reservation: {}", e.getMessage());
+            return createErrorResponse("Erreur lors de l'arrivée: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+
+        } catch (Exception e) {
+            logger.error("❌ Unexpected error checking in reservation", e);
+            return createErrorResponse("Erreur interne: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateReservationStatus(@PathVariable Long id, @RequestParam String status) {
         logger.info("🔄 Updating reservation {} status to: {}", id, status);
@@ -0,0 +1,93 @@
+package com.worldcup2030.backend.controller;
+
+import com.worldcup2030.backend.dto.OfferDTO;
+import com.worldcup2030.backend.service.OfferService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/offers")
+@CrossOrigin(origins = "http://localhost:4200")
+public class OfferController {
+
+    private final OfferService offerService;
+
+    public OfferController(OfferService offerService) {
+        this.offerService = offerService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createOffer(@RequestBody OfferDTO offer) {
+        try {
+            return new ResponseEntity<>(offerService.createOffer(offer), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la création de l'offre : " + e.getMessage());
+            return error("Erreur lors de la création de l'offre", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Recherche à facettes servie depuis l'index en mémoire : ville du match, dates, fourchette ou
+     * tranche de prix, type de transport ; tri par prix (défaut) ou par date.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(required = false) String city,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    @RequestParam(required = false) BigDecimal minPrice,
+                                    @RequestParam(required = false) BigDecimal maxPrice,
+                                    @RequestParam(required = false) Integer priceBand,
+                                    @RequestParam(required = false) String transportType,
+                                    @RequestParam(required = false) String sort,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(offerService.search(city, from, to, minPrice, maxPrice, priceBand,
+                    transportType, sort, page, size));
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/search/stats")
+    public ResponseEntity<Map<String, Object>> getSearchStats() {
+        return ResponseEntity.ok(offerService.getSearchStats());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OfferDTO> getOffer(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(offerService.getOfferById(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteOffer(@PathVariable Long id) {
+        try {
+            offerService.deleteOffer(id);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la suppression de l'offre : " + e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(String message, HttpStatus status) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", message);
+        body.put("status", status.value());
+        body.put("timestamp", System.currentTimeMillis());
+        return new ResponseEntity<>(body, status);
+    }
+}
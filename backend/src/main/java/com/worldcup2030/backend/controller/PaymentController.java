@@ -1,11 +1,19 @@
 package com.worldcup2030.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.worldcup2030.backend.dto.PaymentDTO;
+import com.worldcup2030.backend.model.PaymentStatus;
 import com.worldcup2030.backend.service.PaymentService;
+import com.worldcup2030.backend.service.ResilientPaymentGatewayClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -15,6 +23,12 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private ResilientPaymentGatewayClient gatewayClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/pay")
     public ResponseEntity<?> makePayment(@RequestBody PaymentDTO paymentDTO) {
         try {
@@ -22,8 +36,13 @@ public class PaymentController {
 
             PaymentDTO result = paymentService.makePayment(paymentDTO);
 
-            System.out.println("✅ Payment processed successfully: " + result.getTransactionId());
-            return ResponseEntity.ok(result);
+            // Le paiement est traité en arrière-plan : le client suit son statut sur /api/payments/{id}
+            System.out.println("⏳ Payment accepted: " + result.getTransactionId());
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/payments/{id}")
+                    .buildAndExpand(result.getId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(result);
 
         } catch (IllegalArgumentException e) {
             System.out.println("❌ Payment validation error: " + e.getMessage());
@@ -50,6 +69,40 @@ public class PaymentController {
         }
     }
 
+    // État du disjoncteur, occupation des cloisons et histogrammes de latence de la passerelle
+    @GetMapping("/gateway/stats")
+    public ResponseEntity<Map<String, Object>> getGatewayStats() {
+        return ResponseEntity.ok(gatewayClient.stats());
+    }
+
+    // Paiements d'un statut (CONFIRMED, FAILED...), par pages : ?size=50 puis ?after=<nextCursor>
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<?> getPaymentsPage(@PathVariable String status,
+                                             @RequestParam(value = "after", required = false) String after,
+                                             @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(paymentService.getPaymentsPage(PaymentStatus.valueOf(status.toUpperCase()), after, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Statut ou curseur invalide: " + e.getMessage());
+        } catch (Exception e) {
+            System.out.println("❌ Error fetching payments: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erreur lors de la récupération des paiements");
+        }
+    }
+
+    @GetMapping(value = "/status/{status}/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamPayments(@PathVariable String status) {
+        PaymentStatus paymentStatus;
+        try {
+            paymentStatus = PaymentStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return NdjsonResponses.<PaymentDTO>stream(objectMapper,
+                consumer -> paymentService.streamPayments(paymentStatus, consumer));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getPaymentById(@PathVariable Long id) {
         try {
@@ -67,8 +120,21 @@ public class PaymentController {
     @PostMapping("/refund/{paymentId}")
     public ResponseEntity<?> refundPayment(@PathVariable Long paymentId) {
         try {
-            // Implémentation du remboursement
-            return ResponseEntity.ok("Remboursement en cours de traitement");
+            PaymentDTO result = paymentService.refundPayment(paymentId);
+
+            // Le remboursement est traité en arrière-plan : le client suit son statut sur /api/payments/{id}
+            System.out.println("⏳ Refund accepted: " + result.getTransactionId());
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/payments/{id}")
+                    .buildAndExpand(result.getId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(result);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            System.out.println("❌ Refund refused: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             System.out.println("❌ Refund error: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -24,7 +24,8 @@ public class ReservationController {
         try {
             TransportReservationDTO reservation = reservationService.createReservation(
                     requestDTO.getUserId(),
-                    requestDTO.getTransportId()
+                    requestDTO.getTransportId(),
+                    requestDTO.getSeatNumber()
             );
             return ResponseEntity.ok(reservation);
         } catch (RuntimeException e) {
@@ -35,6 +36,24 @@ public class ReservationController {
         }
     }
 
+    @PostMapping("/group")
+    public ResponseEntity<List<TransportReservationDTO>> createGroupReservation(@RequestBody ReservationRequestDTO requestDTO) {
+        try {
+            int seats = requestDTO.getSeats() != null ? requestDTO.getSeats() : 1;
+            List<TransportReservationDTO> reservations = reservationService.createGroupReservation(
+                    requestDTO.getUserId(),
+                    requestDTO.getTransportId(),
+                    seats
+            );
+            return ResponseEntity.ok(reservations);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<TransportReservationDTO>> getUserReservations(@PathVariable Long userId) {
         try {
@@ -0,0 +1,109 @@
+package com.worldcup2030.backend.controller;
+
+import com.worldcup2030.backend.config.JwtFilter;
+import com.worldcup2030.backend.dto.TicketDTO;
+import com.worldcup2030.backend.dto.TicketPurchaseRequestDTO;
+import com.worldcup2030.backend.service.TicketService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/tickets")
+@CrossOrigin(origins = "http://localhost:4200")
+public class TicketController {
+
+    private final TicketService ticketService;
+
+    public TicketController(TicketService ticketService) {
+        this.ticketService = ticketService;
+    }
+
+    /**
+     * Achat de billets pour l'utilisateur du jeton : 400 si la demande est invalide, 403 si elle vise
+     * un autre utilisateur, 409 si le match est complet ou la limite par utilisateur atteinte, 503 avec
+     * Retry-After quand les ventes sont saturées.
+     */
+    @PostMapping
+    public ResponseEntity<?> purchase(@RequestBody TicketPurchaseRequestDTO request,
+                                      @RequestAttribute(name = JwtFilter.USER_ID_ATTRIBUTE, required = false) Long userId) {
+        if (userId == null) {
+            return error("Utilisateur non authentifié", HttpStatus.UNAUTHORIZED);
+        }
+        if (request.getUserId() != null && !request.getUserId().equals(userId)) {
+            return error("Achat impossible pour un autre utilisateur", HttpStatus.FORBIDDEN);
+        }
+        try {
+            int quantity = request.getQuantity() != null ? request.getQuantity() : 1;
+            List<TicketDTO> tickets = ticketService.purchase(userId, request.getMatchId(), quantity,
+                    request.getSection());
+            return ResponseEntity.ok(tickets);
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errorBody(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE));
+        } catch (Exception e) {
+            System.err.println("Erreur lors de l'achat de billets : " + e.getMessage());
+            return error("Erreur lors de l'achat", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<TicketDTO>> getUserTickets(@PathVariable Long userId) {
+        try {
+            return ResponseEntity.ok(ticketService.getTicketsByUserId(userId));
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la récupération des billets : " + e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // Billets vendus puis refusés à l'enregistrement : visibles de leur seul acheteur
+    @GetMapping("/user/{userId}/rejected")
+    public ResponseEntity<?> getRejectedTickets(@PathVariable Long userId,
+                                                @RequestAttribute(name = JwtFilter.USER_ID_ATTRIBUTE, required = false) Long authenticatedUserId) {
+        if (!userId.equals(authenticatedUserId)) {
+            return error("Accès refusé", HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(ticketService.getRejectedTickets(userId));
+    }
+
+    @GetMapping("/matches/{matchId}/availability")
+    public ResponseEntity<Map<String, Object>> getAvailability(@PathVariable Long matchId) {
+        try {
+            return ResponseEntity.ok(ticketService.getAvailability(matchId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors du calcul des places disponibles : " + e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getSalesStats() {
+        return ResponseEntity.ok(ticketService.getSalesStats());
+    }
+
+    private static ResponseEntity<?> error(String message, HttpStatus status) {
+        return new ResponseEntity<>(errorBody(message, status), status);
+    }
+
+    private static Map<String, Object> errorBody(String message, HttpStatus status) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", message);
+        body.put("status", status.value());
+        body.put("timestamp", System.currentTimeMillis());
+        return body;
+    }
+}
@@ -1,12 +1,23 @@
 package com.worldcup2030.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.worldcup2030.backend.dto.BulkImportResult;
+import com.worldcup2030.backend.dto.ItineraryDTO;
+import com.worldcup2030.backend.dto.KeysetPage;
 import com.worldcup2030.backend.dto.TransportDTO;
+import com.worldcup2030.backend.service.BulkDataService;
 import com.worldcup2030.backend.service.TransportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transports")
@@ -14,9 +25,14 @@ import java.util.List;
 public class TransportController {
 
     private final TransportService transportService;
+    private final ObjectMapper objectMapper;
+    private final BulkDataService bulkDataService;
 
-    public TransportController(TransportService transportService) {
+    public TransportController(TransportService transportService, ObjectMapper objectMapper,
+                               BulkDataService bulkDataService) {
         this.transportService = transportService;
+        this.objectMapper = objectMapper;
+        this.bulkDataService = bulkDataService;
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -39,6 +55,87 @@ public class TransportController {
         }
     }
 
+    // Pagination par clé : ?size=50 puis ?after=<nextCursor de la page précédente>
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<TransportDTO>> getTransportsPage(@RequestParam(value = "after", required = false) String after,
+                                                                      @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(transportService.getTransportsPage(after, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTransports() {
+        return NdjsonResponses.stream(objectMapper, transportService::streamTransports);
+    }
+
+    // Import en masse : fichier CSV (en-tête type,departureCity,arrivalCity,...) ou NDJSON envoyé tel quel dans le corps
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<BulkImportResult> importTransports(HttpServletRequest request) {
+        try {
+            BulkDataService.Format format = BulkDataService.Format.of(request.getContentType());
+            return ResponseEntity.ok(bulkDataService.importTransports(request.getInputStream(), format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // Export complet en flux : ?format=csv (défaut, relisible par /import) ou ?format=ndjson
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransports(@RequestParam(value = "format", defaultValue = "csv") String format) {
+        BulkDataService.Format exportFormat;
+        try {
+            exportFormat = BulkDataService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (exportFormat == BulkDataService.Format.NDJSON) {
+            return NdjsonResponses.stream(objectMapper, transportService::streamTransports);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transports.csv\"")
+                .body(bulkDataService::exportTransportsCsv);
+    }
+
+    /**
+     * Itinéraire multi-tronçons avec places disponibles, par ex.
+     * ?from=Casablanca&matchId=12&seats=2&criterion=cheapest (arrivée avant le coup d'envoi du match),
+     * ou ?from=Casablanca&to=Tanger&departAfter=2030-06-14T08:00:00&arriveBy=2030-06-14T18:00:00.
+     */
+    @GetMapping("/itineraries")
+    public ResponseEntity<ItineraryDTO> planItinerary(@RequestParam("from") String from,
+                                                      @RequestParam(value = "to", required = false) String to,
+                                                      @RequestParam(value = "matchId", required = false) Long matchId,
+                                                      @RequestParam(value = "departAfter", required = false)
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departAfter,
+                                                      @RequestParam(value = "arriveBy", required = false)
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime arriveBy,
+                                                      @RequestParam(value = "seats", required = false) Integer seats,
+                                                      @RequestParam(value = "criterion", required = false) String criterion) {
+        try {
+            return transportService.planItinerary(from, to, matchId, departAfter, arriveBy, seats, criterion)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.err.println("Erreur lors du calcul de l'itinéraire: " + e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    @GetMapping("/itineraries/stats")
+    public ResponseEntity<Map<String, Object>> getItineraryStats() {
+        return ResponseEntity.ok(transportService.getItineraryStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TransportDTO> getTransportById(@PathVariable Long id) {
         try {
@@ -48,6 +145,15 @@ public class TransportController {
         }
     }
 
+    @GetMapping("/{id}/seats")
+    public ResponseEntity<Map<String, Object>> getSeatMap(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(transportService.getSeatMap(id));
+        } catch (Exception e) {
+            return ResponseEntity.status(404).build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTransport(@PathVariable Long id) {
         try {
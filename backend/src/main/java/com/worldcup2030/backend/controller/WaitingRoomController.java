@@ -0,0 +1,81 @@
+package com.worldcup2030.backend.controller;
+
+import com.worldcup2030.backend.config.JwtFilter;
+import com.worldcup2030.backend.service.WaitingRoom;
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Salle d'attente des ouvertures de ventes : entrée dans la file et suivi de sa place, servis
+ * depuis la mémoire. L'entrée exige un JWT (le laissez-passer est au nom de l'utilisateur) ; le suivi
+ * est public, pour ne pas solliciter la base à chaque interrogation.
+ */
+@RestController
+@RequestMapping("/api/waiting-room")
+@CrossOrigin(origins = "http://localhost:4200")
+public class WaitingRoomController {
+
+    public static final String TOKEN_HEADER = "X-Waiting-Room-Token";
+
+    private final WaitingRoom waitingRoom;
+
+    public WaitingRoomController(WaitingRoom waitingRoom) {
+        this.waitingRoom = waitingRoom;
+    }
+
+    @PostMapping("/{queue}/join")
+    public ResponseEntity<Map<String, Object>> join(@PathVariable String queue,
+                                                    @RequestAttribute(name = JwtFilter.USER_ID_ATTRIBUTE, required = false) Long userId) {
+        if (userId == null) {
+            return error("Utilisateur non authentifié", HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            return withRetryAfter(waitingRoom.join(queue, userId));
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @GetMapping("/{queue}/status")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String queue,
+                                                      @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (token == null || token.isBlank()) {
+            return error("Jeton de salle d'attente manquant", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return withRetryAfter(waitingRoom.status(queue, token));
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (JwtException e) {
+            return error("Jeton de salle d'attente invalide ou expiré", HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(waitingRoom.getStats());
+    }
+
+    // Indique au client quand revenir, pour espacer les suivis des visiteurs loin dans la file
+    private static ResponseEntity<Map<String, Object>> withRetryAfter(Map<String, Object> status) {
+        Object retryAfter = status.get("retryAfterSeconds");
+        if (retryAfter == null) {
+            return ResponseEntity.ok(status);
+        }
+        return ResponseEntity.ok().header(HttpHeaders.RETRY_AFTER, retryAfter.toString()).body(status);
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(String message, HttpStatus status) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", message);
+        body.put("status", status.value());
+        body.put("timestamp", System.currentTimeMillis());
+        return new ResponseEntity<>(body, status);
+    }
+}
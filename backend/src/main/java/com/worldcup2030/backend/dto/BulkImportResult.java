@@ -0,0 +1,74 @@
+package com.worldcup2030.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse : lignes insérées, lignes rejetées et les premières erreurs rencontrées.
+ */
+public class BulkImportResult {
+
+    public static final int MAX_ERRORS = 100;
+
+    private long imported;
+    private long rejected;
+    private long durationMs;
+    private List<String> errors = new ArrayList<>(); // "ligne 12 : message", limitées à MAX_ERRORS
+
+    // Constructeurs
+    public BulkImportResult() {}
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addRejected(long count, String error) {
+        rejected += count;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    // Getters et Setters
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkImportResult{" +
+                "imported=" + imported +
+                ", rejected=" + rejected +
+                ", durationMs=" + durationMs +
+                ", errors=" + errors.size() +
+                '}';
+    }
+}
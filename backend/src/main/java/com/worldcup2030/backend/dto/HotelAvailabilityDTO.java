@@ -0,0 +1,63 @@
+package com.worldcup2030.backend.dto;
+
+import java.time.LocalDate;
+
+public class HotelAvailabilityDTO {
+    private Long hotelId;
+    private LocalDate from;
+    private LocalDate to;
+    private int totalRooms;
+    private int[] availableRooms; // Chambres libres par nuit, de "from" à "to" (exclu)
+
+    // Constructeurs
+    public HotelAvailabilityDTO() {}
+
+    public HotelAvailabilityDTO(Long hotelId, LocalDate from, LocalDate to, int totalRooms, int[] availableRooms) {
+        this.hotelId = hotelId;
+        this.from = from;
+        this.to = to;
+        this.totalRooms = totalRooms;
+        this.availableRooms = availableRooms;
+    }
+
+    // Getters et Setters
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(Long hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public int getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(int totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public int[] getAvailableRooms() {
+        return availableRooms;
+    }
+
+    public void setAvailableRooms(int[] availableRooms) {
+        this.availableRooms = availableRooms;
+    }
+}
@@ -11,6 +11,9 @@ public class HotelDTO {
     private String description;
     private List<String> services;
     private String photoPath; // Nouveau champ pour le chemin de la photo
+    private Integer totalRooms; // Nombre de chambres de l'hôtel
+    private Double latitude;
+    private Double longitude;
 
     // Constructeurs
     public HotelDTO() {}
@@ -100,6 +103,30 @@ public class HotelDTO {
         this.photoPath = photoPath;
     }
 
+    public Integer getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(Integer totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     @Override
     public String toString() {
         return "HotelDTO{" +
@@ -111,6 +138,9 @@ public class HotelDTO {
                 ", description='" + description + '\'' +
                 ", services=" + services +
                 ", photoPath='" + photoPath + '\'' +
+                ", totalRooms=" + totalRooms +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.worldcup2030.backend.dto;
+
+import java.time.LocalDate;
+
+public class HotelPriceCalendarDTO {
+    private Long hotelId;
+    private LocalDate from;
+    private LocalDate to;
+    private String currency;
+    private int rooms;
+    private int[] nightlyPrices; // Prix d'une chambre par nuit, en centimes, de "from" à "to" (exclu)
+    private int[] availableRooms;
+    private long totalPrice; // Séjour complet pour "rooms" chambres, en centimes
+    private boolean bookable;
+
+    // Constructeurs
+    public HotelPriceCalendarDTO() {}
+
+    public HotelPriceCalendarDTO(Long hotelId, LocalDate from, LocalDate to, String currency, int rooms,
+                                 int[] nightlyPrices, int[] availableRooms, long totalPrice, boolean bookable) {
+        this.hotelId = hotelId;
+        this.from = from;
+        this.to = to;
+        this.currency = currency;
+        this.rooms = rooms;
+        this.nightlyPrices = nightlyPrices;
+        this.availableRooms = availableRooms;
+        this.totalPrice = totalPrice;
+        this.bookable = bookable;
+    }
+
+    // Getters et Setters
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(Long hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public int getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(int rooms) {
+        this.rooms = rooms;
+    }
+
+    public int[] getNightlyPrices() {
+        return nightlyPrices;
+    }
+
+    public void setNightlyPrices(int[] nightlyPrices) {
+        this.nightlyPrices = nightlyPrices;
+    }
+
+    public int[] getAvailableRooms() {
+        return availableRooms;
+    }
+
+    public void setAvailableRooms(int[] availableRooms) {
+        this.availableRooms = availableRooms;
+    }
+
+    public long getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(long totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public boolean isBookable() {
+        return bookable;
+    }
+
+    public void setBookable(boolean bookable) {
+        this.bookable = bookable;
+    }
+}
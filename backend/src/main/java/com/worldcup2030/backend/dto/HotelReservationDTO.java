@@ -1,7 +1,10 @@
 package com.worldcup2030.backend.dto;
 
+import com.worldcup2030.backend.model.PaymentStatus;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 public class HotelReservationDTO {
     private Long id;
@@ -14,6 +17,8 @@ public class HotelReservationDTO {
     private LocalDate startDate;
     private LocalDate endDate;
     private Integer numberOfRooms;
+    private String roomType; // Facultatif : type de chambre réservé
+    private List<Long> roomIds; // Chambres attribuées à l'arrivée
     private Integer numberOfGuests;
     private BigDecimal totalPrice;
     private String paymentStatus;
@@ -38,6 +43,16 @@ public class HotelReservationDTO {
         this.paymentStatus = paymentStatus;
     }
 
+    // Utilisé par les projections JPQL de HotelReservationRepository
+    public HotelReservationDTO(Long id, Long userId, String userEmail, Long hotelId, String hotelName,
+                               String hotelCity, LocalDate startDate, LocalDate endDate,
+                               Integer numberOfRooms, Integer numberOfGuests, BigDecimal totalPrice, PaymentStatus paymentStatus,
+                               String roomType) {
+        this(id, userId, userEmail, hotelId, hotelName, hotelCity, startDate, endDate,
+                numberOfRooms, numberOfGuests, totalPrice, paymentStatus != null ? paymentStatus.toString() : null);
+        this.roomType = roomType;
+    }
+
     // Getters et Setters
     public Long getId() {
         return id;
@@ -111,6 +126,22 @@ public class HotelReservationDTO {
         this.numberOfRooms = numberOfRooms;
     }
 
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(String roomType) {
+        this.roomType = roomType;
+    }
+
+    public List<Long> getRoomIds() {
+        return roomIds;
+    }
+
+    public void setRoomIds(List<Long> roomIds) {
+        this.roomIds = roomIds;
+    }
+
     public Integer getNumberOfGuests() {
         return numberOfGuests;
     }
@@ -147,6 +178,7 @@ public class HotelReservationDTO {
                 ", startDate=" + startDate +
                 ", endDate=" + endDate +
                 ", numberOfRooms=" + numberOfRooms +
+                ", roomType='" + roomType + '\'' +
                 ", numberOfGuests=" + numberOfGuests +
                 ", totalPrice=" + totalPrice +
                 ", paymentStatus='" + paymentStatus + '\'' +
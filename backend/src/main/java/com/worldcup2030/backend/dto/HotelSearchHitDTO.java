@@ -0,0 +1,117 @@
+package com.worldcup2030.backend.dto;
+
+import java.util.List;
+
+/**
+ * Hôtel dans une page de résultats de recherche : la fiche sans sa description, la distance au
+ * stade demandé et le score de pertinence du texte recherché.
+ */
+public class HotelSearchHitDTO {
+    private Long id;
+    private String name;
+    private String city;
+    private int stars;
+    private String address;
+    private List<String> services;
+    private String photoPath;
+    private Integer totalRooms;
+    // Null sans stade demandé, ou si l'hôtel n'a ni position ni ville connue
+    private Double distanceKm;
+    private int score;
+
+    public HotelSearchHitDTO() {}
+
+    public HotelSearchHitDTO(Long id, String name, String city, int stars, String address, List<String> services,
+                             String photoPath, Integer totalRooms, Double distanceKm, int score) {
+        this.id = id;
+        this.name = name;
+        this.city = city;
+        this.stars = stars;
+        this.address = address;
+        this.services = services;
+        this.photoPath = photoPath;
+        this.totalRooms = totalRooms;
+        this.distanceKm = distanceKm;
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public int getStars() {
+        return stars;
+    }
+
+    public void setStars(int stars) {
+        this.stars = stars;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public List<String> getServices() {
+        return services;
+    }
+
+    public void setServices(List<String> services) {
+        this.services = services;
+    }
+
+    public String getPhotoPath() {
+        return photoPath;
+    }
+
+    public void setPhotoPath(String photoPath) {
+        this.photoPath = photoPath;
+    }
+
+    public Integer getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(Integer totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,95 @@
+package com.worldcup2030.backend.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ItineraryDTO {
+    private String departureCity;
+    private String arrivalCity;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private long durationMinutes;
+    private int totalPrice;
+    private int transfers;
+    private List<ItineraryLegDTO> legs;
+
+    public ItineraryDTO() {}
+
+    public ItineraryDTO(List<ItineraryLegDTO> legs) {
+        ItineraryLegDTO first = legs.get(0);
+        ItineraryLegDTO last = legs.get(legs.size() - 1);
+        this.departureCity = first.getDepartureCity();
+        this.arrivalCity = last.getArrivalCity();
+        this.departureTime = first.getDepartureTime();
+        this.arrivalTime = last.getArrivalTime();
+        this.durationMinutes = Duration.between(departureTime, arrivalTime).toMinutes();
+        this.totalPrice = legs.stream().mapToInt(ItineraryLegDTO::getPrice).sum();
+        this.transfers = legs.size() - 1;
+        this.legs = legs;
+    }
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public String getArrivalCity() {
+        return arrivalCity;
+    }
+
+    public void setArrivalCity(String arrivalCity) {
+        this.arrivalCity = arrivalCity;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(LocalDateTime arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+
+    public long getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(long durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public int getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(int totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public int getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(int transfers) {
+        this.transfers = transfers;
+    }
+
+    public List<ItineraryLegDTO> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<ItineraryLegDTO> legs) {
+        this.legs = legs;
+    }
+}
@@ -0,0 +1,103 @@
+package com.worldcup2030.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class ItineraryLegDTO {
+    private Long transportId;
+    private String type;
+    private String compagnie;
+    private String departureCity;
+    private String arrivalCity;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private int price;
+    // Places restantes au moment de la recherche
+    private int place;
+
+    public ItineraryLegDTO() {}
+
+    public ItineraryLegDTO(Long transportId, String type, String compagnie, String departureCity, String arrivalCity,
+                           LocalDateTime departureTime, LocalDateTime arrivalTime, int price, int place) {
+        this.transportId = transportId;
+        this.type = type;
+        this.compagnie = compagnie;
+        this.departureCity = departureCity;
+        this.arrivalCity = arrivalCity;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.price = price;
+        this.place = place;
+    }
+
+    public Long getTransportId() {
+        return transportId;
+    }
+
+    public void setTransportId(Long transportId) {
+        this.transportId = transportId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCompagnie() {
+        return compagnie;
+    }
+
+    public void setCompagnie(String compagnie) {
+        this.compagnie = compagnie;
+    }
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public String getArrivalCity() {
+        return arrivalCity;
+    }
+
+    public void setArrivalCity(String arrivalCity) {
+        this.arrivalCity = arrivalCity;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(LocalDateTime arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+
+    public int getPrice() {
+        return price;
+    }
+
+    public void setPrice(int price) {
+        this.price = price;
+    }
+
+    public int getPlace() {
+        return place;
+    }
+
+    public void setPlace(int place) {
+        this.place = place;
+    }
+}
@@ -0,0 +1,68 @@
+package com.worldcup2030.backend.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page d'une liste parcourue par clé (keyset) : la page suivante se demande avec {@code after=nextCursor}.
+ * Le curseur est la clé de tri du dernier élément, la base ne relit donc jamais les pages précédentes.
+ */
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private List<T> items;
+    private String nextCursor; // null sur la dernière page
+    private boolean hasMore;
+
+    // Constructeurs
+    public KeysetPage() {}
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    /**
+     * Construit la page à partir de {@code size + 1} lignes lues : la ligne en trop indique qu'il reste une page.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, String> cursor) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(items, cursor.apply(items.get(size - 1)));
+    }
+
+    // Taille demandée, bornée entre 1 et MAX_SIZE
+    public static int clampSize(Integer size) {
+        return size == null ? DEFAULT_SIZE : Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    // Getters et Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,192 @@
+package com.worldcup2030.backend.dto;
+
+import com.worldcup2030.backend.model.TransportType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Offre combinée match + hôtel + transport, à plat : l'hôtel et le transport sont facultatifs.
+ * En création, seuls le titre, le prix, la description et les identifiants sont lus.
+ */
+public class OfferDTO {
+    private Long id;
+    private String title;
+    private BigDecimal totalPrice;
+    private String description;
+    private Long matchId;
+    private String teamA;
+    private String teamB;
+    private LocalDateTime matchDate;
+    private String city;
+    private String stadium;
+    private Long hotelId;
+    private String hotelName;
+    private Integer hotelStars;
+    private Long transportId;
+    private String transportType;
+    private String departureCity;
+    private LocalDateTime departureTime;
+
+    public OfferDTO() {}
+
+    // Utilisé par les projections JPQL de OfferRepository
+    public OfferDTO(Long id, String title, BigDecimal totalPrice, String description,
+                    Long matchId, String teamA, String teamB, LocalDateTime matchDate, String city, String stadium,
+                    Long hotelId, String hotelName, Integer hotelStars,
+                    Long transportId, TransportType transportType, String departureCity, LocalDateTime departureTime) {
+        this.id = id;
+        this.title = title;
+        this.totalPrice = totalPrice;
+        this.description = description;
+        this.matchId = matchId;
+        this.teamA = teamA;
+        this.teamB = teamB;
+        this.matchDate = matchDate;
+        this.city = city;
+        this.stadium = stadium;
+        this.hotelId = hotelId;
+        this.hotelName = hotelName;
+        this.hotelStars = hotelStars;
+        this.transportId = transportId;
+        this.transportType = transportType != null ? transportType.name() : null;
+        this.departureCity = departureCity;
+        this.departureTime = departureTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    public String getTeamA() {
+        return teamA;
+    }
+
+    public void setTeamA(String teamA) {
+        this.teamA = teamA;
+    }
+
+    public String getTeamB() {
+        return teamB;
+    }
+
+    public void setTeamB(String teamB) {
+        this.teamB = teamB;
+    }
+
+    public LocalDateTime getMatchDate() {
+        return matchDate;
+    }
+
+    public void setMatchDate(LocalDateTime matchDate) {
+        this.matchDate = matchDate;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getStadium() {
+        return stadium;
+    }
+
+    public void setStadium(String stadium) {
+        this.stadium = stadium;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(Long hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public String getHotelName() {
+        return hotelName;
+    }
+
+    public void setHotelName(String hotelName) {
+        this.hotelName = hotelName;
+    }
+
+    public Integer getHotelStars() {
+        return hotelStars;
+    }
+
+    public void setHotelStars(Integer hotelStars) {
+        this.hotelStars = hotelStars;
+    }
+
+    public Long getTransportId() {
+        return transportId;
+    }
+
+    public void setTransportId(Long transportId) {
+        this.transportId = transportId;
+    }
+
+    public String getTransportType() {
+        return transportType;
+    }
+
+    public void setTransportType(String transportType) {
+        this.transportType = transportType;
+    }
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTime = departureTime;
+    }
+}
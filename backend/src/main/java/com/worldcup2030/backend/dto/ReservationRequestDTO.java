@@ -4,6 +4,8 @@ package com.worldcup2030.backend.dto;
 public class ReservationRequestDTO {
     private Long userId;
     private Long transportId;
+    private String seatNumber; // optionnel : siège choisi par l'utilisateur
+    private Integer seats;     // optionnel : nombre de sièges côte à côte pour une réservation de groupe
 
     public ReservationRequestDTO() {}
 
@@ -27,4 +29,20 @@ public class ReservationRequestDTO {
     public void setTransportId(Long transportId) {
         this.transportId = transportId;
     }
+
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    public void setSeatNumber(String seatNumber) {
+        this.seatNumber = seatNumber;
+    }
+
+    public Integer getSeats() {
+        return seats;
+    }
+
+    public void setSeats(Integer seats) {
+        this.seats = seats;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.worldcup2030.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RoomTypeAvailabilityDTO {
+    private Long hotelId;
+    private String roomType;
+    private int totalRooms; // Chambres en service de ce type
+    private BigDecimal pricePerNight; // Prix de la chambre la moins chère du type, null si aucun
+    private LocalDate from;
+    private LocalDate to;
+    private int[] availableRooms; // Chambres libres par nuit, de "from" à "to" (exclu)
+
+    // Constructeurs
+    public RoomTypeAvailabilityDTO() {}
+
+    public RoomTypeAvailabilityDTO(Long hotelId, String roomType, int totalRooms, BigDecimal pricePerNight,
+                                   LocalDate from, LocalDate to, int[] availableRooms) {
+        this.hotelId = hotelId;
+        this.roomType = roomType;
+        this.totalRooms = totalRooms;
+        this.pricePerNight = pricePerNight;
+        this.from = from;
+        this.to = to;
+        this.availableRooms = availableRooms;
+    }
+
+    // Getters et Setters
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(Long hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(String roomType) {
+        this.roomType = roomType;
+    }
+
+    public int getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(int totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public BigDecimal getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public void setPricePerNight(BigDecimal pricePerNight) {
+        this.pricePerNight = pricePerNight;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public int[] getAvailableRooms() {
+        return availableRooms;
+    }
+
+    public void setAvailableRooms(int[] availableRooms) {
+        this.availableRooms = availableRooms;
+    }
+}
@@ -0,0 +1,74 @@
+package com.worldcup2030.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class TicketDTO {
+    // Null tant que le billet n'est pas encore écrit en base (écriture différée)
+    private Long id;
+    private Long matchId;
+    private Long userId;
+    private String seatNumber;
+    private BigDecimal price;
+    private LocalDateTime purchasedAt;
+
+    public TicketDTO() {}
+
+    // Utilisé par les projections JPQL de TicketRepository
+    public TicketDTO(Long id, Long matchId, Long userId, String seatNumber, BigDecimal price, LocalDateTime purchasedAt) {
+        this.id = id;
+        this.matchId = matchId;
+        this.userId = userId;
+        this.seatNumber = seatNumber;
+        this.price = price;
+        this.purchasedAt = purchasedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    public void setSeatNumber(String seatNumber) {
+        this.seatNumber = seatNumber;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public LocalDateTime getPurchasedAt() {
+        return purchasedAt;
+    }
+
+    public void setPurchasedAt(LocalDateTime purchasedAt) {
+        this.purchasedAt = purchasedAt;
+    }
+}
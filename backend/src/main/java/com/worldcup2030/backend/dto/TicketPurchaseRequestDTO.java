@@ -0,0 +1,49 @@
+package com.worldcup2030.backend.dto;
+
+public class TicketPurchaseRequestDTO {
+    private Long userId;
+    private Long matchId;
+    private Integer quantity; // optionnel : 1 par défaut, places côte à côte sur une rangée
+    private Integer section;  // optionnel : tribune souhaitée (1..n)
+
+    public TicketPurchaseRequestDTO() {}
+
+    public TicketPurchaseRequestDTO(Long userId, Long matchId, Integer quantity, Integer section) {
+        this.userId = userId;
+        this.matchId = matchId;
+        this.quantity = quantity;
+        this.section = section;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getSection() {
+        return section;
+    }
+
+    public void setSection(Integer section) {
+        this.section = section;
+    }
+}
@@ -0,0 +1,74 @@
+package com.worldcup2030.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class TicketRejectionDTO {
+    private Long matchId;
+    private String seatNumber;
+    private BigDecimal price;
+    private LocalDateTime purchasedAt;
+    private String reason;
+    private LocalDateTime rejectedAt;
+
+    public TicketRejectionDTO() {}
+
+    // Utilisé par les projections JPQL de TicketRejectionRepository
+    public TicketRejectionDTO(Long matchId, String seatNumber, BigDecimal price, LocalDateTime purchasedAt,
+                              String reason, LocalDateTime rejectedAt) {
+        this.matchId = matchId;
+        this.seatNumber = seatNumber;
+        this.price = price;
+        this.purchasedAt = purchasedAt;
+        this.reason = reason;
+        this.rejectedAt = rejectedAt;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    public void setSeatNumber(String seatNumber) {
+        this.seatNumber = seatNumber;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public LocalDateTime getPurchasedAt() {
+        return purchasedAt;
+    }
+
+    public void setPurchasedAt(LocalDateTime purchasedAt) {
+        this.purchasedAt = purchasedAt;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public LocalDateTime getRejectedAt() {
+        return rejectedAt;
+    }
+
+    public void setRejectedAt(LocalDateTime rejectedAt) {
+        this.rejectedAt = rejectedAt;
+    }
+}
@@ -1,13 +1,16 @@
 package com.worldcup2030.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.util.List;
 
 @Entity
 @Table(name = "hotel")
 public class Hotel {
+    // Identifiants réservés par blocs (voir IdGenerators) : les insertions peuvent être groupées en lots
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdBlock(IdGenerators.HOTEL)
     private Long id;
 
     @Column(nullable = false)
@@ -28,7 +31,20 @@ public class Hotel {
     @Column
     private String photoPath; // Chemin de la photo
 
+    @Column(name = "total_rooms")
+    private Integer totalRooms; // Nombre de chambres de l'hôtel (capacité par nuit)
+
+    // Position de l'hôtel (degrés décimaux), pour la distance au stade ; facultative
+    private Double latitude;
+    private Double longitude;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version; // Incrémentée à chaque réservation en mode optimiste
+
+    // Hors des lectures avec jointure, les services de tous les hôtels chargés sont lus en une seule requête
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(
             name = "hotel_services",
             joinColumns = @JoinColumn(name = "hotel_id")
@@ -114,6 +130,38 @@ public class Hotel {
         this.photoPath = photoPath;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Integer getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(Integer totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     @Override
     public String toString() {
         return "Hotel{" +
@@ -125,6 +173,9 @@ public class Hotel {
                 ", description='" + description + '\'' +
                 ", services=" + services +
                 ", photoPath='" + photoPath + '\'' +
+                ", totalRooms=" + totalRooms +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 '}';
     }
 }
\ No newline at end of file
@@ -3,13 +3,24 @@ package com.worldcup2030.backend.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "hotel_reservations")
+@Table(name = "hotel_reservations", indexes = {
+        // Réservations d'un utilisateur par date (InnoDB ajoute l'id à chaque index secondaire : tri et curseur complets)
+        @Index(name = "idx_hotel_reservations_user_start", columnList = "user_id, start_date"),
+        // Séjours d'un hôtel qui chevauchent une période (index de disponibilité, contrôles de capacité)
+        @Index(name = "idx_hotel_reservations_hotel_period", columnList = "hotel_id, start_date, end_date, payment_status"),
+        @Index(name = "idx_hotel_reservations_status", columnList = "payment_status"),
+        // Liste globale triée par date : sans lui, chaque page trie toute la table
+        @Index(name = "idx_hotel_reservations_start", columnList = "start_date")
+})
 public class HotelReservation {
 
+    // Identifiants réservés par blocs (voir IdGenerators) : les insertions peuvent être groupées en lots
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdBlock(IdGenerators.HOTEL_RESERVATION)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -60,10 +71,30 @@ public class HotelReservation {
         this.hotel = hotel;
         this.createdAt = LocalDate.now();
     }
+    // Type de chambre réservé (null : n'importe quelle chambre de l'hôtel)
+    @Column(name = "room_type")
+    private String roomType;
+
+    // Chambres attribuées à l'arrivée ; room est la première d'entre elles
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id")
     private Room room;
 
+    @ManyToMany
+    @JoinTable(name = "hotel_reservation_rooms",
+            joinColumns = @JoinColumn(name = "reservation_id"),
+            inverseJoinColumns = @JoinColumn(name = "room_id"))
+    @OrderBy("id")
+    private List<Room> rooms = new ArrayList<>();
+
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(String roomType) {
+        this.roomType = roomType;
+    }
+
     public Room getRoom() {
         return room;
     }
@@ -72,6 +103,14 @@ public class HotelReservation {
         this.room = room;
     }
 
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(List<Room> rooms) {
+        this.rooms = rooms;
+    }
+
 
     // Getters et Setters
     public Long getId() {
@@ -161,6 +200,7 @@ public class HotelReservation {
                 ", startDate=" + startDate +
                 ", endDate=" + endDate +
                 ", numberOfRooms=" + numberOfRooms +
+                ", roomType='" + roomType + '\'' +
                 ", numberOfGuests=" + numberOfGuests +
                 ", totalPrice=" + totalPrice +
                 ", paymentStatus=" + paymentStatus +
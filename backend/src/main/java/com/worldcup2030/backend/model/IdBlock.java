@@ -0,0 +1,20 @@
+package com.worldcup2030.backend.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifiant tiré des blocs de la table {@value IdGenerators#TABLE}, sur le compteur {@link #value()}
+ * (nom de la table de l'entité, voir IdGenerators).
+ */
+@IdGeneratorType(IdBlockGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface IdBlock {
+
+    String value();
+}
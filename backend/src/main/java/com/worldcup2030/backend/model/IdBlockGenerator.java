@@ -0,0 +1,132 @@
+package com.worldcup2030.backend.model;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Générateur de {@link IdBlock} : le TableGenerator de Hibernate, dont les blocs sont réservés sur
+ * les connexions dédiées du réglage {@value #CONNECTIONS} plutôt que sur le pool de l'application.
+ * Hibernate réserve un bloc dans une transaction isolée, donc sur une seconde connexion, pendant que
+ * la transaction de l'insertion garde la sienne et que les autres insertions attendent le bloc en
+ * gardant aussi la leur : dès que toutes les connexions du pool sont ainsi tenues, personne ne peut
+ * plus avancer. Sans ce réglage (contexte JPA sans Spring), le comportement de Hibernate est conservé.
+ */
+public class IdBlockGenerator extends TableGenerator {
+
+    public static final String CONNECTIONS = "worldcup.id-blocks.connections";
+
+    private static final String SELECT = "SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE
+            + " WHERE " + IdGenerators.NAME_COLUMN + " = ? FOR UPDATE";
+    private static final String INSERT = "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN + ", "
+            + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)";
+    private static final String UPDATE = "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN
+            + " = ? WHERE " + IdGenerators.VALUE_COLUMN + " = ? AND " + IdGenerators.NAME_COLUMN + " = ?";
+
+    private final String segment;
+    private DataSource connections;
+    private boolean storeLastUsedValue;
+
+    public IdBlockGenerator(IdBlock config) {
+        this.segment = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        // Table, colonnes et taille de bloc communes à tous les compteurs d'IdGenerators
+        parameters.put(TABLE_PARAM, IdGenerators.TABLE);
+        parameters.put(SEGMENT_COLUMN_PARAM, IdGenerators.NAME_COLUMN);
+        parameters.put(VALUE_COLUMN_PARAM, IdGenerators.VALUE_COLUMN);
+        parameters.put(SEGMENT_VALUE_PARAM, segment);
+        parameters.put(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(IdGenerators.ALLOCATION_SIZE));
+        super.configure(type, parameters, serviceRegistry);
+
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        connections = (DataSource) settings.get(CONNECTIONS);
+        storeLastUsedValue = ConfigurationHelper.getBoolean(AvailableSettings.TABLE_GENERATOR_STORE_LAST_USED, settings, true);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner) {
+        if (connections == null) {
+            return super.generate(session, owner);
+        }
+        return getOptimizer().generate(new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                return nextBlock();
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return session.getTenantIdentifier();
+            }
+        });
+    }
+
+    // Mêmes lectures et écritures que TableGenerator, validées sur une connexion dédiée
+    private IntegralDataTypeHolder nextBlock() {
+        try (Connection connection = connections.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long value;
+                int updated;
+                do {
+                    value = currentValue(connection);
+                    try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+                        update.setLong(1, value + getIncrementSize());
+                        update.setLong(2, value);
+                        update.setString(3, segment);
+                        updated = update.executeUpdate();
+                    }
+                } while (updated == 0);
+                connection.commit();
+
+                return IdentifierGeneratorHelper.getIntegralDataTypeHolder(getIdentifierType().getReturnedClass())
+                        .initialize(storeLastUsedValue ? value + 1 : value);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("Réservation d'un bloc d'identifiants impossible pour '" + segment + "'", e);
+        }
+    }
+
+    private long currentValue(Connection connection) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(SELECT)) {
+            select.setString(1, segment);
+            try (ResultSet row = select.executeQuery()) {
+                if (row.next()) {
+                    return row.getLong(1);
+                }
+            }
+        }
+
+        // Compteur absent (IdGeneratorAlignment le crée normalement au démarrage)
+        long initial = storeLastUsedValue ? getInitialValue() - 1 : getInitialValue();
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            insert.setString(1, segment);
+            insert.setLong(2, initial);
+            insert.executeUpdate();
+        }
+        return initial;
+    }
+}
@@ -0,0 +1,33 @@
+package com.worldcup2030.backend.model;
+
+import java.util.List;
+
+/**
+ * Générateurs d'identifiants par blocs (table {@value #TABLE}, une ligne par entité, nommée comme
+ * sa table) : chaque nœud réserve {@value #ALLOCATION_SIZE} identifiants à la fois, sans aller-retour
+ * par insertion. Contrairement à IDENTITY, Hibernate connaît l'identifiant avant l'INSERT et peut
+ * grouper les insertions en lots JDBC. Au démarrage, IdGeneratorAlignment place chaque compteur
+ * au-delà des identifiants déjà en base. Les entités déclarent leur compteur avec {@link IdBlock}.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 500;
+
+    public static final String HOTEL = "hotel";
+    public static final String HOTEL_RESERVATION = "hotel_reservations";
+    public static final String PAYMENT = "payments";
+    public static final String TRANSPORT = "transport";
+    public static final String TRANSPORT_RESERVATION = "transport_reservation";
+    public static final String MATCH = "matches";
+    public static final String TICKET = "ticket";
+
+    // Tables des entités dont l'identifiant vient de ces générateurs
+    public static final List<String> TABLES = List.of(HOTEL, HOTEL_RESERVATION, PAYMENT, TRANSPORT,
+            TRANSPORT_RESERVATION, MATCH, TICKET);
+
+    private IdGenerators() {
+    }
+}
@@ -7,7 +7,9 @@ import jakarta.persistence.*;
 @Entity
 @Table(name = "matches")
 public class Match {
-    @Id @GeneratedValue
+    // Identifiants réservés par blocs (voir IdGenerators) : les insertions peuvent être groupées en lots
+    @Id
+    @IdBlock(IdGenerators.MATCH)
     private Long id;
 
     private String teamA;
@@ -8,8 +8,9 @@ import java.time.LocalDateTime;
 @Table(name = "payments")
 public class Payment {
 
+    // Identifiants réservés par blocs (voir IdGenerators) : les insertions peuvent être groupées en lots
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdBlock(IdGenerators.PAYMENT)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
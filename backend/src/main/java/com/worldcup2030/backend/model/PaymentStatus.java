@@ -5,6 +5,7 @@ public enum PaymentStatus {
     CONFIRMED("Confirmé"),
     CANCELLED("Annulé"),
     REFUNDED("Remboursé"),
+    REFUND_PENDING("Remboursement en cours"),
     FAILED("Échec"),
     PAID("Payé"); // Ajout de la constante PAID
 
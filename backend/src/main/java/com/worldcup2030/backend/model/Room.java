@@ -5,6 +5,10 @@ import java.util.List;
 import jakarta.persistence.*;
 
 @Entity
+@Table(name = "room", indexes = {
+        // Chambres d'un hôtel par type (inventaire, attribution à l'arrivée)
+        @Index(name = "idx_room_hotel_type", columnList = "hotel_id, room_type")
+})
 public class Room {
     @Id @GeneratedValue
     private Long id;
@@ -13,6 +17,10 @@ public class Room {
     private BigDecimal pricePerNight;
     private boolean available;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @ManyToOne
     private Hotel hotel;
 
@@ -64,6 +72,14 @@ public class Room {
         this.available = available;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public Hotel getHotel() {
         return hotel;
     }
@@ -5,8 +5,12 @@ import java.time.LocalDateTime;
 import jakarta.persistence.*;
 
 @Entity
+// Un siège vendu une seule fois par match (migration V3)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_ticket_match_seat", columnNames = {"match_id", "seat_number"}))
 public class Ticket {
-    @Id @GeneratedValue
+    // Identifiants réservés par blocs (voir IdGenerators) : les insertions peuvent être groupées en lots
+    @Id
+    @IdBlock(IdGenerators.TICKET)
     private Long id;
 
     private String seatNumber;
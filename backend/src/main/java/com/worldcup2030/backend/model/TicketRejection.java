@@ -0,0 +1,75 @@
+package com.worldcup2030.backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Billet vendu mais refusé par la base lors de l'écriture différée : la place a été rendue et
+ * l'acheteur le retrouve dans ses billets refusés. Identifiants du match et de l'utilisateur sans
+ * relation JPA, puisque l'un ou l'autre peut ne pas exister (migration V7).
+ */
+@Entity
+public class TicketRejection {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long matchId;
+    private Long userId;
+    private String seatNumber;
+    private BigDecimal price;
+    private LocalDateTime purchasedAt;
+    private String reason;
+    private LocalDateTime rejectedAt;
+
+    public TicketRejection() {
+    }
+
+    public TicketRejection(Long matchId, Long userId, String seatNumber, BigDecimal price, LocalDateTime purchasedAt,
+                           String reason, LocalDateTime rejectedAt) {
+        this.matchId = matchId;
+        this.userId = userId;
+        this.seatNumber = seatNumber;
+        this.price = price;
+        this.purchasedAt = purchasedAt;
+        this.reason = reason;
+        this.rejectedAt = rejectedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public LocalDateTime getPurchasedAt() {
+        return purchasedAt;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public LocalDateTime getRejectedAt() {
+        return rejectedAt;
+    }
+}
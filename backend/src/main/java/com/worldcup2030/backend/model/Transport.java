@@ -6,7 +6,9 @@ import jakarta.persistence.*;
 
 @Entity
 public class Transport {
-    @Id @GeneratedValue
+    // Identifiants réservés par blocs (voir IdGenerators) : les insertions peuvent être groupées en lots
+    @Id
+    @IdBlock(IdGenerators.TRANSPORT)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -23,6 +25,10 @@ private TransportType type;
     private int price;
     private String compagnie;
 
+    // Plan des sièges occupés, un bit par siège (voir SeatMap)
+    @Column(name = "seat_map", length = 1024)
+    private byte[] seatMap;
+
     @OneToMany(mappedBy = "transport")
     private List<TransportReservation> reservations;
 
@@ -81,6 +87,9 @@ private TransportType type;
     public String getCompagnie() { return compagnie; }
     public void setCompagnie(String compagnie) { this.compagnie = compagnie; }
 
+    public byte[] getSeatMap() { return seatMap; }
+    public void setSeatMap(byte[] seatMap) { this.seatMap = seatMap; }
+
     public List<TransportReservation> getReservations() { return reservations; }
     public void setReservations(List<TransportReservation> reservations) { this.reservations = reservations; }
 
@@ -3,7 +3,9 @@ import jakarta.persistence.*;
 
 @Entity
 public class TransportReservation {
-    @Id @GeneratedValue
+    // Identifiants réservés par blocs (voir IdGenerators) : les insertions peuvent être groupées en lots
+    @Id
+    @IdBlock(IdGenerators.TRANSPORT_RESERVATION)
     private Long id;
 
     private String seatNumber;
@@ -1,7 +1,39 @@
 package com.worldcup2030.backend.repository;
 
 import com.worldcup2030.backend.model.Hotel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
+
+    // [id, totalRooms] pour le chargement de l'index de disponibilité
+    @Query("SELECT h.id, h.totalRooms FROM Hotel h")
+    List<Object[]> findAllRoomCounts();
+
+    // [id, stars, city] pour le chargement des grilles tarifaires
+    @Query("SELECT h.id, h.stars, h.city FROM Hotel h")
+    List<Object[]> findAllPricingRows();
+
+    // Hôtels et services en une requête (jointure), au lieu d'un select de services par hôtel
+    @Query("SELECT DISTINCT h FROM Hotel h LEFT JOIN FETCH h.services ORDER BY h.id")
+    List<Hotel> findAllWithServices();
+
+    @EntityGraph(attributePaths = "services")
+    Optional<Hotel> findWithServicesById(Long id);
+
+    // [id, name, city, stars, address, description, photoPath, totalRooms, latitude, longitude, service] : une ligne par service,
+    // triées par hôtel pour regrouper les services sans charger les entités
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT h.id, h.name, h.city, h.stars, h.address, h.description, h.photoPath, h.totalRooms, " +
+            "h.latitude, h.longitude, s " +
+            "FROM Hotel h LEFT JOIN h.services s ORDER BY h.id")
+    Stream<Object[]> streamAllWithServices();
 }
@@ -1,14 +1,21 @@
 package com.worldcup2030.backend.repository;
 
+import com.worldcup2030.backend.dto.HotelReservationDTO;
 import com.worldcup2030.backend.model.HotelReservation;
 import com.worldcup2030.backend.model.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface HotelReservationRepository extends JpaRepository<HotelReservation, Long> {
@@ -29,4 +36,83 @@ public interface HotelReservationRepository extends JpaRepository<HotelReservati
 
     @Query("SELECT COUNT(hr) FROM HotelReservation hr WHERE hr.hotel.id = :hotelId AND hr.startDate <= :endDate AND hr.endDate >= :startDate AND hr.paymentStatus != 'CANCELLED'")
     Long countOverlappingReservations(@Param("hotelId") Long hotelId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+
+    // [hotelId, startDate, endDate, numberOfRooms] des séjours non annulés qui chevauchent la période
+    @Query("SELECT hr.hotel.id, hr.startDate, hr.endDate, hr.numberOfRooms FROM HotelReservation hr WHERE hr.startDate < :endDate AND hr.endDate > :startDate AND hr.paymentStatus != 'CANCELLED'")
+    List<Object[]> findActiveStays(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT hr.hotel.id, hr.startDate, hr.endDate, hr.numberOfRooms FROM HotelReservation hr WHERE hr.hotel.id = :hotelId AND hr.startDate < :endDate AND hr.endDate > :startDate AND hr.paymentStatus != 'CANCELLED'")
+    List<Object[]> findActiveStaysByHotelId(@Param("hotelId") Long hotelId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(hr.numberOfRooms), 0) FROM HotelReservation hr WHERE hr.hotel.id = :hotelId AND hr.startDate < :endDate AND hr.endDate > :startDate AND hr.paymentStatus != 'CANCELLED'")
+    long sumOverlappingRooms(@Param("hotelId") Long hotelId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // [hotelId, roomType, startDate, endDate, numberOfRooms] des séjours non annulés d'un type de chambre
+    @Query("SELECT hr.hotel.id, hr.roomType, hr.startDate, hr.endDate, hr.numberOfRooms FROM HotelReservation hr WHERE hr.roomType IS NOT NULL AND hr.startDate < :endDate AND hr.endDate > :startDate AND hr.paymentStatus != 'CANCELLED'")
+    List<Object[]> findActiveTypedStays(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT hr.hotel.id, hr.roomType, hr.startDate, hr.endDate, hr.numberOfRooms FROM HotelReservation hr WHERE hr.hotel.id = :hotelId AND hr.roomType IS NOT NULL AND hr.startDate < :endDate AND hr.endDate > :startDate AND hr.paymentStatus != 'CANCELLED'")
+    List<Object[]> findActiveTypedStaysByHotelId(@Param("hotelId") Long hotelId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(hr.numberOfRooms), 0) FROM HotelReservation hr WHERE hr.hotel.id = :hotelId AND hr.roomType = :roomType AND hr.startDate < :endDate AND hr.endDate > :startDate AND hr.paymentStatus != 'CANCELLED'")
+    long sumOverlappingRoomsByType(@Param("hotelId") Long hotelId, @Param("roomType") String roomType,
+                                   @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // [roomType, chambres] des séjours non annulés d'un type qui chevauchent la période et n'ont pas encore de chambres attribuées
+    @Query("SELECT hr.roomType, SUM(hr.numberOfRooms) FROM HotelReservation hr WHERE hr.hotel.id = :hotelId AND hr.roomType IS NOT NULL AND hr.rooms IS EMPTY AND hr.startDate < :endDate AND hr.endDate > :startDate AND hr.paymentStatus != 'CANCELLED' GROUP BY hr.roomType")
+    List<Object[]> sumUnallocatedTypedRooms(@Param("hotelId") Long hotelId, @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    // Lectures projetées directement en DTO : une seule requête avec jointures, sans charger les entités
+    String RESERVATION_DTO = "SELECT new com.worldcup2030.backend.dto.HotelReservationDTO(" +
+            "hr.id, u.id, u.email, h.id, h.name, h.city, hr.startDate, hr.endDate, " +
+            "hr.numberOfRooms, hr.numberOfGuests, hr.totalPrice, hr.paymentStatus, hr.roomType) " +
+            "FROM HotelReservation hr JOIN hr.user u JOIN hr.hotel h ";
+
+    @Query(RESERVATION_DTO + "ORDER BY hr.startDate DESC")
+    List<HotelReservationDTO> findAllDtos();
+
+    @Query(RESERVATION_DTO + "WHERE u.id = :userId ORDER BY hr.startDate DESC")
+    List<HotelReservationDTO> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query(RESERVATION_DTO + "WHERE hr.id = :id")
+    Optional<HotelReservationDTO> findDtoById(@Param("id") Long id);
+
+    // Pagination par clé sur (startDate DESC, id DESC) : la page suit la dernière ligne de la précédente.
+    // "startDate <= :startDate" borne le parcours d'index ; le OR ne fait que départager les ex aequo.
+    String AFTER_CURSOR = "hr.startDate <= :startDate AND (hr.startDate < :startDate OR hr.id < :id) ";
+    String BY_START_DATE_DESC = "ORDER BY hr.startDate DESC, hr.id DESC";
+
+    // idx_hotel_reservations_start
+    @Query(RESERVATION_DTO + BY_START_DATE_DESC)
+    List<HotelReservationDTO> findFirstDtos(Pageable limit);
+
+    @Query(RESERVATION_DTO + "WHERE " + AFTER_CURSOR + BY_START_DATE_DESC)
+    List<HotelReservationDTO> findDtosAfter(@Param("startDate") LocalDate startDate, @Param("id") Long id, Pageable limit);
+
+    // idx_hotel_reservations_user_start
+    @Query(RESERVATION_DTO + "WHERE u.id = :userId " + BY_START_DATE_DESC)
+    List<HotelReservationDTO> findFirstDtosByUserId(@Param("userId") Long userId, Pageable limit);
+
+    @Query(RESERVATION_DTO + "WHERE u.id = :userId AND " + AFTER_CURSOR + BY_START_DATE_DESC)
+    List<HotelReservationDTO> findDtosByUserIdAfter(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+                                                    @Param("id") Long id, Pageable limit);
+
+    // idx_hotel_reservations_hotel_period : réservations d'un hôtel, même tri
+    @Query(RESERVATION_DTO + "WHERE h.id = :hotelId " + BY_START_DATE_DESC)
+    List<HotelReservationDTO> findFirstDtosByHotelId(@Param("hotelId") Long hotelId, Pageable limit);
+
+    @Query(RESERVATION_DTO + "WHERE h.id = :hotelId AND " + AFTER_CURSOR + BY_START_DATE_DESC)
+    List<HotelReservationDTO> findDtosByHotelIdAfter(@Param("hotelId") Long hotelId, @Param("startDate") LocalDate startDate,
+                                                     @Param("id") Long id, Pageable limit);
+
+    // idx_hotel_reservations_status : réservations d'un statut par id croissant
+    @Query(RESERVATION_DTO + "WHERE hr.paymentStatus = :status AND hr.id > :afterId ORDER BY hr.id")
+    List<HotelReservationDTO> findDtosByPaymentStatusAfter(@Param("status") PaymentStatus status,
+                                                           @Param("afterId") Long afterId, Pageable limit);
+
+    // Lecture en flux, à consommer dans une transaction et à fermer
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESERVATION_DTO + "ORDER BY hr.startDate DESC, hr.id DESC")
+    Stream<HotelReservationDTO> streamAllDtos();
+}
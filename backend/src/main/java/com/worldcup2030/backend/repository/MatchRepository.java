@@ -0,0 +1,20 @@
+package com.worldcup2030.backend.repository;
+
+import com.worldcup2030.backend.model.Match;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MatchRepository extends JpaRepository<Match, Long> {
+
+    // Identifiants seuls, pour préparer l'inventaire des places au démarrage
+    @Query("SELECT m.id FROM Match m")
+    List<Long> findAllIds();
+
+    // [city, date] des matchs programmés, pour les majorations des nuits de match
+    @Query("SELECT m.city, m.date FROM Match m WHERE m.city IS NOT NULL AND m.date IS NOT NULL")
+    List<Object[]> findAllCityDates();
+}
@@ -0,0 +1,36 @@
+package com.worldcup2030.backend.repository;
+
+import com.worldcup2030.backend.dto.OfferDTO;
+import com.worldcup2030.backend.model.Offer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OfferRepository extends JpaRepository<Offer, Long> {
+
+    // Offre à plat avec son match, son hôtel et son transport : une seule requête pour tout l'index
+    String OFFER_DTO = "SELECT new com.worldcup2030.backend.dto.OfferDTO(" +
+            "o.id, o.title, o.totalPrice, o.description, m.id, m.teamA, m.teamB, m.date, m.city, m.stadium, " +
+            "h.id, h.name, h.stars, t.id, t.type, t.departureCity, t.departureTime) " +
+            "FROM Offer o JOIN o.match m LEFT JOIN o.hotel h LEFT JOIN o.transport t ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(OFFER_DTO + "ORDER BY o.id")
+    List<OfferDTO> findAllDtos();
+
+    @Query(OFFER_DTO + "WHERE o.id IN :ids")
+    List<OfferDTO> findDtosByIdIn(@Param("ids") List<Long> ids);
+
+    @Query(OFFER_DTO + "WHERE h.id = :hotelId")
+    List<OfferDTO> findDtosByHotelId(@Param("hotelId") Long hotelId);
+
+    @Query(OFFER_DTO + "WHERE t.id = :transportId")
+    List<OfferDTO> findDtosByTransportId(@Param("transportId") Long transportId);
+}
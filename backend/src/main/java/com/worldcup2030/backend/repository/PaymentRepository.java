@@ -1,13 +1,20 @@
 package com.worldcup2030.backend.repository;
 
 import com.worldcup2030.backend.model.Payment;
+import com.worldcup2030.backend.model.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -42,4 +49,22 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // Trouver les paiements confirmés
     @Query("SELECT p FROM Payment p WHERE p.paymentStatus = 'CONFIRMED'")
     List<Payment> findConfirmedPayments();
+
+    // Paiements d'un statut, par pages de clé croissante (remplace findConfirmedPayments/findFailedPayments sur gros volumes)
+    List<Payment> findByPaymentStatusAndIdGreaterThanOrderByIdAsc(PaymentStatus status, Long id, Pageable limit);
+
+    // Paiements d'un statut créés avant une date, par pages de clé croissante (reprise des paiements en attente)
+    List<Payment> findByPaymentStatusAndCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(PaymentStatus status, LocalDateTime before,
+                                                                                  Long id, Pageable limit);
+
+    // Paiements d'un statut inchangés depuis une date, par pages de clé croissante (reprise des remboursements)
+    List<Payment> findByPaymentStatusAndUpdatedAtBeforeAndIdGreaterThanOrderByIdAsc(PaymentStatus status, LocalDateTime before,
+                                                                                  Long id, Pageable limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p WHERE p.paymentStatus = :status ORDER BY p.id")
+    Stream<Payment> streamByPaymentStatus(@Param("status") PaymentStatus status);
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.worldcup2030.backend.repository;
+
+import com.worldcup2030.backend.model.Room;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RoomRepository extends JpaRepository<Room, Long> {
+
+    // [hotelId, prix de la chambre la moins chère] pour le chargement des grilles tarifaires
+    @Query("SELECT r.hotel.id, MIN(r.pricePerNight) FROM Room r WHERE r.pricePerNight IS NOT NULL GROUP BY r.hotel.id")
+    List<Object[]> findMinPricePerHotel();
+
+    @Query("SELECT MIN(r.pricePerNight) FROM Room r WHERE r.hotel.id = :hotelId")
+    BigDecimal findMinPriceByHotelId(@Param("hotelId") Long hotelId);
+
+    // [hotelId, roomType, nombre de chambres en service, prix le plus bas] : inventaire de tous les hôtels en une requête
+    @Query("SELECT r.hotel.id, r.roomType, COUNT(r), MIN(r.pricePerNight) FROM Room r " +
+            "WHERE r.available = true AND r.roomType IS NOT NULL GROUP BY r.hotel.id, r.roomType")
+    List<Object[]> countAvailableByHotelAndType();
+
+    // idx_room_hotel_type
+    @Query("SELECT r.hotel.id, r.roomType, COUNT(r), MIN(r.pricePerNight) FROM Room r " +
+            "WHERE r.hotel.id = :hotelId AND r.available = true AND r.roomType IS NOT NULL GROUP BY r.hotel.id, r.roomType")
+    List<Object[]> countAvailableByTypeForHotel(@Param("hotelId") Long hotelId);
+
+    @Query("SELECT COUNT(r) FROM Room r WHERE r.hotel.id = :hotelId AND r.available = true")
+    int countAvailableByHotelId(@Param("hotelId") Long hotelId);
+
+    /**
+     * Chambres en service de l'hôtel (du type demandé, ou de tout type si null) qui ne sont attribuées
+     * à aucun séjour non annulé chevauchant la période ; par identifiant croissant.
+     */
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId AND r.available = true " +
+            "AND (:roomType IS NULL OR r.roomType = :roomType) " +
+            "AND NOT EXISTS (SELECT 1 FROM HotelReservation hr JOIN hr.rooms taken WHERE taken = r " +
+            "AND hr.hotel.id = :hotelId AND hr.startDate < :endDate AND hr.endDate > :startDate " +
+            "AND hr.paymentStatus != 'CANCELLED') ORDER BY r.id")
+    List<Room> findFreeRooms(@Param("hotelId") Long hotelId, @Param("roomType") String roomType,
+                             @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable limit);
+}
@@ -0,0 +1,19 @@
+package com.worldcup2030.backend.repository;
+
+import com.worldcup2030.backend.dto.TicketRejectionDTO;
+import com.worldcup2030.backend.model.TicketRejection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TicketRejectionRepository extends JpaRepository<TicketRejection, Long> {
+
+    @Query("SELECT new com.worldcup2030.backend.dto.TicketRejectionDTO(r.matchId, r.seatNumber, r.price, " +
+            "r.purchasedAt, r.reason, r.rejectedAt) FROM TicketRejection r " +
+            "WHERE r.userId = :userId ORDER BY r.rejectedAt DESC, r.id DESC")
+    List<TicketRejectionDTO> findDtosByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,37 @@
+package com.worldcup2030.backend.repository;
+
+import com.worldcup2030.backend.dto.TicketDTO;
+import com.worldcup2030.backend.model.Ticket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TicketRepository extends JpaRepository<Ticket, Long> {
+
+    String TICKET_DTO = "SELECT new com.worldcup2030.backend.dto.TicketDTO(" +
+            "t.id, t.match.id, t.user.id, t.seatNumber, t.price, t.purchasedAt) FROM Ticket t ";
+
+    // Sièges vendus [matchId, userId, seatNumber], pour reconstruire l'inventaire en mémoire
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.match.id, t.user.id, t.seatNumber FROM Ticket t")
+    List<Object[]> findAllSoldSeats();
+
+    @Query("SELECT t.match.id, t.user.id, t.seatNumber FROM Ticket t WHERE t.match.id = :matchId")
+    List<Object[]> findSoldSeatsByMatchId(@Param("matchId") Long matchId);
+
+    @Query("SELECT COUNT(t) > 0 FROM Ticket t WHERE t.match.id = :matchId AND t.seatNumber = :seatNumber")
+    boolean existsByMatchIdAndSeatNumber(@Param("matchId") Long matchId, @Param("seatNumber") String seatNumber);
+
+    @Query(TICKET_DTO + "WHERE t.user.id = :userId ORDER BY t.purchasedAt DESC, t.id DESC")
+    List<TicketDTO> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.match.id = :matchId")
+    long countByMatchId(@Param("matchId") Long matchId);
+}
@@ -1,7 +1,41 @@
 package com.worldcup2030.backend.repository;
 
 import com.worldcup2030.backend.model.Transport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransportRepository extends JpaRepository<Transport, Long> {
+
+    // Disposition et instantané du plan de chaque transport : [id, capacite, type, seatMap]
+    @Query("SELECT t.id, t.capacite, t.type, t.seatMap FROM Transport t")
+    List<Object[]> findAllSeatLayouts();
+
+    // Tronçons datés pour le planificateur : [id, type, departureCity, arrivalCity, departureTime, arrivalTime, price, compagnie]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.id, t.type, t.departureCity, t.arrivalCity, t.departureTime, t.arrivalTime, t.price, t.compagnie "
+            + "FROM Transport t WHERE t.departureTime IS NOT NULL AND t.arrivalTime IS NOT NULL")
+    List<Object[]> findAllLegs();
+
+    @Modifying
+    @Query("UPDATE Transport t SET t.place = :place, t.seatMap = :seatMap WHERE t.id = :id")
+    int updateSeats(@Param("id") Long id, @Param("place") int place, @Param("seatMap") byte[] seatMap);
+
+    // Pagination par clé sur l'identifiant
+    List<Transport> findByIdGreaterThanOrderByIdAsc(Long id, Pageable limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transport t ORDER BY t.id")
+    Stream<Transport> streamAll();
 }
@@ -2,9 +2,11 @@ package com.worldcup2030.backend.repository;
 
 import com.worldcup2030.backend.model.TransportReservation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -15,11 +17,18 @@ public interface TransportReservationRepository extends JpaRepository<TransportR
 
     List<TransportReservation> findByTransportId(Long transportId);
 
-    @Query("SELECT COUNT(r) FROM TransportReservation r WHERE r.transport.id = :transportId")
-    long countByTransportId(@Param("transportId") Long transportId);
+    // [transportId, réservations] : contrôle des instantanés seat_map au démarrage
+    @Query("SELECT r.transport.id, COUNT(r) FROM TransportReservation r GROUP BY r.transport.id")
+    List<Object[]> countByTransport();
 
-    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM TransportReservation r WHERE r.user.id = :userId AND r.transport.id = :transportId")
-    boolean existsByUserIdAndTransportId(@Param("userId") Long userId, @Param("transportId") Long transportId);
+    // Sièges attribués [id, transportId, userId, seatNumber] d'un transport
+    @Query("SELECT r.id, r.transport.id, r.user.id, r.seatNumber FROM TransportReservation r WHERE r.transport.id = :transportId ORDER BY r.id")
+    List<Object[]> findSeatAssignmentsByTransportId(@Param("transportId") Long transportId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TransportReservation r SET r.seatNumber = :seatNumber WHERE r.id = :id")
+    int updateSeatNumber(@Param("id") Long id, @Param("seatNumber") String seatNumber);
 
     void deleteByUserId(Long userId);
 
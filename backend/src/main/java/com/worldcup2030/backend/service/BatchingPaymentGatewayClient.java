@@ -0,0 +1,117 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Payment;
+import com.worldcup2030.backend.service.PaymentGatewayService.PaymentGatewayResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client de la passerelle qui regroupe les autorisations de paiement.
+ * Les demandes reçues pendant une courte fenêtre (ou jusqu'à la taille maximale d'un lot) partent
+ * ensemble en un seul appel {@link PaymentGatewayService#processBatch(List)} : un aller-retour et
+ * une place d'appel en cours pour tout le lot au lieu d'un par paiement.
+ */
+@Component
+public class BatchingPaymentGatewayClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingPaymentGatewayClient.class);
+
+    private final PaymentGatewayService paymentGatewayService;
+    private final long windowMs;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private List<PendingAuthorization> pending = new ArrayList<>();
+
+    public BatchingPaymentGatewayClient(PaymentGatewayService paymentGatewayService,
+                                        @Value("${worldcup.payment.gateway.batch-window-ms:50}") long windowMs,
+                                        @Value("${worldcup.payment.gateway.max-batch-size:100}") int maxBatchSize) {
+        this.paymentGatewayService = paymentGatewayService;
+        this.windowMs = windowMs;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Ajoute le paiement au lot en cours. Le futur est complété avec la réponse de la passerelle
+     * pour ce paiement quand le lot revient.
+     */
+    public CompletableFuture<PaymentGatewayResponse> authorize(Payment payment) {
+        PendingAuthorization authorization = new PendingAuthorization(payment);
+        List<PendingAuthorization> full = null;
+        boolean firstOfBatch;
+
+        synchronized (lock) {
+            pending.add(authorization);
+            firstOfBatch = pending.size() == 1;
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new ArrayList<>();
+            }
+        }
+
+        if (full != null) {
+            send(full);
+        } else if (firstOfBatch) {
+            // Le premier paiement d'un lot déclenche l'envoi à la fin de la fenêtre
+            CompletableFuture.delayedExecutor(windowMs, TimeUnit.MILLISECONDS).execute(this::flush);
+        }
+        return authorization.response;
+    }
+
+    /**
+     * Envoie le paiement seul, sans attendre la fenêtre : pour une requête doublée, qui arrive déjà
+     * en retard et ne doit pas repartir derrière la fenêtre du lot suivant.
+     */
+    public CompletableFuture<PaymentGatewayResponse> authorizeNow(Payment payment) {
+        PendingAuthorization authorization = new PendingAuthorization(payment);
+        send(List.of(authorization));
+        return authorization.response;
+    }
+
+    private void flush() {
+        List<PendingAuthorization> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        send(batch);
+    }
+
+    private void send(List<PendingAuthorization> batch) {
+        List<Payment> payments = new ArrayList<>(batch.size());
+        for (PendingAuthorization authorization : batch) {
+            payments.add(authorization.payment);
+        }
+        logger.info("📦 Sending batch of {} authorizations to gateway", batch.size());
+
+        paymentGatewayService.processBatch(payments).whenComplete((responses, e) -> {
+            for (int i = 0; i < batch.size(); i++) {
+                if (e != null || responses == null || i >= responses.size()) {
+                    batch.get(i).response.complete(new PaymentGatewayResponse(
+                            false, "GATEWAY_ERROR", "Réponse de la passerelle incomplète", "{}"));
+                } else {
+                    batch.get(i).response.complete(responses.get(i));
+                }
+            }
+        });
+    }
+
+    private static final class PendingAuthorization {
+        private final Payment payment;
+        private final CompletableFuture<PaymentGatewayResponse> response = new CompletableFuture<>();
+
+        private PendingAuthorization(Payment payment) {
+            this.payment = payment;
+        }
+    }
+}
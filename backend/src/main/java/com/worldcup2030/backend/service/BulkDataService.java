@@ -0,0 +1,486 @@
+package com.worldcup2030.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.worldcup2030.backend.dto.BulkImportResult;
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.TransportDTO;
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.model.Transport;
+import com.worldcup2030.backend.model.TransportType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Import et export en masse des hôtels et des transports, en CSV (ligne d'en-tête avec les noms de
+ * colonnes) ou en NDJSON (un objet JSON par ligne, mêmes champs que l'API).
+ * <p>
+ * L'import lit le flux une seule fois et le découpe en blocs de {@code chunkSize} lignes : chaque bloc
+ * est converti et validé en parallèle sur le pool bulkImportExecutor, puis écrit dans sa propre
+ * transaction, dans l'ordre du fichier, en lots JDBC (flush et clear toutes les {@code batchSize}
+ * entités). Au plus {@code chunksInFlight} blocs sont en mémoire. Les lignes invalides sont rejetées
+ * et listées dans le bilan ; si l'écriture d'un bloc échoue, tout le bloc est rejeté et l'import continue.
+ */
+@Service
+public class BulkDataService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Format déduit d'un type de contenu (text/csv, application/x-ndjson) ou d'un nom de fichier.
+         */
+        public static Format of(String contentTypeOrFileName) {
+            String value = contentTypeOrFileName == null ? "" : contentTypeOrFileName.toLowerCase(Locale.ROOT);
+            if (value.contains("csv")) {
+                return CSV;
+            }
+            if (value.contains("ndjson") || value.contains("jsonl")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Format d'import non supporté (CSV ou NDJSON attendu): " + contentTypeOrFileName);
+        }
+    }
+
+    public static final List<String> HOTEL_COLUMNS = List.of("id", "name", "city", "stars", "address",
+            "description", "totalRooms", "photoPath", "services", "latitude", "longitude");
+    public static final List<String> TRANSPORT_COLUMNS = List.of("id", "type", "departureCity", "arrivalCity",
+            "departureTime", "arrivalTime", "capacite", "place", "price", "compagnie");
+
+    // Colonnes obligatoires d'un fichier CSV ; id et place sont ignorés à l'import
+    private static final List<String> HOTEL_REQUIRED = List.of("name", "city", "stars", "address");
+    private static final List<String> TRANSPORT_REQUIRED = List.of("type", "departureCity", "arrivalCity",
+            "departureTime", "arrivalTime", "capacite", "price");
+
+    // Services d'un hôtel dans une seule colonne CSV : "wifi|piscine|parking"
+    private static final String SERVICE_SEPARATOR = "|";
+    private static final int MAX_TEXT_LENGTH = 255;
+    // Le plan des sièges tient dans la colonne seat_map (1024 octets, un bit par siège)
+    private static final int MAX_CAPACITY = 1024 * 8;
+
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final HotelService hotelService;
+    private final TransportService transportService;
+    private final HotelCatalogCache catalogCache;
+    private final ItineraryPlanner itineraryPlanner;
+    private final HotelSearchIndex hotelSearchIndex;
+    private final HotelPricingEngine hotelPricingEngine;
+    private final int batchSize;
+    private final int chunkSize;
+    private final int chunksInFlight;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BulkDataService(ObjectMapper objectMapper,
+                           @Qualifier("bulkImportExecutor") Executor executor,
+                           PlatformTransactionManager transactionManager,
+                           HotelService hotelService,
+                           TransportService transportService,
+                           HotelCatalogCache catalogCache,
+                           ItineraryPlanner itineraryPlanner,
+                           HotelSearchIndex hotelSearchIndex,
+                           HotelPricingEngine hotelPricingEngine,
+                           @Value("${worldcup.jpa.batch-size:500}") int batchSize,
+                           @Value("${worldcup.bulk.chunk-size:5000}") int chunkSize,
+                           @Value("${worldcup.bulk.chunks-in-flight:8}") int chunksInFlight) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotelService = hotelService;
+        this.transportService = transportService;
+        this.catalogCache = catalogCache;
+        this.itineraryPlanner = itineraryPlanner;
+        this.hotelSearchIndex = hotelSearchIndex;
+        this.hotelPricingEngine = hotelPricingEngine;
+        this.batchSize = Math.max(1, batchSize);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunksInFlight = Math.max(1, chunksInFlight);
+    }
+
+    public BulkImportResult importHotels(InputStream in, Format format) throws IOException {
+        try {
+            return load(open(in, format, HOTEL_REQUIRED), row -> toHotel(row.json != null
+                    ? objectMapper.readValue(row.json, HotelDTO.class)
+                    : hotelFromColumns(row)));
+        } finally {
+            // Le catalogue en cache est rechargé au prochain accès, y compris après un import partiel
+            catalogCache.clear();
+            hotelPricingEngine.clear();
+            hotelSearchIndex.rebuild();
+        }
+    }
+
+    public BulkImportResult importTransports(InputStream in, Format format) throws IOException {
+        try {
+            return load(open(in, format, TRANSPORT_REQUIRED), row -> toTransport(row.json != null
+                    ? objectMapper.readValue(row.json, TransportDTO.class)
+                    : transportFromColumns(row)));
+        } finally {
+            // Une seule relecture des tronçons plutôt qu'une insertion par transport importé
+            itineraryPlanner.rebuild();
+        }
+    }
+
+    /**
+     * Tous les hôtels en CSV (colonnes {@link #HOTEL_COLUMNS}), écrits au fil de la lecture en base.
+     */
+    public void exportHotelsCsv(OutputStream out) throws IOException {
+        CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        csv.write(HOTEL_COLUMNS);
+        try {
+            hotelService.streamHotels(hotel -> writeRow(csv, Arrays.asList(hotel.getId(), hotel.getName(),
+                    hotel.getCity(), hotel.getStars(), hotel.getAddress(), hotel.getDescription(),
+                    hotel.getTotalRooms(), hotel.getPhotoPath(),
+                    hotel.getServices() == null ? null : String.join(SERVICE_SEPARATOR, hotel.getServices()),
+                    hotel.getLatitude(), hotel.getLongitude())));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csv.flush();
+    }
+
+    /**
+     * Tous les transports en CSV (colonnes {@link #TRANSPORT_COLUMNS}), écrits au fil de la lecture en base.
+     */
+    public void exportTransportsCsv(OutputStream out) throws IOException {
+        CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        csv.write(TRANSPORT_COLUMNS);
+        try {
+            transportService.streamTransports(transport -> writeRow(csv, Arrays.asList(transport.getId(),
+                    transport.getType(), transport.getDepartureCity(), transport.getArrivalCity(),
+                    transport.getDepartureTime(), transport.getArrivalTime(), transport.getCapacite(),
+                    transport.getPlace(), transport.getPrice(), transport.getCompagnie())));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csv.flush();
+    }
+
+    // Découpe en blocs, conversion en parallèle, écriture dans l'ordre du fichier
+    private <T> BulkImportResult load(RowSource source, RowConverter<T> converter) throws IOException {
+        long start = System.nanoTime();
+        BulkImportResult result = new BulkImportResult();
+        Deque<CompletableFuture<Chunk<T>>> pending = new ArrayDeque<>();
+
+        List<Row> rows = new ArrayList<>(chunkSize);
+        Row row;
+        while ((row = source.next()) != null) {
+            rows.add(row);
+            if (rows.size() == chunkSize) {
+                pending.add(convertAsync(rows, converter));
+                rows = new ArrayList<>(chunkSize);
+                if (pending.size() >= chunksInFlight) {
+                    write(pending.poll().join(), result);
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            pending.add(convertAsync(rows, converter));
+        }
+        while (!pending.isEmpty()) {
+            write(pending.poll().join(), result);
+        }
+
+        result.setDurationMs((System.nanoTime() - start) / 1_000_000L);
+        return result;
+    }
+
+    private <T> CompletableFuture<Chunk<T>> convertAsync(List<Row> rows, RowConverter<T> converter) {
+        return CompletableFuture.supplyAsync(() -> {
+            Chunk<T> chunk = new Chunk<>(rows.get(0).line, rows.get(rows.size() - 1).line, rows.size());
+            for (Row row : rows) {
+                try {
+                    chunk.entities.add(converter.convert(row));
+                } catch (JsonProcessingException e) {
+                    chunk.errors.add("ligne " + row.line + " : JSON invalide, " + e.getOriginalMessage());
+                } catch (Exception e) {
+                    chunk.errors.add("ligne " + row.line + " : " + e.getMessage());
+                }
+            }
+            return chunk;
+        }, executor);
+    }
+
+    private <T> void write(Chunk<T> chunk, BulkImportResult result) {
+        chunk.errors.forEach(error -> result.addRejected(1, error));
+        if (chunk.entities.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int persisted = 0;
+                for (T entity : chunk.entities) {
+                    entityManager.persist(entity);
+                    if (++persisted % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            result.addImported(chunk.entities.size());
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            result.addRejected(chunk.entities.size(),
+                    "lignes " + chunk.firstLine + "-" + chunk.lastLine + " : " + cause.getMessage());
+        }
+    }
+
+    private RowSource open(InputStream in, Format format, List<String> requiredColumns) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == Format.NDJSON) {
+            int[] line = {0};
+            return () -> {
+                String json;
+                do {
+                    json = reader.readLine();
+                    line[0]++;
+                } while (json != null && json.isBlank());
+                return json == null ? null : new Row(line[0], json, null, null);
+            };
+        }
+
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("Fichier CSV vide : ligne d'en-tête attendue");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        List<String> missing = requiredColumns.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Colonnes manquantes dans l'en-tête CSV: " + missing);
+        }
+        return () -> {
+            List<String> fields = csv.next();
+            return fields == null ? null : new Row(csv.lineNumber(), null, fields, columns);
+        };
+    }
+
+    private static HotelDTO hotelFromColumns(Row row) {
+        HotelDTO dto = new HotelDTO();
+        dto.setName(row.get("name"));
+        dto.setCity(row.get("city"));
+        dto.setStars(parseInt(row.get("stars"), "stars"));
+        dto.setAddress(row.get("address"));
+        dto.setDescription(row.get("description"));
+        String totalRooms = row.get("totalRooms");
+        dto.setTotalRooms(totalRooms == null ? null : parseInt(totalRooms, "totalRooms"));
+        dto.setPhotoPath(row.get("photoPath"));
+        String latitude = row.get("latitude");
+        String longitude = row.get("longitude");
+        dto.setLatitude(latitude == null ? null : parseDouble(latitude, "latitude"));
+        dto.setLongitude(longitude == null ? null : parseDouble(longitude, "longitude"));
+
+        List<String> services = new ArrayList<>();
+        String value = row.get("services");
+        if (value != null) {
+            for (String service : value.split("\\" + SERVICE_SEPARATOR)) {
+                if (!service.isBlank()) {
+                    services.add(service.trim());
+                }
+            }
+        }
+        dto.setServices(services);
+        return dto;
+    }
+
+    private static TransportDTO transportFromColumns(Row row) {
+        TransportDTO dto = new TransportDTO();
+        dto.setType(row.get("type"));
+        dto.setDepartureCity(row.get("departureCity"));
+        dto.setArrivalCity(row.get("arrivalCity"));
+        dto.setDepartureTime(row.get("departureTime"));
+        dto.setArrivalTime(row.get("arrivalTime"));
+        dto.setCapacite(parseInt(row.get("capacite"), "capacite"));
+        dto.setPrice(parseInt(row.get("price"), "price"));
+        dto.setCompagnie(row.get("compagnie"));
+        return dto;
+    }
+
+    // Mêmes champs que HotelService.addHotel
+    private static Hotel toHotel(HotelDTO dto) {
+        requireText(dto.getName(), "name");
+        requireText(dto.getCity(), "city");
+        requireText(dto.getAddress(), "address");
+        checkLength(dto.getPhotoPath(), "photoPath");
+        if (dto.getStars() < 1 || dto.getStars() > 5) {
+            throw new IllegalArgumentException("Nombre d'étoiles invalide (1 à 5): " + dto.getStars());
+        }
+        if (dto.getTotalRooms() != null && dto.getTotalRooms() <= 0) {
+            throw new IllegalArgumentException("Nombre de chambres invalide: " + dto.getTotalRooms());
+        }
+        List<String> services = dto.getServices() == null ? new ArrayList<>() : new ArrayList<>(dto.getServices());
+        services.forEach(service -> checkLength(service, "services"));
+        if ((dto.getLatitude() == null) != (dto.getLongitude() == null)) {
+            throw new IllegalArgumentException("Latitude et longitude vont ensemble");
+        }
+        if (dto.getLatitude() != null && (Math.abs(dto.getLatitude()) > 90 || Math.abs(dto.getLongitude()) > 180)) {
+            throw new IllegalArgumentException("Coordonnées invalides: " + dto.getLatitude() + ", " + dto.getLongitude());
+        }
+
+        Hotel hotel = new Hotel(dto.getName(), dto.getCity(), dto.getStars(), dto.getAddress(), dto.getDescription(),
+                services, dto.getPhotoPath());
+        hotel.setTotalRooms(dto.getTotalRooms());
+        hotel.setLatitude(dto.getLatitude());
+        hotel.setLongitude(dto.getLongitude());
+        return hotel;
+    }
+
+    // Mêmes champs que TransportService.addTransport (place = capacité)
+    private Transport toTransport(TransportDTO dto) {
+        requireText(dto.getType(), "type");
+        try {
+            TransportType.valueOf(dto.getType().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Type de transport inconnu: " + dto.getType());
+        }
+        requireText(dto.getDepartureCity(), "departureCity");
+        requireText(dto.getArrivalCity(), "arrivalCity");
+        checkLength(dto.getCompagnie(), "compagnie");
+        LocalDateTime departure = parseDateTime(dto.getDepartureTime(), "departureTime");
+        LocalDateTime arrival = parseDateTime(dto.getArrivalTime(), "arrivalTime");
+        if (!arrival.isAfter(departure)) {
+            throw new IllegalArgumentException("L'arrivée doit être postérieure au départ");
+        }
+        if (dto.getCapacite() <= 0 || dto.getCapacite() > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacité invalide (1 à " + MAX_CAPACITY + "): " + dto.getCapacite());
+        }
+        if (dto.getPrice() < 0) {
+            throw new IllegalArgumentException("Prix invalide: " + dto.getPrice());
+        }
+        return transportService.convertToEntity(dto);
+    }
+
+    private static LocalDateTime parseDateTime(String value, String column) {
+        requireText(value, column);
+        try {
+            return TransportService.parseDateTime(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date invalide pour " + column + ": " + value);
+        }
+    }
+
+    private static int parseInt(String value, String column) {
+        if (value == null) {
+            throw new IllegalArgumentException("Valeur manquante pour " + column);
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nombre invalide pour " + column + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String column) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nombre invalide pour " + column + ": " + value);
+        }
+    }
+
+    private static void requireText(String value, String column) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Valeur manquante pour " + column);
+        }
+        checkLength(value, column);
+    }
+
+    private static void checkLength(String value, String column) {
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Valeur trop longue pour " + column + " (" + MAX_TEXT_LENGTH + " caractères max)");
+        }
+    }
+
+    private static void writeRow(CsvWriter csv, List<?> fields) {
+        try {
+            csv.write(fields);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowConverter<T> {
+        T convert(Row row) throws Exception;
+    }
+
+    // Ligne lue : texte JSON (NDJSON) ou champs CSV avec l'index des colonnes de l'en-tête
+    private static final class Row {
+        private final int line;
+        private final String json;
+        private final List<String> fields;
+        private final Map<String, Integer> columns;
+
+        private Row(int line, String json, List<String> fields, Map<String, Integer> columns) {
+            this.line = line;
+            this.json = json;
+            this.fields = fields;
+            this.columns = columns;
+        }
+
+        // Valeur de la colonne, null si absente ou vide
+        private String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+    }
+
+    private static final class Chunk<T> {
+        private final int firstLine;
+        private final int lastLine;
+        private final List<T> entities;
+        private final List<String> errors = new ArrayList<>();
+
+        private Chunk(int firstLine, int lastLine, int size) {
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+            this.entities = new ArrayList<>(size);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.worldcup2030.backend.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture en flux d'un fichier CSV (RFC 4180) : séparateur virgule, champs entre guillemets pouvant
+ * contenir virgules, sauts de ligne et guillemets doublés. Une seule passe, sans lire tout le fichier.
+ */
+public class CsvReader {
+
+    private static final int BOM = '\uFEFF';
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int line = 1;
+    private int recordLine;
+    private boolean started;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Enregistrement suivant, ou null en fin de fichier. Les lignes vides sont ignorées.
+     * Un fichier mal formé (guillemet non fermé) lève une IllegalArgumentException.
+     */
+    public List<String> next() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == BOM) {
+                position++;
+            }
+        }
+        while (peek() == '\r' || peek() == '\n') {
+            newLine(read());
+        }
+        if (peek() < 0) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c < 0) {
+                    throw new IllegalArgumentException("Guillemet non fermé à partir de la ligne " + recordLine);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    newLine(c);
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                newLine(c);
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Numéro de la ligne où commence le dernier enregistrement lu (à partir de 1).
+     */
+    public int lineNumber() {
+        return recordLine;
+    }
+
+    // \r\n compte pour un seul saut de ligne
+    private void newLine(int c) throws IOException {
+        if (c == '\r' && peek() == '\n') {
+            position++;
+        }
+        if (c == '\r' || c == '\n') {
+            line++;
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+}
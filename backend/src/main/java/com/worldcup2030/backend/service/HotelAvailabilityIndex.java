@@ -0,0 +1,407 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.repository.HotelRepository;
+import com.worldcup2030.backend.repository.HotelReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Occupation des hôtels nuit par nuit, tenue en mémoire.
+ * Pour chaque hôtel, un tableau d'entiers indexé par le décalage en jours depuis le début du tournoi
+ * donne le nombre de chambres réservées cette nuit-là : vérifier une demande de N chambres du D1 au D2
+ * coûte O(nuits), sans requête SQL. Les nuits hors de la fenêtre du tournoi sont vérifiées en base.
+ * Une nuit correspond à la date d'arrivée incluse jusqu'à la date de départ exclue.
+ * <p>
+ * Les nuits sont protégées par un jeu fixe de verrous indexés par (hôtel, nuit) : deux séjours qui ne
+ * partagent aucune nuit se réservent en parallèle. Les verrous d'un séjour sont toujours pris dans
+ * l'ordre croissant des index, ce qui exclut les interblocages.
+ */
+@Component
+public class HotelAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelAvailabilityIndex.class);
+
+    private final HotelRepository hotelRepository;
+    private final HotelReservationRepository reservationRepository;
+
+    private final LocalDate windowStart;
+    private final int windowNights;
+    private final int defaultTotalRooms;
+
+    private final ConcurrentHashMap<Long, HotelNights> hotels = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+
+    public HotelAvailabilityIndex(HotelRepository hotelRepository,
+                                  HotelReservationRepository reservationRepository,
+                                  @Value("${worldcup.tournament.start:2030-06-01}") String tournamentStart,
+                                  @Value("${worldcup.tournament.end:2030-07-31}") String tournamentEnd,
+                                  @Value("${worldcup.hotel.default-total-rooms:50}") int defaultTotalRooms,
+                                  @Value("${worldcup.hotel.booking.lock-stripes:1024}") int lockStripes) {
+        this.hotelRepository = hotelRepository;
+        this.reservationRepository = reservationRepository;
+        this.windowStart = LocalDate.parse(tournamentStart);
+        this.windowNights = (int) ChronoUnit.DAYS.between(windowStart, LocalDate.parse(tournamentEnd)) + 1;
+        this.defaultTotalRooms = defaultTotalRooms;
+
+        // Puissance de deux pour indexer par masque
+        int stripeCount = Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (Object[] row : hotelRepository.findAllRoomCounts()) {
+            hotels.put((Long) row[0], new HotelNights(capacityOf((Integer) row[1]), windowNights));
+        }
+
+        LocalDate windowEnd = windowStart.plusDays(windowNights);
+        int stays = 0;
+        for (Object[] row : reservationRepository.findActiveStays(windowStart, windowEnd)) {
+            HotelNights nights = hotels.get((Long) row[0]);
+            if (nights != null) {
+                nights.add(offset((LocalDate) row[1]), offset((LocalDate) row[2]), (Integer) row[3]);
+                stays++;
+            }
+        }
+        logger.info("✅ Hotel availability index warmed up: {} hotels, {} stays, {} nights from {}",
+                hotels.size(), stays, windowNights, windowStart);
+    }
+
+    /**
+     * Réserve {@code rooms} chambres pour chaque nuit du séjour, ou lève une exception si une nuit
+     * est complète. Si une transaction est active, les chambres sont rendues en cas de rollback.
+     */
+    public void reserve(Long hotelId, LocalDate startDate, LocalDate endDate, int rooms) {
+        HotelNights nights = nightsOf(hotelId);
+        int from = offset(startDate);
+        int to = offset(endDate);
+
+        int[] locked = lockNights(hotelId, from, to);
+        try {
+            if (!nights.fits(from, to, rooms)) {
+                throw new RuntimeException("Plus assez de chambres disponibles pour ces dates");
+            }
+            // Nuits hors de la fenêtre du tournoi : vérification en base, avant et après la fenêtre
+            LocalDate windowEnd = windowStart.plusDays(windowNights);
+            if (startDate.isBefore(windowStart)
+                    && !fitsInDatabase(hotelId, startDate, min(endDate, windowStart), rooms, nights.capacity)) {
+                throw new RuntimeException("Plus assez de chambres disponibles pour ces dates");
+            }
+            if (endDate.isAfter(windowEnd)
+                    && !fitsInDatabase(hotelId, max(startDate, windowEnd), endDate, rooms, nights.capacity)) {
+                throw new RuntimeException("Plus assez de chambres disponibles pour ces dates");
+            }
+            nights.add(from, to, rooms);
+        } finally {
+            unlock(locked);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Rendues sur les nuits où elles ont été prises : un hôtel rechargé entre-temps n'est pas touché
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        adjust(hotelId, nights, from, to, -rooms);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Enregistre un séjour déjà validé ailleurs (en base, en mode optimiste), après le commit
+     * si une transaction est active. Aucune vérification de capacité n'est faite.
+     */
+    public void recordAfterCommit(Long hotelId, LocalDate startDate, LocalDate endDate, int rooms) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(hotelId, startDate, endDate, rooms);
+                }
+            });
+        } else {
+            adjust(hotelId, startDate, endDate, rooms);
+        }
+    }
+
+    /**
+     * Rend les chambres du séjour, après le commit si une transaction est active.
+     */
+    public void releaseAfterCommit(Long hotelId, LocalDate startDate, LocalDate endDate, int rooms) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(hotelId, startDate, endDate, rooms);
+                }
+            });
+        } else {
+            release(hotelId, startDate, endDate, rooms);
+        }
+    }
+
+    public void release(Long hotelId, LocalDate startDate, LocalDate endDate, int rooms) {
+        adjust(hotelId, startDate, endDate, -rooms);
+    }
+
+    public boolean canBook(Long hotelId, LocalDate startDate, LocalDate endDate, int rooms) {
+        return nightsOf(hotelId).fits(offset(startDate), offset(endDate), rooms);
+    }
+
+    /**
+     * Chambres libres pour chaque nuit de {@code from} (inclus) à {@code to} (exclu).
+     * Les nuits hors de la fenêtre du tournoi sont comptées à partir des séjours lus en base.
+     */
+    public int[] availableRooms(Long hotelId, LocalDate from, LocalDate to) {
+        HotelNights nights = nightsOf(hotelId);
+        int capacity = nights.capacity;
+        int start = offset(from);
+        int[] available = new int[Math.max(0, offset(to) - start)];
+        for (int i = 0; i < available.length; i++) {
+            available[i] = capacity - nights.bookedAt(start + i);
+        }
+        LocalDate windowEnd = windowStart.plusDays(windowNights);
+        if (from.isBefore(windowStart)) {
+            subtractStays(hotelId, from, min(to, windowStart), start, available);
+        }
+        if (to.isAfter(windowEnd)) {
+            subtractStays(hotelId, max(from, windowEnd), to, start, available);
+        }
+        return available;
+    }
+
+    public int totalRooms(Long hotelId) {
+        return nightsOf(hotelId).capacity;
+    }
+
+    /**
+     * Chambres réservées la nuit {@code night}, décalage en jours depuis {@link #windowStart()} ;
+     * 0 hors de la fenêtre du tournoi.
+     */
+    public int bookedAt(Long hotelId, int night) {
+        return nightsOf(hotelId).bookedAt(night);
+    }
+
+    public LocalDate windowStart() {
+        return windowStart;
+    }
+
+    public int windowNights() {
+        return windowNights;
+    }
+
+    /**
+     * Nouvelle capacité de l'hôtel, appliquée après le commit si une transaction est active. Les nuits
+     * réservées sont gardées, y compris celles des réservations en cours de validation.
+     */
+    public void resizeAfterCommit(Long hotelId, Integer totalRooms) {
+        afterCommit(() -> {
+            HotelNights nights = hotels.get(hotelId);
+            if (nights != null) {
+                nights.capacity = capacityOf(totalRooms);
+            }
+        });
+    }
+
+    /**
+     * Oublie l'hôtel supprimé après le commit.
+     */
+    public void evictAfterCommit(Long hotelId) {
+        afterCommit(() -> hotels.remove(hotelId));
+    }
+
+    /**
+     * Chambres réservées chaque nuit de la fenêtre du tournoi, telles que vues par l'index.
+     */
+    public int[] bookedRooms(Long hotelId) {
+        HotelNights nights = nightsOf(hotelId);
+        int[] booked = new int[windowNights];
+        for (int night = 0; night < windowNights; night++) {
+            booked[night] = nights.bookedAt(night);
+        }
+        return booked;
+    }
+
+    private void adjust(Long hotelId, LocalDate startDate, LocalDate endDate, int rooms) {
+        HotelNights nights = hotels.get(hotelId);
+        if (nights != null) {
+            adjust(hotelId, nights, offset(startDate), offset(endDate), rooms);
+        }
+    }
+
+    private void adjust(Long hotelId, HotelNights nights, int from, int to, int rooms) {
+        int[] locked = lockNights(hotelId, from, to);
+        try {
+            nights.add(from, to, rooms);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    /**
+     * Verrouille les nuits [from, to) de l'hôtel dans l'ordre croissant des index de verrou.
+     * Les nuits avant et après la fenêtre partagent chacune un verrou par hôtel.
+     */
+    private int[] lockNights(Long hotelId, int from, int to) {
+        int first = Math.max(from, -1);
+        int last = Math.min(to - 1, windowNights);
+        int[] indexes = new int[Math.max(0, last - first + 1)];
+        for (int night = first; night <= last; night++) {
+            indexes[night - first] = stripeOf(hotelId, night);
+        }
+        Arrays.sort(indexes);
+
+        int distinct = 0;
+        for (int i = 0; i < indexes.length; i++) {
+            if (i == 0 || indexes[i] != indexes[i - 1]) {
+                indexes[distinct++] = indexes[i];
+            }
+        }
+        int[] locked = Arrays.copyOf(indexes, distinct);
+        for (int index : locked) {
+            stripes[index].lock();
+        }
+        return locked;
+    }
+
+    private void unlock(int[] locked) {
+        for (int i = locked.length - 1; i >= 0; i--) {
+            stripes[locked[i]].unlock();
+        }
+    }
+
+    private int stripeOf(Long hotelId, int night) {
+        long h = hotelId * 0x9E3779B97F4A7C15L + night;
+        int hash = (int) (h ^ (h >>> 32));
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private HotelNights nightsOf(Long hotelId) {
+        HotelNights nights = hotels.get(hotelId);
+        if (nights != null) {
+            return nights;
+        }
+
+        // Hôtel créé après le démarrage ou évincé : chargement depuis la base hors du verrou de la map
+        Integer totalRooms = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé avec l'ID: " + hotelId))
+                .getTotalRooms();
+        HotelNights loaded = new HotelNights(capacityOf(totalRooms), windowNights);
+        for (Object[] row : reservationRepository.findActiveStaysByHotelId(hotelId, windowStart, windowStart.plusDays(windowNights))) {
+            loaded.add(offset((LocalDate) row[1]), offset((LocalDate) row[2]), (Integer) row[3]);
+        }
+
+        HotelNights existing = hotels.putIfAbsent(hotelId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Retire des nuits [from, to), hors de la fenêtre, les chambres des séjours enregistrés en base
+    private void subtractStays(Long hotelId, LocalDate from, LocalDate to, int start, int[] available) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        int first = offset(from);
+        int last = offset(to);
+        for (Object[] row : reservationRepository.findActiveStaysByHotelId(hotelId, from, to)) {
+            int end = Math.min(last, offset((LocalDate) row[2]));
+            for (int night = Math.max(first, offset((LocalDate) row[1])); night < end; night++) {
+                available[night - start] -= (Integer) row[3];
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Somme des chambres des séjours qui chevauchent la période : borne haute de l'occupation d'une nuit
+    private boolean fitsInDatabase(Long hotelId, LocalDate startDate, LocalDate endDate, int rooms, int capacity) {
+        return !startDate.isBefore(endDate)
+                || reservationRepository.sumOverlappingRooms(hotelId, startDate, endDate) + rooms <= capacity;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private int offset(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(windowStart, date);
+    }
+
+    private int capacityOf(Integer totalRooms) {
+        return totalRooms != null && totalRooms > 0 ? totalRooms : defaultTotalRooms;
+    }
+
+    /**
+     * Chambres réservées par nuit pour un hôtel. Les écritures se font sous les verrous des nuits
+     * concernées ; les lectures du calendrier n'en prennent pas.
+     */
+    private static final class HotelNights {
+        // Modifiée en place quand l'hôtel change de capacité
+        private volatile int capacity;
+        private final AtomicIntegerArray booked;
+
+        private HotelNights(int capacity, int nights) {
+            this.capacity = capacity;
+            this.booked = new AtomicIntegerArray(nights);
+        }
+
+        private boolean fits(int from, int to, int rooms) {
+            int start = Math.max(0, from);
+            int end = Math.min(booked.length(), to);
+            int capacity = this.capacity;
+            if (rooms > capacity) {
+                return false;
+            }
+            for (int night = start; night < end; night++) {
+                if (booked.get(night) + rooms > capacity) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(int from, int to, int rooms) {
+            int start = Math.max(0, from);
+            int end = Math.min(booked.length(), to);
+            for (int night = start; night < end; night++) {
+                booked.addAndGet(night, rooms);
+            }
+        }
+
+        private int bookedAt(int night) {
+            return night >= 0 && night < booked.length() ? booked.get(night) : 0;
+        }
+    }
+}
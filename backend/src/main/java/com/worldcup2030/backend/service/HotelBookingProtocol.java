@@ -0,0 +1,13 @@
+package com.worldcup2030.backend.service;
+
+/**
+ * Protocole de réservation des chambres, choisi par la propriété worldcup.hotel.booking.protocol.
+ */
+public enum HotelBookingProtocol {
+    // Verrous en mémoire par hôtel et par nuit : le plus rapide, valable pour une seule instance du backend
+    STRIPED,
+    // Version de l'hôtel incrémentée à chaque réservation, nuits contrôlées en base et nouvelles tentatives en cas
+    // de conflit. La capacité reste lue dans l'index en mémoire de l'instance : pas plus que STRIPED, ce mode ne
+    // suffit seul à plusieurs instances
+    OPTIMISTIC
+}
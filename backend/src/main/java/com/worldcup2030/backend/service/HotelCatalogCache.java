@@ -0,0 +1,250 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache en lecture du catalogue des hôtels : la liste complète et les fiches individuelles sont
+ * gardées sous forme de {@link HotelDTO} figés, partagés entre les requêtes (à ne pas modifier).
+ * <p>
+ * Les entrées expirent après ttlMs ; au-delà de maxSize fiches, les expirées puis les plus anciennes
+ * sont retirées. Un ajout, une modification ou une suppression remplace ou retire seulement l'hôtel
+ * concerné, après le commit. Un chargement commencé avant une invalidation n'est pas gardé.
+ */
+@Component
+public class HotelCatalogCache {
+
+    private final ConcurrentHashMap<Long, Entry> hotels = new ConcurrentHashMap<>();
+    private volatile Catalog catalog;
+    // Incrémenté à chaque invalidation, pour écarter les chargements devenus obsolètes
+    private long generation;
+
+    private final int maxSize;
+    private final long ttlMs;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public HotelCatalogCache(@Value("${worldcup.hotel.catalog-cache.max-size:5000}") int maxSize,
+                             @Value("${worldcup.hotel.catalog-cache.ttl-ms:600000}") long ttlMs) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Liste de tous les hôtels, triée par identifiant ; {@code loader} n'est appelé qu'en cas d'absence ou d'expiration.
+     */
+    public List<HotelDTO> getAll(Supplier<List<HotelDTO>> loader) {
+        Catalog current = catalog;
+        long now = System.currentTimeMillis();
+        if (current != null && current.expiresAt > now) {
+            hits.increment();
+            return current.list;
+        }
+        misses.increment();
+
+        long loadGeneration = generation();
+        List<HotelDTO> frozen = loader.get().stream().map(HotelCatalogCache::freeze).collect(Collectors.toList());
+        Catalog loaded = new Catalog(frozen, now + ttlMs);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                catalog = loaded;
+            }
+        }
+        return loaded.list;
+    }
+
+    /**
+     * Fiche d'un hôtel, lue dans le cache ou chargée par {@code loader}.
+     */
+    public HotelDTO get(Long id, Function<Long, HotelDTO> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = hotels.get(id);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.hotel;
+        }
+        Catalog current = catalog;
+        if (current != null && current.expiresAt > now) {
+            HotelDTO hotel = current.byId.get(id);
+            if (hotel != null) {
+                hits.increment();
+                return hotel;
+            }
+        }
+        misses.increment();
+
+        long loadGeneration = generation();
+        HotelDTO hotel = freeze(loader.apply(id));
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                if (hotels.size() >= maxSize) {
+                    evict(now);
+                }
+                hotels.put(id, new Entry(hotel, now + ttlMs));
+            }
+        }
+        return hotel;
+    }
+
+    /**
+     * Remplace la fiche d'un hôtel ajouté ou modifié, après le commit si une transaction est active.
+     */
+    public void putAfterCommit(HotelDTO hotel) {
+        HotelDTO frozen = freeze(hotel);
+        afterCommit(() -> invalidate(frozen.getId(), frozen));
+    }
+
+    /**
+     * Retire un hôtel supprimé, après le commit si une transaction est active.
+     */
+    public void evictAfterCommit(Long id) {
+        afterCommit(() -> invalidate(id, null));
+    }
+
+    public void clear() {
+        synchronized (this) {
+            generation++;
+            hotels.clear();
+            catalog = null;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Catalog current = catalog;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("cachedHotels", hotels.size());
+        stats.put("catalogSize", current != null ? current.list.size() : 0);
+        stats.put("catalogExpiresInMs", current != null ? Math.max(0, current.expiresAt - System.currentTimeMillis()) : 0);
+        return stats;
+    }
+
+    // Met à jour la fiche et la liste complète (copie) sans attendre leur expiration ; hotel null = suppression
+    private synchronized void invalidate(Long id, HotelDTO hotel) {
+        generation++;
+        invalidations.increment();
+
+        Entry entry = hotels.get(id);
+        if (hotel == null) {
+            hotels.remove(id);
+        } else if (entry != null) {
+            hotels.put(id, new Entry(hotel, entry.expiresAt));
+        }
+
+        Catalog current = catalog;
+        if (current != null) {
+            List<HotelDTO> list = new ArrayList<>(current.list);
+            list.removeIf(dto -> id.equals(dto.getId()));
+            if (hotel != null) {
+                list.add(hotel);
+            }
+            catalog = new Catalog(list, current.expiresAt);
+        }
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Retire les fiches expirées, puis si besoin les plus anciennes jusqu'à 90 % de la capacité
+    private void evict(long now) {
+        int before = hotels.size();
+        hotels.values().removeIf(entry -> entry.expiresAt <= now);
+        int excess = hotels.size() - maxSize * 9 / 10;
+        if (excess > 0) {
+            long cutoff = hotels.values().stream()
+                    .mapToLong(entry -> entry.expiresAt)
+                    .sorted()
+                    .skip(excess - 1)
+                    .findFirst()
+                    .orElse(Long.MAX_VALUE);
+            Iterator<Entry> it = hotels.values().iterator();
+            while (it.hasNext() && excess > 0) {
+                if (it.next().expiresAt <= cutoff) {
+                    it.remove();
+                    excess--;
+                }
+            }
+        }
+        evictions.add(before - hotels.size());
+    }
+
+    // Copie détachée de l'entité, avec une liste de services non modifiable
+    private static HotelDTO freeze(HotelDTO hotel) {
+        List<String> services = hotel.getServices() == null ? null
+                : Collections.unmodifiableList(new ArrayList<>(hotel.getServices()));
+        HotelDTO frozen = new HotelDTO(hotel.getId(), hotel.getName(), hotel.getCity(), hotel.getStars(),
+                hotel.getAddress(), hotel.getDescription(), services, hotel.getPhotoPath());
+        frozen.setTotalRooms(hotel.getTotalRooms());
+        frozen.setLatitude(hotel.getLatitude());
+        frozen.setLongitude(hotel.getLongitude());
+        return frozen;
+    }
+
+    private static final class Entry {
+        private final HotelDTO hotel;
+        private final long expiresAt;
+
+        private Entry(HotelDTO hotel, long expiresAt) {
+            this.hotel = hotel;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Liste complète de fiches figées, non modifiable et triée par identifiant, avec son index
+    private static final class Catalog {
+        private final List<HotelDTO> list;
+        private final Map<Long, HotelDTO> byId = new HashMap<>();
+        private final long expiresAt;
+
+        private Catalog(List<HotelDTO> frozenHotels, long expiresAt) {
+            List<HotelDTO> sorted = new ArrayList<>(frozenHotels);
+            sorted.sort(Comparator.comparing(HotelDTO::getId));
+            for (HotelDTO hotel : sorted) {
+                byId.put(hotel.getId(), hotel);
+            }
+            this.list = Collections.unmodifiableList(sorted);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.repository.HotelRepository;
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prix des nuits d'hôtel, en centimes de dirham.
+ * <p>
+ * Le tarif de base d'un hôtel est celui de sa chambre la moins chère, ou à défaut un tarif selon ses
+ * étoiles ; un séjour d'un type de chambre donné part du prix de ce type ({@link RoomInventoryIndex}).
+ * Pour chaque nuit de la fenêtre du tournoi, une grille précalculée donne ce tarif majoré les soirs de
+ * match dans la ville de l'hôtel (et la veille) ; au moment du devis, le prix de la nuit
+ * est multiplié par un coefficient d'occupation lu dans {@link HotelAvailabilityIndex}. Un devis ne
+ * fait donc que des lectures de tableaux d'entiers, sans requête ni allocation. Les nuits hors de la
+ * fenêtre du tournoi sont facturées au tarif de base.
+ * <p>
+ * Les grilles sont chargées au démarrage et pour un hôtel inconnu au premier devis ; le calendrier
+ * des matchs n'est relu que par {@link #rebuild()}.
+ */
+@Component
+public class HotelPricingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelPricingEngine.class);
+
+    // Coefficients en points de base : 10 000 = prix inchangé
+    private static final int BASIS_POINTS = 10_000;
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final MatchRepository matchRepository;
+    private final HotelAvailabilityIndex availabilityIndex;
+    private final RoomInventoryIndex roomInventory;
+
+    private final LocalDate windowStart;
+    private final int windowNights;
+    // Tarif de base par nombre d'étoiles (1 à 5), en centimes
+    private final int[] starRates;
+    // Taux d'occupation (pour mille) à partir duquel chaque coefficient s'applique, croissants
+    private final int[] occupancyThresholds;
+    private final int[] occupancyMultipliers;
+    private final int matchDayMultiplier;
+    private final int matchEveMultiplier;
+
+    private final ConcurrentHashMap<Long, HotelRates> hotels = new ConcurrentHashMap<>();
+    // Coefficient de chaque nuit pour les villes qui accueillent au moins un match (nom normalisé)
+    private volatile Map<String, int[]> citySurges = Map.of();
+
+    private final LongAdder quotes = new LongAdder();
+    private final LongAdder nightsPriced = new LongAdder();
+
+    public HotelPricingEngine(HotelRepository hotelRepository,
+                              RoomRepository roomRepository,
+                              MatchRepository matchRepository,
+                              HotelAvailabilityIndex availabilityIndex,
+                              RoomInventoryIndex roomInventory,
+                              @Value("${worldcup.pricing.star-rates:450,650,950,1500,2500}") int[] starRates,
+                              @Value("${worldcup.pricing.occupancy-tiers:50:110,70:125,85:150,95:180}") String occupancyTiers,
+                              @Value("${worldcup.pricing.match-day-surge-percent:60}") int matchDaySurgePercent,
+                              @Value("${worldcup.pricing.match-eve-surge-percent:25}") int matchEveSurgePercent) {
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.matchRepository = matchRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.roomInventory = roomInventory;
+        this.windowStart = availabilityIndex.windowStart();
+        this.windowNights = availabilityIndex.windowNights();
+
+        if (starRates.length == 0) {
+            throw new IllegalArgumentException("Au moins un tarif par étoiles est requis");
+        }
+        this.starRates = new int[starRates.length];
+        for (int i = 0; i < starRates.length; i++) {
+            this.starRates[i] = Math.multiplyExact(starRates[i], 100);
+        }
+
+        // "seuil%:coefficient%" séparés par des virgules, par ex. 70:125 = +25 % dès 70 % d'occupation
+        String[] tiers = occupancyTiers.isBlank() ? new String[0] : occupancyTiers.split(",");
+        this.occupancyThresholds = new int[tiers.length];
+        this.occupancyMultipliers = new int[tiers.length];
+        for (int i = 0; i < tiers.length; i++) {
+            String[] parts = tiers[i].trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Palier d'occupation invalide: " + tiers[i]);
+            }
+            occupancyThresholds[i] = Integer.parseInt(parts[0].trim()) * 10;
+            occupancyMultipliers[i] = Integer.parseInt(parts[1].trim()) * 100;
+            if (i > 0 && occupancyThresholds[i] <= occupancyThresholds[i - 1]) {
+                throw new IllegalArgumentException("Les paliers d'occupation doivent être croissants: " + occupancyTiers);
+            }
+        }
+        this.matchDayMultiplier = BASIS_POINTS + matchDaySurgePercent * 100;
+        this.matchEveMultiplier = BASIS_POINTS + matchEveSurgePercent * 100;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+        logger.info("✅ Hotel pricing tables built: {} hotels, {} host cities, {} nights from {}",
+                hotels.size(), citySurges.size(), windowNights, windowStart);
+    }
+
+    /**
+     * Relit le calendrier des matchs, les étoiles et les tarifs des chambres, puis recalcule toutes les grilles.
+     */
+    public synchronized void rebuild() {
+        Map<String, int[]> surges = new HashMap<>();
+        for (Object[] row : matchRepository.findAllCityDates()) {
+            int[] nights = surges.computeIfAbsent(StadiumLocations.normalize((String) row[0]), city -> {
+                int[] multipliers = new int[windowNights];
+                Arrays.fill(multipliers, BASIS_POINTS);
+                return multipliers;
+            });
+            int matchNight = offset(((LocalDateTime) row[1]).toLocalDate());
+            raise(nights, matchNight, matchDayMultiplier);
+            raise(nights, matchNight - 1, matchEveMultiplier);
+        }
+        citySurges = surges;
+
+        Map<Long, BigDecimal> roomPrices = new HashMap<>();
+        for (Object[] row : roomRepository.findMinPricePerHotel()) {
+            roomPrices.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        Map<Long, HotelRates> rates = new HashMap<>();
+        for (Object[] row : hotelRepository.findAllPricingRows()) {
+            Long hotelId = (Long) row[0];
+            rates.put(hotelId, ratesFor((Integer) row[1], (String) row[2], roomPrices.get(hotelId)));
+        }
+        hotels.keySet().retainAll(rates.keySet());
+        hotels.putAll(rates);
+    }
+
+    /**
+     * Prix total en centimes de {@code rooms} chambres pour les nuits de {@code startDate} (incluse)
+     * à {@code endDate} (exclue), selon l'occupation actuelle.
+     */
+    public long quoteStay(Long hotelId, LocalDate startDate, LocalDate endDate, int rooms) {
+        return quoteStay(hotelId, null, startDate, endDate, rooms);
+    }
+
+    /**
+     * Idem pour un type de chambre de l'hôtel (null : tarif de l'hôtel) ; un type sans prix est facturé
+     * au tarif de l'hôtel.
+     */
+    public long quoteStay(Long hotelId, String roomType, LocalDate startDate, LocalDate endDate, int rooms) {
+        HotelRates rates = ratesOf(hotelId);
+        int base = rates.base;
+        if (roomType != null) {
+            int typePrice = roomInventory.basePrice(hotelId, roomType);
+            if (typePrice >= 0) {
+                base = typePrice;
+            }
+        }
+        int capacity = availabilityIndex.totalRooms(hotelId);
+        int from = offset(startDate);
+        int to = offset(endDate);
+        long total = 0;
+        for (int night = from; night < to; night++) {
+            total += priceAt(rates, base, hotelId, capacity, night);
+        }
+        quotes.increment();
+        nightsPriced.add(Math.max(0, to - from));
+        return total * rooms;
+    }
+
+    /**
+     * Remplit {@code prices} avec le prix d'une chambre, en centimes, pour chaque nuit à partir de
+     * {@code from} : un calendrier entier sans autre allocation que le tableau fourni.
+     */
+    public void priceNights(Long hotelId, LocalDate from, int[] prices) {
+        HotelRates rates = ratesOf(hotelId);
+        int capacity = availabilityIndex.totalRooms(hotelId);
+        int start = offset(from);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = priceAt(rates, rates.base, hotelId, capacity, start + i);
+        }
+        quotes.increment();
+        nightsPriced.add(prices.length);
+    }
+
+    /**
+     * Oublie la grille de l'hôtel après le commit (étoiles, ville ou tarifs modifiés, hôtel supprimé) :
+     * elle est recalculée au prochain devis.
+     */
+    public void evictAfterCommit(Long hotelId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    hotels.remove(hotelId);
+                }
+            });
+        } else {
+            hotels.remove(hotelId);
+        }
+    }
+
+    public void clear() {
+        hotels.clear();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hotels", hotels.size());
+        stats.put("hostCities", citySurges.size());
+        stats.put("quotes", quotes.sum());
+        stats.put("nightsPriced", nightsPriced.sum());
+        return stats;
+    }
+
+    // Grille précalculée pour le tarif de l'hôtel ; pour un autre tarif (type de chambre), majorations appliquées ici
+    private int priceAt(HotelRates rates, int base, Long hotelId, int capacity, int night) {
+        if (night < 0 || night >= windowNights) {
+            return base;
+        }
+        int price = rates.surges == null ? base
+                : base == rates.base ? rates.nights[night] : scale(base, rates.surges[night]);
+        return scale(price, occupancyMultiplier(availabilityIndex.bookedAt(hotelId, night), capacity));
+    }
+
+    private int occupancyMultiplier(int booked, int capacity) {
+        int perMille = capacity <= 0 ? 1000 : (int) (booked * 1000L / capacity);
+        for (int tier = occupancyThresholds.length - 1; tier >= 0; tier--) {
+            if (perMille >= occupancyThresholds[tier]) {
+                return occupancyMultipliers[tier];
+            }
+        }
+        return BASIS_POINTS;
+    }
+
+    private HotelRates ratesOf(Long hotelId) {
+        HotelRates rates = hotels.get(hotelId);
+        if (rates != null) {
+            return rates;
+        }
+
+        // Hôtel créé après le démarrage ou évincé : chargement depuis la base hors du verrou de la map
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé avec l'ID: " + hotelId));
+        HotelRates loaded = ratesFor(hotel.getStars(), hotel.getCity(), roomRepository.findMinPriceByHotelId(hotelId));
+        HotelRates existing = hotels.putIfAbsent(hotelId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private HotelRates ratesFor(Integer stars, String city, BigDecimal roomPrice) {
+        int base = roomPrice != null && roomPrice.signum() > 0
+                ? roomPrice.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact()
+                : starRates[Math.max(0, Math.min(starRates.length, stars == null ? 1 : stars) - 1)];
+
+        int[] surges = city == null ? null : citySurges.get(StadiumLocations.normalize(city));
+        if (surges == null) {
+            // Pas de match dans la ville : une seule valeur suffit
+            return new HotelRates(base, null, null);
+        }
+        int[] nights = new int[windowNights];
+        for (int night = 0; night < windowNights; night++) {
+            nights[night] = scale(base, surges[night]);
+        }
+        return new HotelRates(base, nights, surges);
+    }
+
+    // Arrondi au centime le plus proche
+    private static int scale(int price, int multiplier) {
+        return (int) ((price * (long) multiplier + BASIS_POINTS / 2) / BASIS_POINTS);
+    }
+
+    private static void raise(int[] multipliers, int night, int multiplier) {
+        if (night >= 0 && night < multipliers.length) {
+            multipliers[night] = Math.max(multipliers[night], multiplier);
+        }
+    }
+
+    private int offset(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(windowStart, date);
+    }
+
+    /**
+     * Tarif de base et, si la ville accueille des matchs, prix majoré de chaque nuit du tournoi et
+     * coefficients de la ville (partagés).
+     */
+    private record HotelRates(int base, int[] nights, int[] surges) {
+    }
+}
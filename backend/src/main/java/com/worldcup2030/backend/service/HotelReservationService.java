@@ -1,24 +1,44 @@
 package com.worldcup2030.backend.service;
 
 import com.worldcup2030.backend.dto.HotelReservationDTO;
+import com.worldcup2030.backend.dto.KeysetPage;
 import com.worldcup2030.backend.model.Hotel;
 import com.worldcup2030.backend.model.HotelReservation;
 import com.worldcup2030.backend.model.PaymentStatus;
+import com.worldcup2030.backend.model.Room;
 import com.worldcup2030.backend.model.User;
 import com.worldcup2030.backend.repository.HotelReservationRepository;
 import com.worldcup2030.backend.repository.HotelRepository;
+import com.worldcup2030.backend.repository.RoomRepository;
 import com.worldcup2030.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -28,18 +48,63 @@ public class HotelReservationService {
     private final HotelReservationRepository reservationRepository;
     private final HotelRepository hotelRepository;
     private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final HotelAvailabilityIndex availabilityIndex;
+    private final RoomInventoryIndex roomInventory;
+    private final HotelPricingEngine pricingEngine;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final HotelBookingProtocol protocol;
+    private final int maxAttempts;
 
     public HotelReservationService(HotelReservationRepository reservationRepository,
                                    HotelRepository hotelRepository,
-                                   UserRepository userRepository) {
+                                   UserRepository userRepository,
+                                   RoomRepository roomRepository,
+                                   HotelAvailabilityIndex availabilityIndex,
+                                   RoomInventoryIndex roomInventory,
+                                   HotelPricingEngine pricingEngine,
+                                   EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${worldcup.hotel.booking.protocol:STRIPED}") HotelBookingProtocol protocol,
+                                   @Value("${worldcup.hotel.booking.max-attempts:5}") int maxAttempts) {
         this.reservationRepository = reservationRepository;
         this.hotelRepository = hotelRepository;
         this.userRepository = userRepository;
+        this.roomRepository = roomRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.roomInventory = roomInventory;
+        this.pricingEngine = pricingEngine;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.protocol = protocol;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        logger.info("🏨 Hotel booking protocol: {}", protocol);
     }
 
+    /**
+     * Crée la réservation dans sa propre transaction. En mode optimiste, un conflit de version sur
+     * l'hôtel (autre réservation validée entre-temps) relance la tentative, au plus maxAttempts fois.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public HotelReservationDTO createReservation(HotelReservationDTO dto) {
         logger.info("🚀 Creating reservation with DTO: {}", dto);
 
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> doCreateReservation(dto));
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    logger.error("❌ Booking conflict on hotel {} after {} attempts", dto.getHotelId(), attempt);
+                    throw new RuntimeException("Cet hôtel est très demandé, veuillez réessayer dans quelques instants");
+                }
+                logger.warn("⚠️ Booking conflict on hotel {}, retry {}/{}", dto.getHotelId(), attempt, maxAttempts);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private HotelReservationDTO doCreateReservation(HotelReservationDTO dto) {
         try {
             // Validation détaillée des données d'entrée
             validateReservationDTO(dto);
@@ -66,17 +131,28 @@ public class HotelReservationService {
 
             // Calculer le prix total avec logging détaillé
             long numberOfNights = ChronoUnit.DAYS.between(dto.getStartDate(), dto.getEndDate());
-            logger.info("📊 Calculating price: {} nights × {} rooms × 1000 MAD", numberOfNights, dto.getNumberOfRooms());
+            logger.info("📊 Calculating price: {} nights × {} rooms", numberOfNights, dto.getNumberOfRooms());
 
             if (numberOfNights <= 0) {
                 throw new RuntimeException("Le nombre de nuits doit être positif. Dates: " + dto.getStartDate() + " à " + dto.getEndDate());
             }
 
-            BigDecimal totalPrice = BigDecimal.valueOf(1000) // Prix de base par nuit
-                    .multiply(BigDecimal.valueOf(numberOfNights))
-                    .multiply(BigDecimal.valueOf(dto.getNumberOfRooms()));
+            // Type de chambre facultatif, tel qu'enregistré sur les chambres de l'hôtel
+            String roomType = dto.getRoomType() == null || dto.getRoomType().isBlank() ? null
+                    : roomInventory.resolveType(hotel.getId(), dto.getRoomType());
+
+            // Prix de chaque nuit selon l'hôtel, le type de chambre, les matchs et l'occupation avant cette réservation
+            long totalCentimes = pricingEngine.quoteStay(hotel.getId(), roomType, dto.getStartDate(), dto.getEndDate(),
+                    dto.getNumberOfRooms());
+            BigDecimal totalPrice = BigDecimal.valueOf(totalCentimes, 2);
             logger.info("💰 Total price calculated: {} MAD", totalPrice);
 
+            // Bloquer les chambres du type puis de l'hôtel pour chaque nuit du séjour (rendues si la transaction échoue)
+            if (roomType != null) {
+                roomInventory.reserve(hotel.getId(), roomType, dto.getStartDate(), dto.getEndDate(), dto.getNumberOfRooms());
+            }
+            claimRooms(hotel, dto.getStartDate(), dto.getEndDate(), dto.getNumberOfRooms());
+
             // Créer la réservation
             logger.info("🏗️ Creating reservation entity...");
             HotelReservation reservation = new HotelReservation();
@@ -85,6 +161,7 @@ public class HotelReservationService {
             reservation.setStartDate(dto.getStartDate());
             reservation.setEndDate(dto.getEndDate());
             reservation.setNumberOfRooms(dto.getNumberOfRooms());
+            reservation.setRoomType(roomType);
             reservation.setNumberOfGuests(dto.getNumberOfGuests());
             reservation.setTotalPrice(totalPrice);
             reservation.setPaymentStatus(PaymentStatus.PENDING);
@@ -159,6 +236,7 @@ public class HotelReservationService {
         logger.info("✅ DTO validation completed successfully");
     }
 
+    @Transactional(readOnly = true)
     public List<HotelReservationDTO> getUserReservations(Long userId) {
         logger.info("📖 Getting reservations for user: {}", userId);
 
@@ -167,12 +245,11 @@ public class HotelReservationService {
         }
 
         try {
-            List<HotelReservation> reservations = reservationRepository.findByUserIdOrderByStartDateDesc(userId);
+            // Projection : une requête, quel que soit le nombre de réservations
+            List<HotelReservationDTO> reservations = reservationRepository.findDtosByUserId(userId);
             logger.info("✅ Found {} reservations for user {}", reservations.size(), userId);
 
-            return reservations.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return reservations;
 
         } catch (Exception e) {
             logger.error("❌ Error getting reservations for user {}", userId, e);
@@ -180,16 +257,15 @@ public class HotelReservationService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<HotelReservationDTO> getAllReservations() {
         logger.info("📖 Getting all reservations");
 
         try {
-            List<HotelReservation> reservations = reservationRepository.findAllByOrderByStartDateDesc();
+            List<HotelReservationDTO> reservations = reservationRepository.findAllDtos();
             logger.info("✅ Found {} total reservations", reservations.size());
 
-            return reservations.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return reservations;
 
         } catch (Exception e) {
             logger.error("❌ Error getting all reservations", e);
@@ -197,6 +273,84 @@ public class HotelReservationService {
         }
     }
 
+    /**
+     * Page de réservations triées par date de début décroissante ; {@code after} est le curseur
+     * rendu par la page précédente (null pour la première page).
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<HotelReservationDTO> getReservationsPage(String after, Integer size) {
+        int limit = KeysetPage.clampSize(size);
+        Pageable rows = PageRequest.of(0, limit + 1);
+        if (after == null || after.isBlank()) {
+            return KeysetPage.of(reservationRepository.findFirstDtos(rows), limit, HotelReservationService::cursorOf);
+        }
+        ReservationCursor cursor = ReservationCursor.parse(after);
+        return KeysetPage.of(reservationRepository.findDtosAfter(cursor.startDate, cursor.id, rows),
+                limit, HotelReservationService::cursorOf);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<HotelReservationDTO> getUserReservationsPage(Long userId, String after, Integer size) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("ID utilisateur invalide: " + userId);
+        }
+        int limit = KeysetPage.clampSize(size);
+        Pageable rows = PageRequest.of(0, limit + 1);
+        if (after == null || after.isBlank()) {
+            return KeysetPage.of(reservationRepository.findFirstDtosByUserId(userId, rows), limit,
+                    HotelReservationService::cursorOf);
+        }
+        ReservationCursor cursor = ReservationCursor.parse(after);
+        return KeysetPage.of(reservationRepository.findDtosByUserIdAfter(userId, cursor.startDate, cursor.id, rows),
+                limit, HotelReservationService::cursorOf);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<HotelReservationDTO> getHotelReservationsPage(Long hotelId, String after, Integer size) {
+        if (hotelId == null || hotelId <= 0) {
+            throw new IllegalArgumentException("ID hôtel invalide: " + hotelId);
+        }
+        int limit = KeysetPage.clampSize(size);
+        Pageable rows = PageRequest.of(0, limit + 1);
+        if (after == null || after.isBlank()) {
+            return KeysetPage.of(reservationRepository.findFirstDtosByHotelId(hotelId, rows), limit,
+                    HotelReservationService::cursorOf);
+        }
+        ReservationCursor cursor = ReservationCursor.parse(after);
+        return KeysetPage.of(reservationRepository.findDtosByHotelIdAfter(hotelId, cursor.startDate, cursor.id, rows),
+                limit, HotelReservationService::cursorOf);
+    }
+
+    /**
+     * Réservations d'un statut de paiement par identifiant croissant ; {@code after} est l'identifiant
+     * de la dernière réservation de la page précédente.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<HotelReservationDTO> getReservationsByStatusPage(PaymentStatus status, String after, Integer size) {
+        int limit = KeysetPage.clampSize(size);
+        long afterId = 0;
+        if (after != null && !after.isBlank()) {
+            try {
+                afterId = Long.parseLong(after);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide: " + after);
+            }
+        }
+        return KeysetPage.of(reservationRepository.findDtosByPaymentStatusAfter(status, afterId, PageRequest.of(0, limit + 1)),
+                limit, reservation -> String.valueOf(reservation.getId()));
+    }
+
+    /**
+     * Passe chaque réservation à {@code consumer} au fil de la lecture, sans construire la liste.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllReservations(Consumer<HotelReservationDTO> consumer) {
+        try (Stream<HotelReservationDTO> reservations = reservationRepository.streamAllDtos()) {
+            reservations.forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public HotelReservationDTO getReservationById(Long id) {
         logger.info("📖 Getting reservation by ID: {}", id);
 
@@ -204,16 +358,14 @@ public class HotelReservationService {
             throw new IllegalArgumentException("ID de réservation invalide: " + id);
         }
 
-        Optional<HotelReservation> reservationOpt = reservationRepository.findById(id);
+        Optional<HotelReservationDTO> reservationOpt = reservationRepository.findDtoById(id);
         if (reservationOpt.isEmpty()) {
             logger.error("❌ Reservation not found with ID: {}", id);
             throw new RuntimeException("Réservation non trouvée avec l'ID: " + id);
         }
 
-        HotelReservation reservation = reservationOpt.get();
-        logger.info("✅ Reservation found: {}", reservation.getId());
-
-        return convertToDTO(reservation);
+        logger.info("✅ Reservation found: {}", id);
+        return reservationOpt.get();
     }
 
     public void cancelReservation(Long id) {
@@ -237,6 +389,9 @@ public class HotelReservationService {
             throw new RuntimeException("Impossible d'annuler une réservation moins de 24h avant le début");
         }
 
+        if (reservation.getPaymentStatus() != PaymentStatus.CANCELLED) {
+            releaseRooms(reservation);
+        }
         reservation.setPaymentStatus(PaymentStatus.CANCELLED);
         reservationRepository.save(reservation);
         logger.info("✅ Reservation {} canceled successfully", id);
@@ -260,6 +415,19 @@ public class HotelReservationService {
         }
 
         HotelReservation reservation = reservationOpt.get();
+
+        // Les réservations annulées ne comptent plus dans l'occupation des nuits
+        boolean wasCancelled = reservation.getPaymentStatus() == PaymentStatus.CANCELLED;
+        if (!wasCancelled && status == PaymentStatus.CANCELLED) {
+            releaseRooms(reservation);
+        } else if (wasCancelled && status != PaymentStatus.CANCELLED) {
+            if (reservation.getRoomType() != null) {
+                roomInventory.reserve(reservation.getHotel().getId(), reservation.getRoomType(),
+                        reservation.getStartDate(), reservation.getEndDate(), reservation.getNumberOfRooms());
+            }
+            claimRooms(reservation.getHotel(), reservation.getStartDate(),
+                    reservation.getEndDate(), reservation.getNumberOfRooms());
+        }
         reservation.setPaymentStatus(status);
 
         HotelReservation updatedReservation = reservationRepository.save(reservation);
@@ -268,6 +436,181 @@ public class HotelReservationService {
         return convertToDTO(updatedReservation);
     }
 
+    private void claimRooms(Hotel hotel, LocalDate startDate, LocalDate endDate, int rooms) {
+        if (protocol == HotelBookingProtocol.STRIPED) {
+            availabilityIndex.reserve(hotel.getId(), startDate, endDate, rooms);
+            return;
+        }
+
+        // La version de l'hôtel est incrémentée au commit : deux réservations concurrentes
+        // sur le même hôtel ne peuvent pas être validées toutes les deux
+        entityManager.lock(hotel, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+        int nights = (int) ChronoUnit.DAYS.between(startDate, endDate);
+        int[] booked = new int[nights];
+        for (Object[] row : reservationRepository.findActiveStaysByHotelId(hotel.getId(), startDate, endDate)) {
+            int from = (int) Math.max(0, ChronoUnit.DAYS.between(startDate, (LocalDate) row[1]));
+            int to = (int) Math.min(nights, ChronoUnit.DAYS.between(startDate, (LocalDate) row[2]));
+            for (int night = from; night < to; night++) {
+                booked[night] += (Integer) row[3];
+            }
+        }
+
+        int capacity = availabilityIndex.totalRooms(hotel.getId());
+        for (int night = 0; night < nights; night++) {
+            if (booked[night] + rooms > capacity) {
+                throw new RuntimeException("Plus assez de chambres disponibles pour ces dates");
+            }
+        }
+        availabilityIndex.recordAfterCommit(hotel.getId(), startDate, endDate, rooms);
+    }
+
+    /**
+     * Attribue à l'arrivée des chambres précises du type réservé (ou de tout type), libres pendant tout
+     * le séjour. Deux arrivées simultanées qui choisissent la même chambre incrémentent toutes deux sa
+     * version : la seconde échoue au commit et recommence avec les chambres restantes.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public HotelReservationDTO checkIn(Long id) {
+        logger.info("🛎️ Checking in reservation: {}", id);
+
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("ID de réservation invalide: " + id);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> doCheckIn(id));
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    logger.error("❌ Room allocation conflict for reservation {} after {} attempts", id, attempt);
+                    throw new RuntimeException("Attribution des chambres impossible pour le moment, veuillez réessayer");
+                }
+                logger.warn("⚠️ Room allocation conflict for reservation {}, retry {}/{}", id, attempt, maxAttempts);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private HotelReservationDTO doCheckIn(Long id) {
+        HotelReservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Réservation non trouvée avec l'ID: " + id));
+        if (reservation.getPaymentStatus() == PaymentStatus.CANCELLED
+                || reservation.getPaymentStatus() == PaymentStatus.FAILED
+                || reservation.getPaymentStatus() == PaymentStatus.REFUNDED) {
+            throw new RuntimeException("Impossible d'attribuer des chambres à une réservation " + reservation.getPaymentStatus());
+        }
+        if (!reservation.getRooms().isEmpty()) {
+            return convertToDTO(reservation);
+        }
+
+        // À l'arrivée seulement : les séjours sont attribués dans l'ordre des dates, sans fragmenter l'inventaire
+        LocalDate today = LocalDate.now();
+        if (today.isBefore(reservation.getStartDate()) || !today.isBefore(reservation.getEndDate())) {
+            throw new RuntimeException("L'attribution des chambres se fait pendant le séjour, du "
+                    + reservation.getStartDate() + " au " + reservation.getEndDate());
+        }
+
+        List<Room> rooms = reservation.getRoomType() == null
+                ? freeRoomsOfAnyType(reservation)
+                : roomRepository.findFreeRooms(reservation.getHotel().getId(), reservation.getRoomType(),
+                        reservation.getStartDate(), reservation.getEndDate(), PageRequest.of(0, reservation.getNumberOfRooms()));
+        if (rooms.size() < reservation.getNumberOfRooms()) {
+            logger.error("❌ Only {} free rooms for reservation {}", rooms.size(), id);
+            throw new RuntimeException("Plus assez de chambres libres à attribuer pour ce séjour");
+        }
+        for (Room room : rooms) {
+            entityManager.lock(room, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+        reservation.getRooms().addAll(rooms);
+        reservation.setRoom(rooms.get(0));
+
+        HotelReservation saved = reservationRepository.save(reservation);
+        logger.info("✅ Reservation {} checked in: rooms {}", id, rooms.stream().map(Room::getId).toList());
+        return convertToDTO(saved);
+    }
+
+    /**
+     * Chambres libres de tout type pour un séjour sans type : celles encore dues aux séjours typés qui
+     * chevauchent la période et attendent leur arrivée sont laissées de côté tant que d'autres suffisent.
+     */
+    private List<Room> freeRoomsOfAnyType(HotelReservation reservation) {
+        Long hotelId = reservation.getHotel().getId();
+        Map<String, Long> owed = new HashMap<>();
+        long reserved = 0;
+        for (Object[] row : reservationRepository.sumUnallocatedTypedRooms(hotelId,
+                reservation.getStartDate(), reservation.getEndDate())) {
+            owed.put((String) row[0], (Long) row[1]);
+            reserved += (Long) row[1];
+        }
+        int wanted = reservation.getNumberOfRooms();
+        List<Room> free = roomRepository.findFreeRooms(hotelId, null, reservation.getStartDate(),
+                reservation.getEndDate(), PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, wanted + reserved)));
+
+        List<Room> rooms = new ArrayList<>(wanted);
+        List<Room> setAside = new ArrayList<>();
+        for (Room room : free) {
+            if (rooms.size() == wanted) {
+                break;
+            }
+            Long left = room.getRoomType() == null ? null : owed.get(room.getRoomType());
+            if (left != null && left > 0) {
+                owed.put(room.getRoomType(), left - 1);
+                setAside.add(room);
+            } else {
+                rooms.add(room);
+            }
+        }
+        // Pas assez de chambres hors de celles dues : la réservation sans type passe quand même
+        for (Iterator<Room> it = setAside.iterator(); rooms.size() < wanted && it.hasNext(); ) {
+            rooms.add(it.next());
+        }
+        return rooms;
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Réservation interrompue", e);
+        }
+    }
+
+    private void releaseRooms(HotelReservation reservation) {
+        availabilityIndex.releaseAfterCommit(reservation.getHotel().getId(), reservation.getStartDate(),
+                reservation.getEndDate(), reservation.getNumberOfRooms());
+        if (reservation.getRoomType() != null) {
+            roomInventory.releaseAfterCommit(reservation.getHotel().getId(), reservation.getRoomType(),
+                    reservation.getStartDate(), reservation.getEndDate(), reservation.getNumberOfRooms());
+        }
+    }
+
+    private static String cursorOf(HotelReservationDTO reservation) {
+        return reservation.getStartDate() + "_" + reservation.getId();
+    }
+
+    // Curseur "dateDeDébut_id" de la dernière réservation de la page précédente
+    private static final class ReservationCursor {
+        private final LocalDate startDate;
+        private final Long id;
+
+        private ReservationCursor(LocalDate startDate, Long id) {
+            this.startDate = startDate;
+            this.id = id;
+        }
+
+        private static ReservationCursor parse(String cursor) {
+            int separator = cursor.indexOf('_');
+            try {
+                return new ReservationCursor(LocalDate.parse(cursor.substring(0, separator)),
+                        Long.parseLong(cursor.substring(separator + 1)));
+            } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide: " + cursor);
+            }
+        }
+    }
+
     private HotelReservationDTO convertToDTO(HotelReservation reservation) {
         logger.debug("🔄 Converting reservation to DTO: {}", reservation.getId());
 
@@ -286,6 +629,8 @@ public class HotelReservationService {
                     reservation.getTotalPrice(),
                     reservation.getPaymentStatus().toString()
             );
+            dto.setRoomType(reservation.getRoomType());
+            dto.setRoomIds(reservation.getRooms().stream().map(Room::getId).toList());
 
             logger.debug("✅ DTO conversion completed for reservation: {}", reservation.getId());
             return dto;
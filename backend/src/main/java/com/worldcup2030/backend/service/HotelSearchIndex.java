@@ -0,0 +1,656 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelSearchHitDTO;
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.repository.HotelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moteur de recherche des hôtels, tenu en mémoire.
+ * <p>
+ * Le texte (nom, services, ville, description) est découpé en mots sans accents ni casse, chacun
+ * associé à la liste triée des hôtels qui le contiennent et au poids du champ (le nom compte plus que
+ * la description). Un mot recherché correspond au mot exact, ou aux mots qu'il commence s'il a au
+ * moins trois lettres, avec un poids moindre. Ville et services ont leurs propres listes ; étoiles et
+ * position sont des colonnes de primitifs. Une recherche intersecte les listes en partant de la plus
+ * courte, filtre sur les colonnes, compte les facettes, puis n'extrait que la page demandée.
+ * <p>
+ * La distance au stade sert au filtre et au tri sous forme approchée (projection équirectangulaire,
+ * largement assez précise à l'échelle d'un pays) ; la distance affichée est recalculée pour la page.
+ * Un hôtel sans coordonnées est placé au centre de sa ville s'il est connu de {@link StadiumLocations}.
+ * <p>
+ * Les hôtels changent rarement : un ajout, une modification ou une suppression reconstruit
+ * l'instantané à partir des fiches gardées en mémoire, après le commit et sans relire la base.
+ */
+@Component
+public class HotelSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelSearchIndex.class);
+
+    private static final int DOC_BITS = 24;
+    private static final int MAX_DOCS = 1 << DOC_BITS;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SERVICE_FACETS = 20;
+    // Mots indexés retenus au plus pour un préfixe recherché
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    // Clé de tri : critère principal, puis score inversé sur SCORE_BITS bits, puis document
+    private static final int SCORE_BITS = 12;
+    private static final long MAX_SCORE = (1L << SCORE_BITS) - 1;
+    private static final long MAX_METRES = (1L << 26) - 1;
+    private static final double EARTH_RADIUS_M = 6_371_000.0;
+
+    private static final int NAME_WEIGHT = 4;
+    private static final int SERVICE_WEIGHT = 3;
+    private static final int CITY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "au", "aux", "d", "de", "des", "du", "en", "et",
+            "l", "la", "le", "les", "un", "une", "the", "and", "of");
+
+    public enum Sort { RELEVANCE, STARS, DISTANCE, NAME }
+
+    private final HotelRepository hotelRepository;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+    // Utilisé par l'unique écrivain (méthodes synchronisées) : fiche courante de chaque hôtel
+    private final TreeMap<Long, Doc> hotels = new TreeMap<>();
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private volatile long lastBuildMillis;
+
+    public HotelSearchIndex(HotelRepository hotelRepository) {
+        this.hotelRepository = hotelRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+        Snapshot s = snapshot;
+        logger.info("✅ Hotel search index built: {} hotels, {} terms", s.docs.length, s.terms.length);
+    }
+
+    public synchronized void rebuild() {
+        hotels.clear();
+        for (Hotel hotel : hotelRepository.findAllWithServices()) {
+            hotels.put(hotel.getId(), Doc.of(hotel));
+        }
+        publish();
+    }
+
+    // La fiche est copiée tout de suite : l'entité peut encore changer avant le commit
+    public void upsertAfterCommit(Hotel hotel) {
+        Doc doc = Doc.of(hotel);
+        afterCommit(() -> apply(doc.id, doc));
+    }
+
+    public void removeAfterCommit(Long hotelId) {
+        afterCommit(() -> apply(hotelId, null));
+    }
+
+    /**
+     * Page {@code page} des hôtels correspondant à tous les critères fournis. {@code near} est une
+     * position [latitude, longitude] (stade), requise pour {@code maxDistanceKm} et le tri par distance.
+     * Sans tri demandé : pertinence si un texte est donné, sinon distance si une position l'est,
+     * sinon étoiles.
+     */
+    public Map<String, Object> search(String text, String city, Integer minStars, Integer maxStars,
+                                      Collection<String> services, double[] near, Double maxDistanceKm,
+                                      String sort, int page, int size) {
+        long startedAt = System.nanoTime();
+        Snapshot s = snapshot;
+        if (page < 0) {
+            throw new IllegalArgumentException("Numéro de page invalide: " + page);
+        }
+        if (maxDistanceKm != null && (near == null || maxDistanceKm <= 0)) {
+            throw new IllegalArgumentException("Une distance maximale exige un stade et doit être positive");
+        }
+        List<String> words = text == null ? List.of() : tokenize(text);
+        Sort order = sortOf(sort, !words.isEmpty(), near != null);
+        if (order == Sort.DISTANCE && near == null) {
+            throw new IllegalArgumentException("Le tri par distance exige un stade");
+        }
+        int limit = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        int lowStars = minStars == null ? Integer.MIN_VALUE : minStars;
+        int highStars = maxStars == null ? Integer.MAX_VALUE : maxStars;
+
+        // Listes à intersecter : critères d'égalité puis un groupe par mot recherché
+        List<Match> lists = new ArrayList<>();
+        boolean none = false;
+        if (city != null && !city.isBlank()) {
+            none |= add(lists, s.byCity.get(StadiumLocations.normalize(city)));
+        }
+        if (services != null) {
+            for (String service : services) {
+                if (service != null && !service.isBlank()) {
+                    none |= add(lists, s.byService.get(StadiumLocations.normalize(service)));
+                }
+            }
+        }
+        for (String word : words) {
+            if (none) {
+                break;
+            }
+            Match match = s.expand(word);
+            none = match == null;
+            if (match != null) {
+                lists.add(match);
+            }
+        }
+
+        double nearLat = near == null ? 0 : Math.toRadians(near[0]);
+        double nearLng = near == null ? 0 : Math.toRadians(near[1]);
+        double cosNear = Math.cos(nearLat);
+        double maxMetres = maxDistanceKm == null ? Double.MAX_VALUE : maxDistanceKm * 1000;
+
+        long[] keys = new long[0];
+        int matched = 0;
+        if (!none) {
+            int[] candidates;
+            int[] scores;
+            int count;
+            if (lists.isEmpty()) {
+                candidates = null;
+                scores = null;
+                count = s.docs.length;
+            } else {
+                lists.sort(Comparator.comparingInt(list -> list.docs.length));
+                Match first = lists.get(0);
+                candidates = first.docs.clone();
+                scores = first.scores != null ? first.scores.clone() : new int[candidates.length];
+                count = candidates.length;
+                for (int i = 1; i < lists.size() && count > 0; i++) {
+                    count = intersect(candidates, scores, count, lists.get(i));
+                }
+            }
+            keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                int doc = candidates == null ? i : candidates[i];
+                int stars = s.stars[doc];
+                if (stars < lowStars || stars > highStars) {
+                    continue;
+                }
+                long metres = MAX_METRES;
+                if (near != null) {
+                    if (Double.isNaN(s.latRad[doc])) {
+                        if (maxDistanceKm != null) {
+                            continue;
+                        }
+                    } else {
+                        double x = (s.lngRad[doc] - nearLng) * cosNear;
+                        double y = s.latRad[doc] - nearLat;
+                        double distance = EARTH_RADIUS_M * Math.sqrt(x * x + y * y);
+                        if (distance > maxMetres) {
+                            continue;
+                        }
+                        metres = Math.min(MAX_METRES, (long) distance);
+                    }
+                }
+                long inverseScore = scores == null ? MAX_SCORE : MAX_SCORE - Math.min(MAX_SCORE, scores[i]);
+                int missingStars = 5 - Math.min(5, Math.max(0, stars));
+                long primary = switch (order) {
+                    case RELEVANCE -> (inverseScore << 3) | missingStars;
+                    case STARS -> missingStars;
+                    case DISTANCE -> metres;
+                    case NAME -> s.nameRank[doc];
+                };
+                keys[matched++] = (primary << (DOC_BITS + SCORE_BITS)) | (inverseScore << DOC_BITS) | doc;
+            }
+        }
+
+        Map<String, Object> facets = facets(s, keys, matched);
+        int first = (int) Math.min((long) page * limit, matched);
+        int last = Math.min(first + limit, matched);
+        if (last < matched / 8) {
+            OfferSearchIndex.selectSmallest(keys, matched, last);
+        } else {
+            Arrays.sort(keys, 0, matched);
+        }
+        List<HotelSearchHitDTO> hits = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            int score = (int) (MAX_SCORE - ((keys[i] >>> DOC_BITS) & MAX_SCORE));
+            hits.add(s.hit((int) (keys[i] & (MAX_DOCS - 1)), near, score));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", matched);
+        result.put("page", page);
+        result.put("size", limit);
+        result.put("sort", order.name().toLowerCase(Locale.ROOT));
+        result.put("hotels", hits);
+        result.put("facets", facets);
+        long tookNanos = System.nanoTime() - startedAt;
+        result.put("tookMicros", TimeUnit.NANOSECONDS.toMicros(tookNanos));
+        searches.increment();
+        searchNanos.add(tookNanos);
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot s = snapshot;
+        long count = searches.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hotels", s.docs.length);
+        stats.put("terms", s.terms.length);
+        stats.put("cities", s.cityNames.length);
+        stats.put("services", s.serviceNames.length);
+        stats.put("searches", count);
+        stats.put("averageSearchMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(searchNanos.sum() / count));
+        stats.put("updates", updates.sum());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        return stats;
+    }
+
+    private synchronized void apply(Long hotelId, Doc doc) {
+        if (doc == null) {
+            if (hotels.remove(hotelId) == null) {
+                return;
+            }
+        } else {
+            hotels.put(hotelId, doc);
+        }
+        publish();
+        updates.increment();
+    }
+
+    private void publish() {
+        if (hotels.size() >= MAX_DOCS) {
+            throw new IllegalStateException("Trop d'hôtels pour l'index de recherche: " + hotels.size());
+        }
+        long startedAt = System.nanoTime();
+        snapshot = Snapshot.build(new ArrayList<>(hotels.values()));
+        lastBuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+    private static Sort sortOf(String sort, boolean hasText, boolean hasLocation) {
+        if (sort == null || sort.isBlank()) {
+            return hasText ? Sort.RELEVANCE : hasLocation ? Sort.DISTANCE : Sort.STARS;
+        }
+        try {
+            return Sort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tri inconnu: " + sort);
+        }
+    }
+
+    private static boolean add(List<Match> lists, int[] docs) {
+        if (docs == null) {
+            return true;
+        }
+        lists.add(new Match(docs, null));
+        return false;
+    }
+
+    // Garde les candidats présents dans {@code other} (recherche galopante) et ajoute leur poids
+    private static int intersect(int[] candidates, int[] scores, int count, Match other) {
+        int kept = 0;
+        int lo = 0;
+        int size = other.docs.length;
+        for (int i = 0; i < count && lo < size; i++) {
+            int doc = candidates[i];
+            int step = 1;
+            int hi = lo;
+            while (hi < size && other.docs[hi] < doc) {
+                lo = hi + 1;
+                hi = lo + step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(other.docs, lo, Math.min(hi + 1, size), doc);
+            if (found >= 0) {
+                candidates[kept] = doc;
+                scores[kept++] = scores[i] + (other.scores == null ? 0 : other.scores[found]);
+                lo = found + 1;
+            } else {
+                lo = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static Map<String, Object> facets(Snapshot s, long[] keys, int matched) {
+        int[] byCity = new int[s.cityNames.length];
+        int[] byStars = new int[6];
+        int[] byService = new int[s.serviceNames.length];
+        for (int i = 0; i < matched; i++) {
+            int doc = (int) (keys[i] & (MAX_DOCS - 1));
+            if (s.cityOrd[doc] >= 0) {
+                byCity[s.cityOrd[doc]]++;
+            }
+            byStars[Math.min(5, Math.max(0, s.stars[doc]))]++;
+            for (int service : s.docServices[doc]) {
+                byService[service]++;
+            }
+        }
+
+        Map<String, Integer> cities = new TreeMap<>();
+        for (int ord = 0; ord < byCity.length; ord++) {
+            if (byCity[ord] > 0) {
+                cities.put(s.cityNames[ord], byCity[ord]);
+            }
+        }
+        Map<String, Integer> stars = new LinkedHashMap<>();
+        for (int value = 5; value >= 0; value--) {
+            if (byStars[value] > 0) {
+                stars.put(String.valueOf(value), byStars[value]);
+            }
+        }
+        // Services les plus fréquents seulement, pour borner la réponse
+        Integer[] ordinals = new Integer[byService.length];
+        int used = 0;
+        for (int ord = 0; ord < byService.length; ord++) {
+            if (byService[ord] > 0) {
+                ordinals[used++] = ord;
+            }
+        }
+        Arrays.sort(ordinals, 0, used, Comparator.<Integer>comparingInt(ord -> -byService[ord])
+                .thenComparing(ord -> s.serviceNames[ord]));
+        Map<String, Integer> services = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(used, MAX_SERVICE_FACETS); i++) {
+            services.put(s.serviceNames[ordinals[i]], byService[ordinals[i]]);
+        }
+
+        Map<String, Object> facets = new LinkedHashMap<>();
+        facets.put("cities", cities);
+        facets.put("stars", stars);
+        facets.put("services", services);
+        return facets;
+    }
+
+    // Mots distincts sans accents ni casse, mots vides exclus
+    static List<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : StadiumLocations.normalize(text).split(" ")) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Fiche d'un hôtel figée au moment de l'indexation.
+     */
+    /**
+     * Fiche d'un hôtel avec ce qui ne dépend que de lui (clés normalisées, poids de ses mots), calculé
+     * une seule fois : reconstruire l'instantané ne fait plus que les assembler.
+     */
+    private record Doc(Long id, String name, String city, int stars, String address, String description,
+                       List<String> services, String photoPath, Integer totalRooms, Double latitude, Double longitude,
+                       String sortName, String cityKey, List<String> serviceKeys, Map<String, Integer> words) {
+
+        static Doc of(Hotel hotel) {
+            List<String> services = hotel.getServices() == null ? List.of()
+                    : hotel.getServices().stream().filter(service -> service != null && !service.isBlank()).toList();
+            String city = hotel.getCity();
+            Map<String, Integer> words = new HashMap<>();
+            addWords(words, hotel.getName(), NAME_WEIGHT);
+            addWords(words, String.join(" ", services), SERVICE_WEIGHT);
+            addWords(words, city, CITY_WEIGHT);
+            addWords(words, hotel.getDescription(), DESCRIPTION_WEIGHT);
+            return new Doc(hotel.getId(), hotel.getName(), city, hotel.getStars(), hotel.getAddress(),
+                    hotel.getDescription(), services, hotel.getPhotoPath(), hotel.getTotalRooms(),
+                    hotel.getLatitude(), hotel.getLongitude(),
+                    hotel.getName() == null ? "" : StadiumLocations.normalize(hotel.getName()),
+                    city == null || city.isBlank() ? null : StadiumLocations.normalize(city),
+                    services.stream().map(StadiumLocations::normalize).toList(), words);
+        }
+
+        // Poids d'un champ ajouté une fois par mot, cumulé entre champs
+        private static void addWords(Map<String, Integer> weights, String field, int weight) {
+            if (field == null || field.isBlank()) {
+                return;
+            }
+            for (String word : tokenize(field)) {
+                weights.merge(word, weight, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Hôtels correspondant à un critère, triés par document, avec le poids de chacun (null : aucun poids).
+     */
+    private record Match(int[] docs, int[] scores) {
+    }
+
+    /**
+     * Index immuable lu par les recherches, reconstruit à chaque changement.
+     */
+    private static final class Snapshot {
+        private Doc[] docs;
+        private int[] stars;
+        private int[] cityOrd;
+        private String[] cityNames;
+        // Position en radians, NaN si inconnue
+        private double[] latRad;
+        private double[] lngRad;
+        private int[] nameRank;
+        private int[][] docServices;
+        private String[] serviceNames;
+        private Map<String, int[]> byCity;
+        private Map<String, int[]> byService;
+        // Mots triés, avec pour chacun les documents et le poids cumulé des champs qui le contiennent
+        private String[] terms;
+        private int[][] termDocs;
+        private int[][] termWeights;
+
+        static Snapshot build(List<Doc> hotels) {
+            int n = hotels.size();
+            Snapshot s = new Snapshot();
+            s.docs = hotels.toArray(new Doc[0]);
+            s.stars = new int[n];
+            s.cityOrd = new int[n];
+            s.latRad = new double[n];
+            s.lngRad = new double[n];
+            s.docServices = new int[n][];
+
+            Map<String, Integer> cityOrdinals = new HashMap<>();
+            List<String> cityNames = new ArrayList<>();
+            Map<String, Integer> serviceOrdinals = new HashMap<>();
+            List<String> serviceNames = new ArrayList<>();
+            Map<String, IntList> byCity = new HashMap<>();
+            Map<String, IntList> byService = new HashMap<>();
+            Map<String, IntList[]> postings = new HashMap<>();
+
+            for (int doc = 0; doc < n; doc++) {
+                Doc hotel = s.docs[doc];
+                s.stars[doc] = hotel.stars();
+                s.cityOrd[doc] = -1;
+                if (hotel.cityKey() != null) {
+                    String key = hotel.cityKey();
+                    Integer ord = cityOrdinals.get(key);
+                    if (ord == null) {
+                        ord = cityNames.size();
+                        cityOrdinals.put(key, ord);
+                        cityNames.add(hotel.city().trim());
+                    }
+                    s.cityOrd[doc] = ord;
+                    byCity.computeIfAbsent(key, k -> new IntList()).add(doc, 0);
+                }
+
+                double[] location = hotel.latitude() != null && hotel.longitude() != null
+                        ? new double[]{hotel.latitude(), hotel.longitude()}
+                        : StadiumLocations.city(hotel.city());
+                s.latRad[doc] = location == null ? Double.NaN : Math.toRadians(location[0]);
+                s.lngRad[doc] = location == null ? Double.NaN : Math.toRadians(location[1]);
+
+                Set<Integer> own = new LinkedHashSet<>();
+                for (int i = 0; i < hotel.services().size(); i++) {
+                    String service = hotel.services().get(i);
+                    String key = hotel.serviceKeys().get(i);
+                    Integer ord = serviceOrdinals.get(key);
+                    if (ord == null) {
+                        ord = serviceNames.size();
+                        serviceOrdinals.put(key, ord);
+                        serviceNames.add(service.trim());
+                    }
+                    if (own.add(ord)) {
+                        byService.computeIfAbsent(key, k -> new IntList()).add(doc, 0);
+                    }
+                }
+                s.docServices[doc] = own.stream().mapToInt(Integer::intValue).toArray();
+
+                for (Map.Entry<String, Integer> entry : hotel.words().entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), k -> new IntList[]{new IntList()})[0]
+                            .add(doc, entry.getValue());
+                }
+            }
+
+            s.cityNames = cityNames.toArray(new String[0]);
+            s.serviceNames = serviceNames.toArray(new String[0]);
+            s.byCity = new HashMap<>();
+            byCity.forEach((key, list) -> s.byCity.put(key, list.docs()));
+            s.byService = new HashMap<>();
+            byService.forEach((key, list) -> s.byService.put(key, list.docs()));
+
+            s.terms = postings.keySet().toArray(new String[0]);
+            Arrays.sort(s.terms);
+            s.termDocs = new int[s.terms.length][];
+            s.termWeights = new int[s.terms.length][];
+            for (int t = 0; t < s.terms.length; t++) {
+                IntList list = postings.get(s.terms[t])[0];
+                s.termDocs[t] = list.docs();
+                s.termWeights[t] = list.values();
+            }
+
+            Integer[] byName = new Integer[n];
+            for (int doc = 0; doc < n; doc++) {
+                byName[doc] = doc;
+            }
+            Arrays.sort(byName, Comparator.comparing((Integer doc) -> s.docs[doc].sortName()).thenComparing(doc -> doc));
+            s.nameRank = new int[n];
+            for (int rank = 0; rank < n; rank++) {
+                s.nameRank[byName[rank]] = rank;
+            }
+            return s;
+        }
+
+        /**
+         * Documents contenant le mot recherché : mot exact (poids doublé) ou, à partir de trois lettres,
+         * mots qui le commencent ; un document garde son meilleur poids. Null si aucun mot ne correspond.
+         */
+        Match expand(String word) {
+            int from = Arrays.binarySearch(terms, word);
+            boolean exact = from >= 0;
+            if (!exact) {
+                from = -from - 1;
+            }
+            int to = from + (exact ? 1 : 0);
+            if (word.length() >= MIN_PREFIX_LENGTH) {
+                while (to < terms.length && to - from < MAX_EXPANSIONS && terms[to].startsWith(word)) {
+                    to++;
+                }
+            }
+            if (to == from) {
+                return null;
+            }
+            if (to - from == 1) {
+                int[] weights = termWeights[from].clone();
+                if (exact) {
+                    for (int i = 0; i < weights.length; i++) {
+                        weights[i] *= 2;
+                    }
+                }
+                return new Match(termDocs[from], weights);
+            }
+
+            int total = 0;
+            for (int t = from; t < to; t++) {
+                total += termDocs[t].length;
+            }
+            long[] packed = new long[total];
+            int next = 0;
+            for (int t = from; t < to; t++) {
+                int factor = exact && t == from ? 2 : 1;
+                for (int i = 0; i < termDocs[t].length; i++) {
+                    packed[next++] = ((long) termDocs[t][i] << 32) | (termWeights[t][i] * factor);
+                }
+            }
+            Arrays.sort(packed);
+            int[] docs = new int[total];
+            int[] weights = new int[total];
+            int size = 0;
+            for (long entry : packed) {
+                int doc = (int) (entry >>> 32);
+                int weight = (int) entry;
+                if (size > 0 && docs[size - 1] == doc) {
+                    weights[size - 1] = Math.max(weights[size - 1], weight);
+                } else {
+                    docs[size] = doc;
+                    weights[size++] = weight;
+                }
+            }
+            return new Match(Arrays.copyOf(docs, size), Arrays.copyOf(weights, size));
+        }
+
+        HotelSearchHitDTO hit(int doc, double[] near, int score) {
+            Doc hotel = docs[doc];
+            Double distanceKm = null;
+            if (near != null && !Double.isNaN(latRad[doc])) {
+                double km = StadiumLocations.distanceKm(near[0], near[1], Math.toDegrees(latRad[doc]), Math.toDegrees(lngRad[doc]));
+                distanceKm = Math.round(km * 10) / 10.0;
+            }
+            return new HotelSearchHitDTO(hotel.id(), hotel.name(), hotel.city(), hotel.stars(), hotel.address(),
+                    hotel.services(), hotel.photoPath(), hotel.totalRooms(), distanceKm, score);
+        }
+    }
+
+    // Liste de documents croissants, avec une valeur par document
+    private static final class IntList {
+        private int[] docs = new int[4];
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int doc, int value) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            docs[size] = doc;
+            values[size++] = value;
+        }
+
+        int[] docs() {
+            return Arrays.copyOf(docs, size);
+        }
+
+        int[] values() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
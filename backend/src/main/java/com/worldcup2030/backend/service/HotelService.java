@@ -1,22 +1,61 @@
 package com.worldcup2030.backend.service;
 
+import com.worldcup2030.backend.dto.HotelAvailabilityDTO;
 import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.HotelPriceCalendarDTO;
+import com.worldcup2030.backend.dto.KeysetPage;
+import com.worldcup2030.backend.dto.RoomTypeAvailabilityDTO;
 import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.model.Room;
 import com.worldcup2030.backend.repository.HotelRepository;
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.RoomRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class HotelService {
 
+    private static final int MAX_CALENDAR_NIGHTS = 366;
+    private static final int MAX_ROOMS_PER_BATCH = 500;
+
     private final HotelRepository hotelRepository;
+    private final HotelAvailabilityIndex availabilityIndex;
+    private final HotelCatalogCache catalogCache;
+    private final OfferSearchIndex offerIndex;
+    private final HotelSearchIndex searchIndex;
+    private final MatchRepository matchRepository;
+    private final HotelPricingEngine pricingEngine;
+    private final RoomRepository roomRepository;
+    private final RoomInventoryIndex roomInventory;
 
-    public HotelService(HotelRepository hotelRepository) {
+    public HotelService(HotelRepository hotelRepository, HotelAvailabilityIndex availabilityIndex,
+                        HotelCatalogCache catalogCache, OfferSearchIndex offerIndex,
+                        HotelSearchIndex searchIndex, MatchRepository matchRepository,
+                        HotelPricingEngine pricingEngine, RoomRepository roomRepository,
+                        RoomInventoryIndex roomInventory) {
         this.hotelRepository = hotelRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.catalogCache = catalogCache;
+        this.offerIndex = offerIndex;
+        this.searchIndex = searchIndex;
+        this.matchRepository = matchRepository;
+        this.pricingEngine = pricingEngine;
+        this.roomRepository = roomRepository;
+        this.roomInventory = roomInventory;
     }
 
     public Hotel addHotel(HotelDTO dto) {
@@ -30,23 +69,106 @@ public class HotelService {
         hotel.setDescription(dto.getDescription());
         hotel.setServices(dto.getServices());
         hotel.setPhotoPath(dto.getPhotoPath());
+        hotel.setTotalRooms(dto.getTotalRooms());
+        hotel.setLatitude(dto.getLatitude());
+        hotel.setLongitude(dto.getLongitude());
 
         Hotel savedHotel = hotelRepository.save(hotel);
+        catalogCache.putAfterCommit(convertToDTO(savedHotel));
+        searchIndex.upsertAfterCommit(savedHotel);
         System.out.println("Service - Hôtel sauvegardé : " + savedHotel);
         return savedHotel;
     }
 
+    // Servi depuis le cache du catalogue : la base n'est lue qu'à l'expiration ou au premier appel
+    @Transactional(readOnly = true)
     public List<HotelDTO> getAllHotels() {
-        List<Hotel> hotels = hotelRepository.findAll();
-        return hotels.stream()
+        return catalogCache.getAll(() -> hotelRepository.findAllWithServices().stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Page d'hôtels par identifiant croissant, découpée dans le catalogue en cache ;
+     * {@code after} est l'identifiant du dernier hôtel de la page précédente.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<HotelDTO> getHotelsPage(String after, Integer size) {
+        int limit = KeysetPage.clampSize(size);
+        List<HotelDTO> hotels = getAllHotels();
+        int from = after == null || after.isBlank() ? 0 : firstIndexAfter(hotels, parseIdCursor(after));
+        List<HotelDTO> rows = hotels.subList(from, Math.min(hotels.size(), from + limit + 1));
+        return KeysetPage.of(rows, limit, hotel -> String.valueOf(hotel.getId()));
     }
 
+    /**
+     * Passe chaque hôtel à {@code consumer} au fil de la lecture en base (une ligne par service,
+     * regroupées par hôtel), sans passer par le cache ni construire la liste.
+     */
+    @Transactional(readOnly = true)
+    public void streamHotels(Consumer<HotelDTO> consumer) {
+        try (Stream<Object[]> rows = hotelRepository.streamAllWithServices()) {
+            HotelDTO current = null;
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                Long id = (Long) row[0];
+                if (current == null || !current.getId().equals(id)) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = new HotelDTO(id, (String) row[1], (String) row[2], (Integer) row[3],
+                            (String) row[4], (String) row[5], new ArrayList<>(), (String) row[6]);
+                    current.setTotalRooms((Integer) row[7]);
+                    current.setLatitude((Double) row[8]);
+                    current.setLongitude((Double) row[9]);
+                }
+                if (row[10] != null) {
+                    current.getServices().add((String) row[10]);
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
     public HotelDTO getHotelById(Long id) {
-        Hotel hotel = hotelRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé avec l'ID : " + id));
-        return convertToDTO(hotel);
+        return catalogCache.get(id, hotelId -> convertToDTO(hotelRepository.findWithServicesById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé avec l'ID : " + hotelId))));
+    }
+
+    /**
+     * Recherche servie par l'index en mémoire. La distance se mesure au stade du match {@code matchId},
+     * ou au stade nommé {@code stadium}.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> search(String text, String city, Integer minStars, Integer maxStars, List<String> services,
+                                      Long matchId, String stadium, Double maxDistanceKm, String sort, int page, int size) {
+        double[] near = null;
+        if (matchId != null) {
+            Match match = matchRepository.findById(matchId)
+                    .orElseThrow(() -> new IllegalArgumentException("Match non trouvé: " + matchId));
+            near = StadiumLocations.of(match.getStadium(), match.getCity());
+            if (near == null) {
+                throw new IllegalArgumentException("Position inconnue pour le stade " + match.getStadium());
+            }
+        } else if (stadium != null && !stadium.isBlank()) {
+            near = StadiumLocations.of(stadium, null);
+            if (near == null) {
+                throw new IllegalArgumentException("Stade inconnu: " + stadium);
+            }
+        }
+        return searchIndex.search(text, city, minStars, maxStars, services, near, maxDistanceKm, sort, page, size);
+    }
+
+    public Map<String, Object> getSearchStats() {
+        return searchIndex.stats();
+    }
+
+    public Map<String, Object> getCatalogCacheStats() {
+        return catalogCache.stats();
     }
 
     public Hotel findById(Long id) {
@@ -55,6 +177,12 @@ public class HotelService {
 
     public void deleteHotel(Long id) {
         hotelRepository.deleteById(id);
+        availabilityIndex.evictAfterCommit(id);
+        catalogCache.evictAfterCommit(id);
+        offerIndex.reindexHotelAfterCommit(id);
+        searchIndex.removeAfterCommit(id);
+        pricingEngine.evictAfterCommit(id);
+        roomInventory.evictAfterCommit(id);
     }
 
     public Hotel updateHotel(Long id, HotelDTO dto) {
@@ -73,12 +201,193 @@ public class HotelService {
             hotel.setPhotoPath(dto.getPhotoPath());
         }
 
-        return hotelRepository.save(hotel);
+        // Idem pour la capacité, qui suit les chambres de l'hôtel dès qu'il en a
+        if (dto.getTotalRooms() != null) {
+            int listed = roomRepository.countAvailableByHotelId(id);
+            if (listed > 0 && dto.getTotalRooms() != listed) {
+                throw new IllegalArgumentException("La capacité de l'hôtel est celle de ses " + listed
+                        + " chambres : ajoutez des chambres pour l'augmenter");
+            }
+            hotel.setTotalRooms(dto.getTotalRooms());
+        }
+
+        // Position modifiée seulement si elle est fournie en entier
+        if (dto.getLatitude() != null && dto.getLongitude() != null) {
+            hotel.setLatitude(dto.getLatitude());
+            hotel.setLongitude(dto.getLongitude());
+        }
+
+        Hotel savedHotel = hotelRepository.save(hotel);
+        if (dto.getTotalRooms() != null) {
+            // Nuits déjà réservées gardées : seule la capacité change dans l'index
+            availabilityIndex.resizeAfterCommit(id, savedHotel.getTotalRooms());
+        }
+        catalogCache.putAfterCommit(convertToDTO(savedHotel));
+        searchIndex.upsertAfterCommit(savedHotel);
+        // Étoiles ou ville : tarif de base et nuits de match
+        pricingEngine.evictAfterCommit(id);
+        // Nom, ville ou étoiles affichés par les offres de cet hôtel
+        offerIndex.reindexHotelAfterCommit(id);
+        return savedHotel;
+    }
+
+    /**
+     * Calendrier de disponibilité : chambres libres par nuit de {@code from} à {@code to} (exclu)
+     * pour chaque hôtel demandé, ou pour tous les hôtels si aucun n'est précisé.
+     */
+    @Transactional(readOnly = true)
+    public List<HotelAvailabilityDTO> getAvailability(LocalDate from, LocalDate to, List<Long> hotelIds) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_CALENDAR_NIGHTS) {
+            throw new IllegalArgumentException("Le calendrier est limité à " + MAX_CALENDAR_NIGHTS + " nuits");
+        }
+
+        List<Long> ids = hotelIds == null || hotelIds.isEmpty()
+                ? hotelRepository.findAllRoomCounts().stream().map(row -> (Long) row[0]).collect(Collectors.toList())
+                : hotelIds;
+        return ids.stream()
+                .map(id -> new HotelAvailabilityDTO(id, from, to, availabilityIndex.totalRooms(id),
+                        availabilityIndex.availableRooms(id, from, to)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Prix d'une chambre par nuit, disponibilités et prix du séjour complet pour {@code rooms} chambres,
+     * de {@code from} à {@code to} (exclu), pour chaque hôtel demandé ou pour tous les hôtels.
+     */
+    @Transactional(readOnly = true)
+    public List<HotelPriceCalendarDTO> getPriceCalendar(LocalDate from, LocalDate to, int rooms, List<Long> hotelIds) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_CALENDAR_NIGHTS) {
+            throw new IllegalArgumentException("Le calendrier est limité à " + MAX_CALENDAR_NIGHTS + " nuits");
+        }
+        if (rooms <= 0) {
+            throw new IllegalArgumentException("Le nombre de chambres doit être positif, reçu: " + rooms);
+        }
+
+        List<Long> ids = hotelIds == null || hotelIds.isEmpty()
+                ? hotelRepository.findAllRoomCounts().stream().map(row -> (Long) row[0]).collect(Collectors.toList())
+                : hotelIds;
+        int nights = (int) ChronoUnit.DAYS.between(from, to);
+        List<HotelPriceCalendarDTO> calendars = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            int[] prices = new int[nights];
+            pricingEngine.priceNights(id, from, prices);
+            int[] available = availabilityIndex.availableRooms(id, from, to);
+            long total = 0;
+            boolean bookable = true;
+            for (int night = 0; night < nights; night++) {
+                total += prices[night];
+                bookable &= available[night] >= rooms;
+            }
+            calendars.add(new HotelPriceCalendarDTO(id, from, to, "MAD", rooms, prices, available,
+                    total * rooms, bookable));
+        }
+        return calendars;
+    }
+
+    /**
+     * Ajoute {@code count} chambres en service d'un type à l'hôtel. Les chambres en service sont la seule
+     * source de la capacité : celles déclarées par {@code totalRooms} mais pas encore inventoriées sont
+     * d'abord créées sans type, si bien que la capacité augmente exactement de {@code count}.
+     */
+    public int addRooms(Long hotelId, String roomType, BigDecimal pricePerNight, int count) {
+        if (roomType == null || roomType.isBlank()) {
+            throw new IllegalArgumentException("Le type de chambre est obligatoire");
+        }
+        if (count <= 0 || count > MAX_ROOMS_PER_BATCH) {
+            throw new IllegalArgumentException("Le nombre de chambres doit être compris entre 1 et " + MAX_ROOMS_PER_BATCH);
+        }
+        if (pricePerNight != null && pricePerNight.signum() < 0) {
+            throw new IllegalArgumentException("Le prix par nuit ne peut pas être négatif");
+        }
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé avec l'ID : " + hotelId));
+
+        int listed = roomRepository.countAvailableByHotelId(hotelId);
+        int unlisted = hotel.getTotalRooms() == null ? 0 : Math.max(0, hotel.getTotalRooms() - listed);
+        int totalRooms = listed + unlisted + count;
+        // Sans capacité déclarée, les séjours pris sur la capacité par défaut doivent tenir dans les nouvelles chambres
+        int peak = 0;
+        for (int booked : availabilityIndex.bookedRooms(hotelId)) {
+            peak = Math.max(peak, booked);
+        }
+        if (peak > totalRooms) {
+            throw new IllegalArgumentException("L'hôtel compte déjà " + peak + " chambres réservées sur une nuit, "
+                    + "plus que ses " + totalRooms + " chambres");
+        }
+
+        List<Room> rooms = new ArrayList<>(unlisted + count);
+        for (int i = 0; i < unlisted; i++) {
+            rooms.add(new Room(null, null, null, true, hotel, null));
+        }
+        for (int i = 0; i < count; i++) {
+            rooms.add(new Room(null, roomType.trim(), pricePerNight, true, hotel, null));
+        }
+        roomRepository.saveAll(rooms);
+
+        hotel.setTotalRooms(totalRooms);
+        Hotel savedHotel = hotelRepository.save(hotel);
+        // Nuits déjà réservées gardées, comme pour une capacité modifiée
+        availabilityIndex.resizeAfterCommit(hotelId, totalRooms);
+        roomInventory.evictAfterCommit(hotelId);
+        pricingEngine.evictAfterCommit(hotelId);
+        catalogCache.putAfterCommit(convertToDTO(savedHotel));
+        return totalRooms;
+    }
+
+    /**
+     * Chambres libres de chaque type de l'hôtel, nuit par nuit de {@code from} à {@code to} (exclu).
+     */
+    @Transactional(readOnly = true)
+    public List<RoomTypeAvailabilityDTO> getRoomAvailability(Long hotelId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_CALENDAR_NIGHTS) {
+            throw new IllegalArgumentException("Le calendrier est limité à " + MAX_CALENDAR_NIGHTS + " nuits");
+        }
+        return roomInventory.availability(hotelId, from, to).stream()
+                .map(type -> new RoomTypeAvailabilityDTO(hotelId, type.roomType(), type.totalRooms(),
+                        type.basePrice() < 0 ? null : BigDecimal.valueOf(type.basePrice(), 2),
+                        from, to, type.availableRooms()))
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Object> getPricingStats() {
+        return pricingEngine.stats();
+    }
+
+    // Premier indice dont l'identifiant dépasse afterId, par dichotomie sur la liste triée
+    private static int firstIndexAfter(List<HotelDTO> hotels, long afterId) {
+        int low = 0;
+        int high = hotels.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hotels.get(mid).getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long parseIdCursor(String after) {
+        try {
+            return Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide: " + after);
+        }
     }
 
     // Méthode utilitaire pour convertir Hotel en HotelDTO
     private HotelDTO convertToDTO(Hotel hotel) {
-        return new HotelDTO(
+        HotelDTO dto = new HotelDTO(
                 hotel.getId(),
                 hotel.getName(),
                 hotel.getCity(),
@@ -88,5 +397,9 @@ public class HotelService {
                 hotel.getServices(),
                 hotel.getPhotoPath()
         );
+        dto.setTotalRooms(hotel.getTotalRooms());
+        dto.setLatitude(hotel.getLatitude());
+        dto.setLongitude(hotel.getLongitude());
+        return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,594 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.ItineraryDTO;
+import com.worldcup2030.backend.dto.ItineraryLegDTO;
+import com.worldcup2030.backend.model.Transport;
+import com.worldcup2030.backend.model.TransportType;
+import com.worldcup2030.backend.repository.TransportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Planificateur d'itinéraires multi-tronçons, chaque transport étant un tronçon direct entre deux villes.
+ * <p>
+ * Les tronçons forment un graphe espace-temps tenu en mémoire : des colonnes de primitifs triées par
+ * heure de départ, les villes étant remplacées par des ordinaux. Une recherche parcourt une seule fois
+ * les tronçons de la fenêtre horaire (Connection Scan) : pour le plus rapide, on garde l'heure
+ * d'arrivée au plus tôt dans chaque ville ; pour le moins cher, les couples (heure, prix) non dominés.
+ * Une correspondance exige {@code worldcup.itinerary.min-transfer-minutes} sur place.
+ * <p>
+ * Les places restantes sont lues en direct dans le {@link SeatMap} de {@link TransportSeatInventory} :
+ * une vente est prise en compte sans toucher au graphe. Un transport ajouté, modifié ou supprimé est
+ * inséré ou retiré à sa place dans un nouvel instantané, sans relire les autres.
+ */
+@Component
+public class ItineraryPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItineraryPlanner.class);
+
+    public enum Criterion {
+        FASTEST, CHEAPEST;
+
+        public static Criterion of(String value) {
+            if (value == null || value.isBlank()) {
+                return FASTEST;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Critère inconnu : " + value + " (fastest ou cheapest)");
+            }
+        }
+    }
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final TransportRepository transportRepository;
+    private final TransportSeatInventory seatInventory;
+    private final long minTransferSeconds;
+    private final long maxJourneySeconds;
+
+    private volatile Timetable timetable = Timetable.EMPTY;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder scannedLegs = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+
+    public ItineraryPlanner(TransportRepository transportRepository,
+                            TransportSeatInventory seatInventory,
+                            @Value("${worldcup.itinerary.min-transfer-minutes:30}") long minTransferMinutes,
+                            @Value("${worldcup.itinerary.max-journey-hours:48}") long maxJourneyHours) {
+        this.transportRepository = transportRepository;
+        this.seatInventory = seatInventory;
+        this.minTransferSeconds = TimeUnit.MINUTES.toSeconds(Math.max(0, minTransferMinutes));
+        this.maxJourneySeconds = TimeUnit.HOURS.toSeconds(Math.max(1, maxJourneyHours));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+        Timetable t = timetable;
+        logger.info("✅ Itinerary planner loaded {} legs between {} cities", t.size, t.stopNames.length);
+    }
+
+    public synchronized void rebuild() {
+        List<Leg> legs = new ArrayList<>();
+        for (Object[] row : transportRepository.findAllLegs()) {
+            Leg leg = Leg.of(row);
+            if (leg != null) {
+                legs.add(leg);
+            }
+        }
+        legs.sort(null);
+
+        Map<String, Integer> index = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (Leg leg : legs) {
+            for (String city : List.of(leg.from(), leg.to())) {
+                if (index.putIfAbsent(key(city), names.size()) == null) {
+                    names.add(city);
+                }
+            }
+        }
+        // Plans de sièges chargés en bloc, pour ne pas aller en base pendant les recherches
+        seatInventory.loadMissing();
+        Timetable fresh = new Timetable(legs.size(), index, names.toArray(new String[0]));
+        for (int c = 0; c < legs.size(); c++) {
+            fresh.set(c, legs.get(c), null);
+            remaining(fresh, c);
+        }
+        timetable = fresh;
+    }
+
+    /**
+     * Insère le transport (ou le remplace) après le commit. À appeler après
+     * {@link TransportSeatInventory#refreshAfterCommit(Transport)} pour relire son plan de sièges.
+     */
+    public void upsertAfterCommit(Transport transport) {
+        afterCommit(() -> upsert(transport));
+    }
+
+    public void removeAfterCommit(Long transportId) {
+        afterCommit(() -> replace(transportId, null, null));
+    }
+
+    /**
+     * Meilleur itinéraire de {@code from} à {@code to} partant après {@code departAfter} et arrivant
+     * au plus tard à {@code arriveBy} (facultatif), avec {@code seats} places libres sur chaque tronçon.
+     */
+    public Optional<ItineraryDTO> plan(String from, String to, LocalDateTime departAfter, LocalDateTime arriveBy,
+                                       int seats, Criterion criterion) {
+        if (from == null || from.isBlank() || to == null || to.isBlank()) {
+            throw new IllegalArgumentException("Villes de départ et d'arrivée obligatoires");
+        }
+        if (departAfter == null) {
+            throw new IllegalArgumentException("Heure de départ obligatoire");
+        }
+        if (seats <= 0) {
+            throw new IllegalArgumentException("Le nombre de places doit être positif, reçu: " + seats);
+        }
+        long earliest = toSeconds(departAfter);
+        long horizon = earliest + maxJourneySeconds;
+        if (arriveBy != null) {
+            if (!arriveBy.isAfter(departAfter)) {
+                throw new IllegalArgumentException("L'arrivée doit suivre le départ");
+            }
+            horizon = Math.min(horizon, toSeconds(arriveBy));
+        }
+
+        long start = System.nanoTime();
+        Timetable t = timetable;
+        Integer origin = t.stopIndex.get(key(from));
+        Integer destination = t.stopIndex.get(key(to));
+        try {
+            if (origin == null || destination == null || origin.equals(destination)) {
+                return Optional.empty();
+            }
+            int[] path = criterion == Criterion.CHEAPEST
+                    ? cheapest(t, origin, destination, earliest, horizon, seats)
+                    : fastest(t, origin, destination, earliest, horizon, seats);
+            return path.length == 0 ? Optional.empty() : Optional.of(toItinerary(t, path));
+        } finally {
+            searches.increment();
+            searchNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Timetable t = timetable;
+        long count = searches.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("legs", t.size);
+        stats.put("cities", t.stopNames.length);
+        stats.put("searches", count);
+        stats.put("averageMicros", count == 0 ? 0 : searchNanos.sum() / count / 1_000);
+        stats.put("averageScannedLegs", count == 0 ? 0 : scannedLegs.sum() / count);
+        stats.put("updates", updates.sum());
+        return stats;
+    }
+
+    /**
+     * Arrivée au plus tôt : un tronçon est pris si on est dans sa ville de départ à temps et qu'il
+     * améliore l'arrivée dans sa ville d'arrivée. Le parcours s'arrête dès que les départs suivent
+     * la meilleure arrivée connue à destination.
+     */
+    private int[] fastest(Timetable t, int origin, int destination, long earliest, long horizon, int seats) {
+        int stops = t.stopNames.length;
+        long[] arrival = new long[stops];
+        int[] via = new int[stops];
+        Arrays.fill(arrival, NEVER);
+        Arrays.fill(via, -1);
+        arrival[origin] = earliest;
+
+        int c = t.firstDepartureAtOrAfter(earliest);
+        int first = c;
+        for (; c < t.size; c++) {
+            long departure = t.departures[c];
+            if (departure > horizon || departure >= arrival[destination]) {
+                break;
+            }
+            int from = t.fromStops[c];
+            int to = t.toStops[c];
+            long ready = via[from] < 0 ? arrival[from] : plusTransfer(arrival[from]);
+            if (ready > departure || t.arrivals[c] >= arrival[to] || t.arrivals[c] > horizon || !hasSeats(t, c, seats)) {
+                continue;
+            }
+            arrival[to] = t.arrivals[c];
+            via[to] = c;
+        }
+        scannedLegs.add(c - first);
+
+        List<Integer> path = new ArrayList<>();
+        for (int stop = destination; stop != origin; stop = t.fromStops[via[stop]]) {
+            if (via[stop] < 0) {
+                return new int[0];
+            }
+            path.add(via[stop]);
+        }
+        Collections.reverse(path);
+        return path.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Prix minimal avant l'horizon : chaque ville garde ses couples (heure où l'on peut repartir,
+     * prix payé) non dominés. Un tronçon coûte son prix plus le meilleur prix disponible dans sa ville
+     * de départ avant son heure de départ. À prix égal, l'arrivée la plus tôt l'emporte.
+     */
+    private int[] cheapest(Timetable t, int origin, int destination, long earliest, long horizon, int seats) {
+        int first = t.firstDepartureAtOrAfter(earliest);
+        int end = t.firstDepartureAtOrAfter(horizon + 1);
+        int[] previous = new int[end - first];
+        Labels[] labels = new Labels[t.stopNames.length];
+        labels[origin] = new Labels();
+        labels[origin].add(earliest, 0, -1);
+
+        long bestPrice = NEVER;
+        long bestArrival = NEVER;
+        int bestLeg = -1;
+        for (int c = first; c < end; c++) {
+            Labels at = labels[t.fromStops[c]];
+            if (at == null || t.arrivals[c] > horizon) {
+                continue;
+            }
+            int label = at.lastReadyBy(t.departures[c]);
+            if (label < 0) {
+                continue;
+            }
+            long price = at.prices[label] + t.prices[c];
+            if (price > bestPrice || !hasSeats(t, c, seats)) {
+                continue;
+            }
+            previous[c - first] = at.legs[label];
+            int to = t.toStops[c];
+            if (to == destination) {
+                if (price < bestPrice || t.arrivals[c] < bestArrival) {
+                    bestPrice = price;
+                    bestArrival = t.arrivals[c];
+                    bestLeg = c;
+                }
+            } else if (to != origin) {
+                if (labels[to] == null) {
+                    labels[to] = new Labels();
+                }
+                labels[to].add(plusTransfer(t.arrivals[c]), price, c);
+            }
+        }
+        scannedLegs.add(end - first);
+
+        List<Integer> path = new ArrayList<>();
+        for (int c = bestLeg; c >= 0; c = previous[c - first]) {
+            path.add(c);
+        }
+        Collections.reverse(path);
+        return path.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private long plusTransfer(long arrival) {
+        return arrival == NEVER ? NEVER : arrival + minTransferSeconds;
+    }
+
+    private boolean hasSeats(Timetable t, int c, int seats) {
+        return remaining(t, c) >= seats;
+    }
+
+    // Plan relu dans l'inventaire s'il n'a pas pu être résolu lors de l'insertion du tronçon
+    private int remaining(Timetable t, int c) {
+        SeatMap seatMap = t.seatMaps[c];
+        if (seatMap == null) {
+            try {
+                seatMap = seatInventory.seatMap(t.transportIds[c]);
+            } catch (RuntimeException e) {
+                // Supprimé entre-temps : son retrait du graphe suit le commit
+                return 0;
+            }
+            t.seatMaps[c] = seatMap;
+        }
+        return seatMap.remaining();
+    }
+
+    private ItineraryDTO toItinerary(Timetable t, int[] path) {
+        List<ItineraryLegDTO> legs = new ArrayList<>(path.length);
+        for (int c : path) {
+            legs.add(new ItineraryLegDTO(t.transportIds[c], t.types[c].name(), t.companies[c],
+                    t.stopNames[t.fromStops[c]], t.stopNames[t.toStops[c]],
+                    toDateTime(t.departures[c]), toDateTime(t.arrivals[c]), t.prices[c], remaining(t, c)));
+        }
+        return new ItineraryDTO(legs);
+    }
+
+    private synchronized void upsert(Transport transport) {
+        Leg leg = Leg.of(transport);
+        SeatMap seatMap = null;
+        if (leg != null) {
+            try {
+                seatMap = seatInventory.seatMap(transport.getId());
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Seat map of transport {} unavailable, loaded on first search", transport.getId());
+            }
+        }
+        replace(transport.getId(), leg, seatMap);
+    }
+
+    // Retire l'ancien tronçon du transport et insère le nouveau à sa place dans l'ordre des départs
+    private synchronized void replace(Long transportId, Leg leg, SeatMap seatMap) {
+        Timetable current = timetable;
+        int stale = -1;
+        for (int c = 0; c < current.size; c++) {
+            if (current.transportIds[c] == transportId) {
+                stale = c;
+                break;
+            }
+        }
+        if (stale < 0 && leg == null) {
+            return;
+        }
+
+        Timetable base = leg == null ? current : current.withStops(leg);
+        int size = current.size - (stale < 0 ? 0 : 1) + (leg == null ? 0 : 1);
+        Timetable next = new Timetable(size, base.stopIndex, base.stopNames);
+        int target = 0;
+        boolean inserted = leg == null;
+        for (int c = 0; c < current.size; c++) {
+            if (c == stale) {
+                continue;
+            }
+            if (!inserted && leg.compareTo(current, c) < 0) {
+                next.set(target++, leg, seatMap);
+                inserted = true;
+            }
+            next.copy(target++, current, c);
+        }
+        if (!inserted) {
+            next.set(target, leg, seatMap);
+        }
+        timetable = next;
+        updates.increment();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String key(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Tronçon lu en base, trié par départ, arrivée puis identifiant. Les tronçons sans horaires,
+     * sans villes ou qui arrivent avant de partir sont ignorés.
+     */
+    private record Leg(long transportId, TransportType type, String from, String to,
+                       long departure, long arrival, int price, String compagnie) implements Comparable<Leg> {
+
+        static Leg of(Object[] row) {
+            return of((Long) row[0], (TransportType) row[1], (String) row[2], (String) row[3],
+                    (LocalDateTime) row[4], (LocalDateTime) row[5], (Integer) row[6], (String) row[7]);
+        }
+
+        static Leg of(Transport transport) {
+            return of(transport.getId(), transport.getType(), transport.getDepartureCity(), transport.getArrivalCity(),
+                    transport.getDepartureTime(), transport.getArrivalTime(), transport.getPrice(), transport.getCompagnie());
+        }
+
+        private static Leg of(Long id, TransportType type, String from, String to, LocalDateTime departure,
+                              LocalDateTime arrival, Integer price, String compagnie) {
+            if (id == null || type == null || from == null || from.isBlank() || to == null || to.isBlank()
+                    || departure == null || arrival == null || !arrival.isAfter(departure)
+                    || key(from).equals(key(to))) {
+                return null;
+            }
+            return new Leg(id, type, from.trim(), to.trim(), toSeconds(departure), toSeconds(arrival),
+                    price == null ? 0 : Math.max(0, price), compagnie);
+        }
+
+        int compareTo(Timetable t, int c) {
+            int order = Long.compare(departure, t.departures[c]);
+            if (order == 0) {
+                order = Long.compare(arrival, t.arrivals[c]);
+            }
+            return order != 0 ? order : Long.compare(transportId, t.transportIds[c]);
+        }
+
+        @Override
+        public int compareTo(Leg other) {
+            int order = Long.compare(departure, other.departure);
+            if (order == 0) {
+                order = Long.compare(arrival, other.arrival);
+            }
+            return order != 0 ? order : Long.compare(transportId, other.transportId);
+        }
+    }
+
+    /**
+     * Instantané immuable des tronçons triés par départ. Seul le cache des plans de sièges est
+     * complété pendant les lectures (écriture idempotente d'une référence).
+     */
+    private static final class Timetable {
+
+        static final Timetable EMPTY = new Timetable(0, Map.of(), new String[0]);
+
+        final int size;
+        final long[] transportIds;
+        final int[] fromStops;
+        final int[] toStops;
+        final long[] departures;
+        final long[] arrivals;
+        final int[] prices;
+        final TransportType[] types;
+        final String[] companies;
+        final SeatMap[] seatMaps;
+        // Ville en minuscules -> ordinal ; les villes ne sont jamais retirées
+        final Map<String, Integer> stopIndex;
+        final String[] stopNames;
+
+        Timetable(int size, Map<String, Integer> stopIndex, String[] stopNames) {
+            this.size = size;
+            this.transportIds = new long[size];
+            this.fromStops = new int[size];
+            this.toStops = new int[size];
+            this.departures = new long[size];
+            this.arrivals = new long[size];
+            this.prices = new int[size];
+            this.types = new TransportType[size];
+            this.companies = new String[size];
+            this.seatMaps = new SeatMap[size];
+            this.stopIndex = stopIndex;
+            this.stopNames = stopNames;
+        }
+
+        // Même tronçons, avec les villes du tronçon ajoutées si besoin (tables copiées, jamais modifiées)
+        Timetable withStops(Leg leg) {
+            if (stopIndex.containsKey(key(leg.from())) && stopIndex.containsKey(key(leg.to()))) {
+                return this;
+            }
+            Map<String, Integer> index = new HashMap<>(stopIndex);
+            List<String> names = new ArrayList<>(Arrays.asList(stopNames));
+            for (String city : List.of(leg.from(), leg.to())) {
+                if (index.putIfAbsent(key(city), names.size()) == null) {
+                    names.add(city);
+                }
+            }
+            Timetable copy = new Timetable(size, index, names.toArray(new String[0]));
+            for (int c = 0; c < size; c++) {
+                copy.copy(c, this, c);
+            }
+            return copy;
+        }
+
+        void set(int c, Leg leg, SeatMap seatMap) {
+            transportIds[c] = leg.transportId();
+            fromStops[c] = stopIndex.get(key(leg.from()));
+            toStops[c] = stopIndex.get(key(leg.to()));
+            departures[c] = leg.departure();
+            arrivals[c] = leg.arrival();
+            prices[c] = leg.price();
+            types[c] = leg.type();
+            companies[c] = leg.compagnie();
+            seatMaps[c] = seatMap;
+        }
+
+        void copy(int c, Timetable source, int from) {
+            transportIds[c] = source.transportIds[from];
+            fromStops[c] = source.fromStops[from];
+            toStops[c] = source.toStops[from];
+            departures[c] = source.departures[from];
+            arrivals[c] = source.arrivals[from];
+            prices[c] = source.prices[from];
+            types[c] = source.types[from];
+            companies[c] = source.companies[from];
+            seatMaps[c] = source.seatMaps[from];
+        }
+
+        int firstDepartureAtOrAfter(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (departures[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Couples (heure où l'on peut repartir, prix payé, dernier tronçon) non dominés d'une ville,
+     * triés par heure croissante : les prix y sont donc strictement décroissants.
+     */
+    private static final class Labels {
+        long[] readyAt = new long[4];
+        long[] prices = new long[4];
+        int[] legs = new int[4];
+        int size;
+
+        // Dernier couple disponible à {@code time}, donc le moins cher ; -1 si aucun
+        int lastReadyBy(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (readyAt[mid] <= time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low - 1;
+        }
+
+        void add(long ready, long price, int leg) {
+            int at = lastReadyBy(ready - 1) + 1;
+            if (at > 0 && prices[at - 1] <= price) {
+                return;
+            }
+            if (at < size && readyAt[at] == ready && prices[at] <= price) {
+                return;
+            }
+            int end = at;
+            while (end < size && prices[end] >= price) {
+                end++;
+            }
+            int removed = end - at;
+            if (removed == 0) {
+                if (size == readyAt.length) {
+                    readyAt = Arrays.copyOf(readyAt, size * 2);
+                    prices = Arrays.copyOf(prices, size * 2);
+                    legs = Arrays.copyOf(legs, size * 2);
+                }
+                System.arraycopy(readyAt, at, readyAt, at + 1, size - at);
+                System.arraycopy(prices, at, prices, at + 1, size - at);
+                System.arraycopy(legs, at, legs, at + 1, size - at);
+                size++;
+            } else if (removed > 1) {
+                System.arraycopy(readyAt, end, readyAt, at + 1, size - end);
+                System.arraycopy(prices, end, prices, at + 1, size - end);
+                System.arraycopy(legs, end, legs, at + 1, size - end);
+                size -= removed - 1;
+            }
+            readyAt[at] = ready;
+            prices[at] = price;
+            legs[at] = leg;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.worldcup2030.backend.service;
+
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clés HMAC de signature des JWT, lues dans un keystore PKCS12 partagé par toutes les instances
+ * (fichier monté sur chaque nœud). Chaque entrée est une clé de vérification identifiée par son
+ * alias, repris dans l'en-tête {@code kid} des jetons : n'importe quel nœud valide n'importe quel jeton.
+ * <p>
+ * Rotation : ajouter une clé au keystore, par exemple
+ * {@code keytool -genseckey -keystore jwt-keys.p12 -storetype PKCS12 -keyalg HmacSHA256 -keysize 256 -alias k2030-07},
+ * puis la désigner par {@code worldcup.security.jwt.active-kid} (par défaut la plus récente).
+ * Les anciennes clés vérifient les jetons en circulation jusqu'à leur retrait du fichier.
+ * Le fichier est relu quand il change, sans redémarrage.
+ * <p>
+ * Sans keystore monté, le démarrage échoue : un nœud qui signerait avec sa propre clé émettrait des jetons
+ * refusés par les autres. En développement, {@code worldcup.security.jwt.keystore.create-if-missing=true}
+ * crée une clé aléatoire, et un mot de passe absent vaut alors {@code changeit}.
+ */
+@Component
+public class JwtKeyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyStore.class);
+
+    private static final int KEY_SIZE_BYTES = 32;
+    private static final DateTimeFormatter KID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String DEV_PASSWORD = "changeit";
+
+    private final Path path;
+    private final char[] password;
+    private final boolean createIfMissing;
+    private final String configuredActiveKid;
+    private final VerifiedTokenCache tokenCache;
+
+    private volatile KeySet keys = new KeySet(null, Collections.emptyMap());
+    private volatile long loadedModifiedAt;
+
+    public JwtKeyStore(@Value("${worldcup.security.jwt.keystore.path:jwt-keys.p12}") String path,
+                       @Value("${worldcup.security.jwt.keystore.password:${JWT_KEYSTORE_PASSWORD:}}") String password,
+                       @Value("${worldcup.security.jwt.keystore.create-if-missing:false}") boolean createIfMissing,
+                       @Value("${worldcup.security.jwt.active-kid:}") String activeKid,
+                       VerifiedTokenCache tokenCache) {
+        this.path = Paths.get(path);
+        this.password = password == null ? new char[0] : password.toCharArray();
+        this.createIfMissing = createIfMissing;
+        this.configuredActiveKid = activeKid == null || activeKid.isBlank() ? null : activeKid.toLowerCase();
+        this.tokenCache = tokenCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (password.length == 0) {
+            if (!createIfMissing) {
+                throw new IllegalStateException("Mot de passe du keystore JWT non configuré "
+                        + "(worldcup.security.jwt.keystore.password ou JWT_KEYSTORE_PASSWORD)");
+            }
+            logger.warn("⚠️ JWT keystore password not set, using the development default");
+        }
+        if (!Files.exists(path) && !createIfMissing) {
+            throw new IllegalStateException("Keystore JWT introuvable: " + path.toAbsolutePath()
+                    + ". Monter le keystore partagé par les instances, ou activer "
+                    + "worldcup.security.jwt.keystore.create-if-missing en développement");
+        }
+        try {
+            if (!Files.exists(path)) {
+                createKeyStore();
+            }
+            load();
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Impossible de charger le keystore JWT " + path.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Identifiant de la clé utilisée pour signer les nouveaux jetons.
+     */
+    public String activeKid() {
+        return keys.activeKid;
+    }
+
+    /**
+     * Clé active et son kid, lus ensemble pour qu'une rotation ne les désassortisse pas.
+     */
+    public Map.Entry<String, SecretKey> signingKey() {
+        KeySet current = keys;
+        return Map.entry(current.activeKid, current.byKid.get(current.activeKid));
+    }
+
+    /**
+     * Clé de vérification correspondant au {@code kid} d'un jeton, ou null si elle est inconnue ou retirée.
+     */
+    public SecretKey verificationKey(String kid) {
+        return kid == null ? null : keys.byKid.get(kid.toLowerCase());
+    }
+
+    public Set<String> verificationKids() {
+        return keys.byKid.keySet();
+    }
+
+    /**
+     * Relit le keystore s'il a été modifié (rotation ou retrait de clé).
+     */
+    @Scheduled(fixedDelayString = "${worldcup.security.jwt.keystore.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        try {
+            if (Files.exists(path) && Files.getLastModifiedTime(path).toMillis() != loadedModifiedAt) {
+                load();
+            }
+        } catch (IOException | GeneralSecurityException | IllegalStateException e) {
+            // On garde les clés déjà chargées plutôt que de rejeter tous les jetons
+            logger.error("❌ JWT keystore reload failed, keeping current keys: {}", e.getMessage());
+        }
+    }
+
+    private char[] password() {
+        return password.length == 0 ? DEV_PASSWORD.toCharArray() : password;
+    }
+
+    private void load() throws IOException, GeneralSecurityException {
+        long modifiedAt = Files.getLastModifiedTime(path).toMillis();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, password());
+        }
+
+        Map<String, SecretKey> byKid = new HashMap<>();
+        String newestKid = null;
+        Date newest = null;
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (!keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+                continue;
+            }
+            KeyStore.SecretKeyEntry entry = (KeyStore.SecretKeyEntry) keyStore.getEntry(alias,
+                    new KeyStore.PasswordProtection(password()));
+            String kid = alias.toLowerCase();
+            byKid.put(kid, Keys.hmacShaKeyFor(entry.getSecretKey().getEncoded()));
+
+            Date createdAt = keyStore.getCreationDate(alias);
+            if (newest == null || (createdAt != null && createdAt.after(newest))
+                    || (createdAt != null && createdAt.equals(newest) && kid.compareTo(newestKid) > 0)) {
+                newest = createdAt;
+                newestKid = kid;
+            }
+        }
+
+        String activeKid = configuredActiveKid != null ? configuredActiveKid : newestKid;
+        if (activeKid == null || !byKid.containsKey(activeKid)) {
+            throw new IllegalStateException("Clé de signature active introuvable dans le keystore: " + activeKid);
+        }
+
+        KeySet previous = keys;
+        keys = new KeySet(activeKid, Collections.unmodifiableMap(byKid));
+        loadedModifiedAt = modifiedAt;
+
+        // Les jetons signés par une clé retirée ne doivent plus être servis depuis le cache
+        if (!byKid.keySet().containsAll(previous.byKid.keySet())) {
+            tokenCache.clear();
+        }
+        logger.info("✅ JWT keystore loaded: {} verification key(s), active kid {}", byKid.size(), activeKid);
+    }
+
+    // Développement : une clé aléatoire, écrite dans un fichier temporaire puis déplacée.
+    // Si un autre nœud a créé le keystore entre-temps, c'est le sien qui est gardé.
+    private void createKeyStore() throws IOException, GeneralSecurityException {
+        byte[] secret = new byte[KEY_SIZE_BYTES];
+        new SecureRandom().nextBytes(secret);
+        String kid = "k" + LocalDate.now().format(KID_FORMAT);
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, password());
+        keyStore.setEntry(kid, new KeyStore.SecretKeyEntry(new SecretKeySpec(secret, "HmacSHA256")),
+                new KeyStore.PasswordProtection(password()));
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, "jwt-keys", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                keyStore.store(out, password());
+            }
+            Files.move(tmp, path);
+            logger.warn("🔑 JWT keystore created at {} with kid {}: tokens will not verify on instances using another keystore",
+                    path.toAbsolutePath(), kid);
+        } catch (FileAlreadyExistsException e) {
+            logger.info("🔑 JWT keystore already created by another instance: {}", path.toAbsolutePath());
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Instantané immuable : la clé active et les clés de vérification changent ensemble
+    private static final class KeySet {
+        private final String activeKid;
+        private final Map<String, SecretKey> byKid;
+
+        private KeySet(String activeKid, Map<String, SecretKey> byKid) {
+            this.activeKid = activeKid;
+            this.byKid = byKid;
+        }
+    }
+}
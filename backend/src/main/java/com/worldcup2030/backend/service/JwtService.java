@@ -1,10 +1,11 @@
 package com.worldcup2030.backend.service;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
@@ -16,16 +17,34 @@ import com.worldcup2030.backend.model.User;
 @Service
 public class JwtService {
 
-    private Key key;
+    private final JwtKeyStore keyStore;
+
+    // Parseur immuable et thread-safe, construit une fois pour toutes ; la clé est choisie d'après le kid du jeton
+    private JwtParser parser;
 
     // Durée de validité du token : 24 heures
     private static final long JWT_EXPIRATION = 1000 * 60 * 60 * 24;
 
+    public JwtService(JwtKeyStore keyStore) {
+        this.keyStore = keyStore;
+    }
+
     @PostConstruct
     public void init() {
-        // Génération automatique d'une clé secrète pour la signature HS256
-        this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-        System.out.println("✅ JWT Service initialized with secure key");
+        // Clés partagées par toutes les instances : un jeton émis par un nœud est valide sur tous les autres
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyStore.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Clé de signature inconnue: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        System.out.println("✅ JWT Service initialized with signing key " + keyStore.activeKid());
     }
 
     // Génération d'un token JWT à partir d'un utilisateur personnalisé
@@ -35,22 +54,55 @@ public class JwtService {
         claims.put("email", user.getEmail());
         claims.put("role", user.getRole());
 
+        Map.Entry<String, SecretKey> signingKey = keyStore.signingKey();
         String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKey())
                 .setClaims(claims)
                 .setSubject(user.getEmail()) // Le sujet est l'email
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey.getValue(), SignatureAlgorithm.HS256)
                 .compact();
 
         System.out.println("✅ JWT Token generated for user: " + user.getEmail());
         return token;
     }
 
+    /**
+     * Jeton de la salle d'attente (place dans une file ou laissez-passer) du visiteur {@code userId},
+     * signé avec la clé active. Sans sujet ni rôle et marqué par {@code tokenType}, il ne peut pas servir
+     * à s'authentifier.
+     */
+    public String generateWaitingRoomToken(String tokenType, String queue, long ticket, long userId, long ttlMs) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("tokenType", tokenType);
+        claims.put("queue", queue);
+        claims.put("ticket", ticket);
+        claims.put("userId", userId);
+
+        long now = System.currentTimeMillis();
+        Map.Entry<String, SecretKey> signingKey = keyStore.signingKey();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKey())
+                .setClaims(claims)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMs))
+                .signWith(signingKey.getValue(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Vérifie la signature et l'expiration du token une seule fois et retourne tous ses claims.
+     * Lève une JwtException si le token est invalide ou expiré.
+     */
+    public ParsedToken parse(String token) {
+        return new ParsedToken(extractAllClaims(token));
+    }
+
     // Extraction de l'email (subject) depuis le token
     public String extractUsername(String token) {
         try {
-            return extractClaim(token, Claims::getSubject);
+            return parse(token).getEmail();
         } catch (Exception e) {
             System.out.println("❌ Error extracting username from token: " + e.getMessage());
             throw new JwtException("Token invalide", e);
@@ -60,8 +112,7 @@ public class JwtService {
     // Extraction de l'ID utilisateur stocké dans les claims personnalisés
     public Long extractUserId(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("userId", Long.class);
+            return parse(token).getUserId();
         } catch (Exception e) {
             System.out.println("❌ Error extracting user ID from token: " + e.getMessage());
             throw new JwtException("Token invalide", e);
@@ -77,14 +128,15 @@ public class JwtService {
     // Validation complète du token
     public boolean isTokenValid(String token, User user) {
         try {
-            final String username = extractUsername(token);
-            boolean isValid = (username.equals(user.getEmail())) && !isTokenExpired(token);
+            final ParsedToken parsed = parse(token);
+            final String username = parsed.getEmail();
+            boolean isValid = (username.equals(user.getEmail())) && !parsed.isExpired();
 
             if (isValid) {
                 System.out.println("✅ JWT Token is valid for user: " + username);
             } else {
                 System.out.println("❌ JWT Token validation failed for user: " + username);
-                if (isTokenExpired(token)) {
+                if (parsed.isExpired()) {
                     System.out.println("❌ Token is expired");
                 }
             }
@@ -99,8 +151,7 @@ public class JwtService {
     // Vérification simple de validité du token (sans utilisateur)
     public boolean isTokenValid(String token) {
         try {
-            extractAllClaims(token);
-            boolean isValid = !isTokenExpired(token);
+            boolean isValid = !parse(token).isExpired();
 
             if (!isValid) {
                 System.out.println("❌ Token is expired");
@@ -118,11 +169,11 @@ public class JwtService {
 
     private boolean isTokenExpired(String token) {
         try {
-            Date expiration = extractExpiration(token);
-            boolean expired = expiration.before(new Date());
+            ParsedToken parsed = parse(token);
+            boolean expired = parsed.isExpired();
 
             if (expired) {
-                System.out.println("❌ Token expired at: " + expiration);
+                System.out.println("❌ Token expired at: " + parsed.getExpiration());
             }
 
             return expired;
@@ -133,17 +184,13 @@ public class JwtService {
     }
 
     private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parse(token).getExpiration();
     }
 
     // Extraction de tous les claims à partir du token JWT
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             System.out.println("❌ JWT Token expired: " + e.getMessage());
             throw e;
@@ -165,14 +212,15 @@ public class JwtService {
     // Méthode pour debugger un token dans la console
     public void debugToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
+            ParsedToken parsed = parse(token);
+            Claims claims = parsed.getClaims();
             System.out.println("=== JWT DEBUG ===");
             System.out.println("Subject (email): " + claims.getSubject());
             System.out.println("UserId: " + claims.get("userId"));
             System.out.println("Role: " + claims.get("role"));
             System.out.println("Issued at: " + claims.getIssuedAt());
             System.out.println("Expiration: " + claims.getExpiration());
-            System.out.println("Is expired: " + isTokenExpired(token));
+            System.out.println("Is expired: " + parsed.isExpired());
             System.out.println("Current time: " + new Date());
             System.out.println("=================");
         } catch (Exception e) {
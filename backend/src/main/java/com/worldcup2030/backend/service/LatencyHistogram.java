@@ -0,0 +1,79 @@
+package com.worldcup2030.backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences à seaux fixes, sans verrou.
+ * Les percentiles sont estimés par la borne haute du seau qui les contient.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BUCKET_BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000, 1500, 2000, 2500, 3000, 4000, 5000, 10000};
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMs = new LongAdder();
+    private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long latencyMs) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MS.length && latencyMs > BUCKET_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalMs.add(latencyMs);
+        maxMs.accumulate(latencyMs);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Latence sous laquelle se trouvent {@code quantile} des appels (0.95 pour le p95).
+     */
+    public long percentile(double quantile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return BUCKET_BOUNDS_MS[i];
+            }
+        }
+        return maxMs.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long total = count.sum();
+        snapshot.put("count", total);
+        snapshot.put("meanMs", total == 0 ? 0 : totalMs.sum() / total);
+        snapshot.put("p50Ms", percentile(0.50));
+        snapshot.put("p95Ms", percentile(0.95));
+        snapshot.put("p99Ms", percentile(0.99));
+        snapshot.put("maxMs", maxMs.get());
+
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            distribution.put("<=" + BUCKET_BOUNDS_MS[i] + "ms", buckets[i].sum());
+        }
+        distribution.put(">" + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + "ms", buckets[BUCKET_BOUNDS_MS.length].sum());
+        snapshot.put("buckets", distribution);
+        return snapshot;
+    }
+}
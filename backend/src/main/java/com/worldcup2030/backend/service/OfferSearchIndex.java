@@ -0,0 +1,646 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.OfferDTO;
+import com.worldcup2030.backend.model.TransportType;
+import com.worldcup2030.backend.repository.OfferRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Moteur de recherche des offres match + hôtel + transport, tenu en mémoire.
+ * <p>
+ * Chaque offre reçoit un numéro de document dense. Les critères d'égalité (ville du match, type de
+ * transport, tranche de prix) ont chacun un index inversé : pour chaque valeur, le tableau trié des
+ * numéros de documents. Le prix (en centimes) et la date du match sont des colonnes de primitifs.
+ * Une recherche part de la plus courte liste, l'intersecte avec les autres, filtre sur les colonnes,
+ * puis compte les facettes et trie la page sans aucun objet intermédiaire par document.
+ * <p>
+ * Les facettes sont comptées dans des tableaux d'entiers indexés par ordinal, et seule la page demandée
+ * est extraite du résultat par un tas borné quand elle est petite devant le nombre de résultats.
+ * <p>
+ * Les lectures se font sur un instantané immuable. Une mise à jour (offre, hôtel ou transport modifié)
+ * recharge seulement les offres concernées, marque leurs anciens documents comme supprimés et ajoute
+ * les nouveaux en fin de tableaux : les listes des autres valeurs sont partagées avec l'instantané
+ * précédent. Quand un quart des documents est supprimé, l'index est recompacté en mémoire.
+ * Les offres sont relues hors du verrou ; une relecture qui a croisé une autre mise à jour est refaite,
+ * pour qu'une version plus ancienne n'écrase jamais une plus récente.
+ */
+@Component
+public class OfferSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferSearchIndex.class);
+
+    // Le numéro de document tient sur 24 bits dans les clés de tri
+    private static final int DOC_BITS = 24;
+    private static final int MAX_DOCS = 1 << DOC_BITS;
+    // Prix inconnu : trié en dernier, exclu des filtres de prix
+    private static final long NO_PRICE = (1L << (63 - DOC_BITS)) - 1;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Au-delà, les tranches de prix ou les jours sont comptés dans une table plutôt qu'un tableau
+    private static final int MAX_FACET_SLOTS = 4096;
+    private static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    private final OfferRepository offerRepository;
+    private final long bandWidthMinor;
+
+    private volatile Snapshot snapshot = new Snapshot(16);
+    // Utilisé par l'unique écrivain (méthodes synchronisées) : document courant de chaque offre
+    private final Map<Long, Integer> docByOffer = new HashMap<>();
+
+    // Ville (en minuscules) -> ordinal, jamais remis à zéro ; libellés publiés avec chaque instantané
+    private final Map<String, Integer> cityOrdinals = new HashMap<>();
+    // Incrémenté à chaque mise à jour, pour écarter les relectures devenues obsolètes
+    private long generation;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+
+    public OfferSearchIndex(OfferRepository offerRepository,
+                            @Value("${worldcup.offers.price-band-width:1000}") int priceBandWidth) {
+        this.offerRepository = offerRepository;
+        this.bandWidthMinor = Math.max(1, priceBandWidth) * 100L;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+        logger.info("✅ Offer search index warmed up: {} offers, {} cities", snapshot.liveCount, snapshot.byCity.size());
+    }
+
+    /**
+     * Recharge toutes les offres depuis la base.
+     */
+    public synchronized void rebuild() {
+        generation++;
+        List<OfferDTO> offers = offerRepository.findAllDtos();
+        docByOffer.clear();
+        Snapshot fresh = new Snapshot(Math.max(16, offers.size()));
+        fresh.cityNames = snapshot.cityNames;
+        for (OfferDTO offer : offers) {
+            docByOffer.put(offer.getId(), append(fresh, offer));
+        }
+        snapshot = fresh;
+    }
+
+    /**
+     * Réindexe des offres créées ou modifiées, après le commit si une transaction est active.
+     */
+    public void reindexOffersAfterCommit(Collection<Long> offerIds) {
+        List<Long> ids = List.copyOf(offerIds);
+        afterCommit(() -> reload(() -> ids, () -> offerRepository.findDtosByIdIn(ids)));
+    }
+
+    public void removeOfferAfterCommit(Long offerId) {
+        afterCommit(() -> apply(List.of(offerId), List.of()));
+    }
+
+    /**
+     * Réindexe les offres d'un hôtel modifié ou supprimé, après le commit si une transaction est active.
+     */
+    public void reindexHotelAfterCommit(Long hotelId) {
+        afterCommit(() -> reload(() -> offersWhere(doc -> hotelId.equals(doc.getHotelId())),
+                () -> offerRepository.findDtosByHotelId(hotelId)));
+    }
+
+    public void reindexTransportAfterCommit(Long transportId) {
+        afterCommit(() -> reload(() -> offersWhere(doc -> transportId.equals(doc.getTransportId())),
+                () -> offerRepository.findDtosByTransportId(transportId)));
+    }
+
+    /**
+     * Recherche à facettes. Tous les critères sont facultatifs ; {@code priceBand} est le début d'une
+     * tranche de prix telle que renvoyée dans les facettes, {@code sort} vaut "price" (défaut) ou "date".
+     */
+    public Map<String, Object> search(String city, LocalDate from, LocalDate to, BigDecimal minPrice,
+                                      BigDecimal maxPrice, Integer priceBand, String transportType,
+                                      String sort, int page, int size) {
+        long startedAt = System.nanoTime();
+        Snapshot s = snapshot;
+        if (page < 0) {
+            throw new IllegalArgumentException("Numéro de page invalide: " + page);
+        }
+        int limit = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        boolean byDate = "date".equalsIgnoreCase(sort);
+        if (sort != null && !byDate && !"price".equalsIgnoreCase(sort)) {
+            throw new IllegalArgumentException("Tri inconnu: " + sort);
+        }
+
+        // Critères d'égalité : la liste la plus courte d'abord
+        List<Postings> lists = new ArrayList<>(3);
+        boolean none = false;
+        if (city != null && !city.isBlank()) {
+            none |= addPostings(lists, s.byCity.get(key(city)));
+        }
+        if (transportType != null && !transportType.isBlank()) {
+            none |= addPostings(lists, s.byType.get(transportType.toUpperCase(Locale.ROOT)));
+        }
+        if (priceBand != null) {
+            none |= addPostings(lists, s.byBand.get(Math.floorDiv(priceBand * 100L, bandWidthMinor)));
+        }
+
+        long minMinor = minPrice != null ? toMinor(minPrice) : Long.MIN_VALUE;
+        long maxMinor = maxPrice != null ? toMinor(maxPrice) : minPrice != null ? NO_PRICE - 1 : Long.MAX_VALUE;
+        long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+
+        long[] keys = new long[0];
+        int matched = 0;
+        if (!none) {
+            int[] candidates;
+            int count;
+            if (lists.isEmpty()) {
+                candidates = null;
+                count = s.size;
+            } else {
+                lists.sort((a, b) -> Integer.compare(a.size, b.size));
+                candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+                count = candidates.length;
+                for (int i = 1; i < lists.size() && count > 0; i++) {
+                    count = intersect(candidates, count, lists.get(i));
+                }
+            }
+            keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                int doc = candidates == null ? i : candidates[i];
+                if (!s.isLive(doc)) {
+                    continue;
+                }
+                long price = s.priceMinor[doc];
+                long day = Math.floorDiv(s.matchAt[doc], 86_400L);
+                if (price < minMinor || price > maxMinor || day < fromDay || day > toDay) {
+                    continue;
+                }
+                keys[matched++] = ((byDate ? s.matchAt[doc] : price) << DOC_BITS) | doc;
+            }
+        }
+
+        int first = (int) Math.min((long) page * limit, matched);
+        int last = Math.min(first + limit, matched);
+        if (last < matched / 8) {
+            selectSmallest(keys, matched, last);
+        } else {
+            Arrays.sort(keys, 0, matched);
+        }
+        List<OfferDTO> offers = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            offers.add(s.docs[(int) (keys[i] & (MAX_DOCS - 1))]);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", matched);
+        result.put("page", page);
+        result.put("size", limit);
+        result.put("offers", offers);
+        result.put("facets", facets(s, keys, matched));
+        long tookNanos = System.nanoTime() - startedAt;
+        result.put("tookMicros", TimeUnit.NANOSECONDS.toMicros(tookNanos));
+        searches.increment();
+        searchNanos.add(tookNanos);
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot s = snapshot;
+        long count = searches.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("offers", s.liveCount);
+        stats.put("documents", s.size);
+        stats.put("cities", s.byCity.size());
+        stats.put("transportTypes", s.byType.size());
+        stats.put("priceBands", s.byBand.size());
+        stats.put("searches", count);
+        stats.put("averageSearchMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(searchNanos.sum() / count));
+        stats.put("updates", updates.sum());
+        stats.put("compactions", compactions.sum());
+        return stats;
+    }
+
+    /**
+     * Relit les offres hors du verrou et ne les applique que si aucune autre mise à jour n'a eu lieu
+     * entre-temps ; sinon la relecture est refaite, et après quelques essais elle se fait sous le verrou.
+     */
+    private void reload(Supplier<Collection<Long>> staleOffers, Supplier<List<OfferDTO>> loader) {
+        for (int attempt = 0; attempt < MAX_RELOAD_ATTEMPTS; attempt++) {
+            long loadGeneration = generation();
+            Collection<Long> stale = staleOffers.get();
+            List<OfferDTO> fresh = loader.get();
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    apply(stale, fresh);
+                    return;
+                }
+            }
+        }
+        synchronized (this) {
+            apply(staleOffers.get(), loader.get());
+        }
+    }
+
+    // Retire les anciens documents des offres concernées et ajoute leur version à jour
+    private synchronized void apply(Collection<Long> staleOffers, List<OfferDTO> fresh) {
+        generation++;
+        Snapshot next = snapshot.copyForUpdate();
+        for (Long offerId : staleOffers) {
+            Integer doc = docByOffer.remove(offerId);
+            if (doc != null) {
+                next.kill(doc);
+            }
+        }
+        for (OfferDTO offer : fresh) {
+            Integer doc = docByOffer.remove(offer.getId());
+            if (doc != null) {
+                next.kill(doc);
+            }
+        }
+        if (next.size + fresh.size() >= MAX_DOCS || next.size - next.liveCount > Math.max(1024, next.liveCount / 3)) {
+            next = compact(next);
+        }
+        for (OfferDTO offer : fresh) {
+            docByOffer.put(offer.getId(), append(next, offer));
+        }
+        snapshot = next;
+        updates.increment();
+    }
+
+    // Renumérote les documents vivants dans un nouvel instantané, sans relire la base
+    private Snapshot compact(Snapshot current) {
+        Snapshot compacted = new Snapshot(Math.max(16, current.liveCount * 2));
+        compacted.cityNames = current.cityNames;
+        docByOffer.clear();
+        for (int doc = 0; doc < current.size; doc++) {
+            if (current.isLive(doc)) {
+                OfferDTO offer = current.docs[doc];
+                docByOffer.put(offer.getId(), append(compacted, offer));
+            }
+        }
+        compactions.increment();
+        return compacted;
+    }
+
+    private int append(Snapshot target, OfferDTO offer) {
+        int city = -1;
+        if (offer.getCity() != null) {
+            String cityKey = key(offer.getCity());
+            Integer ordinal = cityOrdinals.get(cityKey);
+            if (ordinal == null) {
+                ordinal = cityOrdinals.size();
+                cityOrdinals.put(cityKey, ordinal);
+                target.cityNames = Arrays.copyOf(target.cityNames, ordinal + 1);
+                target.cityNames[ordinal] = offer.getCity().trim();
+            }
+            city = ordinal;
+        }
+        return target.append(offer, city, bandWidthMinor);
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized List<Long> offersWhere(Predicate<OfferDTO> predicate) {
+        Snapshot s = snapshot;
+        List<Long> ids = new ArrayList<>();
+        for (int doc = 0; doc < s.size; doc++) {
+            if (s.isLive(doc) && predicate.test(s.docs[doc])) {
+                ids.add(s.docs[doc].getId());
+            }
+        }
+        return ids;
+    }
+
+    private Map<String, Object> facets(Snapshot s, long[] keys, int matched) {
+        int[] cities = new int[s.cityNames.length];
+        int[] types = new int[TransportType.values().length];
+        FacetCounter bands = new FacetCounter(0, s.maxBand);
+        FacetCounter days = new FacetCounter(s.minDay, s.maxDay);
+        for (int i = 0; i < matched; i++) {
+            int doc = (int) (keys[i] & (MAX_DOCS - 1));
+            if (s.cityOrd[doc] >= 0) {
+                cities[s.cityOrd[doc]]++;
+            }
+            if (s.typeOrd[doc] >= 0) {
+                types[s.typeOrd[doc]]++;
+            }
+            if (s.priceMinor[doc] != NO_PRICE) {
+                bands.increment(s.priceMinor[doc] / bandWidthMinor);
+            }
+            days.increment(Math.floorDiv(s.matchAt[doc], 86_400L));
+        }
+
+        Map<String, Integer> cityFacet = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < cities.length; ordinal++) {
+            if (cities[ordinal] > 0) {
+                cityFacet.put(s.cityNames[ordinal], cities[ordinal]);
+            }
+        }
+        Map<String, Integer> typeFacet = new LinkedHashMap<>();
+        for (TransportType type : TransportType.values()) {
+            if (types[type.ordinal()] > 0) {
+                typeFacet.put(type.name(), types[type.ordinal()]);
+            }
+        }
+        Map<String, Integer> bandFacet = new LinkedHashMap<>();
+        bands.forEach((band, count) -> {
+            long fromMad = band * bandWidthMinor / 100;
+            bandFacet.put(fromMad + "-" + (fromMad + bandWidthMinor / 100 - 1), count);
+        });
+        Map<String, Integer> dateFacet = new LinkedHashMap<>();
+        days.forEach((day, count) -> dateFacet.put(LocalDate.ofEpochDay(day).toString(), count));
+
+        Map<String, Object> facets = new LinkedHashMap<>();
+        facets.put("cities", cityFacet);
+        facets.put("transportTypes", typeFacet);
+        facets.put("priceBands", bandFacet);
+        facets.put("matchDates", dateFacet);
+        return facets;
+    }
+
+    /**
+     * Place les {@code k} plus petites clés de {@code keys[0..n)}, triées, en tête du tableau,
+     * à l'aide d'un tas max borné : O(n log k) au lieu de trier tout le résultat.
+     */
+    static void selectSmallest(long[] keys, int n, int k) {
+        if (k <= 0) {
+            return;
+        }
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(keys, i, k);
+        }
+        for (int i = k; i < n; i++) {
+            if (keys[i] < keys[0]) {
+                long evicted = keys[0];
+                keys[0] = keys[i];
+                keys[i] = evicted;
+                siftDown(keys, 0, k);
+            }
+        }
+        Arrays.sort(keys, 0, k);
+    }
+
+    private static void siftDown(long[] heap, int i, int size) {
+        long value = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= value) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    // Vrai si le critère ne peut rien trouver (valeur absente de l'index)
+    private static boolean addPostings(List<Postings> lists, Postings postings) {
+        if (postings == null || postings.size == 0) {
+            return true;
+        }
+        lists.add(postings);
+        return false;
+    }
+
+    /**
+     * Garde dans {@code candidates[0..count)} les documents présents dans {@code other} ; les deux sont
+     * triés. Recherche exponentielle dans {@code other}, efficace quand les candidats sont peu nombreux.
+     */
+    private static int intersect(int[] candidates, int count, Postings other) {
+        int kept = 0;
+        int lo = 0;
+        for (int i = 0; i < count && lo < other.size; i++) {
+            int doc = candidates[i];
+            int step = 1;
+            int hi = lo;
+            while (hi < other.size && other.ids[hi] < doc) {
+                lo = hi + 1;
+                hi = lo + step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(other.ids, lo, Math.min(hi + 1, other.size), doc);
+            if (found >= 0) {
+                candidates[kept++] = doc;
+                lo = found + 1;
+            } else {
+                lo = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static String key(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Compteurs d'une facette numérique : tableau sur l'intervalle [min, max] connu de l'instantané,
+     * table triée si l'intervalle est trop large.
+     */
+    private static final class FacetCounter {
+        private final long min;
+        private final int[] counts;
+        private final Map<Long, int[]> sparse;
+
+        private FacetCounter(long min, long max) {
+            this.min = min;
+            boolean dense = max >= min && max - min < MAX_FACET_SLOTS;
+            this.counts = dense ? new int[(int) (max - min + 1)] : null;
+            this.sparse = dense ? null : new HashMap<>();
+        }
+
+        private void increment(long value) {
+            if (counts != null) {
+                counts[(int) (value - min)]++;
+            } else {
+                sparse.computeIfAbsent(value, key -> new int[1])[0]++;
+            }
+        }
+
+        private void forEach(BiConsumer<Long, Integer> action) {
+            if (counts != null) {
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        action.accept(min + i, counts[i]);
+                    }
+                }
+            } else {
+                sparse.keySet().stream().sorted().forEach(value -> action.accept(value, sparse.get(value)[0]));
+            }
+        }
+    }
+
+    /**
+     * Liste triée de numéros de documents. Le tableau peut être plus grand que {@code size} et partagé
+     * avec une liste plus courte d'un instantané précédent, qui n'en lit pas la fin.
+     */
+    private static final class Postings {
+        private final int[] ids;
+        private final int size;
+
+        private Postings(int[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        private Postings with(int doc) {
+            int[] target = size < ids.length ? ids : Arrays.copyOf(ids, Math.max(4, size * 2));
+            target[size] = doc;
+            return new Postings(target, size + 1);
+        }
+    }
+
+    /**
+     * État de l'index lu par les recherches. Les colonnes sont en ajout seul et partagées entre
+     * instantanés ; les documents supprimés et les index inversés sont copiés à chaque mise à jour.
+     */
+    private static final class Snapshot {
+        private OfferDTO[] docs;
+        private long[] priceMinor;
+        private long[] matchAt;
+        private int[] cityOrd;
+        private int[] typeOrd;
+        private String[] cityNames = new String[0];
+        // Bornes des tranches de prix et des jours de match indexés, pour dimensionner les facettes
+        private long maxBand = -1;
+        private long minDay = Long.MAX_VALUE;
+        private long maxDay = Long.MIN_VALUE;
+        private int size;
+        private long[] live;
+        private int liveCount;
+        private Map<String, Postings> byCity;
+        private Map<String, Postings> byType;
+        private Map<Long, Postings> byBand;
+
+        private Snapshot(int capacity) {
+            docs = new OfferDTO[capacity];
+            priceMinor = new long[capacity];
+            matchAt = new long[capacity];
+            cityOrd = new int[capacity];
+            typeOrd = new int[capacity];
+            live = new long[(capacity + 63) >>> 6];
+            byCity = new HashMap<>();
+            byType = new HashMap<>();
+            byBand = new HashMap<>();
+        }
+
+        private Snapshot() {
+        }
+
+        private Snapshot copyForUpdate() {
+            Snapshot copy = new Snapshot();
+            copy.docs = docs;
+            copy.priceMinor = priceMinor;
+            copy.matchAt = matchAt;
+            copy.cityOrd = cityOrd;
+            copy.typeOrd = typeOrd;
+            copy.cityNames = cityNames;
+            copy.maxBand = maxBand;
+            copy.minDay = minDay;
+            copy.maxDay = maxDay;
+            copy.size = size;
+            copy.live = live.clone();
+            copy.liveCount = liveCount;
+            copy.byCity = new HashMap<>(byCity);
+            copy.byType = new HashMap<>(byType);
+            copy.byBand = new HashMap<>(byBand);
+            return copy;
+        }
+
+        private boolean isLive(int doc) {
+            return (live[doc >>> 6] & (1L << doc)) != 0;
+        }
+
+        private void kill(int doc) {
+            if (isLive(doc)) {
+                live[doc >>> 6] &= ~(1L << doc);
+                liveCount--;
+            }
+        }
+
+        private int append(OfferDTO offer, int city, long bandWidthMinor) {
+            if (size == docs.length) {
+                int capacity = size * 2;
+                docs = Arrays.copyOf(docs, capacity);
+                priceMinor = Arrays.copyOf(priceMinor, capacity);
+                matchAt = Arrays.copyOf(matchAt, capacity);
+                cityOrd = Arrays.copyOf(cityOrd, capacity);
+                typeOrd = Arrays.copyOf(typeOrd, capacity);
+            }
+            if ((size >>> 6) >= live.length) {
+                live = Arrays.copyOf(live, live.length * 2 + 1);
+            }
+            int doc = size++;
+            docs[doc] = offer;
+            priceMinor[doc] = offer.getTotalPrice() != null ? toMinor(offer.getTotalPrice()) : NO_PRICE;
+            matchAt[doc] = offer.getMatchDate() != null ? offer.getMatchDate().toEpochSecond(ZoneOffset.UTC) : 0;
+            cityOrd[doc] = city;
+            typeOrd[doc] = offer.getTransportType() != null ? TransportType.valueOf(offer.getTransportType()).ordinal() : -1;
+            long day = Math.floorDiv(matchAt[doc], 86_400L);
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+            if (priceMinor[doc] != NO_PRICE) {
+                maxBand = Math.max(maxBand, priceMinor[doc] / bandWidthMinor);
+            }
+            live[doc >>> 6] |= 1L << doc;
+            liveCount++;
+
+            if (offer.getCity() != null) {
+                byCity.merge(key(offer.getCity()), new Postings(new int[]{doc}, 1), (current, single) -> current.with(doc));
+            }
+            if (offer.getTransportType() != null) {
+                byType.merge(offer.getTransportType(), new Postings(new int[]{doc}, 1), (current, single) -> current.with(doc));
+            }
+            if (priceMinor[doc] != NO_PRICE) {
+                byBand.merge(priceMinor[doc] / bandWidthMinor, new Postings(new int[]{doc}, 1), (current, single) -> current.with(doc));
+            }
+            return doc;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.OfferDTO;
+import com.worldcup2030.backend.model.Offer;
+import com.worldcup2030.backend.repository.HotelRepository;
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.OfferRepository;
+import com.worldcup2030.backend.repository.TransportRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offres combinées match + hôtel + transport. Les recherches sont servies par {@link OfferSearchIndex},
+ * tenu à jour après chaque création ou suppression.
+ */
+@Service
+public class OfferService {
+
+    private final OfferRepository offerRepository;
+    private final MatchRepository matchRepository;
+    private final HotelRepository hotelRepository;
+    private final TransportRepository transportRepository;
+    private final OfferSearchIndex searchIndex;
+
+    public OfferService(OfferRepository offerRepository,
+                        MatchRepository matchRepository,
+                        HotelRepository hotelRepository,
+                        TransportRepository transportRepository,
+                        OfferSearchIndex searchIndex) {
+        this.offerRepository = offerRepository;
+        this.matchRepository = matchRepository;
+        this.hotelRepository = hotelRepository;
+        this.transportRepository = transportRepository;
+        this.searchIndex = searchIndex;
+    }
+
+    @Transactional
+    public OfferDTO createOffer(OfferDTO dto) {
+        if (dto.getMatchId() == null) {
+            throw new IllegalArgumentException("Le match est obligatoire");
+        }
+        if (dto.getTotalPrice() == null || dto.getTotalPrice().signum() < 0) {
+            throw new IllegalArgumentException("Le prix total est obligatoire et doit être positif");
+        }
+        Offer offer = new Offer();
+        offer.setTitle(dto.getTitle());
+        offer.setTotalPrice(dto.getTotalPrice());
+        offer.setDescription(dto.getDescription());
+        offer.setMatch(matchRepository.findById(dto.getMatchId())
+                .orElseThrow(() -> new IllegalArgumentException("Match non trouvé avec l'ID : " + dto.getMatchId())));
+        if (dto.getHotelId() != null) {
+            offer.setHotel(hotelRepository.findById(dto.getHotelId())
+                    .orElseThrow(() -> new IllegalArgumentException("Hôtel non trouvé avec l'ID : " + dto.getHotelId())));
+        }
+        if (dto.getTransportId() != null) {
+            offer.setTransport(transportRepository.findById(dto.getTransportId())
+                    .orElseThrow(() -> new IllegalArgumentException("Transport non trouvé avec l'ID : " + dto.getTransportId())));
+        }
+
+        Offer saved = offerRepository.saveAndFlush(offer);
+        searchIndex.reindexOffersAfterCommit(List.of(saved.getId()));
+        return offerRepository.findDtosByIdIn(List.of(saved.getId())).get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public OfferDTO getOfferById(Long id) {
+        List<OfferDTO> offers = offerRepository.findDtosByIdIn(List.of(id));
+        if (offers.isEmpty()) {
+            throw new RuntimeException("Offre non trouvée avec l'ID : " + id);
+        }
+        return offers.get(0);
+    }
+
+    @Transactional
+    public void deleteOffer(Long id) {
+        offerRepository.deleteById(id);
+        searchIndex.removeOfferAfterCommit(id);
+    }
+
+    public Map<String, Object> search(String city, LocalDate from, LocalDate to, BigDecimal minPrice,
+                                      BigDecimal maxPrice, Integer priceBand, String transportType,
+                                      String sort, int page, int size) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("La date de fin doit suivre la date de début");
+        }
+        return searchIndex.search(city, from, to, minPrice, maxPrice, priceBand, transportType, sort, page, size);
+    }
+
+    public Map<String, Object> getSearchStats() {
+        return searchIndex.stats();
+    }
+}
@@ -0,0 +1,52 @@
+package com.worldcup2030.backend.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Jeton JWT dont la signature et l'expiration ont été vérifiées une fois par {@link JwtService#parse(String)}.
+ * Expose les claims sans relire le jeton.
+ */
+public final class ParsedToken {
+
+    private final Claims claims;
+
+    ParsedToken(Claims claims) {
+        this.claims = claims;
+    }
+
+    // Email de l'utilisateur (subject du jeton)
+    public String getEmail() {
+        return claims.getSubject();
+    }
+
+    public Long getUserId() {
+        return claims.get("userId", Long.class);
+    }
+
+    public String getRole() {
+        return claims.get("role", String.class);
+    }
+
+    // Type des jetons de salle d'attente ; null pour un jeton d'authentification
+    public String getTokenType() {
+        return claims.get("tokenType", String.class);
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public boolean isExpired() {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+}
@@ -2,12 +2,26 @@ package com.worldcup2030.backend.service;
 
 import com.worldcup2030.backend.model.Payment;
 import com.worldcup2030.backend.model.PaymentMethod;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 @Service
 public class PaymentGatewayService {
@@ -15,58 +29,82 @@ public class PaymentGatewayService {
     private static final Logger logger = LoggerFactory.getLogger(PaymentGatewayService.class);
     private final Random random = new Random();
 
+    private final Executor gatewayExecutor;
+    private final long timeoutMs;
+    // Nombre d'appels en cours vers la passerelle : au-delà, la demande est refusée tout de suite
+    private final Semaphore inFlight;
+
+    // Clé d'idempotence (identifiant de transaction) -> réponse définitive : une autorisation envoyée
+    // deux fois (requête doublée, nouvelle tentative) n'est débitée qu'une fois
+    private static final Set<String> TRANSIENT_CODES = Set.of("NETWORK_ERROR", "BANK_TIMEOUT", "TEMPORARY_ISSUE");
+    private final ConcurrentHashMap<String, PaymentGatewayResponse> settled = new ConcurrentHashMap<>();
+    private final long idempotencyTtlMs;
+
+    public PaymentGatewayService(@Qualifier("paymentGatewayExecutor") Executor gatewayExecutor,
+                                 @Value("${worldcup.payment.gateway.timeout-ms:5000}") long timeoutMs,
+                                 @Value("${worldcup.payment.gateway.max-in-flight:2000}") int maxInFlight,
+                                 @Value("${worldcup.payment.gateway.idempotency-ttl-ms:900000}") long idempotencyTtlMs) {
+        this.gatewayExecutor = gatewayExecutor;
+        this.timeoutMs = timeoutMs;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.idempotencyTtlMs = idempotencyTtlMs;
+    }
+
     /**
-     * Simule le traitement d'un paiement via une passerelle externe
-     * Dans un vrai projet, ceci ferait appel à Stripe, PayPal, etc.
+     * Autorise un lot de paiements en un seul aller-retour vers la passerelle.
+     * Les réponses sont dans l'ordre des paiements reçus.
      */
-    public PaymentGatewayResponse processPayment(Payment payment) {
-        logger.info("🌐 Processing payment through gateway for transaction: {}", payment.getTransactionId());
-
-        try {
-            // Simulation d'un appel réseau (délai)
-            Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 3000));
-
-            // Simulation de différents scénarios selon la méthode de paiement
-            PaymentGatewayResponse response = simulatePaymentProcessing(payment);
-
-            logger.info("🔄 Gateway responded with: {} for transaction: {}",
-                    response.isSuccess() ? "SUCCESS" : "FAILURE",
-                    payment.getTransactionId());
-
-            return response;
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("❌ Payment processing interrupted: {}", payment.getTransactionId());
-            return new PaymentGatewayResponse(false, "INTERRUPTED", "Traitement interrompu", "{}");
-
-        } catch (Exception e) {
-            logger.error("❌ Gateway error for transaction: {}", payment.getTransactionId(), e);
-            return new PaymentGatewayResponse(false, "GATEWAY_ERROR", "Erreur de la passerelle: " + e.getMessage(), "{}");
-        }
+    public CompletableFuture<List<PaymentGatewayResponse>> processBatch(List<Payment> payments) {
+        logger.info("🌐 Processing batch of {} payments through gateway", payments.size());
+
+        long latencyMs = ThreadLocalRandom.current().nextInt(1000, 3000);
+        return call("batch of " + payments.size(), latencyMs, () -> {
+            List<PaymentGatewayResponse> responses = new ArrayList<>(payments.size());
+            for (Payment payment : payments) {
+                responses.add(authorizeOnce(payment));
+            }
+            long succeeded = responses.stream().filter(PaymentGatewayResponse::isSuccess).count();
+            logger.info("🔄 Gateway responded to batch: {}/{} succeeded", succeeded, payments.size());
+            return responses;
+        }, (code, message) -> {
+            List<PaymentGatewayResponse> responses = new ArrayList<>(payments.size());
+            for (int i = 0; i < payments.size(); i++) {
+                responses.add(failure(code, message));
+            }
+            return responses;
+        });
     }
 
     /**
-     * Simule le remboursement via la passerelle
+     * Simule le remboursement via la passerelle. Un remboursement réussi est mémorisé par identifiant de
+     * transaction, comme une autorisation : renvoyé après une reprise, il n'est versé qu'une fois.
      */
-    public PaymentGatewayResponse refundPayment(Payment payment) {
+    public CompletableFuture<PaymentGatewayResponse> refundPayment(Payment payment) {
         logger.info("💰 Processing refund through gateway for transaction: {}", payment.getTransactionId());
 
-        try {
-            // Simulation d'un délai réseau
-            Thread.sleep(ThreadLocalRandom.current().nextInt(500, 1500));
+        long latencyMs = ThreadLocalRandom.current().nextInt(500, 1500);
+        return call(payment.getTransactionId(), latencyMs, () -> {
+            String key = payment.getTransactionId() == null ? null : "refund:" + payment.getTransactionId();
+            PaymentGatewayResponse refunded = key == null ? null : settled.get(key);
+            if (refunded != null) {
+                return refunded;
+            }
 
             // Les remboursements ont généralement un taux de succès plus élevé
             boolean success = random.nextDouble() > 0.05; // 95% de succès
 
             if (success) {
                 String refundId = "REF-" + System.currentTimeMillis();
-                return new PaymentGatewayResponse(
+                PaymentGatewayResponse response = new PaymentGatewayResponse(
                         true,
                         "REFUND_SUCCESS",
                         "Remboursement traité avec succès",
                         String.format("{\"refund_id\":\"%s\",\"status\":\"completed\"}", refundId)
                 );
+                if (key != null && settled.putIfAbsent(key, response) == null) {
+                    CompletableFuture.delayedExecutor(idempotencyTtlMs, TimeUnit.MILLISECONDS).execute(() -> settled.remove(key));
+                }
+                return key == null ? response : settled.getOrDefault(key, response);
             } else {
                 return new PaymentGatewayResponse(
                         false,
@@ -75,16 +113,61 @@ public class PaymentGatewayService {
                         "{\"error\":\"insufficient_funds\",\"status\":\"failed\"}"
                 );
             }
+        }, PaymentGatewayService::failure);
+    }
+
+    /**
+     * Exécute l'appel sur le pool de la passerelle après le délai réseau simulé, avec un délai maximal.
+     * Le futur est toujours complété normalement : les erreurs sont converties par {@code failure}
+     * à partir d'un code et d'un message.
+     */
+    private <T> CompletableFuture<T> call(String reference, long latencyMs, Supplier<T> gatewayCall,
+                                          BiFunction<String, String, T> failure) {
+        if (!inFlight.tryAcquire()) {
+            logger.warn("⚠️ Gateway saturated, rejecting transaction: {}", reference);
+            return CompletableFuture.completedFuture(failure.apply("GATEWAY_BUSY", "Passerelle saturée, veuillez réessayer"));
+        }
+
+        Executor delayed = CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS, gatewayExecutor);
+        return CompletableFuture.supplyAsync(gatewayCall, delayed)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        logger.error("⏱️ Gateway timeout after {} ms for transaction: {}", timeoutMs, reference);
+                        return failure.apply("TIMEOUT", "La passerelle n'a pas répondu à temps");
+                    }
+                    logger.error("❌ Gateway error for transaction: {}", reference, cause);
+                    return failure.apply("GATEWAY_ERROR", "Erreur de la passerelle: " + cause.getMessage());
+                })
+                .whenComplete((response, e) -> inFlight.release());
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("❌ Refund processing interrupted: {}", payment.getTransactionId());
-            return new PaymentGatewayResponse(false, "INTERRUPTED", "Remboursement interrompu", "{}");
+    private static PaymentGatewayResponse failure(String code, String message) {
+        return new PaymentGatewayResponse(false, code, message, "{}");
+    }
 
-        } catch (Exception e) {
-            logger.error("❌ Refund gateway error for transaction: {}", payment.getTransactionId(), e);
-            return new PaymentGatewayResponse(false, "GATEWAY_ERROR", "Erreur lors du remboursement: " + e.getMessage(), "{}");
+    /**
+     * Autorise le paiement une seule fois par identifiant de transaction. Les erreurs passagères
+     * ne sont pas mémorisées, pour qu'une nouvelle tentative soit réellement rejouée.
+     */
+    private PaymentGatewayResponse authorizeOnce(Payment payment) {
+        String key = payment.getTransactionId();
+        if (key == null) {
+            return simulatePaymentProcessing(payment);
         }
+
+        PaymentGatewayResponse[] transientResponse = new PaymentGatewayResponse[1];
+        PaymentGatewayResponse settledResponse = settled.computeIfAbsent(key, k -> {
+            PaymentGatewayResponse response = simulatePaymentProcessing(payment);
+            if (TRANSIENT_CODES.contains(response.getCode())) {
+                transientResponse[0] = response;
+                return null;
+            }
+            CompletableFuture.delayedExecutor(idempotencyTtlMs, TimeUnit.MILLISECONDS).execute(() -> settled.remove(k));
+            return response;
+        });
+        return settledResponse != null ? settledResponse : transientResponse[0];
     }
 
     private PaymentGatewayResponse simulatePaymentProcessing(Payment payment) {
@@ -1,22 +1,39 @@
 package com.worldcup2030.backend.service;
 
+import com.worldcup2030.backend.dto.KeysetPage;
 import com.worldcup2030.backend.dto.PaymentDTO;
 import com.worldcup2030.backend.model.*;
 import com.worldcup2030.backend.repository.HotelReservationRepository;
 import com.worldcup2030.backend.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@Transactional
 public class PaymentService {
 
     @Autowired
@@ -25,9 +42,45 @@ public class PaymentService {
     @Autowired
     private HotelReservationRepository reservationRepository;
 
+    @Autowired
+    private ResilientPaymentGatewayClient gatewayClient;
+
+    @Autowired
+    private PaymentGatewayService gatewayService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Paiements lus en flux avant de vider le contexte de persistance
+    private static final int STREAM_CLEAR_EVERY = 500;
+
+    // Paiements en attente repris par page lors d'un passage du balayage
+    private static final int SWEEP_PAGE_SIZE = 500;
+
+    // Paiement en attente depuis ce délai : renvoyé à la passerelle s'il n'est plus suivi par cette instance
+    @Value("${worldcup.payment.pending.resubmit-after-ms:120000}")
+    private long resubmitAfterMs;
+
+    // Au-delà, le paiement est abandonné (FAILED)
+    @Value("${worldcup.payment.pending.expire-after-ms:1800000}")
+    private long expireAfterMs;
+
+    // Paiements envoyés à la passerelle par cette instance dont la réponse n'est pas encore reportée
+    private final Set<Long> submitted = ConcurrentHashMap.newKeySet();
+    // Idem pour les remboursements
+    private final Set<Long> refunding = ConcurrentHashMap.newKeySet();
+
     // Pattern pour valider le format MM/YY ou MM/YYYY
     private static final Pattern EXPIRY_DATE_PATTERN = Pattern.compile("^(0[1-9]|1[0-2])/([0-9]{2}|[0-9]{4})$");
 
+    /**
+     * Enregistre le paiement en attente. La transaction se termine avant l'appel à la passerelle :
+     * aucune connexion JDBC n'est tenue pendant l'autorisation.
+     */
+    @Transactional
     public PaymentDTO makePayment(PaymentDTO paymentDTO) {
         System.out.println("🔄 Processing payment: " + paymentDTO);
 
@@ -62,11 +115,11 @@ public class PaymentService {
             payment.setCardLastFour(getLastFourDigits(paymentDTO.getCardNumber()));
         }
 
-        // 6. Initier le paiement
-        Payment processedPayment = initiatePayment(payment);
+        // 6. Enregistrer le paiement en attente ; la passerelle est appelée après le commit
+        Payment pendingPayment = initiatePayment(payment);
 
-        // 7. Convertir en DTO pour le retour
-        return convertToDTO(processedPayment);
+        // 7. Convertir en DTO pour le retour (statut PENDING, à suivre via GET /api/payments/{id})
+        return convertToDTO(pendingPayment);
     }
 
     private void validatePaymentRequest(PaymentDTO paymentDTO) {
@@ -175,42 +228,205 @@ public class PaymentService {
     }
 
     private Payment initiatePayment(Payment payment) {
-        try {
-            String transactionId = generateTransactionId();
-            payment.setTransactionId(transactionId);
+        payment.setTransactionId(generateTransactionId());
+        Payment savedPayment = paymentRepository.save(payment);
 
-            boolean paymentSuccess = simulatePaymentGateway(payment);
+        // La passerelle ne doit voir que des paiements validés en base
+        afterCommit(() -> submitToGateway(savedPayment));
 
-            if (paymentSuccess) {
-                payment.setPaymentStatus(PaymentStatus.CONFIRMED);
-                payment.setPaymentDate(LocalDateTime.now());
-                payment.setPaymentGatewayResponse("Payment processed successfully");
+        System.out.println("⏳ Payment pending: " + savedPayment.getTransactionId());
+        return savedPayment;
+    }
 
-                payment.getReservation().setPaymentStatus(PaymentStatus.valueOf("PAID"));
-                reservationRepository.save(payment.getReservation());
+    /**
+     * Passe le paiement confirmé en REFUND_PENDING ; la passerelle est appelée après le commit et sa
+     * réponse reportée en arrière-plan (REFUNDED, ou retour à CONFIRMED avec le motif du refus).
+     */
+    @Transactional
+    public PaymentDTO refundPayment(Long paymentId) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new IllegalArgumentException("Paiement non trouvé"));
+        if (payment.getPaymentStatus() != PaymentStatus.CONFIRMED) {
+            throw new IllegalStateException("Seul un paiement confirmé peut être remboursé (statut : "
+                    + payment.getPaymentStatus().name() + ")");
+        }
+
+        payment.setPaymentStatus(PaymentStatus.REFUND_PENDING);
+        payment.setFailureReason(null);
+        Payment pendingRefund = paymentRepository.save(payment);
+        afterCommit(() -> submitRefund(pendingRefund));
+
+        System.out.println("⏳ Refund pending: " + pendingRefund.getTransactionId());
+        return convertToDTO(pendingRefund);
+    }
+
+    private void submitRefund(Payment payment) {
+        Long paymentId = payment.getId();
+        if (!refunding.add(paymentId)) {
+            return;
+        }
+        gatewayService.refundPayment(payment)
+                .thenAccept(response -> completeRefund(paymentId, response))
+                .exceptionally(e -> {
+                    System.out.println("❌ Refund completion error for " + payment.getTransactionId() + ": " + e.getMessage());
+                    return null;
+                })
+                .whenComplete((ignored, e) -> refunding.remove(paymentId));
+    }
+
+    /**
+     * Reporte la réponse de la passerelle au remboursement, dans une transaction séparée.
+     */
+    private void completeRefund(Long paymentId, PaymentGatewayService.PaymentGatewayResponse response) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Payment payment = paymentRepository.findById(paymentId).orElse(null);
+            if (payment == null || payment.getPaymentStatus() != PaymentStatus.REFUND_PENDING) {
+                return;
+            }
 
-                System.out.println("✅ Payment confirmed: " + transactionId);
+            if (response.isSuccess()) {
+                payment.setPaymentStatus(PaymentStatus.REFUNDED);
+                // Une réservation déjà annulée garde son statut (ses chambres sont rendues)
+                HotelReservation reservation = payment.getReservation();
+                if (reservation.getPaymentStatus() == PaymentStatus.PAID) {
+                    reservation.setPaymentStatus(PaymentStatus.REFUNDED);
+                    reservationRepository.save(reservation);
+                }
+
+                System.out.println("✅ Payment refunded: " + payment.getTransactionId());
             } else {
-                payment.setPaymentStatus(PaymentStatus.FAILED);
-                payment.setFailureReason("Paiement refusé par la banque");
-                payment.setPaymentGatewayResponse("Payment declined");
+                // Date du paiement conservée : setPaymentStatus(CONFIRMED) la remplacerait
+                LocalDateTime paymentDate = payment.getPaymentDate();
+                payment.setPaymentStatus(PaymentStatus.CONFIRMED);
+                payment.setPaymentDate(paymentDate);
+                payment.setFailureReason("Remboursement refusé : " + response.getMessage());
 
-                System.out.println("❌ Payment failed: " + transactionId);
+                System.out.println("❌ Refund failed: " + payment.getTransactionId() + " (" + response.getCode() + ")");
             }
+            paymentRepository.save(payment);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 
-            return paymentRepository.save(payment);
+    private void submitToGateway(Payment payment) {
+        Long paymentId = payment.getId();
+        if (!submitted.add(paymentId)) {
+            return;
+        }
+        gatewayClient.authorize(payment)
+                .thenAccept(response -> completePayment(paymentId, response))
+                .exceptionally(e -> {
+                    System.out.println("❌ Payment completion error for " + payment.getTransactionId() + ": " + e.getMessage());
+                    return null;
+                })
+                .whenComplete((ignored, e) -> submitted.remove(paymentId));
+    }
 
-        } catch (Exception e) {
-            System.out.println("❌ Payment processing error: " + e.getMessage());
-            payment.setPaymentStatus(PaymentStatus.FAILED);
-            payment.setFailureReason("Erreur technique: " + e.getMessage());
+    /**
+     * Reprend les paiements restés PENDING, par exemple après un arrêt de l'instance entre le commit et
+     * la réponse de la passerelle. Un paiement en attente depuis resubmit-after-ms et qui n'est plus suivi
+     * ici est renvoyé sous le même identifiant de transaction : la passerelle ne le débite qu'une fois.
+     * Après expire-after-ms, il passe en FAILED. Les remboursements restés REFUND_PENDING depuis
+     * resubmit-after-ms sont renvoyés de même, sans expiration. Lancé au démarrage puis à intervalle fixe.
+     */
+    @Scheduled(fixedDelayString = "${worldcup.payment.pending.sweep-interval-ms:60000}")
+    public void sweepPendingPayments() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime resubmitBefore = now.minus(Duration.ofMillis(resubmitAfterMs));
+        LocalDateTime expireBefore = now.minus(Duration.ofMillis(expireAfterMs));
+
+        int resubmitted = 0;
+        int expired = 0;
+        long afterId = 0;
+        List<Payment> stale;
+        do {
+            stale = paymentRepository.findByPaymentStatusAndCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(
+                    PaymentStatus.PENDING, resubmitBefore, afterId, PageRequest.of(0, SWEEP_PAGE_SIZE));
+            for (Payment payment : stale) {
+                afterId = payment.getId();
+                if (payment.getCreatedAt().isBefore(expireBefore)) {
+                    expired += expirePayment(payment.getId()) ? 1 : 0;
+                } else if (!submitted.contains(payment.getId())) {
+                    submitToGateway(payment);
+                    resubmitted++;
+                }
+            }
+        } while (stale.size() == SWEEP_PAGE_SIZE);
+
+        int refunds = 0;
+        afterId = 0;
+        do {
+            stale = paymentRepository.findByPaymentStatusAndUpdatedAtBeforeAndIdGreaterThanOrderByIdAsc(
+                    PaymentStatus.REFUND_PENDING, resubmitBefore, afterId, PageRequest.of(0, SWEEP_PAGE_SIZE));
+            for (Payment payment : stale) {
+                afterId = payment.getId();
+                if (!refunding.contains(payment.getId())) {
+                    submitRefund(payment);
+                    refunds++;
+                }
+            }
+        } while (stale.size() == SWEEP_PAGE_SIZE);
 
-            return paymentRepository.save(payment);
+        if (resubmitted > 0 || expired > 0 || refunds > 0) {
+            System.out.println("🧹 Pending payments swept: " + resubmitted + " resubmitted, " + expired + " expired, "
+                    + refunds + " refunds resubmitted");
         }
     }
 
-    private boolean simulatePaymentGateway(Payment payment) {
-        return Math.random() > 0.1; // 90% de réussite
+    private boolean expirePayment(Long paymentId) {
+        Boolean expired = new TransactionTemplate(transactionManager).execute(status -> {
+            Payment payment = paymentRepository.findById(paymentId).orElse(null);
+            if (payment == null || payment.getPaymentStatus() != PaymentStatus.PENDING) {
+                return false;
+            }
+            payment.setPaymentStatus(PaymentStatus.FAILED);
+            payment.setFailureReason("Paiement non finalisé par la passerelle");
+            paymentRepository.save(payment);
+            return true;
+        });
+        return Boolean.TRUE.equals(expired);
+    }
+
+    /**
+     * Reporte la réponse de la passerelle sur le paiement, dans une transaction séparée
+     * exécutée par le pool de la passerelle.
+     */
+    private void completePayment(Long paymentId, PaymentGatewayService.PaymentGatewayResponse response) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Payment payment = paymentRepository.findById(paymentId).orElse(null);
+            if (payment == null || payment.getPaymentStatus() != PaymentStatus.PENDING) {
+                return;
+            }
+
+            payment.setPaymentGatewayResponse(response.getFullResponse());
+            if (response.isSuccess()) {
+                payment.setPaymentStatus(PaymentStatus.CONFIRMED);
+                payment.setPaymentDate(LocalDateTime.now());
+
+                payment.getReservation().setPaymentStatus(PaymentStatus.PAID);
+                reservationRepository.save(payment.getReservation());
+
+                System.out.println("✅ Payment confirmed: " + payment.getTransactionId());
+            } else {
+                payment.setPaymentStatus(PaymentStatus.FAILED);
+                payment.setFailureReason(response.getMessage());
+
+                System.out.println("❌ Payment failed: " + payment.getTransactionId() + " (" + response.getCode() + ")");
+            }
+            paymentRepository.save(payment);
+        });
     }
 
     private String generateTransactionId() {
@@ -239,12 +455,54 @@ public class PaymentService {
         return dto;
     }
 
+    @Transactional(readOnly = true)
     public PaymentDTO getPaymentByReservationId(Long reservationId) {
         Payment payment = paymentRepository.findByReservationId(reservationId)
                 .orElseThrow(() -> new IllegalArgumentException("Aucun paiement trouvé pour cette réservation"));
         return convertToDTO(payment);
     }
 
+    /**
+     * Paiements d'un statut (CONFIRMED, FAILED...) par identifiant croissant ; {@code after} est
+     * l'identifiant du dernier paiement de la page précédente.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<PaymentDTO> getPaymentsPage(PaymentStatus status, String after, Integer size) {
+        int limit = KeysetPage.clampSize(size);
+        long afterId = 0;
+        if (after != null && !after.isBlank()) {
+            try {
+                afterId = Long.parseLong(after);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide: " + after);
+            }
+        }
+        List<PaymentDTO> rows = paymentRepository
+                .findByPaymentStatusAndIdGreaterThanOrderByIdAsc(status, afterId, PageRequest.of(0, limit + 1))
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return KeysetPage.of(rows, limit, payment -> String.valueOf(payment.getId()));
+    }
+
+    /**
+     * Passe chaque paiement du statut à {@code consumer} au fil de la lecture, à mémoire constante.
+     */
+    @Transactional(readOnly = true)
+    public void streamPayments(PaymentStatus status, Consumer<PaymentDTO> consumer) {
+        try (Stream<Payment> payments = paymentRepository.streamByPaymentStatus(status)) {
+            int read = 0;
+            Iterator<Payment> it = payments.iterator();
+            while (it.hasNext()) {
+                consumer.accept(convertToDTO(it.next()));
+                if (++read % STREAM_CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
     public PaymentDTO getPaymentById(Long id) {
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Paiement non trouvé"));
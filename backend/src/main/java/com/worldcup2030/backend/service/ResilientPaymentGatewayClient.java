@@ -0,0 +1,179 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Payment;
+import com.worldcup2030.backend.model.PaymentMethod;
+import com.worldcup2030.backend.service.PaymentGatewayService.PaymentGatewayResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Couche de résilience devant la passerelle de paiement :
+ * <ul>
+ *     <li>cloisonnement : un nombre maximal d'autorisations en cours par moyen de paiement ;</li>
+ *     <li>disjoncteur : quand la passerelle échoue trop souvent, les paiements échouent tout de suite ;</li>
+ *     <li>nouvelles tentatives, avec attente exponentielle aléatoire, sur les erreurs techniques ;</li>
+ *     <li>requête doublée : si la réponse tarde au-delà du p95 observé, la même autorisation (même
+ *     identifiant de transaction, donc débitée au plus une fois) est renvoyée et la première réponse gagne.</li>
+ * </ul>
+ */
+@Component
+public class ResilientPaymentGatewayClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientPaymentGatewayClient.class);
+
+    // Erreurs techniques : comptées par le disjoncteur et retentées. Les refus bancaires ne le sont pas.
+    private static final Set<String> RETRYABLE_CODES = Set.of(
+            "NETWORK_ERROR", "BANK_TIMEOUT", "TEMPORARY_ISSUE", "TIMEOUT", "GATEWAY_BUSY", "GATEWAY_ERROR");
+
+    private static final int MIN_SAMPLES_FOR_HEDGING = 100;
+
+    private final BatchingPaymentGatewayClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Map<PaymentMethod, Semaphore> bulkheads = new EnumMap<>(PaymentMethod.class);
+    private final Map<PaymentMethod, LatencyHistogram> latencies = new EnumMap<>(PaymentMethod.class);
+    private final LatencyHistogram overallLatency = new LatencyHistogram();
+
+    private final int bulkheadSize;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long hedgeDelayMs;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+
+    public ResilientPaymentGatewayClient(BatchingPaymentGatewayClient delegate,
+                                         @Value("${worldcup.payment.gateway.bulkhead-per-method:200}") int bulkheadSize,
+                                         @Value("${worldcup.payment.gateway.max-attempts:3}") int maxAttempts,
+                                         @Value("${worldcup.payment.gateway.retry-base-ms:200}") long retryBaseMs,
+                                         @Value("${worldcup.payment.gateway.hedge-delay-ms:2500}") long hedgeDelayMs,
+                                         @Value("${worldcup.payment.gateway.breaker.window:50}") int breakerWindow,
+                                         @Value("${worldcup.payment.gateway.breaker.minimum-calls:20}") int breakerMinimumCalls,
+                                         @Value("${worldcup.payment.gateway.breaker.failure-rate:50}") double breakerFailureRate,
+                                         @Value("${worldcup.payment.gateway.breaker.open-ms:10000}") long breakerOpenMs,
+                                         @Value("${worldcup.payment.gateway.breaker.half-open-calls:5}") int breakerHalfOpenCalls) {
+        this.delegate = delegate;
+        this.bulkheadSize = bulkheadSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseMs = Math.max(1, retryBaseMs);
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.circuitBreaker = new CircuitBreaker(breakerWindow, breakerMinimumCalls, breakerFailureRate,
+                breakerOpenMs, breakerHalfOpenCalls);
+        for (PaymentMethod method : PaymentMethod.values()) {
+            bulkheads.put(method, new Semaphore(bulkheadSize));
+            latencies.put(method, new LatencyHistogram());
+        }
+    }
+
+    public CompletableFuture<PaymentGatewayResponse> authorize(Payment payment) {
+        Semaphore bulkhead = bulkheads.get(payment.getPaymentMethod());
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejected.increment();
+            logger.warn("⚠️ Bulkhead full for {}, rejecting transaction: {}", payment.getPaymentMethod(), payment.getTransactionId());
+            return CompletableFuture.completedFuture(failure("BULKHEAD_FULL",
+                    "Trop de paiements en cours avec ce moyen de paiement, veuillez réessayer"));
+        }
+        return attempt(payment, 1).whenComplete((response, e) -> bulkhead.release());
+    }
+
+    private CompletableFuture<PaymentGatewayResponse> attempt(Payment payment, int attempt) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            shortCircuited.increment();
+            return CompletableFuture.completedFuture(failure("CIRCUIT_OPEN",
+                    "Passerelle de paiement momentanément indisponible, veuillez réessayer"));
+        }
+
+        return hedged(payment).thenCompose(response -> {
+            boolean technicalFailure = !response.isSuccess() && RETRYABLE_CODES.contains(response.getCode());
+            circuitBreaker.record(!technicalFailure);
+
+            if (!technicalFailure || attempt >= maxAttempts) {
+                return CompletableFuture.completedFuture(response);
+            }
+            // Attente exponentielle avec aléa complet, sans bloquer de thread
+            long delayMs = 1 + ThreadLocalRandom.current().nextLong(retryBaseMs << Math.min(attempt - 1, 10));
+            retries.increment();
+            logger.info("🔁 Retrying transaction {} after {} ({} ms, attempt {}/{})",
+                    payment.getTransactionId(), response.getCode(), delayMs, attempt + 1, maxAttempts);
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> attempt(payment, attempt + 1));
+        });
+    }
+
+    private CompletableFuture<PaymentGatewayResponse> hedged(Payment payment) {
+        CompletableFuture<PaymentGatewayResponse> first = new CompletableFuture<>();
+        long startedAt = System.nanoTime();
+        send(payment, startedAt, first, false);
+
+        CompletableFuture.delayedExecutor(hedgeDelay(payment.getPaymentMethod()), TimeUnit.MILLISECONDS).execute(() -> {
+            if (!first.isDone()) {
+                hedges.increment();
+                send(payment, startedAt, first, true);
+            }
+        });
+        return first;
+    }
+
+    private void send(Payment payment, long startedAt, CompletableFuture<PaymentGatewayResponse> first, boolean hedge) {
+        CompletableFuture<PaymentGatewayResponse> call = hedge ? delegate.authorizeNow(payment) : delegate.authorize(payment);
+        call.whenComplete((response, e) -> {
+            PaymentGatewayResponse result = response != null ? response
+                    : failure("GATEWAY_ERROR", "Erreur de la passerelle: " + (e != null ? e.getMessage() : "réponse vide"));
+            if (first.complete(result)) {
+                long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                overallLatency.record(latencyMs);
+                latencies.get(payment.getPaymentMethod()).record(latencyMs);
+                if (hedge) {
+                    hedgeWins.increment();
+                }
+            }
+        });
+    }
+
+    // p95 observé pour ce moyen de paiement, ou la valeur configurée tant qu'il y a trop peu de mesures
+    private long hedgeDelay(PaymentMethod method) {
+        LatencyHistogram histogram = latencies.get(method);
+        return histogram.count() >= MIN_SAMPLES_FOR_HEDGING ? histogram.percentile(0.95) : hedgeDelayMs;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuitBreaker", circuitBreaker.snapshot());
+        stats.put("retries", retries.sum());
+        stats.put("hedges", hedges.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("shortCircuited", shortCircuited.sum());
+        stats.put("bulkheadRejected", bulkheadRejected.sum());
+
+        Map<String, Object> bulkheadStats = new LinkedHashMap<>();
+        Map<String, Object> latencyStats = new LinkedHashMap<>();
+        for (PaymentMethod method : PaymentMethod.values()) {
+            bulkheadStats.put(method.name(), Map.of(
+                    "inFlight", bulkheadSize - bulkheads.get(method).availablePermits(),
+                    "limit", bulkheadSize));
+            latencyStats.put(method.name(), latencies.get(method).snapshot());
+        }
+        stats.put("bulkheads", bulkheadStats);
+        stats.put("latency", overallLatency.snapshot());
+        stats.put("latencyByMethod", latencyStats);
+        return stats;
+    }
+
+    private static PaymentGatewayResponse failure(String code, String message) {
+        return new PaymentGatewayResponse(false, code, message, "{}");
+    }
+}
@@ -0,0 +1,309 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.repository.HotelReservationRepository;
+import com.worldcup2030.backend.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Occupation des hôtels par type de chambre et par nuit, tenue en mémoire.
+ * <p>
+ * La capacité d'un type est le nombre de chambres en service ({@code Room.available}) de ce type ;
+ * comme dans {@link HotelAvailabilityIndex}, un tableau indexé par le décalage en jours depuis le début
+ * du tournoi donne les chambres réservées chaque nuit, et les nuits hors de la fenêtre sont vérifiées
+ * en base. Les écritures d'un type se font sous son propre moniteur : les types d'un même hôtel se
+ * réservent en parallèle. L'inventaire est chargé par deux requêtes groupées au démarrage, puis hôtel
+ * par hôtel au premier accès.
+ * <p>
+ * Les types sont ceux des chambres, tels qu'enregistrés ; une demande est rapprochée sans tenir compte
+ * de la casse.
+ */
+@Component
+public class RoomInventoryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomInventoryIndex.class);
+
+    private final RoomRepository roomRepository;
+    private final HotelReservationRepository reservationRepository;
+
+    private final LocalDate windowStart;
+    private final int windowNights;
+
+    private final ConcurrentHashMap<Long, HotelRoomTypes> hotels = new ConcurrentHashMap<>();
+
+    public RoomInventoryIndex(RoomRepository roomRepository,
+                              HotelReservationRepository reservationRepository,
+                              HotelAvailabilityIndex availabilityIndex) {
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+        this.windowStart = availabilityIndex.windowStart();
+        this.windowNights = availabilityIndex.windowNights();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<Long, List<Object[]>> typesByHotel = new HashMap<>();
+        for (Object[] row : roomRepository.countAvailableByHotelAndType()) {
+            typesByHotel.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, HotelRoomTypes> loaded = new HashMap<>();
+        typesByHotel.forEach((hotelId, rows) -> loaded.put(hotelId, typesOf(rows)));
+
+        int stays = 0;
+        for (Object[] row : reservationRepository.findActiveTypedStays(windowStart, windowStart.plusDays(windowNights))) {
+            HotelRoomTypes types = loaded.get((Long) row[0]);
+            TypeNights type = types == null ? null : types.byName.get((String) row[1]);
+            if (type != null) {
+                type.add(offset((LocalDate) row[2]), offset((LocalDate) row[3]), (Integer) row[4]);
+                stays++;
+            }
+        }
+        hotels.clear();
+        hotels.putAll(loaded);
+        logger.info("✅ Room inventory index warmed up: {} hotels, {} room types, {} typed stays",
+                loaded.size(), loaded.values().stream().mapToInt(types -> types.byName.size()).sum(), stays);
+    }
+
+    /**
+     * Type de chambre de l'hôtel correspondant à {@code roomType}, tel qu'enregistré sur les chambres.
+     */
+    public String resolveType(Long hotelId, String roomType) {
+        return typeOf(hotelId, roomType).name;
+    }
+
+    /**
+     * Réserve {@code rooms} chambres du type pour chaque nuit du séjour, ou lève une exception si une
+     * nuit est complète. Si une transaction est active, les chambres sont rendues en cas de rollback.
+     */
+    public void reserve(Long hotelId, String roomType, LocalDate startDate, LocalDate endDate, int rooms) {
+        TypeNights type = typeOf(hotelId, roomType);
+        int from = offset(startDate);
+        int to = offset(endDate);
+
+        synchronized (type) {
+            if (!type.fits(from, to, rooms)) {
+                throw new RuntimeException("Plus assez de chambres de type " + type.name + " disponibles pour ces dates");
+            }
+            LocalDate windowEnd = windowStart.plusDays(windowNights);
+            if (startDate.isBefore(windowStart)
+                    && !fitsInDatabase(hotelId, type, startDate, min(endDate, windowStart), rooms)) {
+                throw new RuntimeException("Plus assez de chambres de type " + type.name + " disponibles pour ces dates");
+            }
+            if (endDate.isAfter(windowEnd)
+                    && !fitsInDatabase(hotelId, type, max(startDate, windowEnd), endDate, rooms)) {
+                throw new RuntimeException("Plus assez de chambres de type " + type.name + " disponibles pour ces dates");
+            }
+            type.add(from, to, rooms);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        adjust(type, from, to, -rooms);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Rend les chambres du type pour le séjour, après le commit si une transaction est active.
+     */
+    public void releaseAfterCommit(Long hotelId, String roomType, LocalDate startDate, LocalDate endDate, int rooms) {
+        Runnable release = () -> {
+            HotelRoomTypes types = hotels.get(hotelId);
+            TypeNights type = types == null ? null : types.byName.get(roomType);
+            if (type != null) {
+                adjust(type, offset(startDate), offset(endDate), -rooms);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+
+    /**
+     * Pour chaque type de l'hôtel : capacité, prix de base en centimes (-1 si aucune chambre n'a de prix)
+     * et chambres libres pour chaque nuit de {@code from} (inclus) à {@code to} (exclu).
+     */
+    public List<TypeAvailability> availability(Long hotelId, LocalDate from, LocalDate to) {
+        int start = offset(from);
+        int nights = Math.max(0, offset(to) - start);
+        List<TypeAvailability> availability = new ArrayList<>();
+        for (TypeNights type : typesOf(hotelId).byName.values()) {
+            int[] available = new int[nights];
+            for (int i = 0; i < nights; i++) {
+                available[i] = type.capacity - type.bookedAt(start + i);
+            }
+            availability.add(new TypeAvailability(type.name, type.capacity, type.basePrice, available));
+        }
+        return availability;
+    }
+
+    /**
+     * Prix de base du type en centimes (prix de sa chambre la moins chère), -1 s'il n'en a pas.
+     */
+    public int basePrice(Long hotelId, String roomType) {
+        return typeOf(hotelId, roomType).basePrice;
+    }
+
+    /**
+     * Oublie l'inventaire de l'hôtel après le commit (chambres ajoutées ou retirées du service, hôtel
+     * supprimé) : il sera rechargé au prochain accès.
+     */
+    public void evictAfterCommit(Long hotelId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    hotels.remove(hotelId);
+                }
+            });
+        } else {
+            hotels.remove(hotelId);
+        }
+    }
+
+    private void adjust(TypeNights type, int from, int to, int rooms) {
+        synchronized (type) {
+            type.add(from, to, rooms);
+        }
+    }
+
+    private TypeNights typeOf(Long hotelId, String roomType) {
+        if (roomType == null || roomType.isBlank()) {
+            throw new IllegalArgumentException("Type de chambre manquant");
+        }
+        HotelRoomTypes types = typesOf(hotelId);
+        TypeNights type = types.byName.get(roomType);
+        if (type == null) {
+            for (TypeNights candidate : types.byName.values()) {
+                if (candidate.name.equalsIgnoreCase(roomType.trim())) {
+                    return candidate;
+                }
+            }
+            throw new IllegalArgumentException("Type de chambre inconnu pour cet hôtel: " + roomType);
+        }
+        return type;
+    }
+
+    private HotelRoomTypes typesOf(Long hotelId) {
+        HotelRoomTypes types = hotels.get(hotelId);
+        if (types != null) {
+            return types;
+        }
+
+        // Hôtel sans inventaire chargé : chambres et séjours de cet hôtel seulement, hors du verrou de la map
+        HotelRoomTypes loaded = typesOf(roomRepository.countAvailableByTypeForHotel(hotelId));
+        for (Object[] row : reservationRepository.findActiveTypedStaysByHotelId(hotelId, windowStart,
+                windowStart.plusDays(windowNights))) {
+            TypeNights type = loaded.byName.get((String) row[1]);
+            if (type != null) {
+                type.add(offset((LocalDate) row[2]), offset((LocalDate) row[3]), (Integer) row[4]);
+            }
+        }
+
+        HotelRoomTypes existing = hotels.putIfAbsent(hotelId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Lignes [hotelId, roomType, nombre de chambres, prix le plus bas]
+    private HotelRoomTypes typesOf(List<Object[]> rows) {
+        Map<String, TypeNights> byName = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            BigDecimal price = (BigDecimal) row[3];
+            int basePrice = price == null ? -1 : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+            byName.put((String) row[1], new TypeNights((String) row[1], ((Number) row[2]).intValue(), basePrice, windowNights));
+        }
+        return new HotelRoomTypes(Collections.unmodifiableMap(byName));
+    }
+
+    // Somme des chambres du type réservées sur la période : borne haute de l'occupation d'une nuit
+    private boolean fitsInDatabase(Long hotelId, TypeNights type, LocalDate startDate, LocalDate endDate, int rooms) {
+        return !startDate.isBefore(endDate)
+                || reservationRepository.sumOverlappingRoomsByType(hotelId, type.name, startDate, endDate) + rooms <= type.capacity;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private int offset(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(windowStart, date);
+    }
+
+    public record TypeAvailability(String roomType, int totalRooms, int basePrice, int[] availableRooms) {
+    }
+
+    private record HotelRoomTypes(Map<String, TypeNights> byName) {
+    }
+
+    /**
+     * Chambres d'un type réservées par nuit ; écrites sous le moniteur du type, lues sans verrou.
+     */
+    private static final class TypeNights {
+        private final String name;
+        private final int capacity;
+        private final int basePrice;
+        private final int[] booked;
+
+        private TypeNights(String name, int capacity, int basePrice, int nights) {
+            this.name = name;
+            this.capacity = capacity;
+            this.basePrice = basePrice;
+            this.booked = new int[nights];
+        }
+
+        private boolean fits(int from, int to, int rooms) {
+            if (rooms > capacity) {
+                return false;
+            }
+            for (int night = Math.max(0, from); night < Math.min(booked.length, to); night++) {
+                if (booked[night] + rooms > capacity) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(int from, int to, int rooms) {
+            for (int night = Math.max(0, from); night < Math.min(booked.length, to); night++) {
+                booked[night] += rooms;
+            }
+        }
+
+        private int bookedAt(int night) {
+            return night >= 0 && night < booked.length ? booked[night] : 0;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.TransportType;
+
+import java.util.Objects;
+
+/**
+ * Disposition des sièges d'un véhicule, déduite du type de transport et de sa capacité, ou d'une
+ * tribune de stade ({@link #section(int, int)}).
+ * Un siège est identifié par un index 0..capacity-1 ; la disposition le traduit en libellé
+ * ("12C" en avion, "Car2-17" en train, "17" en bus, "R12-7" en tribune) et découpe le véhicule en
+ * blocs (rangée, voiture) à l'intérieur desquels les groupes sont placés côte à côte.
+ */
+public final class SeatLayout {
+
+    private static final int PLANE_ROW_WIDTH = 6;
+    private static final int TRAIN_CAR_SIZE = 50;
+
+    private final TransportType type;
+    private final int capacity;
+    private final int blockSize;
+
+    private SeatLayout(TransportType type, int capacity, int blockSize) {
+        this.type = type;
+        this.capacity = capacity;
+        this.blockSize = blockSize;
+    }
+
+    public static SeatLayout of(TransportType type, int capacity) {
+        int size = Math.max(0, capacity);
+        if (type == TransportType.PLANE) {
+            return new SeatLayout(type, size, PLANE_ROW_WIDTH);
+        }
+        if (type == TransportType.TRAIN || type == TransportType.TRAIN_SPECIAL) {
+            return new SeatLayout(type, size, TRAIN_CAR_SIZE);
+        }
+        // Bus, navette, métro, voiture : une seule rangée numérotée
+        return new SeatLayout(type, size, Math.max(1, size));
+    }
+
+    /**
+     * Tribune de {@code rows} rangées de {@code seatsPerRow} sièges ; les groupes restent sur une rangée.
+     */
+    public static SeatLayout section(int rows, int seatsPerRow) {
+        int rowWidth = Math.max(1, seatsPerRow);
+        return new SeatLayout(null, Math.max(0, rows) * rowWidth, rowWidth);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public String label(int seat) {
+        if (type == null) {
+            return "R" + (seat / blockSize + 1) + "-" + (seat % blockSize + 1);
+        }
+        if (type == TransportType.PLANE) {
+            return (seat / PLANE_ROW_WIDTH + 1) + String.valueOf((char) ('A' + seat % PLANE_ROW_WIDTH));
+        }
+        if (type == TransportType.TRAIN || type == TransportType.TRAIN_SPECIAL) {
+            return "Car" + (seat / TRAIN_CAR_SIZE + 1) + "-" + (seat % TRAIN_CAR_SIZE + 1);
+        }
+        return String.valueOf(seat + 1);
+    }
+
+    /**
+     * Retourne l'index du siège correspondant au libellé, ou -1 s'il est invalide pour cette disposition.
+     */
+    public int indexOf(String label) {
+        if (label == null || label.isBlank()) {
+            return -1;
+        }
+        String value = label.trim().toUpperCase();
+        try {
+            int seat;
+            if (type == null) {
+                if (!value.startsWith("R") || value.indexOf('-') < 0) {
+                    return -1;
+                }
+                int row = Integer.parseInt(value.substring(1, value.indexOf('-')));
+                int number = Integer.parseInt(value.substring(value.indexOf('-') + 1));
+                if (row < 1 || number < 1 || number > blockSize) {
+                    return -1;
+                }
+                seat = (row - 1) * blockSize + number - 1;
+            } else if (type == TransportType.PLANE) {
+                char letter = value.charAt(value.length() - 1);
+                int row = Integer.parseInt(value.substring(0, value.length() - 1));
+                int column = letter - 'A';
+                if (row < 1 || column < 0 || column >= PLANE_ROW_WIDTH) {
+                    return -1;
+                }
+                seat = (row - 1) * PLANE_ROW_WIDTH + column;
+            } else if (type == TransportType.TRAIN || type == TransportType.TRAIN_SPECIAL) {
+                if (!value.startsWith("CAR") || value.indexOf('-') < 0) {
+                    return -1;
+                }
+                int car = Integer.parseInt(value.substring(3, value.indexOf('-')));
+                int number = Integer.parseInt(value.substring(value.indexOf('-') + 1));
+                if (car < 1 || number < 1 || number > TRAIN_CAR_SIZE) {
+                    return -1;
+                }
+                seat = (car - 1) * TRAIN_CAR_SIZE + number - 1;
+            } else {
+                seat = Integer.parseInt(value) - 1;
+            }
+            return seat >= 0 && seat < capacity ? seat : -1;
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    // Même disposition : mêmes libellés pour les mêmes index
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SeatLayout other)) {
+            return false;
+        }
+        return type == other.type && capacity == other.capacity && blockSize == other.blockSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, capacity, blockSize);
+    }
+}
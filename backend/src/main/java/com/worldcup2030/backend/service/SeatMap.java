@@ -0,0 +1,191 @@
+package com.worldcup2030.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Plan de sièges compact : un bit par siège, 64 sièges par mot.
+ * Les sièges sont pris et rendus par CAS sur le mot concerné, sans verrou ;
+ * un même siège ne peut donc jamais être attribué deux fois.
+ */
+public final class SeatMap {
+
+    private final SeatLayout layout;
+    private final AtomicLongArray words;
+    private final AtomicInteger taken = new AtomicInteger();
+
+    // Premier mot susceptible de contenir un siège libre
+    private volatile int freeHint;
+
+    public SeatMap(SeatLayout layout) {
+        this.layout = layout;
+        this.words = new AtomicLongArray((layout.capacity() + 63) / 64);
+    }
+
+    public SeatLayout layout() {
+        return layout;
+    }
+
+    public int remaining() {
+        return layout.capacity() - taken.get();
+    }
+
+    /**
+     * Prend le premier siège libre et retourne son index, ou -1 si le véhicule est complet.
+     */
+    public int claimNext() {
+        int wordCount = words.length();
+        int start = freeHint;
+        for (int n = 0; n < wordCount && remaining() > 0; n++) {
+            int i = (start + n) % wordCount;
+            long validMask = validMask(i);
+            while (true) {
+                long bits = words.get(i);
+                long free = ~bits & validMask;
+                if (free == 0) {
+                    break;
+                }
+                long bit = Long.lowestOneBit(free);
+                if (words.compareAndSet(i, bits, bits | bit)) {
+                    taken.incrementAndGet();
+                    freeHint = i;
+                    return i * 64 + Long.numberOfTrailingZeros(bit);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Prend le siège demandé s'il est libre.
+     */
+    public boolean claim(int seat) {
+        if (seat < 0 || seat >= layout.capacity()) {
+            return false;
+        }
+        int i = seat >>> 6;
+        long bit = 1L << (seat & 63);
+        while (true) {
+            long bits = words.get(i);
+            if ((bits & bit) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(i, bits, bits | bit)) {
+                taken.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Prend {@code count} sièges consécutifs dans un même bloc (rangée, voiture).
+     * Retourne les index pris, ou un tableau vide si aucun bloc ne peut accueillir le groupe.
+     */
+    public int[] claimContiguous(int count) {
+        int blockSize = layout.blockSize();
+        if (count <= 0 || count > blockSize) {
+            return new int[0];
+        }
+        for (int blockStart = 0; blockStart < layout.capacity(); blockStart += blockSize) {
+            int blockEnd = Math.min(blockStart + blockSize, layout.capacity());
+            for (int first = blockStart; first + count <= blockEnd; first++) {
+                if (!isRangeFree(first, count)) {
+                    continue;
+                }
+                int claimed = 0;
+                while (claimed < count && claim(first + claimed)) {
+                    claimed++;
+                }
+                if (claimed == count) {
+                    int[] seats = new int[count];
+                    for (int k = 0; k < count; k++) {
+                        seats[k] = first + k;
+                    }
+                    return seats;
+                }
+                // Un autre thread a pris un siège entre-temps : on rend ceux déjà pris
+                for (int k = 0; k < claimed; k++) {
+                    release(first + k);
+                }
+            }
+        }
+        return new int[0];
+    }
+
+    public void release(int seat) {
+        if (seat < 0 || seat >= layout.capacity()) {
+            return;
+        }
+        int i = seat >>> 6;
+        long bit = 1L << (seat & 63);
+        while (true) {
+            long bits = words.get(i);
+            if ((bits & bit) == 0) {
+                return;
+            }
+            if (words.compareAndSet(i, bits, bits & ~bit)) {
+                taken.decrementAndGet();
+                if (i < freeHint) {
+                    freeHint = i;
+                }
+                return;
+            }
+        }
+    }
+
+    public boolean isTaken(int seat) {
+        return seat >= 0 && seat < layout.capacity() && (words.get(seat >>> 6) & (1L << (seat & 63))) != 0;
+    }
+
+    public List<String> occupiedLabels() {
+        List<String> labels = new ArrayList<>(layout.capacity() - remaining());
+        for (int seat = 0; seat < layout.capacity(); seat++) {
+            if (isTaken(seat)) {
+                labels.add(layout.label(seat));
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Instantané compact du plan (un bit par siège), tel que stocké dans Transport.seatMap.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[(layout.capacity() + 7) / 8];
+        for (int b = 0; b < bytes.length; b++) {
+            bytes[b] = (byte) (words.get(b >>> 3) >>> ((b & 7) * 8));
+        }
+        return bytes;
+    }
+
+    /**
+     * Reporte un instantané produit par {@link #toBytes()} ; les bits au-delà de la capacité sont ignorés.
+     */
+    public void claimAll(byte[] bytes) {
+        if (bytes == null) {
+            return;
+        }
+        int limit = Math.min(bytes.length * 8, layout.capacity());
+        for (int seat = 0; seat < limit; seat++) {
+            if ((bytes[seat >>> 3] & (1 << (seat & 7))) != 0) {
+                claim(seat);
+            }
+        }
+    }
+
+    private boolean isRangeFree(int first, int count) {
+        for (int seat = first; seat < first + count; seat++) {
+            if (isTaken(seat)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long validMask(int wordIndex) {
+        int remainingBits = layout.capacity() - wordIndex * 64;
+        return remainingBits >= 64 ? -1L : (1L << remainingBits) - 1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.worldcup2030.backend.service;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coordonnées (degrés décimaux) des stades marocains du Mondial 2030 et des villes hôtes.
+ * Les noms sont comparés sans accents, casse ni ponctuation ; un stade inconnu est placé au centre
+ * de sa ville, ce qui suffit pour classer les hôtels par éloignement.
+ */
+public final class StadiumLocations {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final Map<String, double[]> STADIUMS = new HashMap<>();
+    private static final Map<String, double[]> CITIES = new HashMap<>();
+
+    static {
+        stadium(33.6387, -7.2467, "Grand Stade Hassan II", "Stade Hassan II", "Grand Stade de Casablanca");
+        stadium(33.5828, -7.6470, "Stade Mohammed V", "Complexe Mohammed V");
+        stadium(33.9594, -6.8890, "Stade Prince Moulay Abdellah", "Complexe sportif Prince Moulay Abdellah",
+                "Stade Moulay Abdellah");
+        stadium(35.7414, -5.8576, "Grand Stade de Tanger", "Stade Ibn Batouta");
+        stadium(31.7065, -7.9807, "Grand Stade de Marrakech", "Stade de Marrakech");
+        stadium(30.4278, -9.5395, "Grand Stade d'Agadir", "Stade Adrar");
+        stadium(34.0036, -4.9622, "Complexe sportif de Fès", "Grand Stade de Fès", "Stade de Fès");
+
+        city(33.5731, -7.5898, "Casablanca");
+        city(33.6167, -7.1167, "Benslimane");
+        city(34.0209, -6.8416, "Rabat");
+        city(35.7595, -5.8340, "Tanger");
+        city(31.6295, -7.9811, "Marrakech");
+        city(30.4278, -9.5981, "Agadir");
+        city(34.0181, -5.0078, "Fès");
+        city(33.8950, -5.5547, "Meknès");
+        city(34.6814, -1.9086, "Oujda");
+        city(35.5889, -5.3626, "Tétouan");
+    }
+
+    private StadiumLocations() {
+    }
+
+    /**
+     * Position du stade, ou à défaut du centre de {@code city} ; null si aucun des deux n'est connu.
+     */
+    public static double[] of(String stadium, String city) {
+        double[] location = stadium == null ? null : STADIUMS.get(normalize(stadium));
+        return location != null ? location.clone() : city(city);
+    }
+
+    public static double[] city(String city) {
+        double[] location = city == null ? null : CITIES.get(normalize(city));
+        return location == null ? null : location.clone();
+    }
+
+    // Distance à vol d'oiseau (formule de haversine)
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Minuscules sans accents, mots séparés par une espace ; appelée pour chaque champ indexé
+    static String normalize(String text) {
+        String plain = Normalizer.isNormalized(text, Normalizer.Form.NFD) ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(plain.length());
+        boolean space = false;
+        for (int i = 0; i < plain.length(); i++) {
+            char c = plain.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (space && out.length() > 0) {
+                    out.append(' ');
+                }
+                out.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return out.toString();
+    }
+
+    private static void stadium(double latitude, double longitude, String... names) {
+        for (String name : names) {
+            STADIUMS.put(normalize(name), new double[]{latitude, longitude});
+        }
+    }
+
+    private static void city(double latitude, double longitude, String name) {
+        CITIES.put(normalize(name), new double[]{latitude, longitude});
+    }
+}
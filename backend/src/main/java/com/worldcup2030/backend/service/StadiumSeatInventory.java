@@ -0,0 +1,224 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Inventaire des places de stade tenu en mémoire, un {@link SeatMap} par tribune et par match
+ * (un bit par siège : 60 000 places tiennent dans 7,5 Ko), plus le détenteur de chaque siège
+ * (8 octets par siège) pour qu'une place ne soit rendue que par son acheteur. Les sièges sont pris
+ * par CAS, sans aller-retour MySQL ; les billets sont écrits ensuite par {@link TicketWriteBehind}.
+ * Les tribunes sont parcourues à partir d'une tribune tirée au hasard pour que les achats
+ * simultanés ne se disputent pas les mêmes mots du plan.
+ */
+@Component
+public class StadiumSeatInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(StadiumSeatInventory.class);
+
+    // Aucun utilisateur n'a l'identifiant 0 (AUTO_INCREMENT commence à 1)
+    private static final long FREE = 0L;
+
+    private final MatchRepository matchRepository;
+    private final TicketRepository ticketRepository;
+    private final int sections;
+    private final SeatLayout sectionLayout;
+    private final int maxPerUser;
+
+    private final ConcurrentHashMap<Long, MatchSeats> seats = new ConcurrentHashMap<>();
+
+    public StadiumSeatInventory(MatchRepository matchRepository,
+                                TicketRepository ticketRepository,
+                                @Value("${worldcup.tickets.stadium.sections:40}") int sections,
+                                @Value("${worldcup.tickets.stadium.rows-per-section:30}") int rowsPerSection,
+                                @Value("${worldcup.tickets.stadium.seats-per-row:50}") int seatsPerRow,
+                                @Value("${worldcup.tickets.max-per-user:4}") int maxPerUser) {
+        this.matchRepository = matchRepository;
+        this.ticketRepository = ticketRepository;
+        this.sections = Math.max(1, sections);
+        this.sectionLayout = SeatLayout.section(rowsPerSection, seatsPerRow);
+        this.maxPerUser = Math.max(1, maxPerUser);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<Long, List<Object[]>> soldByMatch = new HashMap<>();
+        for (Object[] row : ticketRepository.findAllSoldSeats()) {
+            soldByMatch.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+        }
+        for (Long matchId : matchRepository.findAllIds()) {
+            seats.put(matchId, load(matchId, soldByMatch.getOrDefault(matchId, List.of())));
+        }
+        logger.info("✅ Stadium seat inventory warmed up for {} matches ({} seats each)", seats.size(), capacity());
+    }
+
+    /**
+     * Prend {@code quantity} places côte à côte sur une même rangée et retourne leurs libellés
+     * ("S3-R12-7" : tribune 3, rangée 12, siège 7). Sans tribune demandée, toutes sont essayées.
+     */
+    public List<String> claim(Long matchId, Long userId, int quantity, Integer section) {
+        if (quantity < 1 || quantity > Math.min(maxPerUser, sectionLayout.blockSize())) {
+            throw new IllegalArgumentException("Nombre de billets invalide : " + quantity);
+        }
+        if (section != null && (section < 1 || section > sections)) {
+            throw new IllegalArgumentException("Tribune invalide : " + section);
+        }
+        MatchSeats matchSeats = seatsOf(matchId);
+
+        // Quota réservé avant les sièges : deux achats simultanés du même utilisateur ne le dépassent pas
+        matchSeats.holders.compute(userId, (id, held) -> {
+            int total = (held == null ? 0 : held) + quantity;
+            if (total > maxPerUser) {
+                throw new IllegalStateException("Limite de " + maxPerUser + " billets par match atteinte");
+            }
+            return total;
+        });
+
+        int first = section != null ? section - 1 : ThreadLocalRandom.current().nextInt(sections);
+        int attempts = section != null ? 1 : sections;
+        for (int n = 0; n < attempts; n++) {
+            int s = (first + n) % sections;
+            SeatMap seatMap = matchSeats.sections[s];
+            if (seatMap.remaining() < quantity) {
+                continue;
+            }
+            int[] claimed = quantity == 1 ? single(seatMap.claimNext()) : seatMap.claimContiguous(quantity);
+            if (claimed.length > 0) {
+                List<String> labels = new ArrayList<>(claimed.length);
+                for (int seat : claimed) {
+                    matchSeats.owners[s].set(seat, userId);
+                    labels.add(label(s, seat));
+                }
+                return labels;
+            }
+        }
+
+        matchSeats.holders.computeIfPresent(userId, (id, held) -> held > quantity ? held - quantity : null);
+        throw new IllegalStateException(section != null
+                ? "Plus de " + quantity + " places côte à côte dans la tribune " + section
+                : "Plus de " + quantity + " places côte à côte pour ce match");
+    }
+
+    /**
+     * Rend la place si elle est détenue par l'utilisateur (achat abandonné, billet refusé à l'écriture) ;
+     * retourne false sinon (place libre ou détenue par quelqu'un d'autre).
+     */
+    public boolean release(Long matchId, Long userId, String seatNumber) {
+        MatchSeats matchSeats = seats.get(matchId);
+        int[] position = parse(seatNumber);
+        if (matchSeats == null || position == null || userId == null
+                || !matchSeats.owners[position[0]].compareAndSet(position[1], userId, FREE)) {
+            return false;
+        }
+        matchSeats.sections[position[0]].release(position[1]);
+        matchSeats.holders.computeIfPresent(userId, (id, held) -> held > 1 ? held - 1 : null);
+        return true;
+    }
+
+    public int remaining(Long matchId) {
+        int remaining = 0;
+        for (SeatMap seatMap : seatsOf(matchId).sections) {
+            remaining += seatMap.remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * Places restantes par tribune, dans l'ordre des tribunes.
+     */
+    public int[] remainingBySection(Long matchId) {
+        SeatMap[] matchSections = seatsOf(matchId).sections;
+        int[] remaining = new int[matchSections.length];
+        for (int s = 0; s < matchSections.length; s++) {
+            remaining[s] = matchSections[s].remaining();
+        }
+        return remaining;
+    }
+
+    public int capacity() {
+        return sections * sectionLayout.capacity();
+    }
+
+    private MatchSeats seatsOf(Long matchId) {
+        MatchSeats matchSeats = seats.get(matchId);
+        if (matchSeats != null) {
+            return matchSeats;
+        }
+
+        // Match créé après le démarrage : chargement depuis la base hors du verrou de la map
+        if (matchId == null || !matchRepository.existsById(matchId)) {
+            throw new IllegalArgumentException("Match non trouvé");
+        }
+        MatchSeats loaded = load(matchId, ticketRepository.findSoldSeatsByMatchId(matchId));
+        MatchSeats existing = seats.putIfAbsent(matchId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Billets vendus [matchId, userId, seatNumber]
+    private MatchSeats load(Long matchId, List<Object[]> sold) {
+        MatchSeats matchSeats = new MatchSeats(sections, sectionLayout);
+        for (Object[] row : sold) {
+            matchSeats.holders.merge((Long) row[1], 1, Integer::sum);
+            int[] position = parse((String) row[2]);
+            if (position == null || !matchSeats.sections[position[0]].claim(position[1])) {
+                logger.warn("⚠️ Match {} has an unknown or duplicate seat {}", matchId, row[2]);
+            } else {
+                matchSeats.owners[position[0]].set(position[1], (Long) row[1]);
+            }
+        }
+        return matchSeats;
+    }
+
+    private String label(int section, int seat) {
+        return "S" + (section + 1) + "-" + sectionLayout.label(seat);
+    }
+
+    // [tribune, siège dans la tribune], ou null si le libellé ne correspond pas à ce stade
+    private int[] parse(String seatNumber) {
+        if (seatNumber == null || !seatNumber.startsWith("S") || seatNumber.indexOf('-') < 0) {
+            return null;
+        }
+        try {
+            int section = Integer.parseInt(seatNumber.substring(1, seatNumber.indexOf('-'))) - 1;
+            int seat = sectionLayout.indexOf(seatNumber.substring(seatNumber.indexOf('-') + 1));
+            return section >= 0 && section < sections && seat >= 0 ? new int[]{section, seat} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int[] single(int seat) {
+        return seat < 0 ? new int[0] : new int[]{seat};
+    }
+
+    private static final class MatchSeats {
+        private final SeatMap[] sections;
+        // Détenteur de chaque siège par tribune, FREE si le siège est libre
+        private final AtomicLongArray[] owners;
+        // Nombre de billets détenus par utilisateur
+        private final ConcurrentHashMap<Long, Integer> holders = new ConcurrentHashMap<>();
+
+        private MatchSeats(int sectionCount, SeatLayout layout) {
+            this.sections = new SeatMap[sectionCount];
+            this.owners = new AtomicLongArray[sectionCount];
+            for (int s = 0; s < sectionCount; s++) {
+                sections[s] = new SeatMap(layout);
+                owners[s] = new AtomicLongArray(layout.capacity());
+            }
+        }
+    }
+}
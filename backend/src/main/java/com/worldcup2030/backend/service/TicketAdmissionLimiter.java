@@ -0,0 +1,70 @@
+package com.worldcup2030.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Contrôle d'admission des achats de billets : au plus {@code max-concurrent} achats en cours.
+ * Une demande attend une place au plus {@code max-wait-ms}, puis est refusée aussitôt
+ * ({@link RejectedExecutionException}, HTTP 503) au lieu d'occuper un thread de Tomcat.
+ */
+@Component
+public class TicketAdmissionLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketAdmissionLimiter.class);
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TicketAdmissionLimiter(@Value("${worldcup.tickets.admission.max-concurrent:256}") int maxConcurrent,
+                                  @Value("${worldcup.tickets.admission.max-wait-ms:20}") long maxWaitMs) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent);
+        this.maxWaitMs = Math.max(0, maxWaitMs);
+    }
+
+    public <T> T admit(Supplier<T> purchase) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            logger.debug("⚠️ Ticket sales saturated, purchase rejected");
+            throw new RejectedExecutionException("Trop de demandes d'achat en cours, veuillez réessayer");
+        }
+        try {
+            admitted.increment();
+            return purchase.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public long admitted() {
+        return admitted.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
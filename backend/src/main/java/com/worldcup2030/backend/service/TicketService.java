@@ -0,0 +1,103 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.TicketDTO;
+import com.worldcup2030.backend.dto.TicketRejectionDTO;
+import com.worldcup2030.backend.repository.TicketRejectionRepository;
+import com.worldcup2030.backend.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Vente de billets de match. L'achat ne fait aucun aller-retour en base : admission
+ * ({@link TicketAdmissionLimiter}), places prises par CAS dans {@link StadiumSeatInventory},
+ * puis billets confiés à {@link TicketWriteBehind}. L'acheteur est celui du jeton, déjà vérifié par
+ * {@code JwtFilter} ; un billet refusé malgré tout à l'écriture (utilisateur supprimé entre-temps…)
+ * se retrouve dans {@link #getRejectedTickets(Long)}. Quand trop de billets attendent leur écriture
+ * (base lente), les ventes sont refusées plutôt que d'accumuler les billets en mémoire.
+ */
+@Service
+public class TicketService {
+
+    private final StadiumSeatInventory inventory;
+    private final TicketWriteBehind writeBehind;
+    private final TicketAdmissionLimiter admissionLimiter;
+    private final TicketRepository ticketRepository;
+    private final TicketRejectionRepository rejectionRepository;
+    private final BigDecimal price;
+    private final int maxPendingWrites;
+
+    public TicketService(StadiumSeatInventory inventory,
+                         TicketWriteBehind writeBehind,
+                         TicketAdmissionLimiter admissionLimiter,
+                         TicketRepository ticketRepository,
+                         TicketRejectionRepository rejectionRepository,
+                         @Value("${worldcup.tickets.price:750.00}") BigDecimal price,
+                         @Value("${worldcup.tickets.write-behind.max-pending:200000}") int maxPendingWrites) {
+        this.inventory = inventory;
+        this.writeBehind = writeBehind;
+        this.admissionLimiter = admissionLimiter;
+        this.ticketRepository = ticketRepository;
+        this.rejectionRepository = rejectionRepository;
+        this.price = price;
+        this.maxPendingWrites = Math.max(1, maxPendingWrites);
+    }
+
+    /**
+     * Achète {@code quantity} places côte à côte, dans la tribune demandée ou n'importe laquelle.
+     * Les billets retournés n'ont pas encore d'identifiant : ils sont écrits en base peu après.
+     */
+    public List<TicketDTO> purchase(Long userId, Long matchId, int quantity, Integer section) {
+        if (userId == null) {
+            throw new IllegalArgumentException("L'utilisateur est obligatoire");
+        }
+        return admissionLimiter.admit(() -> {
+            if (writeBehind.pending() >= maxPendingWrites) {
+                throw new RejectedExecutionException("Ventes momentanément suspendues, veuillez réessayer");
+            }
+            List<String> seats = inventory.claim(matchId, userId, quantity, section);
+            LocalDateTime purchasedAt = LocalDateTime.now();
+            writeBehind.enqueue(matchId, userId, seats, price, purchasedAt);
+
+            List<TicketDTO> tickets = new ArrayList<>(seats.size());
+            for (String seat : seats) {
+                tickets.add(new TicketDTO(null, matchId, userId, seat, price, purchasedAt));
+            }
+            return tickets;
+        });
+    }
+
+    public List<TicketDTO> getTicketsByUserId(Long userId) {
+        return ticketRepository.findDtosByUserId(userId);
+    }
+
+    // Billets vendus puis refusés à l'écriture, places rendues
+    public List<TicketRejectionDTO> getRejectedTickets(Long userId) {
+        return rejectionRepository.findDtosByUserId(userId);
+    }
+
+    public Map<String, Object> getAvailability(Long matchId) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("matchId", matchId);
+        view.put("capacity", inventory.capacity());
+        view.put("remaining", inventory.remaining(matchId));
+        view.put("remainingBySection", inventory.remainingBySection(matchId));
+        return view;
+    }
+
+    public Map<String, Object> getSalesStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("inFlight", admissionLimiter.inFlight());
+        stats.put("admitted", admissionLimiter.admitted());
+        stats.put("rejected", admissionLimiter.rejected());
+        stats.put("pendingWrites", writeBehind.pending());
+        return stats;
+    }
+}
@@ -0,0 +1,213 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.model.Ticket;
+import com.worldcup2030.backend.model.TicketRejection;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.TicketRejectionRepository;
+import com.worldcup2030.backend.repository.TicketRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Écriture différée des billets vendus : l'achat prend ses places dans {@link StadiumSeatInventory}
+ * et dépose les billets ici ; {@link #flush()} les écrit par lots (identifiants réservés par blocs,
+ * INSERT groupés en lots JDBC), une transaction par lot.
+ * Si la base refuse un lot, ses billets sont réécrits un par un : un billet refusé (utilisateur
+ * inconnu…) est gardé dans les billets refusés de l'acheteur et rend sa place, sauf si ce siège est
+ * déjà en base. Si la base est injoignable, rien n'est perdu : les billets restent en attente.
+ */
+@Component
+public class TicketWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketWriteBehind.class);
+
+    private final TicketRepository ticketRepository;
+    private final TicketRejectionRepository rejectionRepository;
+    private final StadiumSeatInventory inventory;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRowsPerTransaction;
+
+    private final ConcurrentLinkedQueue<PendingTicket> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TicketWriteBehind(TicketRepository ticketRepository,
+                             TicketRejectionRepository rejectionRepository,
+                             StadiumSeatInventory inventory,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${worldcup.jpa.batch-size:500}") int batchSize,
+                             @Value("${worldcup.tickets.write-behind.rows-per-transaction:5000}") int maxRowsPerTransaction) {
+        this.ticketRepository = ticketRepository;
+        this.rejectionRepository = rejectionRepository;
+        this.inventory = inventory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRowsPerTransaction = Math.max(1, maxRowsPerTransaction);
+    }
+
+    public void enqueue(Long matchId, Long userId, List<String> seatNumbers, BigDecimal price, LocalDateTime purchasedAt) {
+        for (String seatNumber : seatNumbers) {
+            queue.add(new PendingTicket(matchId, userId, seatNumber, price, purchasedAt));
+        }
+        pending.addAndGet(seatNumbers.size());
+    }
+
+    // Billets vendus pas encore écrits en base
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Écrit tous les billets en attente ; un seul passage à la fois. Si la base est indisponible,
+     * les billets restent en attente pour le passage suivant.
+     */
+    @Scheduled(fixedDelayString = "${worldcup.tickets.write-behind.flush-interval-ms:200}")
+    public synchronized void flush() {
+        List<PendingTicket> batch = new ArrayList<>();
+        PendingTicket ticket;
+        while ((ticket = queue.poll()) != null) {
+            batch.add(ticket);
+            if (batch.size() == maxRowsPerTransaction) {
+                if (!write(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        logger.info("🎟️ Ticket write-behind drained before shutdown ({} tickets left)", pending());
+    }
+
+    // Retourne false si les billets ont été remis en attente
+    private boolean write(List<PendingTicket> batch) {
+        try {
+            persist(batch);
+            pending.addAndGet(-batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            if (!isConstraintViolation(e)) {
+                return requeue(batch, e);
+            }
+            logger.warn("⚠️ Ticket batch of {} rejected, writing tickets one by one", batch.size(), e);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                persist(List.of(batch.get(i)));
+            } catch (RuntimeException e) {
+                if (!isConstraintViolation(e)) {
+                    return requeue(batch.subList(i, batch.size()), e);
+                }
+                reject(batch.get(i), e);
+            }
+            pending.decrementAndGet();
+        }
+        return true;
+    }
+
+    private boolean requeue(List<PendingTicket> tickets, RuntimeException e) {
+        queue.addAll(tickets);
+        logger.error("❌ Database unavailable, {} tickets kept for the next flush", tickets.size(), e);
+        return false;
+    }
+
+    private void persist(List<PendingTicket> tickets) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int persisted = 0;
+            for (PendingTicket pendingTicket : tickets) {
+                Ticket ticket = new Ticket();
+                ticket.setSeatNumber(pendingTicket.seatNumber);
+                ticket.setPrice(pendingTicket.price);
+                ticket.setPurchasedAt(pendingTicket.purchasedAt);
+                ticket.setUser(entityManager.getReference(User.class, pendingTicket.userId));
+                ticket.setMatch(entityManager.getReference(Match.class, pendingTicket.matchId));
+                entityManager.persist(ticket);
+                if (++persisted % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    // Billet refusé par la base (siège déjà vendu, utilisateur ou match inconnu) : inutile de le rejouer
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLIntegrityConstraintViolationException
+                    || cause instanceof org.hibernate.exception.ConstraintViolationException
+                    || cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(PendingTicket ticket, RuntimeException e) {
+        logger.error("❌ Ticket {} of match {} for user {} could not be saved", ticket.seatNumber, ticket.matchId,
+                ticket.userId, e);
+        boolean seatSold;
+        try {
+            seatSold = ticketRepository.existsByMatchIdAndSeatNumber(ticket.matchId, ticket.seatNumber);
+            if (!seatSold) {
+                inventory.release(ticket.matchId, ticket.userId, ticket.seatNumber);
+            }
+        } catch (RuntimeException lookupError) {
+            // Base indisponible : la place reste prise plutôt que d'être vendue deux fois
+            logger.error("❌ Seat {} of match {} kept taken", ticket.seatNumber, ticket.matchId, lookupError);
+            seatSold = false;
+        }
+        try {
+            rejectionRepository.save(new TicketRejection(ticket.matchId, ticket.userId, ticket.seatNumber, ticket.price,
+                    ticket.purchasedAt, seatSold ? "Place déjà vendue" : "Billet refusé à l'enregistrement",
+                    LocalDateTime.now()));
+        } catch (RuntimeException saveError) {
+            logger.error("❌ Rejection of ticket {} of match {} for user {} could not be recorded", ticket.seatNumber,
+                    ticket.matchId, ticket.userId, saveError);
+        }
+    }
+
+    private static final class PendingTicket {
+        private final Long matchId;
+        private final Long userId;
+        private final String seatNumber;
+        private final BigDecimal price;
+        private final LocalDateTime purchasedAt;
+
+        private PendingTicket(Long matchId, Long userId, String seatNumber, BigDecimal price, LocalDateTime purchasedAt) {
+            this.matchId = matchId;
+            this.userId = userId;
+            this.seatNumber = seatNumber;
+            this.price = price;
+            this.purchasedAt = purchasedAt;
+        }
+    }
+}
@@ -10,7 +10,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,8 +24,11 @@ public class TransportReservationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TransportSeatInventory seatInventory;
+
     @Transactional
-    public TransportReservationDTO createReservation(Long userId, Long transportId) {
+    public TransportReservationDTO createReservation(Long userId, Long transportId, String seatNumber) {
         // Vérifier que l'utilisateur existe
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
@@ -35,33 +37,32 @@ public class TransportReservationService {
         Transport transport = transportRepository.findById(transportId)
                 .orElseThrow(() -> new RuntimeException("Transport non trouvé"));
 
-        // Vérifier la disponibilité (places restantes)
-        long reservationsCount = reservationRepository.countByTransportId(transportId);
-        if (reservationsCount >= transport.getCapacite()) {
-            throw new RuntimeException("Aucune place disponible pour ce transport");
-        }
+        // Prendre le siège dans le plan en mémoire (rendu automatiquement en cas de rollback)
+        String seat = seatInventory.reserve(transportId, userId, seatNumber);
 
-        // Vérifier si l'utilisateur n'a pas déjà réservé ce transport
-        boolean alreadyReserved = reservationRepository.existsByUserIdAndTransportId(userId, transportId);
-        if (alreadyReserved) {
-            throw new RuntimeException("Vous avez déjà réservé ce transport");
-        }
+        // Sauvegarder la réservation (Transport.place est mis à jour en différé par l'inventaire)
+        TransportReservation saved = reservationRepository.save(newReservation(user, transport, seat));
 
-        // Créer la réservation
-        TransportReservation reservation = new TransportReservation();
-        reservation.setUser(user);
-        reservation.setTransport(transport);
-        reservation.setSeatNumber(generateSeatNumber(transport.getType()));
-        reservation.setPaymentStatus(PaymentStatus.PENDING);
+        return convertToDTO(saved);
+    }
+
+    @Transactional
+    public List<TransportReservationDTO> createGroupReservation(Long userId, Long transportId, int seats) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
 
-        // Sauvegarder la réservation
-        TransportReservation saved = reservationRepository.save(reservation);
+        Transport transport = transportRepository.findById(transportId)
+                .orElseThrow(() -> new RuntimeException("Transport non trouvé"));
 
-        // Mettre à jour le nombre de places disponibles
-        transport.setPlace(transport.getCapacite() - (int) reservationsCount - 1);
-        transportRepository.save(transport);
+        // Sièges côte à côte dans la même rangée / voiture
+        List<TransportReservation> reservations = seatInventory.reserveGroup(transportId, userId, seats)
+                .stream()
+                .map(seat -> newReservation(user, transport, seat))
+                .collect(Collectors.toList());
 
-        return convertToDTO(saved);
+        return reservationRepository.saveAll(reservations).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
 
     public List<TransportReservationDTO> getReservationsByUserId(Long userId) {
@@ -76,31 +77,19 @@ public class TransportReservationService {
         TransportReservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
 
-        // Libérer la place
-        Transport transport = reservation.getTransport();
-        transport.setPlace(transport.getPlace() + 1);
-        transportRepository.save(transport);
-
-        // Supprimer la réservation
+        // Supprimer la réservation puis libérer la place une fois la suppression validée
         reservationRepository.delete(reservation);
+        seatInventory.releaseAfterCommit(reservation.getTransport().getId(), reservation.getUser().getId(),
+                reservation.getSeatNumber());
     }
 
-    private String generateSeatNumber(TransportType type) {
-        Random random = new Random();
-        switch (type) {
-            case PLANE:
-                char row = (char) ('A' + random.nextInt(26));
-                int number = 1 + random.nextInt(30);
-                return row + String.valueOf(number);
-            case TRAIN:
-                return "Car" + (1 + random.nextInt(10)) + "-" + (1 + random.nextInt(50));
-            case BUS:
-                return String.valueOf(1 + random.nextInt(50));
-            case CAR:
-                return String.valueOf(1 + random.nextInt(4));
-            default:
-                return "SEAT-" + random.nextInt(100);
-        }
+    private TransportReservation newReservation(User user, Transport transport, String seatNumber) {
+        TransportReservation reservation = new TransportReservation();
+        reservation.setUser(user);
+        reservation.setTransport(transport);
+        reservation.setSeatNumber(seatNumber);
+        reservation.setPaymentStatus(PaymentStatus.PENDING);
+        return reservation;
     }
 
     private TransportReservationDTO convertToDTO(TransportReservation reservation) {
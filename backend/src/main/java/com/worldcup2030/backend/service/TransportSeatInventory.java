@@ -0,0 +1,405 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Transport;
+import com.worldcup2030.backend.model.TransportType;
+import com.worldcup2030.backend.repository.TransportRepository;
+import com.worldcup2030.backend.repository.TransportReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inventaire des places de transport tenu en mémoire.
+ * Chaque transport a son {@link SeatMap} : les sièges sont pris par CAS, sans aller-retour MySQL,
+ * et les colonnes Transport.place / Transport.seatMap sont mises à jour en différé par {@link #flush()}.
+ * Au démarrage, le plan est relu depuis l'instantané seat_map quand il compte autant de sièges pris que
+ * le transport a de réservations ; les détenteurs des sièges ne sont lus qu'à la première réservation
+ * ou libération. Chaque siège pris retient son détenteur, et seul celui-ci peut le rendre.
+ */
+@Component
+public class TransportSeatInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransportSeatInventory.class);
+
+    private final TransportRepository transportRepository;
+    private final TransportReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, TransportSeats> seats = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyTransports = ConcurrentHashMap.newKeySet();
+
+    public TransportSeatInventory(TransportRepository transportRepository,
+                                  TransportReservationRepository reservationRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.transportRepository = transportRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        loadMissing();
+        logger.info("✅ Transport seat inventory warmed up for {} transports", seats.size());
+    }
+
+    /**
+     * Charge les transports absents de l'inventaire (démarrage, import en masse) depuis leur instantané
+     * seat_map, sans lire les réservations une à une : seul leur nombre par transport est compté. Un
+     * instantané qui ne compte pas autant de sièges pris (arrêt avant l'écriture différée) est écarté
+     * et le plan reconstruit depuis les réservations du transport. Les plans déjà en mémoire sont
+     * conservés. Retourne le nombre de transports chargés.
+     */
+    public synchronized int loadMissing() {
+        Map<Long, Long> reservations = new HashMap<>();
+        for (Object[] row : reservationRepository.countByTransport()) {
+            reservations.put((Long) row[0], (Long) row[1]);
+        }
+
+        int loaded = 0;
+        int rebuilt = 0;
+        for (Object[] row : transportRepository.findAllSeatLayouts()) {
+            Long transportId = (Long) row[0];
+            if (seats.containsKey(transportId)) {
+                continue;
+            }
+            SeatLayout layout = SeatLayout.of((TransportType) row[2], (Integer) row[1]);
+            SeatMap seatMap = new SeatMap(layout);
+            seatMap.claimAll((byte[]) row[3]);
+
+            TransportSeats transportSeats;
+            if (layout.capacity() - seatMap.remaining() == reservations.getOrDefault(transportId, 0L)) {
+                transportSeats = new TransportSeats(seatMap, false);
+            } else {
+                transportSeats = load(layout, reservationRepository.findSeatAssignmentsByTransportId(transportId));
+                rebuilt++;
+            }
+            if (seats.putIfAbsent(transportId, transportSeats) == null) {
+                if (transportSeats.ownersLoaded) {
+                    dirtyTransports.add(transportId);
+                }
+                loaded++;
+            }
+        }
+        if (rebuilt > 0) {
+            logger.warn("⚠️ {} seat map snapshots out of date, rebuilt from reservations", rebuilt);
+        }
+        return loaded;
+    }
+
+    /**
+     * Réserve un siège pour l'utilisateur et retourne son libellé. Sans siège demandé, le premier
+     * siège libre est attribué. Si une transaction est active, le siège est rendu en cas de rollback.
+     */
+    public String reserve(Long transportId, Long userId, String requestedSeat) {
+        TransportSeats transportSeats = ownedSeatsOf(transportId);
+        SeatMap seatMap = transportSeats.seatMap;
+
+        if (transportSeats.holders.putIfAbsent(userId, 1) != null) {
+            throw new RuntimeException("Vous avez déjà réservé ce transport");
+        }
+
+        int seat;
+        if (requestedSeat == null || requestedSeat.isBlank()) {
+            seat = seatMap.claimNext();
+        } else {
+            seat = seatMap.layout().indexOf(requestedSeat);
+            if (seat < 0) {
+                transportSeats.holders.remove(userId);
+                throw new IllegalArgumentException("Siège invalide pour ce transport : " + requestedSeat);
+            }
+            if (!seatMap.claim(seat)) {
+                transportSeats.holders.remove(userId);
+                throw new RuntimeException("Le siège " + requestedSeat + " est déjà réservé");
+            }
+        }
+        if (seat < 0) {
+            transportSeats.holders.remove(userId);
+            throw new RuntimeException("Aucune place disponible pour ce transport");
+        }
+
+        transportSeats.owners.put(seat, userId);
+        String label = seatMap.layout().label(seat);
+        dirtyTransports.add(transportId);
+        releaseOnRollback(transportId, transportSeats, userId, List.of(label));
+        return label;
+    }
+
+    /**
+     * Réserve {@code count} sièges côte à côte (même rangée ou même voiture) pour l'utilisateur.
+     */
+    public List<String> reserveGroup(Long transportId, Long userId, int count) {
+        TransportSeats transportSeats = ownedSeatsOf(transportId);
+        SeatMap seatMap = transportSeats.seatMap;
+
+        if (count <= 0) {
+            throw new IllegalArgumentException("Le nombre de sièges doit être positif, reçu: " + count);
+        }
+        if (transportSeats.holders.putIfAbsent(userId, count) != null) {
+            throw new RuntimeException("Vous avez déjà réservé ce transport");
+        }
+
+        int[] claimed = seatMap.claimContiguous(count);
+        if (claimed.length == 0) {
+            transportSeats.holders.remove(userId);
+            throw new RuntimeException("Pas de " + count + " places côte à côte disponibles pour ce transport");
+        }
+
+        List<String> labels = new ArrayList<>(claimed.length);
+        for (int seat : claimed) {
+            transportSeats.owners.put(seat, userId);
+            labels.add(seatMap.layout().label(seat));
+        }
+        dirtyTransports.add(transportId);
+        releaseOnRollback(transportId, transportSeats, userId, labels);
+        return labels;
+    }
+
+    /**
+     * Libère le siège de l'utilisateur, après le commit si une transaction est active.
+     */
+    public void releaseAfterCommit(Long transportId, Long userId, String seatNumber) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(transportId, userId, seatNumber);
+                }
+            });
+        } else {
+            release(transportId, userId, seatNumber);
+        }
+    }
+
+    /**
+     * Libère le siège s'il est détenu par l'utilisateur ; retourne false sinon (siège libre, réattribué
+     * ou détenu par quelqu'un d'autre).
+     */
+    public boolean release(Long transportId, Long userId, String seatNumber) {
+        TransportSeats transportSeats = seats.get(transportId);
+        if (transportSeats == null) {
+            return false;
+        }
+        return release(transportId, loadOwners(transportId, transportSeats), userId, seatNumber);
+    }
+
+    private boolean release(Long transportId, TransportSeats transportSeats, Long userId, String seatNumber) {
+        int seat = transportSeats.seatMap.layout().indexOf(seatNumber);
+        if (seat < 0 || userId == null || !transportSeats.owners.remove(seat, userId)) {
+            return false;
+        }
+        transportSeats.seatMap.release(seat);
+        transportSeats.holders.computeIfPresent(userId, (id, held) -> held > 1 ? held - 1 : null);
+        dirtyTransports.add(transportId);
+        return true;
+    }
+
+    public int remaining(Long transportId) {
+        return seatsOf(transportId).seatMap.remaining();
+    }
+
+    public SeatMap seatMap(Long transportId) {
+        return seatsOf(transportId).seatMap;
+    }
+
+    /**
+     * Oublie le plan du transport supprimé après le commit.
+     */
+    public void evictAfterCommit(Long transportId) {
+        afterCommit(() -> evict(transportId));
+    }
+
+    /**
+     * Après le commit d'une modification du transport : si la disposition des sièges est inchangée, le
+     * plan est gardé avec les réservations en cours et seules les colonnes place et seatMap, écrasées
+     * par la modification, sont réécrites ; sinon le plan est oublié et relu au prochain accès.
+     */
+    public void refreshAfterCommit(Transport transport) {
+        Long transportId = transport.getId();
+        SeatLayout layout = SeatLayout.of(transport.getType(), transport.getCapacite());
+        afterCommit(() -> {
+            TransportSeats transportSeats = seats.get(transportId);
+            if (transportSeats != null && transportSeats.seatMap.layout().equals(layout)) {
+                dirtyTransports.add(transportId);
+            } else {
+                evict(transportId);
+            }
+        });
+    }
+
+    private void evict(Long transportId) {
+        seats.remove(transportId);
+        dirtyTransports.remove(transportId);
+    }
+
+    /**
+     * Écriture différée de Transport.place et Transport.seatMap pour les transports modifiés depuis le
+     * dernier passage, chacun dans sa propre transaction : un échec n'annule pas les autres.
+     */
+    @Scheduled(fixedDelayString = "${worldcup.transport.inventory.flush-interval-ms:500}")
+    public void flush() {
+        for (Long transportId : dirtyTransports) {
+            dirtyTransports.remove(transportId);
+            TransportSeats transportSeats = seats.get(transportId);
+            if (transportSeats == null) {
+                continue;
+            }
+            try {
+                SeatMap seatMap = transportSeats.seatMap;
+                int remaining = seatMap.remaining();
+                byte[] snapshot = seatMap.toBytes();
+                transactionTemplate.executeWithoutResult(status -> transportRepository.updateSeats(transportId, remaining, snapshot));
+            } catch (RuntimeException e) {
+                logger.error("❌ Failed to flush seats of transport {}", transportId, e);
+                dirtyTransports.add(transportId);
+            }
+        }
+    }
+
+    // Rendu sur le plan où les sièges ont été pris : un plan rechargé entre-temps n'est pas touché
+    private void releaseOnRollback(Long transportId, TransportSeats transportSeats, Long userId, List<String> labels) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    labels.forEach(label -> release(transportId, transportSeats, userId, label));
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private TransportSeats seatsOf(Long transportId) {
+        TransportSeats transportSeats = seats.get(transportId);
+        if (transportSeats != null) {
+            return transportSeats;
+        }
+
+        // Transport créé après le démarrage : chargement depuis la base hors du verrou de la map
+        Transport transport = transportRepository.findById(transportId)
+                .orElseThrow(() -> new RuntimeException("Transport non trouvé"));
+        TransportSeats loaded = load(SeatLayout.of(transport.getType(), transport.getCapacite()),
+                reservationRepository.findSeatAssignmentsByTransportId(transportId));
+
+        TransportSeats existing = seats.putIfAbsent(transportId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        dirtyTransports.add(transportId);
+        return loaded;
+    }
+
+    private TransportSeats ownedSeatsOf(Long transportId) {
+        return loadOwners(transportId, seatsOf(transportId));
+    }
+
+    /**
+     * Plan relu depuis l'instantané : les détenteurs sont lus dans les réservations du transport avant la
+     * première écriture. Le plan est corrigé sur place (les recherches d'itinéraires gardent sa
+     * référence) si l'instantané ne correspond pas aux sièges réservés.
+     */
+    private TransportSeats loadOwners(Long transportId, TransportSeats transportSeats) {
+        if (transportSeats.ownersLoaded) {
+            return transportSeats;
+        }
+        synchronized (transportSeats) {
+            if (transportSeats.ownersLoaded) {
+                return transportSeats;
+            }
+            SeatMap seatMap = transportSeats.seatMap;
+            TransportSeats reserved = load(seatMap.layout(), reservationRepository.findSeatAssignmentsByTransportId(transportId));
+            int corrected = 0;
+            for (int seat = 0; seat < seatMap.layout().capacity(); seat++) {
+                if (reserved.seatMap.isTaken(seat) && seatMap.claim(seat)) {
+                    corrected++;
+                } else if (!reserved.seatMap.isTaken(seat) && seatMap.isTaken(seat)) {
+                    seatMap.release(seat);
+                    corrected++;
+                }
+            }
+            if (corrected > 0) {
+                logger.warn("⚠️ Seat map snapshot of transport {} corrected on {} seats", transportId, corrected);
+                dirtyTransports.add(transportId);
+            }
+            transportSeats.holders.putAll(reserved.holders);
+            transportSeats.owners.putAll(reserved.owners);
+            transportSeats.ownersLoaded = true;
+            return transportSeats;
+        }
+    }
+
+    /**
+     * Construit le plan à partir des réservations existantes [id, transportId, userId, seatNumber].
+     * Les sièges illisibles ou attribués deux fois (anciens numéros aléatoires) sont réattribués
+     * au premier siège libre et corrigés en base.
+     */
+    private TransportSeats load(SeatLayout layout, List<Object[]> assignments) {
+        TransportSeats transportSeats = new TransportSeats(new SeatMap(layout), true);
+        List<Object[]> toReassign = new ArrayList<>();
+
+        for (Object[] row : assignments) {
+            transportSeats.holders.merge((Long) row[2], 1, Integer::sum);
+            int seat = layout.indexOf((String) row[3]);
+            if (transportSeats.seatMap.claim(seat)) {
+                transportSeats.owners.put(seat, (Long) row[2]);
+            } else {
+                toReassign.add(row);
+            }
+        }
+        for (Object[] row : toReassign) {
+            int seat = transportSeats.seatMap.claimNext();
+            if (seat < 0) {
+                logger.warn("⚠️ Transport {} is overbooked, reservation {} keeps seat {}", row[1], row[0], row[3]);
+                continue;
+            }
+            transportSeats.owners.put(seat, (Long) row[2]);
+            String label = layout.label(seat);
+            reservationRepository.updateSeatNumber((Long) row[0], label);
+            logger.info("🔄 Reservation {} moved from seat {} to {}", row[0], row[3], label);
+        }
+        return transportSeats;
+    }
+
+    private static final class TransportSeats {
+        private final SeatMap seatMap;
+        // Nombre de sièges détenus par utilisateur
+        private final ConcurrentHashMap<Long, Integer> holders = new ConcurrentHashMap<>();
+        // Détenteur de chaque siège pris
+        private final ConcurrentHashMap<Integer, Long> owners = new ConcurrentHashMap<>();
+        // Faux pour un plan relu depuis l'instantané, tant que ses détenteurs n'ont pas été lus
+        private volatile boolean ownersLoaded;
+
+        private TransportSeats(SeatMap seatMap, boolean ownersLoaded) {
+            this.seatMap = seatMap;
+            this.ownersLoaded = ownersLoaded;
+        }
+    }
+}
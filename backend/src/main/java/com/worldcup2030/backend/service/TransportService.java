@@ -1,17 +1,32 @@
 package com.worldcup2030.backend.service;
 
+import com.worldcup2030.backend.dto.ItineraryDTO;
+import com.worldcup2030.backend.dto.KeysetPage;
 import com.worldcup2030.backend.dto.TransportDTO;
+import com.worldcup2030.backend.model.Match;
 import com.worldcup2030.backend.model.Transport;
 import com.worldcup2030.backend.model.TransportType;
+import com.worldcup2030.backend.repository.MatchRepository;
 import com.worldcup2030.backend.repository.TransportRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TransportService {
@@ -19,9 +34,32 @@ public class TransportService {
     @Autowired
     private TransportRepository transportRepository;
 
+    @Autowired
+    private TransportSeatInventory seatInventory;
+
+    @Autowired
+    private OfferSearchIndex offerIndex;
+
+    @Autowired
+    private ItineraryPlanner itineraryPlanner;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    // Arrivée exigée avant le coup d'envoi quand l'itinéraire vise un match
+    @Value("${worldcup.itinerary.kickoff-margin-minutes:120}")
+    private long kickoffMarginMinutes;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Entités lues en flux avant de vider le contexte de persistance
+    private static final int STREAM_CLEAR_EVERY = 500;
+
     public TransportDTO addTransport(TransportDTO dto) {
         Transport entity = convertToEntity(dto);
         Transport saved = transportRepository.save(entity);
+        itineraryPlanner.upsertAfterCommit(saved);
         return convertToDTO(saved);
     }
 
@@ -32,30 +70,111 @@ public class TransportService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Page de transports par identifiant croissant ; {@code after} est l'identifiant du dernier
+     * transport de la page précédente.
+     */
+    public KeysetPage<TransportDTO> getTransportsPage(String after, Integer size) {
+        int limit = KeysetPage.clampSize(size);
+        long afterId = 0;
+        if (after != null && !after.isBlank()) {
+            try {
+                afterId = Long.parseLong(after);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide: " + after);
+            }
+        }
+        List<TransportDTO> rows = transportRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit + 1))
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return KeysetPage.of(rows, limit, transport -> String.valueOf(transport.getId()));
+    }
+
+    /**
+     * Passe chaque transport à {@code consumer} au fil de la lecture ; le contexte de persistance
+     * est vidé régulièrement pour garder une mémoire constante.
+     */
+    @Transactional(readOnly = true)
+    public void streamTransports(Consumer<TransportDTO> consumer) {
+        try (Stream<Transport> transports = transportRepository.streamAll()) {
+            int read = 0;
+            Iterator<Transport> it = transports.iterator();
+            while (it.hasNext()) {
+                consumer.accept(convertToDTO(it.next()));
+                if (++read % STREAM_CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     public TransportDTO getTransportById(Long id) {
         Transport transport = transportRepository.findById(id).orElseThrow();
         return convertToDTO(transport);
     }
 
+    // Plan des sièges tenu en mémoire par l'inventaire
+    public Map<String, Object> getSeatMap(Long id) {
+        SeatMap seatMap = seatInventory.seatMap(id);
+
+        Map<String, Object> view = new HashMap<>();
+        view.put("transportId", id);
+        view.put("capacite", seatMap.layout().capacity());
+        view.put("place", seatMap.remaining());
+        view.put("occupiedSeats", seatMap.occupiedLabels());
+        return view;
+    }
+
+    /**
+     * Itinéraire de {@code from} vers {@code to}, ou vers la ville du match {@code matchId} avec une
+     * arrivée au plus tard {@code worldcup.itinerary.kickoff-margin-minutes} avant le coup d'envoi.
+     * Sans heure de départ, on part de maintenant.
+     */
+    public Optional<ItineraryDTO> planItinerary(String from, String to, Long matchId, LocalDateTime departAfter,
+                                                LocalDateTime arriveBy, Integer seats, String criterion) {
+        ItineraryPlanner.Criterion order = ItineraryPlanner.Criterion.of(criterion);
+        if (matchId != null) {
+            Match match = matchRepository.findById(matchId)
+                    .orElseThrow(() -> new IllegalArgumentException("Match non trouvé: " + matchId));
+            if (match.getDate() == null) {
+                throw new IllegalArgumentException("Le match " + matchId + " n'a pas de date");
+            }
+            LocalDateTime latest = match.getDate().minusMinutes(kickoffMarginMinutes);
+            to = to == null || to.isBlank() ? match.getCity() : to;
+            arriveBy = arriveBy == null || arriveBy.isAfter(latest) ? latest : arriveBy;
+        }
+        LocalDateTime start = departAfter != null ? departAfter : LocalDateTime.now();
+        return itineraryPlanner.plan(from, to, start, arriveBy, seats == null ? 1 : seats, order);
+    }
+
+    public Map<String, Object> getItineraryStats() {
+        return itineraryPlanner.stats();
+    }
+
     public void deleteTransport(Long id) {
         transportRepository.deleteById(id);
+        seatInventory.evictAfterCommit(id);
+        offerIndex.reindexTransportAfterCommit(id);
+        itineraryPlanner.removeAfterCommit(id);
     }
 
     public TransportDTO updateTransport(Long id, TransportDTO dto) {
         Transport updated = convertToEntity(dto);
         updated.setId(id);
         Transport saved = transportRepository.save(updated);
+        seatInventory.refreshAfterCommit(saved);
+        offerIndex.reindexTransportAfterCommit(id);
+        itineraryPlanner.upsertAfterCommit(saved);
         return convertToDTO(saved);
     }
 
-    private Transport convertToEntity(TransportDTO dto) {
+    // Aussi utilisée par l'import en masse
+    Transport convertToEntity(TransportDTO dto) {
         Transport transport = new Transport();
 
-        // Conversion correcte pour le format ISO avec "Z"
-        LocalDateTime departureTime = LocalDateTime.ofInstant(
-                Instant.parse(dto.getDepartureTime()), ZoneId.systemDefault());
-        LocalDateTime arrivalTime = LocalDateTime.ofInstant(
-                Instant.parse(dto.getArrivalTime()), ZoneId.systemDefault());
+        LocalDateTime departureTime = parseDateTime(dto.getDepartureTime());
+        LocalDateTime arrivalTime = parseDateTime(dto.getArrivalTime());
 
         transport.setType(TransportType.valueOf(dto.getType().toUpperCase()));
         transport.setDepartureCity(dto.getDepartureCity());
@@ -70,6 +189,16 @@ public class TransportService {
         return transport;
     }
 
+    /**
+     * Date ISO avec "Z" (saisie du front), ou date locale telle que renvoyée par l'API et l'export.
+     */
+    static LocalDateTime parseDateTime(String value) {
+        if (value != null && value.endsWith("Z")) {
+            return LocalDateTime.ofInstant(Instant.parse(value), ZoneId.systemDefault());
+        }
+        return LocalDateTime.parse(value);
+    }
+
     private TransportDTO convertToDTO(Transport transport) {
         TransportDTO dto = new TransportDTO();
 
@@ -0,0 +1,137 @@
+package com.worldcup2030.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des jetons JWT déjà vérifiés, indexé par l'empreinte SHA-256 du jeton (le jeton lui-même
+ * n'est pas gardé en mémoire). Une entrée vit jusqu'à l'expiration du jeton, au plus ttlMs ;
+ * au-delà de maxSize entrées, les entrées expirées puis les plus anciennes sont retirées.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final ConcurrentHashMap<ByteBuffer, VerifiedToken> tokens = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMs;
+
+    public VerifiedTokenCache(@Value("${worldcup.security.jwt.cache.max-size:10000}") int maxSize,
+                              @Value("${worldcup.security.jwt.cache.ttl-ms:300000}") long ttlMs) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Retourne le jeton vérifié s'il est en cache et encore valide, sinon null.
+     */
+    public VerifiedToken get(String token) {
+        ByteBuffer key = hash(token);
+        VerifiedToken verified = tokens.get(key);
+        if (verified == null) {
+            return null;
+        }
+        if (verified.validUntil <= System.currentTimeMillis()) {
+            tokens.remove(key, verified);
+            return null;
+        }
+        return verified;
+    }
+
+    /**
+     * Met en cache un jeton dont la signature et l'expiration viennent d'être vérifiées.
+     */
+    public VerifiedToken put(String token, ParsedToken parsed) {
+        long now = System.currentTimeMillis();
+        long validUntil = now + ttlMs;
+        if (parsed.getExpiration() != null) {
+            validUntil = Math.min(validUntil, parsed.getExpiration().getTime());
+        }
+        VerifiedToken verified = new VerifiedToken(parsed.getEmail(), parsed.getUserId(),
+                parsed.getRole(), now, validUntil);
+
+        if (tokens.size() >= maxSize) {
+            evict(now);
+        }
+        tokens.put(hash(token), verified);
+        return verified;
+    }
+
+    public void clear() {
+        tokens.clear();
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    // Retire les entrées expirées, puis si besoin les plus anciennes jusqu'à 90 % de la capacité
+    private void evict(long now) {
+        tokens.values().removeIf(verified -> verified.validUntil <= now);
+        int excess = tokens.size() - maxSize * 9 / 10;
+        if (excess <= 0) {
+            return;
+        }
+
+        long cutoff = tokens.values().stream()
+                .mapToLong(verified -> verified.cachedAt)
+                .sorted()
+                .skip(excess - 1)
+                .findFirst()
+                .orElse(Long.MAX_VALUE);
+        Iterator<Map.Entry<ByteBuffer, VerifiedToken>> it = tokens.entrySet().iterator();
+        while (it.hasNext() && excess > 0) {
+            if (it.next().getValue().cachedAt <= cutoff) {
+                it.remove();
+                excess--;
+            }
+        }
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Informations d'un jeton vérifié : de quoi authentifier la requête sans relire le jeton.
+     */
+    public static final class VerifiedToken {
+        private final String email;
+        private final Long userId;
+        private final String role;
+        private final long cachedAt;
+        private final long validUntil;
+
+        private VerifiedToken(String email, Long userId, String role, long cachedAt, long validUntil) {
+            this.email = email;
+            this.userId = userId;
+            this.role = role;
+            this.cachedAt = cachedAt;
+            this.validUntil = validUntil;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getRole() {
+            return role;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.worldcup2030.backend.service;
+
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Salle d'attente virtuelle des ouvertures de ventes (billets de match, réservations d'hôtel).
+ * <p>
+ * Chaque file attribue des numéros croissants : le numéro et l'utilisateur authentifié à l'entrée sont
+ * portés par un jeton signé par {@link JwtService}. Un seau à jetons fait avancer le dernier numéro
+ * admis d'au plus {@code release-per-second} par seconde (rafale {@code burst}) ; un numéro admis
+ * reçoit un seul laissez-passer de courte durée, au nom du même utilisateur, que l'endpoint de
+ * réservation consomme. Deux bits par numéro (laissez-passer émis, utilisé) sont les seules traces
+ * en mémoire ; suivre sa place ne coûte qu'une vérification de signature et deux lectures.
+ * <p>
+ * Les numéros sont propres à chaque instance : la salle d'attente doit être servie par un seul nœud
+ * ou avec affinité de session. Les places des visiteurs partis ne sont pas reprises.
+ */
+@Component
+public class WaitingRoom {
+
+    public static final String TICKETS = "tickets";
+    public static final String HOTELS = "hotels";
+
+    static final String QUEUE_TOKEN = "queue";
+    static final String PASS_TOKEN = "pass";
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitingRoom.class);
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final double releasePerSecond;
+    private final long queueTokenTtlMs;
+    private final long passTtlMs;
+    private final Map<String, Line> lines = new HashMap<>();
+
+    public WaitingRoom(JwtService jwtService,
+                       @Value("${worldcup.waiting-room.enabled:false}") boolean enabled,
+                       @Value("${worldcup.waiting-room.release-per-second:50}") double releasePerSecond,
+                       @Value("${worldcup.waiting-room.burst:100}") int burst,
+                       @Value("${worldcup.waiting-room.queue-token-ttl-ms:21600000}") long queueTokenTtlMs,
+                       @Value("${worldcup.waiting-room.pass-ttl-ms:600000}") long passTtlMs) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.releasePerSecond = Math.max(0.001, releasePerSecond);
+        this.queueTokenTtlMs = queueTokenTtlMs;
+        this.passTtlMs = passTtlMs;
+        // Files connues d'avance : la table n'est jamais modifiée après construction
+        for (String queue : new String[]{TICKETS, HOTELS}) {
+            lines.put(queue, new Line(this.releasePerSecond, Math.max(1, burst)));
+        }
+        if (enabled) {
+            logger.info("🚦 Waiting room enabled: {} admissions/s, burst {}", this.releasePerSecond, burst);
+        }
+    }
+
+    /**
+     * Les réservations n'exigent un laissez-passer que si la salle d'attente est activée.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Fait entrer l'utilisateur {@code userId} dans la file et retourne le jeton de place avec l'état courant.
+     */
+    public Map<String, Object> join(String queue, Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("L'utilisateur est obligatoire");
+        }
+        Line line = line(queue);
+        long ticket = line.joined.incrementAndGet();
+        line.release();
+        String token = jwtService.generateWaitingRoomToken(QUEUE_TOKEN, queue, ticket, userId, queueTokenTtlMs);
+        return status(queue, line, ticket, userId, token);
+    }
+
+    /**
+     * Place dans la file du porteur de {@code token}, avec son laissez-passer au premier suivi après son
+     * tour (les suivis suivants ne le réémettent pas). Lève une JwtException si le jeton est invalide,
+     * expiré ou destiné à une autre file.
+     */
+    public Map<String, Object> status(String queue, String token) {
+        Line line = line(queue);
+        Place place = verify(token, QUEUE_TOKEN, queue);
+        line.release();
+        return status(queue, line, place.ticket, place.userId, token);
+    }
+
+    /**
+     * Consomme {@code pass} pour une réservation de {@code userId} et retourne son numéro, ou -1 si le
+     * laissez-passer est invalide, au nom d'un autre utilisateur ou déjà utilisé.
+     */
+    public long redeemPass(String queue, String pass, Long userId) {
+        if (pass == null || pass.isBlank() || userId == null) {
+            return -1;
+        }
+        try {
+            Place place = verify(pass, PASS_TOKEN, queue);
+            return userId.equals(place.userId) && line(queue).use(place.ticket) ? place.ticket : -1;
+        } catch (JwtException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Rend un laissez-passer consommé par une réservation qui a échoué : il resservira jusqu'à son expiration.
+     */
+    public void restorePass(String queue, long ticket) {
+        line(queue).restore(ticket);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("releasePerSecond", releasePerSecond);
+        for (Map.Entry<String, Line> entry : lines.entrySet()) {
+            Line line = entry.getValue();
+            line.release();
+            Map<String, Object> view = new HashMap<>();
+            view.put("joined", line.joined.get());
+            view.put("admitted", line.released);
+            view.put("waiting", line.joined.get() - line.released);
+            view.put("passesIssued", line.passes.sum());
+            view.put("passesUsed", line.used.sum());
+            stats.put(entry.getKey(), view);
+        }
+        return stats;
+    }
+
+    private Map<String, Object> status(String queue, Line line, long ticket, long userId, String token) {
+        long ahead = Math.max(0, ticket - line.released);
+        Map<String, Object> status = new HashMap<>();
+        status.put("queue", queue);
+        status.put("token", token);
+        status.put("position", ahead);
+        status.put("admitted", ahead == 0);
+        if (ahead == 0) {
+            boolean issued = line.issue(ticket);
+            status.put("passIssued", !issued);
+            if (issued) {
+                line.passes.increment();
+                status.put("pass", jwtService.generateWaitingRoomToken(PASS_TOKEN, queue, ticket, userId, passTtlMs));
+            }
+        } else {
+            long waitSeconds = (long) Math.ceil(ahead / releasePerSecond);
+            status.put("estimatedWaitSeconds", waitSeconds);
+            // Les visiteurs loin dans la file interrogent moins souvent : la charge reste bornée
+            status.put("retryAfterSeconds", Math.max(1, Math.min(30, waitSeconds / 4)));
+        }
+        return status;
+    }
+
+    private Place verify(String token, String type, String queue) {
+        ParsedToken parsed = jwtService.parse(token);
+        Long ticket = parsed.getClaims().get("ticket", Long.class);
+        Long userId = parsed.getClaims().get("userId", Long.class);
+        if (!type.equals(parsed.getTokenType()) || !queue.equals(parsed.getClaims().get("queue", String.class))
+                || ticket == null || userId == null) {
+            throw new JwtException("Jeton de salle d'attente invalide pour la file " + queue);
+        }
+        return new Place(ticket, userId);
+    }
+
+    private Line line(String queue) {
+        Line line = queue == null ? null : lines.get(queue);
+        if (line == null) {
+            throw new IllegalArgumentException("File d'attente inconnue: " + queue);
+        }
+        return line;
+    }
+
+    // Numéro et utilisateur portés par un jeton de la salle d'attente
+    private static final class Place {
+        private final long ticket;
+        private final long userId;
+
+        private Place(long ticket, long userId) {
+            this.ticket = ticket;
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * Une file : numéros distribués, dernier numéro admis, seau à jetons qui règle les admissions et
+     * laissez-passer émis ou utilisés, un bit par numéro.
+     */
+    private static final class Line {
+        private final AtomicLong joined = new AtomicLong();
+        private final LongAdder passes = new LongAdder();
+        private final LongAdder used = new LongAdder();
+        private final BitSet passesIssued = new BitSet();
+        private final BitSet passesUsed = new BitSet();
+        private final ReentrantLock releaseLock = new ReentrantLock();
+        private final double ratePerNano;
+        private final int burst;
+
+        private volatile long released;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private Line(double releasePerSecond, int burst) {
+            this.ratePerNano = releasePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.burst = burst;
+            this.tokens = burst;
+        }
+
+        // Vrai pour le premier laissez-passer de ce numéro
+        private synchronized boolean issue(long ticket) {
+            int index = Math.toIntExact(ticket);
+            if (passesIssued.get(index)) {
+                return false;
+            }
+            passesIssued.set(index);
+            return true;
+        }
+
+        private synchronized boolean use(long ticket) {
+            int index = Math.toIntExact(ticket);
+            if (passesUsed.get(index)) {
+                return false;
+            }
+            passesUsed.set(index);
+            used.increment();
+            return true;
+        }
+
+        private synchronized void restore(long ticket) {
+            int index = Math.toIntExact(ticket);
+            if (passesUsed.get(index)) {
+                passesUsed.clear(index);
+                used.decrement();
+            }
+        }
+
+        // Remplit le seau et admet les numéros suivants ; si un autre thread s'en charge déjà, on ne l'attend pas
+        private void release() {
+            if (!releaseLock.tryLock()) {
+                return;
+            }
+            try {
+                long now = System.nanoTime();
+                tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+                refilledAt = now;
+                long admitted = Math.min((long) tokens, joined.get() - released);
+                if (admitted > 0) {
+                    tokens -= admitted;
+                    released += admitted;
+                }
+            } finally {
+                releaseLock.unlock();
+            }
+        }
+    }
+}
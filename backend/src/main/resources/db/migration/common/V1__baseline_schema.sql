@@ -0,0 +1,164 @@
+-- Schéma tel que l'auto-DDL d'Hibernate le créait avant les migrations (MySQL 8, InnoDB et utf8mb4
+-- par défaut). Les noms de contraintes générés par Hibernate sont conservés : une base existante,
+-- reprise par baseline, et une base créée par ce script ont les mêmes.
+-- Écrit dans le sous-ensemble commun à MySQL et au mode MySQL de H2 ; les différences sont dans
+-- db/migration/mysql et db/migration/h2.
+
+CREATE TABLE user (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    country VARCHAR(255),
+    email VARCHAR(255),
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    password VARCHAR(255),
+    phone VARCHAR(255),
+    role VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+-- Compteurs des identifiants réservés par blocs (IdGenerators), alignés au démarrage par IdGeneratorAlignment
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_generators (sequence_name, next_val) VALUES
+    ('hotel', 0),
+    ('hotel_reservations', 0),
+    ('payments', 0),
+    ('transport', 0),
+    ('transport_reservation', 0),
+    ('matches', 0),
+    ('ticket', 0);
+
+CREATE TABLE hotel (
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    stars INTEGER NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    description TEXT,
+    photo_path VARCHAR(255),
+    total_rooms INTEGER,
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE hotel_services (
+    hotel_id BIGINT NOT NULL,
+    service VARCHAR(255)
+);
+
+CREATE TABLE room (
+    id BIGINT NOT NULL,
+    hotel_id BIGINT,
+    room_type VARCHAR(255),
+    price_per_night DECIMAL(38,2),
+    available BIT NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE hotel_reservations (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    hotel_id BIGINT NOT NULL,
+    room_id BIGINT,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    number_of_rooms INTEGER NOT NULL,
+    number_of_guests INTEGER NOT NULL,
+    total_price DECIMAL(10,2) NOT NULL,
+    payment_status ENUM('CANCELLED','CONFIRMED','FAILED','PAID','PENDING','REFUNDED') NOT NULL,
+    created_at DATE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE payments (
+    id BIGINT NOT NULL,
+    reservation_id BIGINT NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    payment_method ENUM('BANK_TRANSFER','CASH','CREDIT_CARD','DEBIT_CARD','MOBILE_PAYMENT','PAYPAL') NOT NULL,
+    payment_status ENUM('CANCELLED','CONFIRMED','FAILED','PAID','PENDING','REFUNDED') NOT NULL,
+    transaction_id VARCHAR(255),
+    card_holder_name VARCHAR(255),
+    card_last_four VARCHAR(255),
+    failure_reason VARCHAR(255),
+    payment_gateway_response VARCHAR(1000),
+    payment_date DATETIME(6),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKe7qdxh4fch1yfisduker8j6w2 UNIQUE (reservation_id),
+    CONSTRAINT UKlryndveuwa4k5qthti0pkmtlx UNIQUE (transaction_id)
+);
+
+CREATE TABLE transport (
+    id BIGINT NOT NULL,
+    type ENUM('BUS','CAR','METRO','NAVETTE','PLANE','TRAIN','TRAIN_SPECIAL'),
+    departure_city VARCHAR(255),
+    arrival_city VARCHAR(255),
+    departure_time DATETIME(6),
+    arrival_time DATETIME(6),
+    capacite INTEGER NOT NULL,
+    place INTEGER NOT NULL,
+    price INTEGER NOT NULL,
+    compagnie VARCHAR(255),
+    seat_map VARBINARY(1024),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE transport_reservation (
+    id BIGINT NOT NULL,
+    transport_id BIGINT,
+    user_id BIGINT,
+    seat_number VARCHAR(255),
+    payment_status ENUM('CANCELLED','CONFIRMED','FAILED','PAID','PENDING','REFUNDED'),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE matches (
+    id BIGINT NOT NULL,
+    teama VARCHAR(255),
+    teamb VARCHAR(255),
+    date DATETIME(6),
+    stadium VARCHAR(255),
+    city VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE ticket (
+    id BIGINT NOT NULL,
+    match_id BIGINT,
+    user_id BIGINT,
+    seat_number VARCHAR(255),
+    price DECIMAL(38,2),
+    purchased_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE offer (
+    id BIGINT NOT NULL,
+    title VARCHAR(255),
+    description VARCHAR(255),
+    total_price DECIMAL(38,2),
+    hotel_id BIGINT,
+    transport_id BIGINT,
+    match_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE hotel_services ADD CONSTRAINT FKujv4eimlvqjiqb7khsvg00i FOREIGN KEY (hotel_id) REFERENCES hotel (id);
+ALTER TABLE room ADD CONSTRAINT FKdosq3ww4h9m2osim6o0lugng8 FOREIGN KEY (hotel_id) REFERENCES hotel (id);
+ALTER TABLE hotel_reservations ADD CONSTRAINT FKq8vnitv2yom5vhgg0bupb7in6 FOREIGN KEY (hotel_id) REFERENCES hotel (id);
+ALTER TABLE hotel_reservations ADD CONSTRAINT FK1q22cnlxsfd5qxtphaa44di6x FOREIGN KEY (room_id) REFERENCES room (id);
+ALTER TABLE hotel_reservations ADD CONSTRAINT FKfka9c2wkt6l8oxxcrdfa2r1qw FOREIGN KEY (user_id) REFERENCES user (id);
+ALTER TABLE payments ADD CONSTRAINT FKmmpsu6wkiiogd46ef19n2cc03 FOREIGN KEY (reservation_id) REFERENCES hotel_reservations (id);
+ALTER TABLE transport_reservation ADD CONSTRAINT FKmgkpu4eokmmheoa0bk0fhp460 FOREIGN KEY (transport_id) REFERENCES transport (id);
+ALTER TABLE transport_reservation ADD CONSTRAINT FKogp8rawp2j8e2mtwn9j6nk6w2 FOREIGN KEY (user_id) REFERENCES user (id);
+ALTER TABLE ticket ADD CONSTRAINT FKk21tlsr8uhuvdjoyjy69sh69a FOREIGN KEY (match_id) REFERENCES matches (id);
+ALTER TABLE ticket ADD CONSTRAINT FKdvt57mcco3ogsosi97odw563o FOREIGN KEY (user_id) REFERENCES user (id);
+ALTER TABLE offer ADD CONSTRAINT FKo33jw2uqjaol9494vm3fguodo FOREIGN KEY (hotel_id) REFERENCES hotel (id);
+ALTER TABLE offer ADD CONSTRAINT FK363339optqeypntdvsyj7xpoe FOREIGN KEY (transport_id) REFERENCES transport (id);
+ALTER TABLE offer ADD CONSTRAINT FKhnqlytvf4p9mslwupdtmfs4d FOREIGN KEY (match_id) REFERENCES matches (id);
@@ -0,0 +1,3 @@
+-- Offer et Room (GenerationType.AUTO) : séquences natives sur H2
+CREATE SEQUENCE offer_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE room_seq START WITH 1 INCREMENT BY 50;
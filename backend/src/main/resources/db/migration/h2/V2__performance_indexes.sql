@@ -0,0 +1,9 @@
+-- Mêmes index que db/migration/mysql/V2 ; H2 n'a pas de construction en ligne
+CREATE INDEX idx_hotel_reservations_user_start ON hotel_reservations (user_id, start_date);
+CREATE INDEX idx_hotel_reservations_hotel_period ON hotel_reservations (hotel_id, start_date, end_date, payment_status);
+CREATE INDEX idx_hotel_reservations_status ON hotel_reservations (payment_status);
+CREATE INDEX idx_hotel_reservations_start ON hotel_reservations (start_date);
+
+CREATE INDEX idx_payments_status_id ON payments (payment_status, id);
+
+CREATE INDEX idx_transport_reservation_user_transport ON transport_reservation (user_id, transport_id);
@@ -0,0 +1,2 @@
+-- Même contrainte que db/migration/mysql/V3
+CREATE UNIQUE INDEX uk_ticket_match_seat ON ticket (match_id, seat_number);
@@ -0,0 +1,3 @@
+-- Mêmes colonnes que db/migration/mysql/V4
+ALTER TABLE hotel ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE hotel ADD COLUMN longitude DOUBLE PRECISION;
@@ -0,0 +1,13 @@
+-- Mêmes changements que db/migration/mysql/V5
+ALTER TABLE hotel_reservations ADD COLUMN room_type VARCHAR(255);
+
+CREATE TABLE hotel_reservation_rooms (
+    reservation_id BIGINT NOT NULL,
+    room_id BIGINT NOT NULL,
+    PRIMARY KEY (reservation_id, room_id),
+    CONSTRAINT fk_hotel_reservation_rooms_reservation FOREIGN KEY (reservation_id) REFERENCES hotel_reservations (id),
+    CONSTRAINT fk_hotel_reservation_rooms_room FOREIGN KEY (room_id) REFERENCES room (id)
+);
+CREATE INDEX idx_hotel_reservation_rooms_room ON hotel_reservation_rooms (room_id);
+
+CREATE INDEX idx_room_hotel_type ON room (hotel_id, room_type);
@@ -0,0 +1,13 @@
+-- Même table que db/migration/mysql/V7
+CREATE TABLE ticket_rejection (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    match_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    seat_number VARCHAR(255) NOT NULL,
+    price DECIMAL(38,2),
+    purchased_at DATETIME(6),
+    reason VARCHAR(255) NOT NULL,
+    rejected_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_ticket_rejection_user ON ticket_rejection (user_id);
@@ -0,0 +1,2 @@
+-- Même valeur que db/migration/mysql/V8
+ALTER TABLE payments ALTER COLUMN payment_status ENUM('CANCELLED','CONFIRMED','FAILED','PAID','PENDING','REFUNDED','REFUND_PENDING') NOT NULL;
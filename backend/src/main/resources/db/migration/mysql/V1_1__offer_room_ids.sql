@@ -0,0 +1,10 @@
+-- Offer et Room (GenerationType.AUTO) : MySQL n'a pas de séquences, Hibernate les émule par une table
+CREATE TABLE offer_seq (
+    next_val BIGINT
+);
+INSERT INTO offer_seq VALUES (1);
+
+CREATE TABLE room_seq (
+    next_val BIGINT
+);
+INSERT INTO room_seq VALUES (1);
@@ -0,0 +1,24 @@
+-- Index des requêtes de liste, de disponibilité et de pagination par curseur.
+-- Construits en ligne (InnoDB) : la table reste lisible et modifiable pendant la construction ;
+-- si MySQL ne peut pas tenir ALGORITHM=INPLACE, LOCK=NONE, l'instruction échoue au lieu de verrouiller.
+-- Un seul ALTER par table : tous ses index sont construits en une passe.
+
+ALTER TABLE hotel_reservations
+    -- Réservations d'un utilisateur, les plus récentes d'abord
+    ADD INDEX idx_hotel_reservations_user_start (user_id, start_date),
+    -- Séjours d'un hôtel qui chevauchent une période (index de disponibilité, contrôles de capacité)
+    ADD INDEX idx_hotel_reservations_hotel_period (hotel_id, start_date, end_date, payment_status),
+    ADD INDEX idx_hotel_reservations_status (payment_status),
+    -- Liste globale triée par date
+    ADD INDEX idx_hotel_reservations_start (start_date),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Pages de paiements par statut, dans l'ordre des identifiants
+ALTER TABLE payments
+    ADD INDEX idx_payments_status_id (payment_status, id),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Contrôle « déjà réservé » par utilisateur et transport
+ALTER TABLE transport_reservation
+    ADD INDEX idx_transport_reservation_user_transport (user_id, transport_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
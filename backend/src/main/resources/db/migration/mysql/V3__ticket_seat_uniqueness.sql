@@ -0,0 +1,5 @@
+-- Un siège ne peut être vendu qu'une fois par match, même si deux nœuds vendent le même match.
+-- Sert aussi au rechargement de l'inventaire d'un match. Construit en ligne (InnoDB).
+ALTER TABLE ticket
+    ADD UNIQUE INDEX uk_ticket_match_seat (match_id, seat_number),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,7 @@
+-- Coordonnées des hôtels pour la recherche par distance au stade (facultatives : sans elles,
+-- le centre de la ville de l'hôtel est utilisé).
+-- Colonnes nullables ajoutées en fin de table : ALGORITHM=INSTANT ne modifie que le dictionnaire.
+ALTER TABLE hotel
+    ADD COLUMN latitude DOUBLE NULL,
+    ADD COLUMN longitude DOUBLE NULL,
+    ALGORITHM=INSTANT;
@@ -0,0 +1,20 @@
+-- Inventaire par type de chambre : type réservé et chambres attribuées à l'arrivée.
+-- Colonne nullable en fin de table (ALGORITHM=INSTANT) : les réservations existantes restent sans type.
+ALTER TABLE hotel_reservations
+    ADD COLUMN room_type VARCHAR(255) NULL,
+    ALGORITHM=INSTANT;
+
+CREATE TABLE hotel_reservation_rooms (
+    reservation_id BIGINT NOT NULL,
+    room_id BIGINT NOT NULL,
+    PRIMARY KEY (reservation_id, room_id),
+    -- Chambres déjà attribuées sur une période (attribution à l'arrivée)
+    INDEX idx_hotel_reservation_rooms_room (room_id),
+    CONSTRAINT fk_hotel_reservation_rooms_reservation FOREIGN KEY (reservation_id) REFERENCES hotel_reservations (id),
+    CONSTRAINT fk_hotel_reservation_rooms_room FOREIGN KEY (room_id) REFERENCES room (id)
+);
+
+-- Comptage des chambres par hôtel et par type, chambres libres d'un type
+ALTER TABLE room
+    ADD INDEX idx_room_hotel_type (hotel_id, room_type),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,15 @@
+-- Billets vendus puis refusés à l'écriture différée (utilisateur ou match inconnu, siège déjà en base) :
+-- gardés pour que l'acheteur voie que son billet n'a pas été émis. Sans clé étrangère : l'utilisateur
+-- ou le match refusé peut justement ne pas exister.
+CREATE TABLE ticket_rejection (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    match_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    seat_number VARCHAR(255) NOT NULL,
+    price DECIMAL(38,2),
+    purchased_at DATETIME(6),
+    reason VARCHAR(255) NOT NULL,
+    rejected_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_ticket_rejection_user (user_id)
+);
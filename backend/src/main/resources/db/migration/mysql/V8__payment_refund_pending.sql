@@ -0,0 +1,5 @@
+-- Remboursement accepté, en attente de la réponse de la passerelle (POST /api/payments/refund/{id}).
+-- Valeur ajoutée en fin d'ENUM : ALGORITHM=INSTANT ne modifie que le dictionnaire.
+ALTER TABLE payments
+    MODIFY COLUMN payment_status ENUM('CANCELLED','CONFIRMED','FAILED','PAID','PENDING','REFUNDED','REFUND_PENDING') NOT NULL,
+    ALGORITHM=INSTANT;
@@ -0,0 +1,113 @@
+package com.worldcup2030.backend.config;
+
+import com.worldcup2030.backend.model.Hotel;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrations jouées sur une base H2 vide, puis vérifiées par Hibernate (ddl-auto=validate) contre
+ * les entités du modèle : une colonne ou une table qui diverge empêche le contexte de démarrer.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:schema-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+class SchemaMigrationTests {
+
+	// Entités du modèle seulement : les entités propres aux benchmarks n'ont pas de migration
+	@TestConfiguration
+	@EntityScan(basePackageClasses = Hotel.class)
+	static class ModelEntities {
+	}
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private FlywayConfigurationCustomizer schemaMigrationCustomizer;
+
+	@Test
+	void migrationsBuildTheSchemaHibernateExpects() {
+		assertEquals(List.of("1", "1.1", "2", "3", "4", "5", "7", "8"), versions(flyway));
+		assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM id_generators", Integer.class));
+	}
+
+	@Test
+	void performanceIndexesAreCreated() throws Exception {
+		Set<String> indexes = indexes(jdbcTemplate.getDataSource(), "hotel_reservations", "payments",
+				"transport_reservation", "ticket", "room", "hotel_reservation_rooms");
+		assertTrue(indexes.containsAll(Set.of(
+				"idx_hotel_reservations_user_start",
+				"idx_hotel_reservations_hotel_period",
+				"idx_hotel_reservations_status",
+				"idx_hotel_reservations_start",
+				"idx_payments_status_id",
+				"idx_transport_reservation_user_transport",
+				"uk_ticket_match_seat",
+				"idx_room_hotel_type",
+				"idx_hotel_reservation_rooms_room")), indexes.toString());
+	}
+
+	// Base créée par l'auto-DDL d'Hibernate, sans historique : reprise à 1.1, puis seuls les index sont ajoutés
+	@Test
+	void existingHibernateSchemaIsBaselined() {
+		DataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:hibernate-schema;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1", "sa", "");
+		configure(dataSource).target(SchemaMigrationConfig.HIBERNATE_SCHEMA_VERSION).load().migrate();
+		JdbcTemplate legacy = new JdbcTemplate(dataSource);
+		legacy.execute("DROP TABLE flyway_schema_history");
+		legacy.update("INSERT INTO hotel (id, name, city, stars, address, version) VALUES (1, 'Ancien', 'Fès', 3, 'Médina', 0)");
+
+		Flyway migration = configure(dataSource).load();
+		migration.migrate();
+
+		assertEquals(List.of(SchemaMigrationConfig.HIBERNATE_SCHEMA_VERSION, "2", "3", "4", "5", "7", "8"), versions(migration));
+		assertEquals(1, legacy.queryForObject("SELECT COUNT(*) FROM hotel", Integer.class));
+	}
+
+	private FluentConfiguration configure(DataSource dataSource) {
+		FluentConfiguration configuration = Flyway.configure().dataSource(dataSource);
+		schemaMigrationCustomizer.customize(configuration);
+		return configuration;
+	}
+
+	private static List<String> versions(Flyway flyway) {
+		return Arrays.stream(flyway.info().applied()).map(info -> info.getVersion().getVersion()).toList();
+	}
+
+	private static Set<String> indexes(DataSource dataSource, String... tables) throws Exception {
+		return JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> {
+			Set<String> names = new HashSet<>();
+			for (String table : tables) {
+				try (ResultSet rs = metaData.getIndexInfo(null, null, table, false, false)) {
+					while (rs.next()) {
+						names.add(rs.getString("INDEX_NAME"));
+					}
+				}
+			}
+			return names;
+		});
+	}
+}
@@ -0,0 +1,212 @@
+package com.worldcup2030.backend.config;
+
+import com.worldcup2030.backend.BackendApplication;
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.UserRepository;
+import com.worldcup2030.backend.service.HotelService;
+import com.worldcup2030.backend.service.JwtService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Réservations d'hôtel concurrentes sur l'application démarrée deux fois : threads de plateforme (un par
+ * requête, {@code server.tomcat.threads.max} au plus), puis threads virtuels. {@code benchmark.clients} clients
+ * envoient {@code benchmark.bookings} POST /api/hotel-reservations authentifiés (filtre JWT, JPA, pool Hikari).
+ * Un filtre placé avant tous les autres compte les requêtes en cours côté serveur et retient leur pic.
+ * Les deux modes sont affichés dans un même tableau et écrits dans target/virtual-thread-benchmark.csv.
+ * Les threads virtuels demandent le JDK 21 : sur le JDK 17, seul le mode plateforme est mesuré.
+ * Lancer avec : mvn -Pvirtual-threads test -Dtest=VirtualThreadLoadBenchmark -Dbenchmark=true
+ * [-Dbenchmark.clients=1000] [-Dbenchmark.bookings=10000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoadBenchmark {
+
+	private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+	private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 10_000);
+	// Séjours d'une nuit répartis sur la fenêtre du tournoi
+	private static final LocalDate FIRST_NIGHT = LocalDate.of(2030, 6, 11);
+	private static final int NIGHTS = 30;
+	private static final Path CSV = Path.of("target", "virtual-thread-benchmark.csv");
+
+	@Test
+	void bookingsInFlightPerThreadingModel() throws Exception {
+		List<Result> results = new ArrayList<>();
+		results.add(run(false));
+		if (Runtime.version().feature() >= 21) {
+			results.add(run(true));
+		} else {
+			System.out.println("Threads virtuels indisponibles sur le JDK " + Runtime.version().feature()
+					+ " : relancer avec -Pvirtual-threads");
+		}
+
+		List<String> csv = new ArrayList<>();
+		csv.add("mode,clients,bookings,seconds,bookings_per_second,peak_in_flight,peak_hikari_active,peak_hikari_waiting,failures");
+		System.out.printf("%n%-11s %8s %13s %15s %16s %15s %18s %7s%n", "Threads", "Clients", "Réservations",
+				"Réservations/s", "En cours au pic", "Hikari actives", "Hikari en attente", "Échecs");
+		for (Result result : results) {
+			System.out.printf("%-11s %8d %,13d %,15.0f %16d %15d %18d %7d%n", result.mode, CLIENTS, BOOKINGS,
+					BOOKINGS / result.seconds, result.peakInFlight, result.peakActive, result.peakAwaiting, result.failures);
+			csv.add(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.0f,%d,%d,%d,%d", result.mode, CLIENTS, BOOKINGS,
+					result.seconds, BOOKINGS / result.seconds, result.peakInFlight, result.peakActive, result.peakAwaiting,
+					result.failures));
+		}
+		Files.createDirectories(CSV.getParent());
+		Files.write(CSV, csv);
+
+		for (Result result : results) {
+			assertEquals(0, result.failures, result.mode);
+		}
+		Result platform = results.get(0);
+		assertTrue(platform.peakInFlight <= platform.maxWorkerThreads,
+				"Threads de plateforme : " + platform.peakInFlight + " réservations en cours pour "
+						+ platform.maxWorkerThreads + " threads Tomcat");
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		InFlightRequests inFlight = new InFlightRequests();
+		FilterRegistrationBean<InFlightRequests> registration = new FilterRegistrationBean<>(inFlight);
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+				.initializers(ctx -> ctx.getBeanFactory().registerSingleton("inFlightRequests", registration))
+				// Arguments de ligne de commande : prioritaires sur la propriété posée par le profil virtual-threads
+				.run("--server.port=0", "--spring.threads.virtual.enabled=" + virtualThreads,
+						"--logging.level.com.worldcup2030=WARN")) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			int maxWorkerThreads = context.getEnvironment().getProperty("server.tomcat.threads.max", Integer.class, 200);
+
+			User user = new User();
+			user.setEmail("charge-" + System.nanoTime() + "@worldcup2030.ma");
+			user.setRole("USER");
+			user = context.getBean(UserRepository.class).save(user);
+			HotelDTO hotel = new HotelDTO("Hôtel Charge", "Tanger-" + System.nanoTime(), 4, "Boulevard Pasteur", null, new ArrayList<>());
+			hotel.setTotalRooms(BOOKINGS);
+			Long hotelId = context.getBean(HotelService.class).addHotel(hotel).getId();
+			String token = context.getBean(JwtService.class).generateToken(user);
+
+			HikariDataSource dataSource = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+			HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+			AtomicInteger peakActive = new AtomicInteger();
+			AtomicInteger peakAwaiting = new AtomicInteger();
+			Thread sampler = new Thread(() -> {
+				while (!Thread.currentThread().isInterrupted()) {
+					peakActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+					peakAwaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			});
+
+			HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+			Semaphore clients = new Semaphore(CLIENTS);
+			AtomicInteger failures = new AtomicInteger();
+			CompletableFuture<?>[] responses = new CompletableFuture<?>[BOOKINGS];
+			sampler.start();
+			long start = System.nanoTime();
+			for (int i = 0; i < BOOKINGS; i++) {
+				clients.acquire();
+				responses[i] = client.sendAsync(booking(port, token, user.getId(), hotelId, FIRST_NIGHT.plusDays(i % NIGHTS)),
+								HttpResponse.BodyHandlers.discarding())
+						.whenComplete((response, error) -> {
+							if (error != null || response.statusCode() != 201) {
+								failures.incrementAndGet();
+							}
+							clients.release();
+						});
+			}
+			CompletableFuture.allOf(responses).exceptionally(error -> null).get(10, TimeUnit.MINUTES);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			sampler.interrupt();
+			sampler.join();
+
+			return new Result(virtualThreads ? "virtuels" : "plateforme", seconds, inFlight.peak.get(), peakActive.get(),
+					peakAwaiting.get(), failures.get(), maxWorkerThreads);
+		}
+	}
+
+	private static HttpRequest booking(int port, String token, Long userId, Long hotelId, LocalDate night) {
+		String body = "{\"userId\":" + userId + ",\"hotelId\":" + hotelId + ",\"startDate\":\"" + night
+				+ "\",\"endDate\":\"" + night.plusDays(1) + "\",\"numberOfRooms\":1,\"numberOfGuests\":2}";
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/hotel-reservations"))
+				.header("Authorization", "Bearer " + token)
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofMinutes(2))
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+	}
+
+	// Requêtes en cours de traitement côté serveur, de l'entrée dans le premier filtre à la réponse
+	private static final class InFlightRequests implements Filter {
+		private final AtomicInteger current = new AtomicInteger();
+		private final AtomicInteger peak = new AtomicInteger();
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+				throws IOException, ServletException {
+			peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+			try {
+				chain.doFilter(request, response);
+			} finally {
+				current.decrementAndGet();
+			}
+		}
+	}
+
+	private static final class Result {
+		private final String mode;
+		private final double seconds;
+		private final int peakInFlight;
+		private final int peakActive;
+		private final int peakAwaiting;
+		private final int failures;
+		private final int maxWorkerThreads;
+
+		private Result(String mode, double seconds, int peakInFlight, int peakActive, int peakAwaiting, int failures,
+					   int maxWorkerThreads) {
+			this.mode = mode;
+			this.seconds = seconds;
+			this.peakInFlight = peakInFlight;
+			this.peakActive = peakActive;
+			this.peakAwaiting = peakAwaiting;
+			this.failures = failures;
+			this.maxWorkerThreads = maxWorkerThreads;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package com.worldcup2030.backend.repository;
+
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.model.HotelReservation;
+import com.worldcup2030.backend.model.PaymentStatus;
+import com.worldcup2030.backend.model.User;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Insertions de réservations par seconde, {@code benchmark.threads} threads en parallèle, transactions
+ * de {@value #ROWS_PER_TRANSACTION} lignes, par EntityManager.persist dans les deux cas et sur les mêmes colonnes :
+ * <ul>
+ *     <li>IDENTITY : entité de test {@link IdentityReservation}, mappage d'avant (Hibernate exécute
+ *     l'INSERT seul, à chaque persist, pour lire la clé générée) ;</li>
+ *     <li>par blocs : HotelReservation, identifiants de IdGenerators et lots JDBC.</li>
+ * </ul>
+ * Le nombre d'allers-retours JDBC est affiché avec le débit : sur H2 en mémoire ils ne coûtent presque
+ * rien, sur MySQL chacun est un échange réseau. Pour mesurer sur MySQL :
+ * -Dbenchmark.url=jdbc:mysql://...&rewriteBatchedStatements=true -Dbenchmark.username=... -Dbenchmark.password=...
+ * Lancer avec : mvn test -Dtest=IdGeneratorBenchmark -Dbenchmark=true [-Dbenchmark.rows=200000] [-Dbenchmark.threads=4]
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=${benchmark.url:jdbc:h2:mem:id-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1}",
+		"spring.datasource.username=${benchmark.username:sa}",
+		"spring.datasource.password=${benchmark.password:}",
+		"spring.jpa.hibernate.ddl-auto=update"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdGeneratorBenchmark {
+
+	private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+	private static final int THREADS = Integer.getInteger("benchmark.threads", 4);
+	private static final int ROWS_PER_TRANSACTION = 1_000;
+	private static final int BATCH_SIZE = 500;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Test
+	void pooledIdsInsertFasterThanIdentity() throws Exception {
+		User user = new User();
+		user.setEmail("benchmark-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		User savedUser = userRepository.save(user);
+		Hotel hotel = new Hotel("Hôtel du benchmark", "Rabat", 4, "Avenue 1", null, List.of(), null);
+		hotel.setTotalRooms(100);
+		Hotel savedHotel = hotelRepository.save(hotel);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+
+		// Warm-up des deux chemins
+		insert(savedUser, savedHotel, 0, false);
+		insert(savedUser, savedHotel, 0, true);
+
+		statistics.clear();
+		double identity = rowsPerSecond(i -> insert(savedUser, savedHotel, i, false));
+		long identityRoundTrips = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		double pooled = rowsPerSecond(i -> insert(savedUser, savedHotel, i, true));
+		long pooledRoundTrips = statistics.getPrepareStatementCount();
+
+		System.out.printf("%n%,d réservations, %d threads, transactions de %,d lignes%n", ROWS, THREADS, ROWS_PER_TRANSACTION);
+		System.out.printf("%-10s %16s %20s%n", "", "insertions/s", "allers-retours JDBC");
+		System.out.printf("%-10s %,16.0f %,20d%n", "IDENTITY", identity, identityRoundTrips);
+		System.out.printf("%-10s %,16.0f %,20d%n", "par blocs", pooled, pooledRoundTrips);
+
+		assertEquals((long) ROWS + ROWS_PER_TRANSACTION, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM hotel_reservations WHERE hotel_id = ?", Long.class, savedHotel.getId()));
+		// Un INSERT par lot de BATCH_SIZE lignes plus les réservations de blocs d'identifiants
+		assertTrue(pooledRoundTrips < ROWS / 50, "Allers-retours : " + pooledRoundTrips);
+		assertTrue(identityRoundTrips >= ROWS, "Allers-retours : " + identityRoundTrips);
+		jdbcTemplate.execute("DELETE FROM benchmark_identity_reservations");
+	}
+
+	// Débit de ROWS insertions réparties en transactions de ROWS_PER_TRANSACTION lignes sur THREADS threads
+	private double rowsPerSecond(IntConsumer transaction) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			long start = System.nanoTime();
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < ROWS / ROWS_PER_TRANSACTION; i++) {
+				int index = i;
+				futures.add(pool.submit(() -> transaction.accept(index)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return ROWS / ((System.nanoTime() - start) / 1e9);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private void insert(User user, Hotel hotel, int transaction, boolean pooled) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			User userRef = entityManager.getReference(User.class, user.getId());
+			Hotel hotelRef = entityManager.getReference(Hotel.class, hotel.getId());
+			for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+				LocalDate start = LocalDate.of(2030, 6, 1).plusDays((transaction + i) % 60);
+				entityManager.persist(pooled
+						? new HotelReservation(start, start.plusDays(2), 1, 2, new BigDecimal("1500.00"),
+								PaymentStatus.PENDING, userRef, hotelRef)
+						: new IdentityReservation(start, userRef, hotelRef));
+				if ((i + 1) % BATCH_SIZE == 0) {
+					entityManager.flush();
+					entityManager.clear();
+					userRef = entityManager.getReference(User.class, user.getId());
+					hotelRef = entityManager.getReference(Hotel.class, hotel.getId());
+				}
+			}
+		});
+	}
+
+	// Mêmes colonnes que HotelReservation, avec l'identifiant IDENTITY d'avant la migration
+	@Entity
+	@Table(name = "benchmark_identity_reservations")
+	static class IdentityReservation {
+
+		@Id
+		@GeneratedValue(strategy = GenerationType.IDENTITY)
+		private Long id;
+
+		@Column(name = "start_date", nullable = false)
+		private LocalDate startDate;
+
+		@Column(name = "end_date", nullable = false)
+		private LocalDate endDate;
+
+		@Column(name = "number_of_rooms", nullable = false)
+		private int numberOfRooms = 1;
+
+		@Column(name = "number_of_guests", nullable = false)
+		private int numberOfGuests = 2;
+
+		@Column(name = "total_price", nullable = false, precision = 10, scale = 2)
+		private BigDecimal totalPrice = new BigDecimal("1500.00");
+
+		@Enumerated(EnumType.STRING)
+		@Column(name = "payment_status", nullable = false)
+		private PaymentStatus paymentStatus = PaymentStatus.PENDING;
+
+		@ManyToOne(fetch = FetchType.LAZY)
+		@JoinColumn(name = "user_id", nullable = false)
+		private User user;
+
+		@ManyToOne(fetch = FetchType.LAZY)
+		@JoinColumn(name = "hotel_id", nullable = false)
+		private Hotel hotel;
+
+		@Column(name = "created_at")
+		private LocalDate createdAt = LocalDate.now();
+
+		protected IdentityReservation() {
+		}
+
+		IdentityReservation(LocalDate startDate, User user, Hotel hotel) {
+			this.startDate = startDate;
+			this.endDate = startDate.plusDays(2);
+			this.user = user;
+			this.hotel = hotel;
+		}
+	}
+}
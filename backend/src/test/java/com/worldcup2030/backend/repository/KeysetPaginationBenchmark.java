@@ -0,0 +1,168 @@
+package com.worldcup2030.backend.repository;
+
+import com.worldcup2030.backend.dto.HotelReservationDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latence d'une page de réservations (triées par date de début décroissante) selon la profondeur,
+ * pagination par OFFSET contre pagination par clé (findDtosAfter), sur un jeu généré (schéma et index
+ * issus des entités). Le jeu est gardé en base entre deux lancements.
+ * <p>
+ * Par défaut sur une base H2 fichier dans target/ : ses arbres B comptent leurs entrées, l'OFFSET y reste
+ * donc lui aussi bon marché. Sur MySQL, où l'OFFSET parcourt toutes les lignes sautées, passer
+ * -Dbenchmark.url=jdbc:mysql://... -Dbenchmark.username=... -Dbenchmark.password=...
+ * Lancer avec : mvn test -Dtest=KeysetPaginationBenchmark -Dbenchmark=true [-Dbenchmark.rows=10000000]
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=${benchmark.url:jdbc:h2:file:./target/keyset-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE}",
+		"spring.datasource.username=${benchmark.username:sa}",
+		"spring.datasource.password=${benchmark.password:}",
+		"spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class KeysetPaginationBenchmark {
+
+	private static final long ROWS = Long.getLong("benchmark.rows", 10_000_000L);
+	private static final int HOTELS = 1_000;
+	private static final int USERS = 100_000;
+	private static final int PAGE_SIZE = 50;
+	private static final int RUNS = 5;
+	private static final long CHUNK = 1_000_000L;
+	private static final long[] PAGES = {1, 100, 1_000, 10_000, 100_000};
+	private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+	private static final int DAYS = 1826;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private HotelReservationRepository reservationRepository;
+
+	@Test
+	void seekLatencyStaysFlatAtDeepPages() {
+		ensureDataset();
+
+		System.out.printf("%n%,d réservations, pages de %d%n", ROWS, PAGE_SIZE);
+		System.out.printf("%10s %14s %14s%n", "page", "offset (ms)", "clé (ms)");
+
+		double firstSeekMs = -1;
+		double lastSeekMs = 0;
+		for (long page : PAGES) {
+			long offset = (page - 1) * PAGE_SIZE;
+			if (offset + PAGE_SIZE > ROWS) {
+				break;
+			}
+
+			double offsetMs = medianMs(() -> reservationRepository.findFirstDtos(PageRequest.of((int) (page - 1), PAGE_SIZE)));
+
+			double seekMs;
+			if (page == 1) {
+				seekMs = medianMs(() -> reservationRepository.findFirstDtos(PageRequest.of(0, PAGE_SIZE)));
+			} else {
+				// Curseur = dernière ligne de la page précédente (lu hors mesure)
+				Map<String, Object> cursor = jdbc.queryForMap(
+						"SELECT start_date, id FROM hotel_reservations ORDER BY start_date DESC, id DESC LIMIT 1 OFFSET ?",
+						offset - 1);
+				LocalDate startDate = ((java.sql.Date) cursor.get("start_date")).toLocalDate();
+				Long id = ((Number) cursor.get("id")).longValue();
+				seekMs = medianMs(() -> reservationRepository.findDtosAfter(startDate, id, PageRequest.of(0, PAGE_SIZE)));
+			}
+
+			System.out.printf("%,10d %14.2f %14.2f%n", page, offsetMs, seekMs);
+			if (firstSeekMs < 0) {
+				firstSeekMs = seekMs;
+			}
+			lastSeekMs = seekMs;
+		}
+
+		// La page la plus profonde par clé reste du même ordre que la première
+		assertTrue(lastSeekMs < firstSeekMs * 10 + 5, "Latence par clé en page profonde : " + lastSeekMs + " ms");
+	}
+
+	private double medianMs(Supplier<List<HotelReservationDTO>> query) {
+		assertEquals(PAGE_SIZE, query.get().size()); // échauffement
+		double[] samples = new double[RUNS];
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			query.get();
+			samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+		}
+		Arrays.sort(samples);
+		return samples[RUNS / 2];
+	}
+
+	// Génère hôtels, utilisateurs et réservations en SQL portable H2/MySQL (par blocs d'un million de lignes)
+	private void ensureDataset() {
+		Long existing = jdbc.queryForObject("SELECT COUNT(*) FROM hotel_reservations", Long.class);
+		if (existing != null && existing == ROWS) {
+			return;
+		}
+		long start = System.nanoTime();
+		jdbc.execute("DELETE FROM hotel_reservations");
+		jdbc.execute("DELETE FROM hotel");
+		jdbc.execute("DELETE FROM user");
+
+		List<Object[]> hotels = new ArrayList<>();
+		for (int i = 1; i <= HOTELS; i++) {
+			hotels.add(new Object[]{i, "Hôtel " + i, "Casablanca", 1 + i % 5, "Rue " + i});
+		}
+		// Identifiants explicites (générateurs par blocs) : IdGeneratorAlignment les dépasse au prochain démarrage
+		jdbc.batchUpdate("INSERT INTO hotel (id, name, city, stars, address, total_rooms, version) VALUES (?, ?, ?, ?, ?, 200, 0)", hotels);
+		List<Object[]> users = new ArrayList<>();
+		for (int i = 1; i <= USERS; i++) {
+			users.add(new Object[]{"supporter" + i + "@worldcup2030.ma"});
+		}
+		jdbc.batchUpdate("INSERT INTO user (email, role) VALUES (?, 'USER')", users);
+		long firstUser = jdbc.queryForObject("SELECT MIN(id) FROM user", Long.class);
+
+		// Tables de travail : chiffres 0-9 (produit cartésien = un million de lignes) et jours de la période
+		jdbc.execute("DROP TABLE IF EXISTS benchmark_digits");
+		jdbc.execute("DROP TABLE IF EXISTS benchmark_days");
+		jdbc.execute("CREATE TABLE benchmark_digits (n BIGINT PRIMARY KEY)");
+		jdbc.execute("CREATE TABLE benchmark_days (d INT PRIMARY KEY, stay_date DATE NOT NULL)");
+		List<Object[]> digits = new ArrayList<>();
+		for (int n = 0; n < 10; n++) {
+			digits.add(new Object[]{n});
+		}
+		jdbc.batchUpdate("INSERT INTO benchmark_digits (n) VALUES (?)", digits);
+		List<Object[]> days = new ArrayList<>();
+		for (int d = 0; d < DAYS + 3; d++) {
+			days.add(new Object[]{d, java.sql.Date.valueOf(FIRST_DAY.plusDays(d))});
+		}
+		jdbc.batchUpdate("INSERT INTO benchmark_days (d, stay_date) VALUES (?, ?)", days);
+
+		for (long from = 0; from < ROWS; from += CHUNK) {
+			// Dates réparties sur cinq ans ; 10 % annulées, 10 % en attente
+			jdbc.update("INSERT INTO hotel_reservations (id, start_date, end_date, number_of_rooms, number_of_guests, " +
+					"total_price, payment_status, user_id, hotel_id, created_at) " +
+					"SELECT r.x + 1, ds.stay_date, de.stay_date, 1 + MOD(r.x, 3), 2, 1500.00, " +
+					"CASE MOD(r.x, 10) WHEN 0 THEN 'CANCELLED' WHEN 1 THEN 'PENDING' ELSE 'CONFIRMED' END, " +
+					"? + MOD(r.x, ?), 1 + MOD(r.x, ?), CURRENT_DATE " +
+					"FROM (SELECT ? + a.n + 10 * b.n + 100 * c.n + 1000 * d.n + 10000 * e.n + 100000 * f.n AS x " +
+					"FROM benchmark_digits a CROSS JOIN benchmark_digits b CROSS JOIN benchmark_digits c " +
+					"CROSS JOIN benchmark_digits d CROSS JOIN benchmark_digits e CROSS JOIN benchmark_digits f) r " +
+					"JOIN benchmark_days ds ON ds.d = MOD(r.x * 7919, ?) " +
+					"JOIN benchmark_days de ON de.d = MOD(r.x * 7919, ?) + 1 + MOD(r.x, 3) " +
+					"WHERE r.x < ?",
+					firstUser, USERS, HOTELS, from, DAYS, DAYS, ROWS);
+		}
+		jdbc.execute("DROP TABLE benchmark_digits");
+		jdbc.execute("DROP TABLE benchmark_days");
+		System.out.printf("Jeu de %,d réservations généré en %d s%n", ROWS, (System.nanoTime() - start) / 1_000_000_000L);
+	}
+}
@@ -0,0 +1,126 @@
+package com.worldcup2030.backend.repository;
+
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.model.HotelReservation;
+import com.worldcup2030.backend.model.PaymentStatus;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.service.HotelCatalogCache;
+import com.worldcup2030.backend.service.HotelReservationService;
+import com.worldcup2030.backend.service.HotelService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Nombre de requêtes SQL par lecture, mesuré avec les statistiques Hibernate sur H2.
+ * Chaque lecture doit rester à un nombre fixe de requêtes, quel que soit le nombre de lignes.
+ */
+@SpringBootTest
+class ReadQueryCountTests {
+
+	private static final int HOTELS = 12;
+	private static final int RESERVATIONS_PER_HOTEL = 3;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HotelReservationRepository reservationRepository;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private HotelReservationService reservationService;
+
+	@Autowired
+	private HotelCatalogCache catalogCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private User user;
+	private Hotel hotel;
+	private HotelReservation reservation;
+
+	@BeforeEach
+	void setUp() {
+		reservationRepository.deleteAll();
+		hotelRepository.deleteAll();
+		userRepository.deleteAll();
+		catalogCache.clear();
+
+		user = new User();
+		user.setEmail("supporter@worldcup2030.ma");
+		user.setRole("USER");
+		user = userRepository.save(user);
+
+		for (int i = 0; i < HOTELS; i++) {
+			Hotel saved = new Hotel("Hôtel " + i, "Rabat", 4, "Avenue " + i, null,
+					List.of("wifi", "piscine", "parking"), null);
+			saved.setTotalRooms(50);
+			hotel = hotelRepository.save(saved);
+			for (int j = 0; j < RESERVATIONS_PER_HOTEL; j++) {
+				LocalDate start = LocalDate.of(2030, 6, 10 + j);
+				reservation = reservationRepository.save(new HotelReservation(start, start.plusDays(2), 1, 2,
+						new BigDecimal("2000.00"), PaymentStatus.PENDING, user, hotel));
+			}
+		}
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@Test
+	void getAllHotelsUsesOneQuery() {
+		assertEquals(HOTELS, hotelService.getAllHotels().size());
+		assertQueries(1, () -> {
+			catalogCache.clear();
+			hotelService.getAllHotels();
+		});
+		// Servi ensuite depuis le cache
+		assertQueries(0, hotelService::getAllHotels);
+	}
+
+	@Test
+	void getHotelByIdUsesOneQuery() {
+		assertQueries(1, () -> hotelService.getHotelById(hotel.getId()));
+	}
+
+	@Test
+	void getAllReservationsUsesOneQuery() {
+		assertEquals(HOTELS * RESERVATIONS_PER_HOTEL, reservationService.getAllReservations().size());
+		assertQueries(1, reservationService::getAllReservations);
+	}
+
+	@Test
+	void getUserReservationsUsesOneQuery() {
+		assertEquals(HOTELS * RESERVATIONS_PER_HOTEL, reservationService.getUserReservations(user.getId()).size());
+		assertQueries(1, () -> reservationService.getUserReservations(user.getId()));
+	}
+
+	@Test
+	void getReservationByIdUsesOneQuery() {
+		assertQueries(1, () -> reservationService.getReservationById(reservation.getId()));
+	}
+
+	private void assertQueries(long expected, Runnable read) {
+		statistics.clear();
+		read.run();
+		assertEquals(expected, statistics.getPrepareStatementCount(), "Requêtes SQL exécutées");
+	}
+}
@@ -0,0 +1,141 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Payment;
+import com.worldcup2030.backend.model.PaymentMethod;
+import com.worldcup2030.backend.service.PaymentGatewayService.PaymentGatewayResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Regroupement des autorisations : envoi à la fin de la fenêtre, dès que le lot est plein ou tout de suite pour
+ * une requête doublée, réponses rendues à chaque paiement dans l'ordre du lot, erreur de passerelle propagée
+ * à tout le lot.
+ */
+class BatchingPaymentGatewayClientTests {
+
+	private PaymentGatewayService gateway;
+	private final List<List<Payment>> batches = new CopyOnWriteArrayList<>();
+	private final List<CompletableFuture<List<PaymentGatewayResponse>>> replies = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		gateway = mock(PaymentGatewayService.class);
+		when(gateway.processBatch(anyList())).thenAnswer(invocation -> {
+			batches.add(new ArrayList<>(invocation.getArgument(0)));
+			CompletableFuture<List<PaymentGatewayResponse>> reply = new CompletableFuture<>();
+			replies.add(reply);
+			return reply;
+		});
+	}
+
+	@Test
+	void sendsAuthorizationsOfOneWindowTogether() throws Exception {
+		BatchingPaymentGatewayClient client = new BatchingPaymentGatewayClient(gateway, 200, 100);
+
+		CompletableFuture<PaymentGatewayResponse> first = client.authorize(payment("TX-1"));
+		CompletableFuture<PaymentGatewayResponse> second = client.authorize(payment("TX-2"));
+		CompletableFuture<PaymentGatewayResponse> third = client.authorize(payment("TX-3"));
+		assertTrue(batches.isEmpty());
+
+		awaitBatches(1);
+		assertEquals(List.of("TX-1", "TX-2", "TX-3"), transactionIds(batches.get(0)));
+		assertFalse(first.isDone());
+
+		replies.get(0).complete(List.of(response("OK-1"), response("OK-2"), response("OK-3")));
+		assertEquals("OK-1", first.get(1, TimeUnit.SECONDS).getCode());
+		assertEquals("OK-2", second.get(1, TimeUnit.SECONDS).getCode());
+		assertEquals("OK-3", third.get(1, TimeUnit.SECONDS).getCode());
+
+		// Fenêtre suivante : un nouveau lot
+		client.authorize(payment("TX-4"));
+		awaitBatches(2);
+		assertEquals(List.of("TX-4"), transactionIds(batches.get(1)));
+	}
+
+	@Test
+	void sendsAFullBatchWithoutWaitingForTheWindow() throws Exception {
+		BatchingPaymentGatewayClient client = new BatchingPaymentGatewayClient(gateway, 60_000, 2);
+
+		client.authorize(payment("TX-1"));
+		assertTrue(batches.isEmpty());
+		client.authorize(payment("TX-2"));
+		assertEquals(1, batches.size());
+		assertEquals(List.of("TX-1", "TX-2"), transactionIds(batches.get(0)));
+
+		CompletableFuture<PaymentGatewayResponse> third = client.authorize(payment("TX-3"));
+		assertEquals(1, batches.size());
+		assertFalse(third.isDone());
+	}
+
+	@Test
+	void authorizeNowBypassesThePendingBatch() throws Exception {
+		BatchingPaymentGatewayClient client = new BatchingPaymentGatewayClient(gateway, 60_000, 100);
+
+		client.authorize(payment("TX-1"));
+		CompletableFuture<PaymentGatewayResponse> hedge = client.authorizeNow(payment("TX-1"));
+		assertEquals(1, batches.size());
+		assertEquals(List.of("TX-1"), transactionIds(batches.get(0)));
+
+		replies.get(0).complete(List.of(response("OK-1")));
+		assertEquals("OK-1", hedge.get(1, TimeUnit.SECONDS).getCode());
+	}
+
+	@Test
+	void failsEveryAuthorizationOfABatchTheGatewayDidNotAnswer() throws Exception {
+		BatchingPaymentGatewayClient client = new BatchingPaymentGatewayClient(gateway, 60_000, 3);
+
+		CompletableFuture<PaymentGatewayResponse> first = client.authorize(payment("TX-1"));
+		CompletableFuture<PaymentGatewayResponse> second = client.authorize(payment("TX-2"));
+		CompletableFuture<PaymentGatewayResponse> third = client.authorize(payment("TX-3"));
+		// Réponse tronquée : le troisième paiement n'a pas de réponse
+		replies.get(0).complete(List.of(response("OK-1"), response("OK-2")));
+		assertEquals("OK-2", second.get(1, TimeUnit.SECONDS).getCode());
+		assertEquals("GATEWAY_ERROR", third.get(1, TimeUnit.SECONDS).getCode());
+		assertFalse(third.get().isSuccess());
+
+		CompletableFuture<PaymentGatewayResponse> fourth = client.authorize(payment("TX-4"));
+		client.authorize(payment("TX-5"));
+		client.authorize(payment("TX-6"));
+		replies.get(1).completeExceptionally(new IllegalStateException("connexion perdue"));
+		assertEquals("GATEWAY_ERROR", fourth.get(1, TimeUnit.SECONDS).getCode());
+		assertEquals("OK-1", first.get().getCode());
+	}
+
+	private void awaitBatches(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (batches.size() < count && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(count, batches.size());
+	}
+
+	private static List<String> transactionIds(List<Payment> batch) {
+		return batch.stream().map(Payment::getTransactionId).toList();
+	}
+
+	private static Payment payment(String transactionId) {
+		Payment payment = new Payment();
+		payment.setTransactionId(transactionId);
+		payment.setAmount(new BigDecimal("500.00"));
+		payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+		return payment;
+	}
+
+	private static PaymentGatewayResponse response(String code) {
+		return new PaymentGatewayResponse(true, code, "Paiement traité avec succès", "{}");
+	}
+}
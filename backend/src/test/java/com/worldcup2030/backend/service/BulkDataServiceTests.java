@@ -0,0 +1,167 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.config.IdGeneratorAlignment;
+import com.worldcup2030.backend.dto.BulkImportResult;
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.model.IdGenerators;
+import com.worldcup2030.backend.model.Transport;
+import com.worldcup2030.backend.repository.HotelRepository;
+import com.worldcup2030.backend.repository.HotelReservationRepository;
+import com.worldcup2030.backend.repository.PaymentRepository;
+import com.worldcup2030.backend.repository.RoomRepository;
+import com.worldcup2030.backend.repository.TransportRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Import et export en masse sur H2 : validation ligne par ligne, insertions groupées en lots JDBC,
+ * identifiants réservés au-delà des lignes existantes et export relisible par l'import.
+ */
+@SpringBootTest(properties = "worldcup.bulk.chunk-size=100")
+class BulkDataServiceTests {
+
+	@Autowired
+	private BulkDataService bulkDataService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private HotelReservationRepository reservationRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private TransportRepository transportRepository;
+
+	@Autowired
+	private IdGeneratorAlignment idGeneratorAlignment;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		paymentRepository.deleteAll();
+		reservationRepository.deleteAll();
+		roomRepository.deleteAll();
+		hotelRepository.deleteAll();
+		transportRepository.deleteAll();
+	}
+
+	@Test
+	void importsHotelsFromCsvAndRejectsInvalidRows() throws Exception {
+		String csv = "name,city,stars,address,description,totalRooms,services\r\n" +
+				"Riad Atlas,Marrakech,5,Derb 12,\"Vue sur l'Atlas, \"\"calme\"\"\n2 patios\",40,wifi|piscine\r\n" +
+				"Sans étoiles,Rabat,0,Avenue 1,,10,\r\n" +
+				"Hôtel du Port,Tanger,3,Quai 4,,,parking\r\n";
+
+		BulkImportResult result = bulkDataService.importHotels(stream(csv), BulkDataService.Format.CSV);
+
+		assertEquals(2, result.getImported());
+		assertEquals(1, result.getRejected());
+		assertTrue(result.getErrors().get(0).startsWith("ligne 4 :"), result.getErrors().toString());
+
+		List<HotelDTO> hotels = hotelService.getAllHotels();
+		assertEquals(2, hotels.size());
+		HotelDTO riad = hotels.get(0);
+		assertEquals("Vue sur l'Atlas, \"calme\"\n2 patios", riad.getDescription());
+		assertEquals(Set.of("wifi", "piscine"), Set.copyOf(riad.getServices()));
+		assertEquals(40, riad.getTotalRooms());
+	}
+
+	@Test
+	void csvExportCanBeImportedAgain() throws Exception {
+		bulkDataService.importHotels(stream("name,city,stars,address,services\n" +
+				"\"Hôtel, Casablanca\",Casablanca,4,Boulevard 7,wifi|spa\n"), BulkDataService.Format.CSV);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		bulkDataService.exportHotelsCsv(out);
+
+		hotelRepository.deleteAll();
+		BulkImportResult result = bulkDataService.importHotels(new ByteArrayInputStream(out.toByteArray()),
+				BulkDataService.Format.CSV);
+
+		assertEquals(1, result.getImported(), result.getErrors().toString());
+		HotelDTO hotel = hotelService.getAllHotels().get(0);
+		assertEquals("Hôtel, Casablanca", hotel.getName());
+		assertEquals(Set.of("wifi", "spa"), Set.copyOf(hotel.getServices()));
+	}
+
+	@Test
+	void importsTransportsFromNdjsonInJdbcBatches() throws Exception {
+		int rows = 1_000;
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < rows; i++) {
+			ndjson.append("{\"type\":\"train\",\"departureCity\":\"Rabat\",\"arrivalCity\":\"Tanger\",")
+					.append("\"departureTime\":\"2030-06-1").append(i % 10).append("T08:00:00\",")
+					.append("\"arrivalTime\":\"2030-06-1").append(i % 10).append("T10:00:00Z\",")
+					.append("\"capacite\":300,\"price\":150,\"compagnie\":\"ONCF\"}\n");
+		}
+		ndjson.append("{\"type\":\"fusée\",\"departureCity\":\"Rabat\"}\n");
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		BulkImportResult result = bulkDataService.importTransports(stream(ndjson.toString()), BulkDataService.Format.NDJSON);
+
+		assertEquals(rows, result.getImported());
+		assertEquals(1, result.getRejected());
+		assertEquals(rows, transportRepository.count());
+		Transport transport = transportRepository.findAll().get(0);
+		assertEquals(300, transport.getPlace());
+		// Un INSERT préparé par lot (et par bloc), pas un par ligne
+		assertTrue(statistics.getPrepareStatementCount() < rows / 10,
+				"Requêtes préparées : " + statistics.getPrepareStatementCount());
+	}
+
+	// Le contexte a déjà réservé un bloc en mémoire : on vérifie le compteur en base, lu au prochain bloc
+	@Test
+	void alignmentMovesGeneratorPastExistingIds() {
+		jdbcTemplate.update("INSERT INTO hotel (id, name, city, stars, address, version) VALUES (100000, 'Ancien', 'Fès', 3, 'Médina', 0)");
+		idGeneratorAlignment.align();
+		Long next = jdbcTemplate.queryForObject("SELECT next_val FROM id_generators WHERE sequence_name = 'hotel'", Long.class);
+		assertTrue(next > 100000 + IdGenerators.ALLOCATION_SIZE, "Compteur : " + next);
+
+		// Jamais reculé
+		jdbcTemplate.update("DELETE FROM hotel WHERE id = 100000");
+		idGeneratorAlignment.align();
+		assertEquals(next, jdbcTemplate.queryForObject("SELECT next_val FROM id_generators WHERE sequence_name = 'hotel'", Long.class));
+	}
+
+	@Test
+	void rejectsCsvWithoutRequiredColumns() {
+		assertThrows(IllegalArgumentException.class, () ->
+				bulkDataService.importHotels(stream("name,city\nRiad,Fès\n"), BulkDataService.Format.CSV));
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,93 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.BulkImportResult;
+import com.worldcup2030.backend.dto.TransportDTO;
+import com.worldcup2030.backend.repository.TransportRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Débit d'insertion des transports sur H2 en mémoire :
+ * <ul>
+ *     <li>avant : un appel à TransportService.addTransport par ligne (une transaction par ligne, comme
+ *     un POST /api/transports par ligne), mesuré sur {@value #BASELINE_ROWS} lignes ;</li>
+ *     <li>après : import en masse d'un fichier CSV de {@code benchmark.rows} lignes (1 million par défaut).</li>
+ * </ul>
+ * Lancer avec : mvn test -Dtest=BulkImportBenchmark -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:bulk-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkImportBenchmark {
+
+	private static final long ROWS = Long.getLong("benchmark.rows", 1_000_000L);
+	private static final int BASELINE_ROWS = 10_000;
+
+	@Autowired
+	private BulkDataService bulkDataService;
+
+	@Autowired
+	private TransportService transportService;
+
+	@Autowired
+	private TransportRepository transportRepository;
+
+	@Test
+	void bulkImportOfOneMillionTransports() throws IOException {
+		transportRepository.deleteAll();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < BASELINE_ROWS; i++) {
+			TransportDTO dto = new TransportDTO();
+			dto.setType("TRAIN");
+			dto.setDepartureCity("Rabat");
+			dto.setArrivalCity("Tanger");
+			dto.setDepartureTime("2030-06-" + (10 + i % 20) + "T08:00:00Z");
+			dto.setArrivalTime("2030-06-" + (10 + i % 20) + "T10:30:00Z");
+			dto.setCapacite(300);
+			dto.setPrice(150 + i % 50);
+			dto.setCompagnie("ONCF");
+			transportService.addTransport(dto);
+		}
+		double baselinePerSecond = BASELINE_ROWS / ((System.nanoTime() - start) / 1e9);
+		transportRepository.deleteAllInBatch();
+
+		Path file = Paths.get("target", "bulk-benchmark-transports.csv");
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write("type,departureCity,arrivalCity,departureTime,arrivalTime,capacite,price,compagnie\n");
+			for (long i = 0; i < ROWS; i++) {
+				int day = 10 + (int) (i % 20);
+				writer.write("TRAIN,Rabat,Tanger,2030-06-" + day + "T08:00:00,2030-06-" + day + "T10:30:00,300,"
+						+ (150 + i % 50) + ",ONCF\n");
+			}
+		}
+
+		BulkImportResult result;
+		try (InputStream in = Files.newInputStream(file)) {
+			result = bulkDataService.importTransports(in, BulkDataService.Format.CSV);
+		}
+		double bulkPerSecond = result.getImported() / (result.getDurationMs() / 1000.0);
+
+		System.out.printf("%naddTransport ligne à ligne : %,.0f lignes/s (%,d lignes)%n", baselinePerSecond, BASELINE_ROWS);
+		System.out.printf("import en masse            : %,.0f lignes/s (%,d lignes en %.1f s)%n",
+				bulkPerSecond, result.getImported(), result.getDurationMs() / 1000.0);
+
+		assertEquals(ROWS, result.getImported());
+		assertEquals(ROWS, transportRepository.count());
+		Files.deleteIfExists(file);
+	}
+}
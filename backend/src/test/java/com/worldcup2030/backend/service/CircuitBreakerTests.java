@@ -0,0 +1,86 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.service.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transitions du disjoncteur : ouverture au seuil d'échec, refus pendant la durée d'ouverture, appels
+ * d'essai comptés en semi-ouvert, puis fermeture ou réouverture selon leur résultat.
+ */
+class CircuitBreakerTests {
+
+	private static final long OPEN_MS = 100;
+
+	@Test
+	void opensAtTheFailureRateOnceEnoughCallsAreRecorded() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, OPEN_MS, 2);
+
+		breaker.record(false);
+		breaker.record(false);
+		breaker.record(false);
+		// Trois échecs sur trois, mais moins que le minimum d'appels
+		assertEquals(State.CLOSED, breaker.state());
+		assertTrue(breaker.tryAcquirePermission());
+
+		breaker.record(true);
+		assertEquals(State.OPEN, breaker.state());
+		assertFalse(breaker.tryAcquirePermission());
+	}
+
+	@Test
+	void slidingWindowForgetsOldFailures() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, OPEN_MS, 2);
+
+		breaker.record(false);
+		for (int i = 0; i < 10; i++) {
+			breaker.record(true);
+		}
+		breaker.record(false);
+		assertEquals(State.CLOSED, breaker.state());
+		assertEquals(25.0, breaker.snapshot().get("failureRate"));
+	}
+
+	@Test
+	void halfOpenLetsTrialCallsThroughThenCloses() throws InterruptedException {
+		CircuitBreaker breaker = open();
+
+		Thread.sleep(OPEN_MS + 20);
+		assertTrue(breaker.tryAcquirePermission());
+		assertEquals(State.HALF_OPEN, breaker.state());
+		assertTrue(breaker.tryAcquirePermission());
+		// Deux appels d'essai seulement
+		assertFalse(breaker.tryAcquirePermission());
+
+		breaker.record(true);
+		assertEquals(State.HALF_OPEN, breaker.state());
+		breaker.record(true);
+		assertEquals(State.CLOSED, breaker.state());
+		assertEquals(0, breaker.snapshot().get("recordedCalls"));
+		assertTrue(breaker.tryAcquirePermission());
+	}
+
+	@Test
+	void failedTrialCallReopens() throws InterruptedException {
+		CircuitBreaker breaker = open();
+
+		Thread.sleep(OPEN_MS + 20);
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.record(false);
+		assertEquals(State.OPEN, breaker.state());
+		assertFalse(breaker.tryAcquirePermission());
+		assertTrue(breaker.snapshot().containsKey("retryInMs"));
+	}
+
+	private static CircuitBreaker open() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, OPEN_MS, 2);
+		for (int i = 0; i < 4; i++) {
+			breaker.record(false);
+		}
+		assertEquals(State.OPEN, breaker.state());
+		return breaker;
+	}
+}
@@ -0,0 +1,178 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.repository.HotelRepository;
+import com.worldcup2030.backend.repository.HotelReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotelAvailabilityIndexTests {
+
+	private static final LocalDate START = LocalDate.parse("2030-06-01");
+	private static final int HOTELS = 4;
+	private static final int ROOMS = 20;
+
+	private HotelAvailabilityIndex index;
+	private HotelRepository hotelRepository;
+	private HotelReservationRepository reservationRepository;
+
+	@BeforeEach
+	void setUp() {
+		hotelRepository = mock(HotelRepository.class);
+		reservationRepository = mock(HotelReservationRepository.class);
+		List<Object[]> roomCounts = new ArrayList<>();
+		for (long id = 1; id <= HOTELS; id++) {
+			roomCounts.add(new Object[]{id, ROOMS});
+		}
+		when(hotelRepository.findAllRoomCounts()).thenReturn(roomCounts);
+		when(reservationRepository.findActiveStays(START, START.plusDays(61))).thenReturn(List.of());
+
+		index = new HotelAvailabilityIndex(hotelRepository, reservationRepository,
+				"2030-06-01", "2030-07-31", 50, 64);
+		index.warmUp();
+	}
+
+	@Test
+	void rejectsStayWhenOneNightIsFull() {
+		index.reserve(1L, START.plusDays(3), START.plusDays(4), ROOMS);
+
+		assertFalse(index.canBook(1L, START.plusDays(1), START.plusDays(5), 1));
+		assertThrows(RuntimeException.class, () -> index.reserve(1L, START.plusDays(1), START.plusDays(5), 1));
+		assertTrue(index.canBook(1L, START.plusDays(4), START.plusDays(8), ROOMS));
+
+		index.release(1L, START.plusDays(3), START.plusDays(4), ROOMS);
+		assertTrue(index.canBook(1L, START.plusDays(1), START.plusDays(5), ROOMS));
+	}
+
+	@Test
+	void capacityChangeKeepsBookedNights() {
+		index.reserve(1L, START.plusDays(3), START.plusDays(5), 15);
+
+		index.resizeAfterCommit(1L, 10);
+		assertFalse(index.canBook(1L, START.plusDays(4), START.plusDays(5), 1));
+		index.resizeAfterCommit(1L, 30);
+		assertTrue(index.canBook(1L, START.plusDays(4), START.plusDays(5), 15));
+		assertFalse(index.canBook(1L, START.plusDays(4), START.plusDays(5), 16));
+		assertEquals(15, index.bookedRooms(1L)[3]);
+	}
+
+	@Test
+	void rollbackDoesNotTouchAReloadedHotel() {
+		Hotel hotel = new Hotel();
+		hotel.setTotalRooms(ROOMS);
+		when(hotelRepository.findById(2L)).thenReturn(Optional.of(hotel));
+
+		TransactionSynchronizationManager.initSynchronization();
+		List<TransactionSynchronization> pending;
+		try {
+			index.reserve(2L, START.plusDays(3), START.plusDays(4), 5);
+			pending = TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		// Hôtel supprimé puis relu (sans la réservation non validée) et réservé par un autre client
+		index.evictAfterCommit(2L);
+		index.reserve(2L, START.plusDays(3), START.plusDays(4), 7);
+		pending.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertEquals(7, index.bookedRooms(2L)[3]);
+	}
+
+	@Test
+	void nightsOutsideTheWindowComeFromTheDatabase() {
+		LocalDate before = START.minusDays(3);
+		when(reservationRepository.findActiveStaysByHotelId(1L, before, START))
+				.thenReturn(List.<Object[]>of(new Object[]{1L, START.minusDays(2), START.plusDays(1), 5}));
+		LocalDate windowEnd = START.plusDays(61);
+		when(reservationRepository.findActiveStaysByHotelId(1L, windowEnd, windowEnd.plusDays(1)))
+				.thenReturn(List.<Object[]>of(new Object[]{1L, windowEnd.minusDays(2), windowEnd.plusDays(3), 3}));
+		index.reserve(1L, START, START.plusDays(1), 4);
+
+		assertArrayEquals(new int[]{ROOMS, 15, 15, 16, ROOMS}, index.availableRooms(1L, before, START.plusDays(2)));
+		assertArrayEquals(new int[]{ROOMS, 17}, index.availableRooms(1L, windowEnd.minusDays(1), windowEnd.plusDays(1)));
+	}
+
+	/**
+	 * Des milliers de demandes concurrentes sur des séjours qui se chevauchent : aucune nuit ne doit
+	 * dépasser la capacité, et l'occupation finale doit correspondre exactement aux séjours acceptés.
+	 */
+	@Test
+	void neverOverbooksUnderContention() throws InterruptedException {
+		int requests = 20_000;
+		ExecutorService pool = Executors.newFixedThreadPool(64);
+		CountDownLatch go = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(requests);
+		ConcurrentLinkedQueue<int[]> accepted = new ConcurrentLinkedQueue<>();
+		AtomicInteger rejected = new AtomicInteger();
+
+		for (int i = 0; i < requests; i++) {
+			pool.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				int hotel = 1 + random.nextInt(HOTELS);
+				int from = random.nextInt(55);
+				int to = from + 1 + random.nextInt(6);
+				int rooms = 1 + random.nextInt(3);
+				try {
+					go.await();
+					index.reserve((long) hotel, START.plusDays(from), START.plusDays(to), rooms);
+					int[] stay = {hotel, from, to, rooms};
+					accepted.add(stay);
+					// Une partie des séjours est annulée pour faire tourner l'inventaire ; chaque thread retire
+					// son propre tableau, même si un autre thread a accepté un séjour identique
+					if (random.nextInt(4) == 0) {
+						index.release((long) hotel, START.plusDays(from), START.plusDays(to), rooms);
+						accepted.remove(stay);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (RuntimeException e) {
+					rejected.incrementAndGet();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+
+		go.countDown();
+		assertTrue(done.await(60, TimeUnit.SECONDS));
+		pool.shutdown();
+
+		int[][] expected = new int[HOTELS + 1][61];
+		for (int[] stay : accepted) {
+			for (int night = stay[1]; night < stay[2]; night++) {
+				expected[stay[0]][night] += stay[3];
+			}
+		}
+		for (int hotel = 1; hotel <= HOTELS; hotel++) {
+			int[] booked = index.bookedRooms((long) hotel);
+			assertArrayEquals(expected[hotel], booked);
+			for (int night = 0; night < booked.length; night++) {
+				assertTrue(booked[night] <= ROOMS, "Nuit " + night + " surbookée : " + booked[night]);
+			}
+		}
+		assertTrue(rejected.get() > 0);
+	}
+}
@@ -0,0 +1,143 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Cache du catalogue des hôtels : chargement unique, fiche et liste mises à jour après le commit
+ * seulement, chargement concurrent d'une invalidation écarté, expiration et taille bornée.
+ */
+class HotelCatalogCacheTests {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void loadsOnceAndServesFrozenCopies() {
+		HotelCatalogCache cache = new HotelCatalogCache(100, 60_000);
+		List<HotelDTO> database = new ArrayList<>(List.of(hotel(2L, "Riad Atlas"), hotel(1L, "Dar Azul")));
+
+		List<HotelDTO> all = cache.getAll(() -> load(database));
+		assertSame(all, cache.getAll(() -> load(database)));
+		assertEquals(1, loads.get());
+		assertEquals(List.of(1L, 2L), all.stream().map(HotelDTO::getId).toList());
+		assertThrows(UnsupportedOperationException.class, () -> all.get(0).getServices().add("Spa"));
+
+		// Fiche servie depuis la liste complète, sans chargement
+		assertEquals("Riad Atlas", cache.get(2L, id -> { throw new AssertionError("chargement inutile"); }).getName());
+		database.get(0).setName("Riad modifié hors cache");
+		assertEquals("Riad Atlas", cache.getAll(() -> load(database)).get(1).getName());
+	}
+
+	@Test
+	void appliesChangesOnlyAfterCommit() {
+		HotelCatalogCache cache = new HotelCatalogCache(100, 60_000);
+		List<HotelDTO> database = List.of(hotel(1L, "Dar Azul"), hotel(2L, "Riad Atlas"));
+		cache.getAll(() -> load(database));
+		cache.get(1L, id -> hotel(id, "Dar Azul"));
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.putAfterCommit(hotel(1L, "Dar Azul rénové"));
+		cache.putAfterCommit(hotel(3L, "Kasbah Tamadot"));
+		cache.evictAfterCommit(2L);
+		// Transaction en cours : les autres requêtes voient toujours l'état validé
+		assertEquals(List.of("Dar Azul", "Riad Atlas"), names(cache.getAll(() -> load(database))));
+		assertEquals("Dar Azul", cache.get(1L, id -> hotel(id, "?")).getName());
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertEquals(List.of("Dar Azul rénové", "Kasbah Tamadot"), names(cache.getAll(() -> load(database))));
+		assertEquals("Dar Azul rénové", cache.get(1L, id -> hotel(id, "?")).getName());
+		assertEquals(1, loads.get());
+		assertEquals(3L, cache.stats().get("invalidations"));
+	}
+
+	@Test
+	void rolledBackChangesAreNeverApplied() {
+		HotelCatalogCache cache = new HotelCatalogCache(100, 60_000);
+		List<HotelDTO> database = List.of(hotel(1L, "Dar Azul"));
+		cache.getAll(() -> load(database));
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.evictAfterCommit(1L);
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertEquals(List.of("Dar Azul"), names(cache.getAll(() -> load(database))));
+		assertEquals(0L, cache.stats().get("invalidations"));
+	}
+
+	@Test
+	void discardsALoadThatRacedAnInvalidation() {
+		HotelCatalogCache cache = new HotelCatalogCache(100, 60_000);
+		List<HotelDTO> before = List.of(hotel(1L, "Dar Azul"));
+
+		// Modification validée pendant la lecture en base : la liste lue est déjà périmée
+		List<HotelDTO> stale = cache.getAll(() -> {
+			cache.putAfterCommit(hotel(1L, "Dar Azul rénové"));
+			return load(before);
+		});
+		assertEquals(List.of("Dar Azul"), names(stale));
+		assertEquals(List.of("Dar Azul rénové"), names(cache.getAll(() -> load(List.of(hotel(1L, "Dar Azul rénové"))))));
+		assertEquals(2, loads.get());
+
+		HotelDTO staleHotel = cache.get(5L, id -> {
+			cache.evictAfterCommit(id);
+			return hotel(id, "Hôtel supprimé");
+		});
+		assertEquals("Hôtel supprimé", staleHotel.getName());
+		assertEquals(0, cache.stats().get("cachedHotels"));
+	}
+
+	@Test
+	void expiresAndBoundsItsEntries() throws InterruptedException {
+		HotelCatalogCache expiring = new HotelCatalogCache(100, 50);
+		List<HotelDTO> database = List.of(hotel(1L, "Dar Azul"));
+		expiring.getAll(() -> load(database));
+		Thread.sleep(80);
+		expiring.getAll(() -> load(database));
+		assertEquals(2, loads.get());
+
+		HotelCatalogCache bounded = new HotelCatalogCache(10, 60_000);
+		for (long id = 1; id <= 10; id++) {
+			bounded.get(id, hotelId -> hotel(hotelId, "Hôtel " + hotelId));
+			Thread.sleep(2);
+		}
+		bounded.get(11L, hotelId -> hotel(hotelId, "Hôtel 11"));
+		assertEquals(10, bounded.stats().get("cachedHotels"));
+		assertEquals(1L, bounded.stats().get("evictions"));
+	}
+
+	private List<HotelDTO> load(List<HotelDTO> database) {
+		loads.incrementAndGet();
+		return database;
+	}
+
+	private static List<String> names(List<HotelDTO> hotels) {
+		return hotels.stream().map(HotelDTO::getName).toList();
+	}
+
+	private static HotelDTO hotel(Long id, String name) {
+		return new HotelDTO(id, name, "Chefchaouen", 4, "Place Outa el Hammam", null, new ArrayList<>(List.of("Wifi")), null);
+	}
+}
@@ -0,0 +1,124 @@
+package com.worldcup2030.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Devis de séjours et calendriers de prix sur {@code benchmark.hotels} hôtels répartis dans 6 villes
+ * hôtes, avec un match par ville tous les trois jours et une occupation aléatoire. Mesure aussi la
+ * mémoire allouée par le thread pendant les devis.
+ * Lancer avec : mvn test -Dtest=HotelPricingBenchmark -Dbenchmark=true [-Dbenchmark.hotels=20000]
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:hotel-pricing-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotelPricingBenchmark {
+
+	private static final int HOTELS = Integer.getInteger("benchmark.hotels", 20_000);
+	private static final int QUOTES = 1_000_000;
+	private static final LocalDate START = LocalDate.of(2030, 6, 1);
+	private static final String[] CITIES = {"Casablanca", "Rabat", "Tanger", "Marrakech", "Agadir", "Fès"};
+
+	@Autowired
+	private HotelPricingEngine pricingEngine;
+
+	@Autowired
+	private HotelAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void quoteLatency() {
+		Random random = new Random(2030);
+		List<Object[]> hotels = new ArrayList<>();
+		for (int i = 1; i <= HOTELS; i++) {
+			hotels.add(new Object[]{i, "Hôtel " + i, CITIES[random.nextInt(CITIES.length)], 1 + random.nextInt(5)});
+			if (hotels.size() == 10_000) {
+				insert(hotels);
+			}
+		}
+		insert(hotels);
+		List<Object[]> matches = new ArrayList<>();
+		for (int day = 10; day < 50; day += 3) {
+			for (int city = 0; city < CITIES.length; city++) {
+				matches.add(new Object[]{matches.size() + 1, CITIES[city], Timestamp.valueOf(START.plusDays(day).atTime(21, 0))});
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO matches (id, teama, teamb, city, date) VALUES (?, 'A', 'B', ?, ?)", matches);
+
+		long buildStart = System.nanoTime();
+		availabilityIndex.warmUp();
+		pricingEngine.rebuild();
+		double buildSeconds = (System.nanoTime() - buildStart) / 1e9;
+		for (int i = 0; i < HOTELS * 5; i++) {
+			int from = random.nextInt(55);
+			try {
+				availabilityIndex.reserve((long) (1 + random.nextInt(HOTELS)), START.plusDays(from),
+						START.plusDays(from + 1 + random.nextInt(5)), 1 + random.nextInt(10));
+			} catch (RuntimeException full) {
+				// Nuit complète : l'occupation reste à son maximum
+			}
+		}
+
+		Long[] hotelIds = new Long[QUOTES];
+		int[] starts = new int[QUOTES];
+		int[] lengths = new int[QUOTES];
+		for (int i = 0; i < QUOTES; i++) {
+			hotelIds[i] = (long) (1 + random.nextInt(HOTELS));
+			starts[i] = random.nextInt(55);
+			lengths[i] = 1 + random.nextInt(6);
+		}
+		LocalDate[] dates = new LocalDate[70];
+		for (int day = 0; day < dates.length; day++) {
+			dates[day] = START.plusDays(day);
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long[] latencies = new long[QUOTES];
+		long checksum = 0;
+		long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < QUOTES; i++) {
+			long start = System.nanoTime();
+			checksum += pricingEngine.quoteStay(hotelIds[i], dates[starts[i]], dates[starts[i] + lengths[i]], 2);
+			latencies[i] = System.nanoTime() - start;
+		}
+		long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+		Arrays.sort(latencies);
+
+		int[] calendar = new int[61];
+		long calendarStart = System.nanoTime();
+		for (long id = 1; id <= HOTELS; id++) {
+			pricingEngine.priceNights(id, START, calendar);
+			checksum += calendar[30];
+		}
+		double calendarMillis = (System.nanoTime() - calendarStart) / 1e6;
+
+		System.out.printf("%n%,d hôtels, grilles construites en %.2f s, %s%n", HOTELS, buildSeconds, pricingEngine.stats());
+		System.out.printf("%,d devis : p50 %,d ns, p99 %,d ns, %.1f octets alloués par devis%n", QUOTES,
+				latencies[QUOTES / 2], latencies[QUOTES * 99 / 100], (double) allocated / QUOTES);
+		System.out.printf("calendrier de 61 nuits pour chacun des %,d hôtels en %.1f ms%n", HOTELS, calendarMillis);
+		assertTrue(checksum > 0);
+	}
+
+	private void insert(List<Object[]> hotels) {
+		jdbcTemplate.batchUpdate("INSERT INTO hotel (id, name, city, stars, address, total_rooms) "
+				+ "VALUES (?, ?, ?, ?, 'Centre', 40)", hotels);
+		hotels.clear();
+	}
+}
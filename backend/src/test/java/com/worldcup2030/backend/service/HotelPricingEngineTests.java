@@ -0,0 +1,127 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.HotelPriceCalendarDTO;
+import com.worldcup2030.backend.dto.HotelReservationDTO;
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.model.Room;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.RoomRepository;
+import com.worldcup2030.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Prix des nuits avec les réglages par défaut : 4 étoiles à 1 500 MAD, +60 % le soir d'un match dans la
+ * ville, +25 % la veille, +25 % dès 70 % d'occupation ; puis prix facturé par une réservation.
+ */
+@SpringBootTest
+class HotelPricingEngineTests {
+
+	private static final LocalDate MATCH_DAY = LocalDate.of(2030, 6, 20);
+
+	@Autowired
+	private HotelPricingEngine pricingEngine;
+
+	@Autowired
+	private HotelAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private HotelReservationService reservationService;
+
+	@Autowired
+	private MatchRepository matchRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	// Ville propre à chaque test : la base et les index sont partagés
+	private String city;
+
+	@BeforeEach
+	void setUp() {
+		city = "Ifrane-" + System.nanoTime();
+	}
+
+	@Test
+	void surgesOnMatchNightsAndWithOccupancy() {
+		Long hotelId = hotel(4, 10).getId();
+		matchRepository.save(new Match(null, "Maroc", "Brésil", MATCH_DAY.atTime(21, 0), "Stade d'Ifrane", city, null, null));
+		pricingEngine.rebuild();
+
+		assertArrayEquals(new int[]{150_000, 187_500, 240_000, 150_000}, nights(hotelId, MATCH_DAY.minusDays(2), 4));
+		assertArrayEquals(new int[]{150_000}, nights(hotelId, LocalDate.of(2030, 8, 10), 1));
+
+		// 8 chambres sur 10 la nuit du 18 : +25 %
+		availabilityIndex.reserve(hotelId, MATCH_DAY.minusDays(2), MATCH_DAY.minusDays(1), 8);
+		assertArrayEquals(new int[]{187_500, 187_500, 240_000}, nights(hotelId, MATCH_DAY.minusDays(2), 3));
+		assertEquals(2L * (187_500 + 187_500 + 240_000),
+				pricingEngine.quoteStay(hotelId, MATCH_DAY.minusDays(2), MATCH_DAY.plusDays(1), 2));
+
+		HotelPriceCalendarDTO calendar = hotelService.getPriceCalendar(MATCH_DAY.minusDays(2), MATCH_DAY.plusDays(1), 3,
+				List.of(hotelId)).get(0);
+		assertArrayEquals(new int[]{2, 10, 10}, calendar.getAvailableRooms());
+		assertEquals(3L * (187_500 + 187_500 + 240_000), calendar.getTotalPrice());
+		assertFalse(calendar.isBookable());
+
+		HotelReservationDTO request = new HotelReservationDTO();
+		request.setUserId(user());
+		request.setHotelId(hotelId);
+		request.setStartDate(MATCH_DAY);
+		request.setEndDate(MATCH_DAY.plusDays(2));
+		request.setNumberOfRooms(2);
+		request.setNumberOfGuests(4);
+		HotelReservationDTO reservation = reservationService.createReservation(request);
+		assertEquals(0, new BigDecimal("7800.00").compareTo(reservation.getTotalPrice()), reservation.getTotalPrice().toString());
+	}
+
+	@Test
+	void cheapestRoomSetsTheBaseRate() {
+		Hotel hotel = hotel(2, 20);
+		assertArrayEquals(new int[]{65_000}, nights(hotel.getId(), MATCH_DAY, 1));
+
+		roomRepository.save(new Room(null, "Double", new BigDecimal("1200.00"), true, hotel, null));
+		roomRepository.save(new Room(null, "Simple", new BigDecimal("899.90"), true, hotel, null));
+		pricingEngine.evictAfterCommit(hotel.getId());
+		assertArrayEquals(new int[]{89_990, 89_990}, nights(hotel.getId(), MATCH_DAY, 2));
+	}
+
+	private int[] nights(Long hotelId, LocalDate from, int count) {
+		int[] prices = new int[count];
+		pricingEngine.priceNights(hotelId, from, prices);
+		return prices;
+	}
+
+	private Hotel hotel(int stars, int rooms) {
+		HotelDTO dto = new HotelDTO("Hôtel du Lac", city, stars, "Avenue des Cèdres", null, new ArrayList<>());
+		dto.setTotalRooms(rooms);
+		return hotelService.addHotel(dto);
+	}
+
+	private Long user() {
+		User user = new User();
+		user.setEmail("voyageur-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		return userRepository.save(user).getId();
+	}
+}
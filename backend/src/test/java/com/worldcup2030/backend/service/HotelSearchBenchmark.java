@@ -0,0 +1,101 @@
+package com.worldcup2030.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latence des recherches d'hôtels sur {@code benchmark.hotels} hôtels répartis dans 6 villes, insérés
+ * directement en SQL puis indexés en une passe. Chaque requête combine au hasard texte, ville,
+ * étoiles, service et distance au stade.
+ * Lancer avec : mvn test -Dtest=HotelSearchBenchmark -Dbenchmark=true [-Dbenchmark.hotels=50000]
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:hotel-search-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotelSearchBenchmark {
+
+	private static final int HOTELS = Integer.getInteger("benchmark.hotels", 50_000);
+	private static final int SEARCHES = 100_000;
+	private static final String[] CITIES = {"Casablanca", "Rabat", "Tanger", "Marrakech", "Agadir", "Fès"};
+	private static final String[] STADIUMS = {"Grand Stade Hassan II", "Stade Prince Moulay Abdellah",
+			"Grand Stade de Tanger", "Grand Stade de Marrakech", "Grand Stade d'Agadir", "Complexe sportif de Fès"};
+	private static final String[] KINDS = {"Riad", "Hôtel", "Kasbah", "Dar", "Résidence", "Palais", "Auberge"};
+	private static final String[] WORDS = {"Atlas", "Médina", "Océan", "Jardin", "Palmeraie", "Andalous", "Majorelle",
+			"Oasis", "Corniche", "Zellige", "Cèdre", "Argan"};
+	private static final String[] SERVICES = {"Wifi", "Spa", "Piscine", "Hammam", "Parking", "Restaurant", "Navette stade",
+			"Salle de sport", "Climatisation", "Petit-déjeuner"};
+
+	@Autowired
+	private HotelSearchIndex searchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void searchLatency() {
+		Random random = new Random(2030);
+		List<Object[]> hotels = new ArrayList<>();
+		List<Object[]> services = new ArrayList<>();
+		for (int i = 1; i <= HOTELS; i++) {
+			int city = random.nextInt(CITIES.length);
+			double[] center = StadiumLocations.city(CITIES[city]);
+			String name = KINDS[random.nextInt(KINDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+			String description = "Séjour " + WORDS[random.nextInt(WORDS.length)] + " près de la " + WORDS[random.nextInt(WORDS.length)];
+			hotels.add(new Object[]{i, name, CITIES[city], 1 + random.nextInt(5), description,
+					center[0] + (random.nextDouble() - 0.5) * 0.2, center[1] + (random.nextDouble() - 0.5) * 0.2});
+			for (int s = 0; s < 3; s++) {
+				services.add(new Object[]{i, SERVICES[random.nextInt(SERVICES.length)]});
+			}
+			if (hotels.size() == 10_000) {
+				insert(hotels, services);
+			}
+		}
+		insert(hotels, services);
+
+		long indexStart = System.nanoTime();
+		searchIndex.rebuild();
+		double indexSeconds = (System.nanoTime() - indexStart) / 1e9;
+
+		long[] latencies = new long[SEARCHES];
+		long matched = 0;
+		for (int i = 0; i < SEARCHES; i++) {
+			int city = random.nextInt(CITIES.length);
+			String text = random.nextBoolean() ? WORDS[random.nextInt(WORDS.length)].substring(0, 4 + random.nextInt(2)) : null;
+			Integer minStars = random.nextInt(3) == 0 ? 3 + random.nextInt(3) : null;
+			List<String> service = random.nextInt(3) == 0 ? List.of(SERVICES[random.nextInt(SERVICES.length)]) : null;
+			double[] near = random.nextBoolean() ? StadiumLocations.of(STADIUMS[city], CITIES[city]) : null;
+			Double maxDistance = near != null && random.nextBoolean() ? 5.0 : null;
+			long start = System.nanoTime();
+			matched += (Integer) searchIndex.search(text, random.nextInt(4) == 0 ? null : CITIES[city], minStars, null,
+					service, near, maxDistance, null, 0, 20).get("total");
+			latencies[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(latencies);
+
+		System.out.printf("%n%,d hôtels indexés en %.2f s, %s%n", HOTELS, indexSeconds, searchIndex.stats());
+		System.out.printf("%,d recherches, %,d résultats en moyenne%n", SEARCHES, matched / SEARCHES);
+		System.out.printf("latence p50 : %,d µs, p99 : %,d µs, max : %,d µs%n",
+				latencies[SEARCHES / 2] / 1_000, latencies[SEARCHES * 99 / 100] / 1_000, latencies[SEARCHES - 1] / 1_000);
+		assertTrue(matched > 0);
+	}
+
+	private void insert(List<Object[]> hotels, List<Object[]> services) {
+		jdbcTemplate.batchUpdate("INSERT INTO hotel (id, name, city, stars, address, description, latitude, longitude) "
+				+ "VALUES (?, ?, ?, ?, 'Centre', ?, ?, ?)", hotels);
+		jdbcTemplate.batchUpdate("INSERT INTO hotel_services (hotel_id, service) VALUES (?, ?)", services);
+		hotels.clear();
+		services.clear();
+	}
+}
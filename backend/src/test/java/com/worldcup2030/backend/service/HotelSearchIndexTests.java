@@ -0,0 +1,142 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.HotelSearchHitDTO;
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recherche d'hôtels dans l'index en mémoire : texte sans accents ni casse, préfixes, filtres,
+ * facettes, distance au stade, puis prise en compte des hôtels ajoutés, modifiés ou supprimés.
+ */
+@SpringBootTest
+class HotelSearchIndexTests {
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private MatchRepository matchRepository;
+
+	// Ville et mot propres à chaque test : la base et l'index sont partagés
+	private String city;
+	private String word;
+
+	@BeforeEach
+	void setUp() {
+		city = "Ouarzazate-" + System.nanoTime();
+		word = "zellige" + System.nanoTime();
+	}
+
+	@Test
+	void ranksFiltersAndCountsFacets() {
+		hotel("Riad Atlas", city, 4, "Maison d'hôtes", List.of("Spa", "Piscine"), null, null);
+		hotel("Hôtel Atlas Palace", city, 5, "Grand hôtel", List.of("Wifi", "Spa"), null, null);
+		hotel("Auberge du Lac", city, 2, "Vue sur l'Atlas", List.of("Wifi"), null, null);
+		hotel("Kasbah Sable", city, 3, "Dunes", List.of("Piscine"), null, null);
+
+		Map<String, Object> atlas = search("atlas", city, null, null, null, null, null);
+		assertEquals(3, atlas.get("total"));
+		assertEquals(List.of("Hôtel Atlas Palace", "Riad Atlas", "Auberge du Lac"), names(atlas));
+		assertEquals(names(atlas), names(search("ATL", city, null, null, null, null, null)));
+		assertEquals(List.of("Hôtel Atlas Palace"), names(search("hotel palace", city, null, null, null, null, null)));
+		assertEquals(List.of("Riad Atlas"), names(search("atlas piscine", city, null, null, null, null, null)));
+		assertEquals(0, search("atlas oasis", city, null, null, null, null, null).get("total"));
+
+		assertEquals(List.of("Hôtel Atlas Palace", "Riad Atlas", "Kasbah Sable", "Auberge du Lac"),
+				names(search(null, city, null, null, null, null, null)));
+		assertEquals(List.of("Hôtel Atlas Palace", "Riad Atlas"), names(search(null, city, 4, null, null, null, null)));
+		assertEquals(List.of("Riad Atlas"), names(search(null, city, null, 4, List.of("spa"), null, null)));
+		assertEquals(List.of("Auberge du Lac", "Hôtel Atlas Palace", "Kasbah Sable", "Riad Atlas"),
+				names(search(null, city, null, null, null, null, "name")));
+
+		Map<String, Object> facets = facets(search(null, city, null, null, null, null, null));
+		assertEquals(Map.of(city, 4), facets.get("cities"));
+		assertEquals(Map.of("5", 1, "4", 1, "3", 1, "2", 1), facets.get("stars"));
+		assertEquals(List.of("Piscine", "Spa", "Wifi"), new ArrayList<>(((Map<?, ?>) facets.get("services")).keySet()));
+
+		Map<String, Object> secondPage = hotelService.search(null, city, null, null, null, null, null, null, null, 1, 3);
+		assertEquals(4, secondPage.get("total"));
+		assertEquals(List.of("Auberge du Lac"), names(secondPage));
+		assertThrows(IllegalArgumentException.class, () -> search(null, city, null, null, null, null, "prix"));
+	}
+
+	@Test
+	void sortsAndFiltersByDistanceToTheStadium() {
+		Long matchId = matchRepository.save(new Match(null, "Maroc", "Argentine", LocalDateTime.of(2030, 6, 25, 21, 0),
+				"Grand Stade de Tanger", "Tanger", null, null)).getId();
+		hotel("Près du stade " + word, "Tanger", 3, null, List.of(), 35.7400, -5.8600);
+		hotel("Malabata " + word, "Tanger", 5, null, List.of(), 35.7800, -5.8000);
+		// Sans coordonnées : placé au centre de Tanger
+		hotel("Médina " + word, "Tanger", 4, null, List.of(), null, null);
+
+		Map<String, Object> nearest = hotelService.search(word, null, null, null, null, matchId, null, null, "distance", 0, 20);
+		assertEquals(List.of("Près du stade " + word, "Médina " + word, "Malabata " + word), names(nearest));
+		List<HotelSearchHitDTO> hits = hits(nearest);
+		assertTrue(hits.get(0).getDistanceKm() < 1);
+		assertTrue(hits.get(2).getDistanceKm() > 5 && hits.get(2).getDistanceKm() < 7);
+
+		Map<String, Object> close = hotelService.search(word, null, null, null, null, null, "Stade Ibn Batouta", 3.0, null, 0, 20);
+		assertEquals(List.of("Médina " + word, "Près du stade " + word), names(close));
+		assertEquals("relevance", close.get("sort"));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> hotelService.search(word, null, null, null, null, null, "Stade inconnu", null, null, 0, 20));
+		assertThrows(IllegalArgumentException.class,
+				() -> hotelService.search(word, null, null, null, null, null, null, 5.0, null, 0, 20));
+	}
+
+	@Test
+	void followsAddedUpdatedAndDeletedHotels() {
+		Long id = hotel("Riad " + word, city, 3, null, List.of("Hammam"), null, null);
+		assertEquals(1, search(word, null, null, null, null, null, null).get("total"));
+		assertEquals(1, search("hammam", city, null, null, null, null, null).get("total"));
+
+		hotelService.updateHotel(id, new HotelDTO("Dar Zitoun", city, 4, "Derb", "Rénové", new ArrayList<>(List.of("Spa"))));
+		assertEquals(0, search(word, null, null, null, null, null, null).get("total"));
+		assertEquals(List.of("Dar Zitoun"), names(search("zitoun", city, null, null, List.of("Spa"), null, null)));
+
+		hotelService.deleteHotel(id);
+		assertEquals(0, search(null, city, null, null, null, null, null).get("total"));
+	}
+
+	private Map<String, Object> search(String text, String city, Integer minStars, Integer maxStars, List<String> services,
+									   Long matchId, String sort) {
+		return hotelService.search(text, city, minStars, maxStars, services, matchId, null, null, sort, 0, 20);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<HotelSearchHitDTO> hits(Map<String, Object> result) {
+		return (List<HotelSearchHitDTO>) result.get("hotels");
+	}
+
+	private static List<String> names(Map<String, Object> result) {
+		return hits(result).stream().map(HotelSearchHitDTO::getName).toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> facets(Map<String, Object> result) {
+		return (Map<String, Object>) result.get("facets");
+	}
+
+	private Long hotel(String name, String city, int stars, String description, List<String> services,
+					   Double latitude, Double longitude) {
+		HotelDTO dto = new HotelDTO(name, city, stars, "1 avenue Mohammed VI", description, new ArrayList<>(services));
+		dto.setLatitude(latitude);
+		dto.setLongitude(longitude);
+		return hotelService.addHotel(dto).getId();
+	}
+}
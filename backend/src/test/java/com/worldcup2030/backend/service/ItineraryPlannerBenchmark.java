@@ -0,0 +1,92 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.TransportType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latence des itinéraires sur {@code benchmark.legs} tronçons entre 12 villes répartis sur 45 jours,
+ * insérés directement en SQL puis chargés en une passe. Chaque recherche tire au hasard les villes,
+ * le jour de départ et le critère.
+ * Lancer avec : mvn test -Dtest=ItineraryPlannerBenchmark -Dbenchmark=true [-Dbenchmark.legs=200000]
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:itinerary-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItineraryPlannerBenchmark {
+
+	private static final int LEGS = Integer.getInteger("benchmark.legs", 200_000);
+	private static final int SEARCHES = 20_000;
+	private static final String[] CITIES = {"Casablanca", "Rabat", "Tanger", "Marrakech", "Agadir", "Fès",
+			"Meknès", "Oujda", "Tétouan", "Kénitra", "El Jadida", "Essaouira"};
+
+	@Autowired
+	private ItineraryPlanner planner;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void itineraryLatency() {
+		Random random = new Random(2030);
+		LocalDateTime opening = LocalDateTime.of(2030, 6, 10, 0, 0);
+		TransportType[] types = TransportType.values();
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 1; i <= LEGS; i++) {
+			int from = random.nextInt(CITIES.length);
+			int to = (from + 1 + random.nextInt(CITIES.length - 1)) % CITIES.length;
+			LocalDateTime departure = opening.plusMinutes(random.nextInt(45 * 24 * 60));
+			rows.add(new Object[]{i, types[i % types.length].name(), CITIES[from], CITIES[to], Timestamp.valueOf(departure),
+					Timestamp.valueOf(departure.plusMinutes(45 + random.nextInt(300))), 20 + random.nextInt(400)});
+			if (rows.size() == 10_000) {
+				insertLegs(rows);
+			}
+		}
+		insertLegs(rows);
+
+		long loadStart = System.nanoTime();
+		planner.rebuild();
+		double loadSeconds = (System.nanoTime() - loadStart) / 1e9;
+
+		long[] latencies = new long[SEARCHES];
+		int found = 0;
+		for (int i = 0; i < SEARCHES; i++) {
+			int from = random.nextInt(CITIES.length);
+			int to = (from + 1 + random.nextInt(CITIES.length - 1)) % CITIES.length;
+			LocalDateTime departAfter = opening.plusHours(random.nextInt(40 * 24));
+			ItineraryPlanner.Criterion criterion = random.nextBoolean()
+					? ItineraryPlanner.Criterion.FASTEST : ItineraryPlanner.Criterion.CHEAPEST;
+			long start = System.nanoTime();
+			found += planner.plan(CITIES[from], CITIES[to], departAfter, departAfter.plusHours(12), 1, criterion)
+					.isPresent() ? 1 : 0;
+			latencies[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(latencies);
+
+		System.out.printf("%n%,d tronçons chargés en %.2f s%n", LEGS, loadSeconds);
+		System.out.printf("%,d recherches, %,d itinéraires trouvés, %s%n", SEARCHES, found, planner.stats());
+		System.out.printf("latence p50 : %,d µs, p99 : %,d µs, max : %,d µs%n",
+				latencies[SEARCHES / 2] / 1_000, latencies[SEARCHES * 99 / 100] / 1_000, latencies[SEARCHES - 1] / 1_000);
+		assertTrue(found > 0);
+	}
+
+	private void insertLegs(List<Object[]> rows) {
+		jdbcTemplate.batchUpdate("INSERT INTO transport (id, type, departure_city, arrival_city, departure_time, arrival_time, "
+				+ "capacite, place, price, compagnie) VALUES (?, ?, ?, ?, ?, ?, 100, 100, ?, 'ONCF')", rows);
+		rows.clear();
+	}
+}
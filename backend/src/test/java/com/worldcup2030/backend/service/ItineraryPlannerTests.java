@@ -0,0 +1,159 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.ItineraryDTO;
+import com.worldcup2030.backend.dto.ItineraryLegDTO;
+import com.worldcup2030.backend.dto.TransportDTO;
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Itinéraires multi-tronçons : plus rapide ou moins cher, temps de correspondance, places restantes,
+ * arrivée avant le coup d'envoi et prise en compte immédiate des transports ajoutés ou modifiés.
+ */
+@SpringBootTest(properties = "worldcup.itinerary.min-transfer-minutes=30")
+class ItineraryPlannerTests {
+
+	private static final LocalDateTime MORNING = LocalDateTime.of(2030, 6, 14, 6, 0);
+
+	@Autowired
+	private TransportService transportService;
+
+	@Autowired
+	private TransportSeatInventory seatInventory;
+
+	@Autowired
+	private MatchRepository matchRepository;
+
+	// Villes propres à chaque test : la base et le graphe sont partagés
+	private String casablanca;
+	private String rabat;
+	private String tanger;
+
+	@BeforeEach
+	void setUp() {
+		long suffix = System.nanoTime();
+		casablanca = "Casablanca-" + suffix;
+		rabat = "Rabat-" + suffix;
+		tanger = "Tanger-" + suffix;
+	}
+
+	@Test
+	void fastestAndCheapestFollowTransfersAndDeadlines() {
+		Long direct = leg(casablanca, tanger, "08:00", "13:00", 400, 50);
+		Long first = leg(casablanca, rabat, "07:00", "08:00", 60, 50);
+		Long tooShort = leg(rabat, tanger, "08:10", "10:00", 80, 50);
+		Long second = leg(rabat, tanger, "08:40", "10:40", 90, 50);
+		leg(rabat, tanger, "11:00", "12:30", 50, 50);
+
+		ItineraryDTO fastest = plan(casablanca, tanger, null, "fastest").orElseThrow();
+		assertEquals(List.of(first, second), transportIds(fastest));
+		assertEquals(1, fastest.getTransfers());
+		assertEquals(150, fastest.getTotalPrice());
+		assertEquals(220, fastest.getDurationMinutes());
+		assertFalse(transportIds(fastest).contains(tooShort));
+
+		assertEquals(110, plan(casablanca, tanger, null, "cheapest").orElseThrow().getTotalPrice());
+		assertEquals(150, transportService.planItinerary(casablanca, tanger, null, MORNING, MORNING.withHour(11), 1,
+				"cheapest").orElseThrow().getTotalPrice());
+		assertEquals(List.of(direct), transportIds(transportService.planItinerary(casablanca.toUpperCase(), tanger, null,
+				MORNING.withHour(7).withMinute(30), null, 1, "cheapest").orElseThrow()));
+		assertTrue(plan(casablanca, tanger, MORNING.withHour(10), "fastest").isEmpty());
+		assertTrue(plan(tanger, casablanca, null, "fastest").isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> plan(casablanca, tanger, null, "scenic"));
+	}
+
+	@Test
+	void skipsLegsWithoutEnoughSeats() {
+		Long full = leg(casablanca, rabat, "07:00", "08:00", 60, 2);
+		Long later = leg(casablanca, rabat, "08:00", "09:00", 60, 50);
+		leg(rabat, tanger, "10:00", "11:00", 60, 50);
+
+		assertEquals(full, transportIds(plan(casablanca, tanger, null, "fastest").orElseThrow()).get(0));
+		assertEquals(later, transportIds(transportService.planItinerary(casablanca, tanger, null, MORNING, null, 3,
+				"fastest").orElseThrow()).get(0));
+
+		String seat = seatInventory.reserve(full, 1L, null);
+		seatInventory.reserve(full, 2L, null);
+		try {
+			ItineraryDTO itinerary = plan(casablanca, tanger, null, "fastest").orElseThrow();
+			assertEquals(later, transportIds(itinerary).get(0));
+			assertEquals(50, itinerary.getLegs().get(0).getPlace());
+		} finally {
+			seatInventory.release(full, 1L, seat);
+		}
+		assertEquals(full, transportIds(plan(casablanca, tanger, null, "fastest").orElseThrow()).get(0));
+	}
+
+	@Test
+	void arrivesBeforeKickOff() {
+		Long matchId = matchRepository.save(new Match(null, "Maroc", "Espagne", MORNING.withHour(18),
+				"Grand Stade de Tanger", tanger, null, null)).getId();
+		leg(casablanca, tanger, "13:00", "16:30", 300, 50);
+		Long train = leg(casablanca, tanger, "09:00", "12:00", 250, 50);
+
+		ItineraryDTO itinerary = transportService.planItinerary(casablanca, null, matchId, MORNING, null, 1, "cheapest")
+				.orElseThrow();
+		assertEquals(List.of(train), transportIds(itinerary));
+		assertEquals(tanger, itinerary.getArrivalCity());
+		assertThrows(IllegalArgumentException.class,
+				() -> transportService.planItinerary(casablanca, null, -1L, MORNING, null, 1, null));
+	}
+
+	@Test
+	void followsAddedUpdatedAndDeletedTransports() {
+		assertTrue(plan(casablanca, tanger, null, "fastest").isEmpty());
+
+		Long first = leg(casablanca, rabat, "07:00", "08:00", 60, 50);
+		Long second = leg(rabat, tanger, "09:00", "10:00", 60, 50);
+		assertEquals(List.of(first, second), transportIds(plan(casablanca, tanger, null, "fastest").orElseThrow()));
+
+		transportService.updateTransport(second, dto(rabat, tanger, "08:10", "09:00", 60, 50));
+		assertTrue(plan(casablanca, tanger, null, "fastest").isEmpty());
+
+		transportService.updateTransport(second, dto(rabat, tanger, "08:30", "09:30", 60, 50));
+		ItineraryDTO itinerary = plan(casablanca, tanger, null, "fastest").orElseThrow();
+		assertEquals(LocalDateTime.of(2030, 6, 14, 9, 30), itinerary.getArrivalTime());
+
+		transportService.deleteTransport(first);
+		assertTrue(plan(casablanca, tanger, null, "fastest").isEmpty());
+		assertEquals(List.of(second), transportIds(plan(rabat, tanger, null, "fastest").orElseThrow()));
+	}
+
+	private Optional<ItineraryDTO> plan(String from, String to, LocalDateTime departAfter, String criterion) {
+		return transportService.planItinerary(from, to, null, departAfter != null ? departAfter : MORNING, null, 1, criterion);
+	}
+
+	private static List<Long> transportIds(ItineraryDTO itinerary) {
+		return itinerary.getLegs().stream().map(ItineraryLegDTO::getTransportId).toList();
+	}
+
+	private Long leg(String from, String to, String departure, String arrival, int price, int capacity) {
+		return transportService.addTransport(dto(from, to, departure, arrival, price, capacity)).getId();
+	}
+
+	private static TransportDTO dto(String from, String to, String departure, String arrival, int price, int capacity) {
+		TransportDTO dto = new TransportDTO();
+		dto.setType("TRAIN");
+		dto.setDepartureCity(from);
+		dto.setArrivalCity(to);
+		dto.setDepartureTime("2030-06-14T" + departure + ":00");
+		dto.setArrivalTime("2030-06-14T" + arrival + ":00");
+		dto.setCapacite(capacity);
+		dto.setPrice(price);
+		dto.setCompagnie("ONCF");
+		return dto;
+	}
+}
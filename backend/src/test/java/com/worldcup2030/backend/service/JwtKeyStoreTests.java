@@ -0,0 +1,117 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Rotation des clés du keystore partagé : une nouvelle clé devient active, l'ancienne vérifie encore les
+ * jetons en circulation, et son retrait vide le cache des jetons vérifiés. Sans keystore ni mot de passe,
+ * le démarrage échoue hors développement.
+ */
+class JwtKeyStoreTests {
+
+	private static final String PASSWORD = "rotation";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void rotatesToANewKidAndDropsTheOldOne() throws Exception {
+		Path path = directory.resolve("jwt-keys.p12");
+		VerifiedTokenCache tokenCache = new VerifiedTokenCache(100, 60_000);
+		JwtKeyStore keyStore = new JwtKeyStore(path.toString(), PASSWORD, true, "", tokenCache);
+		keyStore.init();
+		JwtService jwtService = new JwtService(keyStore);
+		jwtService.init();
+
+		String oldKid = keyStore.activeKid();
+		String oldToken = jwtService.generateToken(user());
+		tokenCache.put(oldToken, jwtService.parse(oldToken));
+
+		// Nouvelle clé ajoutée au fichier : active dès la relecture, l'ancienne vérifie toujours
+		edit(path, entries -> entries.setEntry("k99991231", new KeyStore.SecretKeyEntry(randomKey()),
+				new KeyStore.PasswordProtection(PASSWORD.toCharArray())));
+		keyStore.reloadIfChanged();
+		assertEquals("k99991231", keyStore.activeKid());
+		assertEquals(Set.of(oldKid, "k99991231"), keyStore.verificationKids());
+		String newToken = jwtService.generateToken(user());
+		assertEquals("k99991231", headerKid(newToken));
+		assertNotNull(jwtService.parse(oldToken));
+		assertEquals(1, tokenCache.size());
+
+		// Ancienne clé retirée : ses jetons sont refusés et ne sont plus servis depuis le cache
+		edit(path, entries -> entries.deleteEntry(oldKid));
+		keyStore.reloadIfChanged();
+		assertEquals(Set.of("k99991231"), keyStore.verificationKids());
+		assertEquals(0, tokenCache.size());
+		assertThrows(JwtException.class, () -> jwtService.parse(oldToken));
+		assertNotNull(jwtService.parse(newToken));
+	}
+
+	@Test
+	void failsWithoutAMountedKeystoreOutsideDevelopment() {
+		Path path = directory.resolve("absent.p12");
+
+		JwtKeyStore withoutKeystore = new JwtKeyStore(path.toString(), PASSWORD, false, "", new VerifiedTokenCache(10, 1000));
+		assertThrows(IllegalStateException.class, withoutKeystore::init);
+		assertFalse(Files.exists(path));
+
+		JwtKeyStore withoutPassword = new JwtKeyStore(path.toString(), "", false, "", new VerifiedTokenCache(10, 1000));
+		assertThrows(IllegalStateException.class, withoutPassword::init);
+	}
+
+	private interface KeyStoreEdit {
+		void apply(KeyStore keyStore) throws Exception;
+	}
+
+	// Modifie le keystore comme le ferait keytool, puis avance sa date pour que la relecture le voie
+	private static void edit(Path path, KeyStoreEdit edit) throws Exception {
+		KeyStore keyStore = KeyStore.getInstance("PKCS12");
+		try (InputStream in = Files.newInputStream(path)) {
+			keyStore.load(in, PASSWORD.toCharArray());
+		}
+		edit.apply(keyStore);
+		FileTime modifiedAt = Files.getLastModifiedTime(path);
+		try (OutputStream out = Files.newOutputStream(path)) {
+			keyStore.store(out, PASSWORD.toCharArray());
+		}
+		Files.setLastModifiedTime(path, FileTime.fromMillis(modifiedAt.toMillis() + 1000));
+	}
+
+	private static String headerKid(String token) {
+		String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+		return header.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+	}
+
+	private static SecretKeySpec randomKey() {
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		return new SecretKeySpec(secret, "HmacSHA256");
+	}
+
+	private static User user() {
+		User user = new User();
+		user.setId(7L);
+		user.setEmail("rotation@worldcup2030.ma");
+		user.setRole("USER");
+		return user;
+	}
+}
@@ -0,0 +1,98 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requêtes authentifiées par seconde et par cœur (un seul thread de mesure) :
+ * <ul>
+ *     <li>avant : chaque accesseur reconstruit un parseur et revérifie la signature, soit trois
+ *     vérifications par requête (email, puis email et expiration dans isTokenValid) ;</li>
+ *     <li>après : un parseur partagé et une seule vérification via {@link JwtService#parse(String)}.</li>
+ * </ul>
+ * Lancer avec : mvn test -Dtest=JwtServiceBenchmark -Dbenchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtServiceBenchmark {
+
+	private JwtService jwtService;
+	private Key key;
+	private String token;
+
+	@Setup
+	public void setUp() throws IOException {
+		Path keyStorePath = Files.createTempDirectory("jwt-benchmark").resolve("jwt-keys.p12");
+		JwtKeyStore keyStore = new JwtKeyStore(keyStorePath.toString(), "benchmark", true, "", new VerifiedTokenCache(10, 1000));
+		keyStore.init();
+		jwtService = new JwtService(keyStore);
+		jwtService.init();
+		key = keyStore.signingKey().getValue();
+
+		User user = new User();
+		user.setId(42L);
+		user.setEmail("supporter@worldcup2030.ma");
+		user.setRole("USER");
+		token = jwtService.generateToken(user);
+	}
+
+	@Benchmark
+	public boolean parserPerAccessor() {
+		String email = claimsWithNewParser().getSubject();
+		boolean sameUser = claimsWithNewParser().getSubject().equals(email);
+		boolean expired = claimsWithNewParser().getExpiration().before(new Date());
+		return sameUser && !expired;
+	}
+
+	@Benchmark
+	public boolean sharedParserSingleParse() {
+		ParsedToken parsed = jwtService.parse(token);
+		return parsed.getEmail() != null && !parsed.isExpired();
+	}
+
+	// Ancien comportement de JwtService.extractAllClaims
+	private Claims claimsWithNewParser() {
+		return Jwts.parserBuilder()
+				.setSigningKey(key)
+				.build()
+				.parseClaimsJws(token)
+				.getBody();
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void runBenchmark() throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(JwtServiceBenchmark.class.getSimpleName())
+				.forks(0)
+				.threads(1)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,207 @@
+package com.worldcup2030.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.HotelReservationDTO;
+import com.worldcup2030.backend.dto.KeysetPage;
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.model.HotelReservation;
+import com.worldcup2030.backend.model.PaymentStatus;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.HotelRepository;
+import com.worldcup2030.backend.repository.HotelReservationRepository;
+import com.worldcup2030.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pagination par clé et export NDJSON : pages enchaînées par curseur sans trou ni doublon (dates de début
+ * égales départagées par l'identifiant), curseur invalide refusé, et flux d'une ligne JSON par hôtel ou
+ * réservation, services regroupés sur leur hôtel.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class KeysetPaginationTests {
+
+	private static final LocalDate START = LocalDate.of(2030, 6, 14);
+
+	@Autowired
+	private HotelReservationService reservationService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private HotelReservationRepository reservationRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private User user;
+	private Hotel hotel;
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setEmail("pages-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		user = userRepository.save(user);
+		hotel = hotelService.addHotel(new HotelDTO("Riad des Pages", "Tétouan-" + System.nanoTime(), 4,
+				"Rue de la Médina", null, new ArrayList<>(List.of("Wifi", "Hammam"))));
+	}
+
+	@Test
+	void walksHotelReservationsByStartDateThenId() {
+		List<HotelReservation> saved = new ArrayList<>();
+		// Trois réservations par date de début : la page coupe au milieu d'une date
+		for (int i = 0; i < 7; i++) {
+			saved.add(reservation(START.plusDays(i / 3)));
+		}
+
+		List<HotelReservationDTO> walked = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			KeysetPage<HotelReservationDTO> page = reservationService.getHotelReservationsPage(hotel.getId(), cursor, 2);
+			walked.addAll(page.getItems());
+			assertEquals(page.getNextCursor() != null, page.isHasMore());
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(4, pages);
+		List<Long> expected = saved.stream()
+				.sorted(Comparator.comparing(HotelReservation::getStartDate).thenComparing(HotelReservation::getId).reversed())
+				.map(HotelReservation::getId)
+				.toList();
+		assertEquals(expected, walked.stream().map(HotelReservationDTO::getId).toList());
+
+		KeysetPage<HotelReservationDTO> last = reservationService.getHotelReservationsPage(hotel.getId(),
+				START + "_" + expected.get(expected.size() - 1), 2);
+		assertTrue(last.getItems().isEmpty());
+		assertNull(last.getNextCursor());
+
+		assertThrows(IllegalArgumentException.class, () -> reservationService.getHotelReservationsPage(hotel.getId(), "2030-06-14", 2));
+		assertThrows(IllegalArgumentException.class, () -> reservationService.getHotelReservationsPage(hotel.getId(), "hier_3", 2));
+	}
+
+	@Test
+	void walksHotelsByIdAndRejectsABadCursor() throws Exception {
+		Hotel second = hotelService.addHotel(new HotelDTO("Dar des Pages", hotel.getCity(), 3, "Place Outa el Hammam", null, new ArrayList<>()));
+
+		List<Long> walked = new ArrayList<>();
+		String cursor = null;
+		do {
+			KeysetPage<HotelDTO> page = hotelService.getHotelsPage(cursor, 3);
+			page.getItems().forEach(dto -> walked.add(dto.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(hotelRepository.count(), walked.size());
+		assertEquals(walked.stream().sorted().distinct().toList(), walked);
+		assertTrue(walked.containsAll(List.of(hotel.getId(), second.getId())));
+
+		mockMvc.perform(get("/api/hotels/page").param("after", "abc").header("Authorization", bearer()))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/hotel-reservations/hotel/" + hotel.getId() + "/page").param("after", "abc")
+						.header("Authorization", bearer()))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void streamsOneJsonLinePerHotelAndReservation() throws Exception {
+		HotelReservation first = reservation(START);
+		HotelReservation second = reservation(START.plusDays(1));
+
+		List<JsonNode> hotels = ndjson("/api/hotels/stream");
+		assertEquals(hotelRepository.count(), hotels.size());
+		JsonNode streamed = hotels.stream().filter(node -> node.get("id").asLong() == hotel.getId()).findFirst().orElseThrow();
+		assertEquals("Riad des Pages", streamed.get("name").asText());
+		List<String> services = new ArrayList<>();
+		streamed.get("services").forEach(service -> services.add(service.asText()));
+		assertEquals(List.of("Hammam", "Wifi"), services.stream().sorted().toList());
+		for (int i = 1; i < hotels.size(); i++) {
+			assertTrue(hotels.get(i).get("id").asLong() > hotels.get(i - 1).get("id").asLong());
+		}
+
+		List<JsonNode> reservations = ndjson("/api/hotel-reservations/stream");
+		assertEquals(reservationRepository.count(), reservations.size());
+		List<Long> ours = reservations.stream()
+				.filter(node -> node.get("hotelId").asLong() == hotel.getId())
+				.map(node -> node.get("id").asLong())
+				.toList();
+		assertEquals(List.of(second.getId(), first.getId()), ours);
+	}
+
+	private List<JsonNode> ndjson(String url) throws Exception {
+		MvcResult started = mockMvc.perform(get(url).header("Authorization", bearer()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		assertTrue(body.endsWith("\n"));
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			assertFalse(line.isBlank());
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+
+	private String bearer() {
+		return "Bearer " + jwtService.generateToken(user);
+	}
+
+	private HotelReservation reservation(LocalDate start) {
+		HotelReservation reservation = new HotelReservation();
+		reservation.setUser(user);
+		reservation.setHotel(hotel);
+		reservation.setStartDate(start);
+		reservation.setEndDate(start.plusDays(2));
+		reservation.setNumberOfRooms(1);
+		reservation.setNumberOfGuests(2);
+		reservation.setTotalPrice(new BigDecimal("1300.00"));
+		reservation.setPaymentStatus(PaymentStatus.PENDING);
+		reservation.setCreatedAt(LocalDate.now());
+		return reservationRepository.save(reservation);
+	}
+}
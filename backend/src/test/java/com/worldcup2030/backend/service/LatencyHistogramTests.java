@@ -0,0 +1,38 @@
+package com.worldcup2030.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Percentiles estimés par la borne haute du seau, maximum exact au-delà du dernier seau.
+ */
+class LatencyHistogramTests {
+
+	@Test
+	void percentilesUseTheUpperBoundOfTheirBucket() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.percentile(0.95));
+
+		for (int i = 0; i < 90; i++) {
+			histogram.record(40);
+		}
+		for (int i = 0; i < 9; i++) {
+			histogram.record(1200);
+		}
+		histogram.record(12_000);
+
+		assertEquals(100, histogram.count());
+		assertEquals(50, histogram.percentile(0.50));
+		assertEquals(50, histogram.percentile(0.90));
+		assertEquals(1500, histogram.percentile(0.95));
+		assertEquals(1500, histogram.percentile(0.99));
+		assertEquals(12_000, histogram.percentile(1.0));
+
+		Map<String, Object> snapshot = histogram.snapshot();
+		assertEquals(12_000L, snapshot.get("maxMs"));
+		assertEquals((90 * 40 + 9 * 1200 + 12_000) / 100L, snapshot.get("meanMs"));
+	}
+}
@@ -0,0 +1,109 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.TransportType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latence des recherches à facettes sur {@code benchmark.offers} offres (104 matchs dans 6 villes,
+ * 2 000 hôtels, 5 000 transports), insérées directement en SQL puis indexées en une passe.
+ * Chaque requête combine au hasard ville, type de transport, fourchette de prix et dates.
+ * Lancer avec : mvn test -Dtest=OfferSearchBenchmark -Dbenchmark=true [-Dbenchmark.offers=200000]
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:offer-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OfferSearchBenchmark {
+
+	private static final int OFFERS = Integer.getInteger("benchmark.offers", 200_000);
+	private static final int SEARCHES = 100_000;
+	private static final String[] CITIES = {"Casablanca", "Rabat", "Tanger", "Marrakech", "Agadir", "Fès"};
+	private static final int MATCHES = 104;
+	private static final int HOTELS = 2_000;
+	private static final int TRANSPORTS = 5_000;
+
+	@Autowired
+	private OfferSearchIndex searchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void facetedSearchLatency() {
+		Random random = new Random(2030);
+		LocalDateTime kickOff = LocalDateTime.of(2030, 6, 13, 21, 0);
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 1; i <= MATCHES; i++) {
+			rows.add(new Object[]{i, "Équipe " + i, "Équipe " + (i + 1), Timestamp.valueOf(kickOff.plusHours(12L * i)),
+					"Stade " + (i % CITIES.length), CITIES[i % CITIES.length]});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO matches (id, teama, teamb, date, stadium, city) VALUES (?, ?, ?, ?, ?, ?)", rows);
+		rows.clear();
+		for (int i = 1; i <= HOTELS; i++) {
+			rows.add(new Object[]{i, "Hôtel " + i, CITIES[i % CITIES.length], 1 + i % 5});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO hotel (id, name, city, stars, address) VALUES (?, ?, ?, ?, 'Centre')", rows);
+		rows.clear();
+		TransportType[] types = TransportType.values();
+		for (int i = 1; i <= TRANSPORTS; i++) {
+			rows.add(new Object[]{i, types[i % types.length].name(), Timestamp.valueOf(kickOff.minusHours(i % 48))});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO transport (id, type, departure_city, arrival_city, departure_time, arrival_time, "
+				+ "capacite, place, price) VALUES (?, ?, 'Rabat', 'Casablanca', ?, NULL, 100, 100, 150)", rows);
+		rows.clear();
+		for (int i = 1; i <= OFFERS; i++) {
+			rows.add(new Object[]{i, "Offre " + i, BigDecimal.valueOf(500 + random.nextInt(9_500)),
+					1 + random.nextInt(MATCHES), 1 + random.nextInt(HOTELS), 1 + random.nextInt(TRANSPORTS)});
+			if (rows.size() == 10_000) {
+				insertOffers(rows);
+			}
+		}
+		insertOffers(rows);
+
+		long indexStart = System.nanoTime();
+		searchIndex.rebuild();
+		double indexSeconds = (System.nanoTime() - indexStart) / 1e9;
+
+		long[] latencies = new long[SEARCHES];
+		long matched = 0;
+		for (int i = 0; i < SEARCHES; i++) {
+			String city = CITIES[random.nextInt(CITIES.length)];
+			String type = random.nextBoolean() ? types[random.nextInt(types.length)].name() : null;
+			BigDecimal max = random.nextBoolean() ? BigDecimal.valueOf(1_000 + random.nextInt(9_000)) : null;
+			LocalDate from = random.nextInt(4) == 0 ? LocalDate.of(2030, 6, 14).plusDays(random.nextInt(45)) : null;
+			long start = System.nanoTime();
+			matched += (Integer) searchIndex.search(city, from, from != null ? from.plusDays(7) : null, null, max,
+					null, type, null, 0, 20).get("total");
+			latencies[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(latencies);
+
+		System.out.printf("%n%,d offres indexées en %.2f s%n", OFFERS, indexSeconds);
+		System.out.printf("%,d recherches, %,d résultats en moyenne%n", SEARCHES, matched / SEARCHES);
+		System.out.printf("latence p50 : %,d µs, p99 : %,d µs, max : %,d µs%n",
+				latencies[SEARCHES / 2] / 1_000, latencies[SEARCHES * 99 / 100] / 1_000, latencies[SEARCHES - 1] / 1_000);
+		assertTrue(matched > 0);
+	}
+
+	private void insertOffers(List<Object[]> rows) {
+		jdbcTemplate.batchUpdate("INSERT INTO offer (id, title, total_price, match_id, hotel_id, transport_id) "
+				+ "VALUES (?, ?, ?, ?, ?, ?)", rows);
+		rows.clear();
+	}
+}
@@ -0,0 +1,252 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.OfferDTO;
+import com.worldcup2030.backend.dto.TransportDTO;
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.model.TransportType;
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.OfferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recherche d'offres dans l'index en mémoire : filtres, facettes et tri, puis mise à jour
+ * incrémentale quand une offre, un hôtel ou un transport change, sans qu'une relecture obsolète
+ * écrase une version plus récente.
+ */
+@SpringBootTest
+class OfferSearchIndexTests {
+
+	@Autowired
+	private OfferService offerService;
+
+	@Autowired
+	private OfferSearchIndex searchIndex;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private TransportService transportService;
+
+	@Autowired
+	private MatchRepository matchRepository;
+
+	@Autowired
+	private OfferRepository offerRepository;
+
+	// Villes propres à chaque test : la base est partagée par les tests de la classe
+	private String city;
+	private String otherCity;
+
+	@BeforeEach
+	void setUp() {
+		city = "Casablanca-" + System.nanoTime();
+		otherCity = "Tanger-" + System.nanoTime();
+	}
+
+	// Les autres tests suppriment les hôtels et transports de la base partagée
+	@AfterEach
+	void tearDown() {
+		offerRepository.deleteAll();
+		searchIndex.rebuild();
+	}
+
+	@Test
+	void facetedSearchFiltersCountsAndSorts() {
+		Long opening = match(city, LocalDateTime.of(2030, 6, 14, 21, 0));
+		Long group = match(city, LocalDateTime.of(2030, 6, 20, 18, 0));
+		Long elsewhere = match(otherCity, LocalDateTime.of(2030, 6, 21, 21, 0));
+		Long hotel = hotel("Hôtel du Stade", city);
+		Long train = transport("TRAIN");
+		Long bus = transport("BUS");
+
+		offer("Ouverture train", "2500", opening, hotel, train);
+		offer("Ouverture bus", "1500", opening, hotel, bus);
+		offer("Poule train", "900", group, hotel, train);
+		offer("Poule sans transport", "4200", group, hotel, null);
+		offer("Ailleurs", "1200", elsewhere, null, train);
+
+		Map<String, Object> all = search(city, null, null, null, null, null, null, null);
+		assertEquals(4, all.get("total"));
+		assertEquals(List.of("Poule train", "Ouverture bus", "Ouverture train", "Poule sans transport"), titles(all));
+		Map<String, Object> facets = facets(all);
+		assertEquals(Map.of(city, 4), facets.get("cities"));
+		assertEquals(Map.of("BUS", 1, "TRAIN", 2), facets.get("transportTypes"));
+		assertEquals(Map.of("0-999", 1, "1000-1999", 1, "2000-2999", 1, "4000-4999", 1), facets.get("priceBands"));
+		assertEquals(Map.of("2030-06-14", 2, "2030-06-20", 2), facets.get("matchDates"));
+
+		assertEquals(List.of("Poule train", "Ouverture train"),
+				titles(search(city.toUpperCase(), null, null, null, null, null, "train", null)));
+		assertEquals(List.of("Ouverture bus"), titles(search(city, null, null, null, null, 1000, null, null)));
+		assertEquals(List.of("Ouverture bus", "Ouverture train"),
+				titles(search(city, null, null, new BigDecimal("1000"), new BigDecimal("3000"), null, null, null)));
+		assertEquals(List.of("Poule train", "Poule sans transport"),
+				titles(search(city, LocalDate.of(2030, 6, 15), LocalDate.of(2030, 6, 30), null, null, null, null, null)));
+		assertEquals("Ouverture", titles(search(city, null, null, null, null, null, null, "date")).get(0).substring(0, 9));
+		assertEquals(0, search(city, null, null, null, null, null, "PLANE", null).get("total"));
+		assertEquals(0, search("Marrakech-" + System.nanoTime(), null, null, null, null, null, null, null).get("total"));
+
+		Map<String, Object> secondPage = offerService.search(city, null, null, null, null, null, null, null, 1, 3);
+		assertEquals(List.of("Poule sans transport"), titles(secondPage));
+		assertThrows(IllegalArgumentException.class, () -> search(city, null, null, null, null, null, null, "nom"));
+	}
+
+	@Test
+	void followsHotelTransportAndOfferChanges() {
+		Long matchId = match(city, LocalDateTime.of(2030, 7, 2, 21, 0));
+		Long hotel = hotel("Riad Atlas", city);
+		Long transport = transport("BUS");
+		Long offerId = offer("Huitième", "1800", matchId, hotel, transport).getId();
+
+		HotelDTO renamed = new HotelDTO("Riad Atlas & Spa", city, 5, "1 rue du Stade", "Rénové", new ArrayList<>(List.of("Spa")));
+		hotelService.updateHotel(hotel, renamed);
+		OfferDTO indexed = offers(search(city, null, null, null, null, null, null, null)).get(0);
+		assertEquals("Riad Atlas & Spa", indexed.getHotelName());
+		assertEquals(5, indexed.getHotelStars());
+
+		transportService.updateTransport(transport, transportDto("TRAIN"));
+		assertEquals(0, search(city, null, null, null, null, null, "BUS", null).get("total"));
+		assertEquals(1, search(city, null, null, null, null, null, "TRAIN", null).get("total"));
+
+		offerService.deleteOffer(offerId);
+		assertEquals(0, search(city, null, null, null, null, null, null, null).get("total"));
+	}
+
+	@Test
+	void compactsAfterManyUpdatesWithoutLosingOffers() {
+		Long matchId = match(city, LocalDateTime.of(2030, 7, 10, 21, 0));
+		Long offerId = offer("Demi-finale", "3000", matchId, null, null).getId();
+		long compactions = (Long) searchIndex.stats().get("compactions");
+
+		for (int i = 0; i < 1_500; i++) {
+			searchIndex.reindexOffersAfterCommit(List.of(offerId));
+		}
+
+		assertTrue((Long) searchIndex.stats().get("compactions") > compactions);
+		assertEquals(List.of("Demi-finale"), titles(search(city, null, null, null, null, null, null, null)));
+	}
+
+	@Test
+	void staleReloadNeverOverwritesANewerOffer() throws Exception {
+		OfferRepository repository = mock(OfferRepository.class);
+		OfferSearchIndex index = new OfferSearchIndex(repository, 1000);
+		when(repository.findAllDtos()).thenReturn(List.of(offerDto("Finale", "1000")));
+		index.rebuild();
+
+		// Relecture de l'hôtel commencée avant la modification de l'offre, terminée après
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch updated = new CountDownLatch(1);
+		when(repository.findDtosByHotelId(7L)).thenAnswer(invocation -> {
+			loading.countDown();
+			updated.await(5, TimeUnit.SECONDS);
+			return List.of(offerDto("Finale", "1000"));
+		}).thenReturn(List.of(offerDto("Finale VIP", "2500")));
+		when(repository.findDtosByIdIn(List.of(1L))).thenReturn(List.of(offerDto("Finale VIP", "2500")));
+
+		CompletableFuture<Void> hotelReload = CompletableFuture.runAsync(() -> index.reindexHotelAfterCommit(7L));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		index.reindexOffersAfterCommit(List.of(1L));
+		updated.countDown();
+		hotelReload.get(5, TimeUnit.SECONDS);
+
+		Map<String, Object> result = index.search(null, null, null, null, null, null, null, null, 0, 20);
+		assertEquals(List.of("Finale VIP"), titles(result));
+	}
+
+	@Test
+	void selectsTheSmallestKeysInOrder() {
+		Random random = new Random(2030);
+		long[] keys = random.longs(10_000, 0, 1_000_000).toArray();
+		long[] sorted = keys.clone();
+		Arrays.sort(sorted);
+
+		OfferSearchIndex.selectSmallest(keys, keys.length, 50);
+
+		assertArrayEquals(Arrays.copyOf(sorted, 50), Arrays.copyOf(keys, 50));
+	}
+
+	private Map<String, Object> search(String city, LocalDate from, LocalDate to, BigDecimal minPrice, BigDecimal maxPrice,
+									   Integer priceBand, String transportType, String sort) {
+		return offerService.search(city, from, to, minPrice, maxPrice, priceBand, transportType, sort, 0, 20);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<OfferDTO> offers(Map<String, Object> result) {
+		return (List<OfferDTO>) result.get("offers");
+	}
+
+	private static List<String> titles(Map<String, Object> result) {
+		return offers(result).stream().map(OfferDTO::getTitle).toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> facets(Map<String, Object> result) {
+		return (Map<String, Object>) result.get("facets");
+	}
+
+	private static OfferDTO offerDto(String title, String price) {
+		return new OfferDTO(1L, title, new BigDecimal(price), null, 1L, "Maroc", "France", LocalDateTime.of(2030, 7, 21, 21, 0),
+				"Rabat", "Stade Moulay Abdellah", 7L, "Riad Atlas", 4, null, (TransportType) null, null, null);
+	}
+
+	private Long match(String city, LocalDateTime date) {
+		return matchRepository.save(new Match(null, "Maroc", "Brésil", date, "Grand Stade", city, null, null)).getId();
+	}
+
+	private Long hotel(String name, String city) {
+		Hotel hotel = hotelService.addHotel(new HotelDTO(name, city, 4, "1 rue du Stade", "Près du stade", new ArrayList<>(List.of("Wifi"))));
+		return hotel.getId();
+	}
+
+	private Long transport(String type) {
+		return transportService.addTransport(transportDto(type)).getId();
+	}
+
+	private static TransportDTO transportDto(String type) {
+		TransportDTO dto = new TransportDTO();
+		dto.setType(type);
+		dto.setDepartureCity("Rabat");
+		dto.setArrivalCity("Casablanca");
+		dto.setDepartureTime("2030-06-14T15:00:00");
+		dto.setArrivalTime("2030-06-14T16:00:00");
+		dto.setCapacite(100);
+		dto.setPrice(120);
+		dto.setCompagnie("ONCF");
+		return dto;
+	}
+
+	private OfferDTO offer(String title, String price, Long matchId, Long hotelId, Long transportId) {
+		OfferDTO dto = new OfferDTO();
+		dto.setTitle(title);
+		dto.setTotalPrice(new BigDecimal(price));
+		dto.setMatchId(matchId);
+		dto.setHotelId(hotelId);
+		dto.setTransportId(transportId);
+		return offerService.createOffer(dto);
+	}
+}
@@ -0,0 +1,109 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.HotelReservationDTO;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.HotelReservationRepository;
+import com.worldcup2030.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Protocole OPTIMISTIC : réservations concurrentes sur le même hôtel, sérialisées par la version de
+ * l'hôtel et contrôlées en base ; l'index en mémoire suit les séjours validés.
+ */
+@SpringBootTest(properties = {
+		"worldcup.hotel.booking.protocol=OPTIMISTIC",
+		"worldcup.hotel.booking.max-attempts=50"
+})
+class OptimisticHotelBookingTests {
+
+	private static final LocalDate NIGHT = LocalDate.of(2030, 6, 18);
+	private static final int ROOMS = 3;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private HotelReservationService reservationService;
+
+	@Autowired
+	private HotelAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private HotelReservationRepository reservationRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void concurrentBookingsNeverExceedCapacity() throws Exception {
+		HotelDTO dto = new HotelDTO("Riad des Remparts", "Taroudant-" + System.nanoTime(), 3, "Bab Zorgane", null,
+				new ArrayList<>());
+		dto.setTotalRooms(ROOMS);
+		Long hotelId = hotelService.addHotel(dto).getId();
+
+		int requests = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(requests);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < requests; i++) {
+			HotelReservationDTO request = request(hotelId, NIGHT, NIGHT.plusDays(2));
+			results.add(pool.submit(() -> {
+				go.await();
+				try {
+					reservationService.createReservation(request);
+					return true;
+				} catch (RuntimeException full) {
+					return false;
+				}
+			}));
+		}
+		go.countDown();
+
+		int accepted = 0;
+		for (Future<Boolean> result : results) {
+			accepted += result.get(60, TimeUnit.SECONDS) ? 1 : 0;
+		}
+		pool.shutdown();
+
+		assertEquals(ROOMS, accepted);
+		assertEquals(ROOMS, reservationRepository.sumOverlappingRooms(hotelId, NIGHT, NIGHT.plusDays(2)));
+		int night = (int) (NIGHT.toEpochDay() - availabilityIndex.windowStart().toEpochDay());
+		assertEquals(ROOMS, availabilityIndex.bookedAt(hotelId, night));
+		assertEquals(ROOMS, availabilityIndex.bookedAt(hotelId, night + 1));
+
+		// Nuit suivante libre, nuits complètes refusées
+		reservationService.createReservation(request(hotelId, NIGHT.plusDays(2), NIGHT.plusDays(3)));
+		assertThrows(RuntimeException.class,
+				() -> reservationService.createReservation(request(hotelId, NIGHT.plusDays(1), NIGHT.plusDays(3))));
+	}
+
+	private HotelReservationDTO request(Long hotelId, LocalDate start, LocalDate end) {
+		User user = new User();
+		user.setEmail("voyageur-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+
+		HotelReservationDTO request = new HotelReservationDTO();
+		request.setUserId(userRepository.save(user).getId());
+		request.setHotelId(hotelId);
+		request.setStartDate(start);
+		request.setEndDate(end);
+		request.setNumberOfRooms(1);
+		request.setNumberOfGuests(2);
+		return request;
+	}
+}
@@ -0,0 +1,202 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.model.Hotel;
+import com.worldcup2030.backend.model.HotelReservation;
+import com.worldcup2030.backend.model.Payment;
+import com.worldcup2030.backend.model.PaymentMethod;
+import com.worldcup2030.backend.model.PaymentStatus;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.HotelReservationRepository;
+import com.worldcup2030.backend.repository.PaymentRepository;
+import com.worldcup2030.backend.repository.UserRepository;
+import com.worldcup2030.backend.service.PaymentGatewayService.PaymentGatewayResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reprise des paiements restés en attente (instance arrêtée avant la réponse de la passerelle) :
+ * renvoi sous le même identifiant de transaction, puis abandon au-delà du délai d'expiration.
+ * Remboursements : acceptés en REFUND_PENDING, finalisés en arrière-plan et repris de même.
+ */
+@SpringBootTest(properties = {
+		"worldcup.payment.pending.sweep-interval-ms=3600000",
+		"worldcup.payment.pending.resubmit-after-ms=60000",
+		"worldcup.payment.pending.expire-after-ms=3600000"
+})
+class PaymentServiceTests {
+
+	@Autowired
+	private PaymentService paymentService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private HotelReservationRepository reservationRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@MockitoBean
+	private ResilientPaymentGatewayClient gatewayClient;
+
+	@MockitoBean
+	private PaymentGatewayService gatewayService;
+
+	@Test
+	void resubmitsThenExpiresStalePendingPayments() {
+		when(gatewayClient.authorize(any())).thenReturn(CompletableFuture.completedFuture(
+				new PaymentGatewayResponse(true, "PAYMENT_SUCCESS", "Paiement traité avec succès", "{}")));
+		Hotel hotel = hotelService.addHotel(new HotelDTO("Hôtel Atlas", "Ouarzazate-" + System.nanoTime(), 3,
+				"Avenue Mohammed V", null, new ArrayList<>()));
+		LocalDateTime now = LocalDateTime.now();
+
+		Payment recent = payment(hotel, PaymentStatus.PENDING, now);
+		Payment interrupted = payment(hotel, PaymentStatus.PENDING, now.minusMinutes(10));
+		Payment abandoned = payment(hotel, PaymentStatus.PENDING, now.minusHours(2));
+		Payment settled = payment(hotel, PaymentStatus.CONFIRMED, now.minusMinutes(10));
+
+		paymentService.sweepPendingPayments();
+
+		assertEquals(PaymentStatus.PENDING, status(recent));
+		assertEquals(PaymentStatus.CONFIRMED, status(interrupted));
+		assertEquals(PaymentStatus.PAID, reservationRepository.findById(interrupted.getReservation().getId())
+				.orElseThrow().getPaymentStatus());
+		assertEquals(PaymentStatus.FAILED, status(abandoned));
+		assertEquals("Paiement non finalisé par la passerelle",
+				paymentRepository.findById(abandoned.getId()).orElseThrow().getFailureReason());
+		assertEquals(PaymentStatus.CONFIRMED, status(settled));
+
+		verify(gatewayClient, times(1)).authorize(argThat(p -> p.getTransactionId().equals(interrupted.getTransactionId())));
+		verify(gatewayClient, never()).authorize(argThat(p -> p.getTransactionId().equals(recent.getTransactionId())
+				|| p.getTransactionId().equals(abandoned.getTransactionId())));
+
+		// Déjà finalisés : un second passage ne renvoie rien
+		paymentService.sweepPendingPayments();
+		verify(gatewayClient, times(1)).authorize(argThat(p -> p.getTransactionId().equals(interrupted.getTransactionId())));
+	}
+
+	@Test
+	void refundsConfirmedPaymentsInTheBackground() throws InterruptedException {
+		gatewayAnswersRefunds(new PaymentGatewayResponse(true, "REFUND_SUCCESS", "Remboursement traité avec succès", "{}"));
+		Hotel hotel = hotel();
+		Payment confirmed = payment(hotel, PaymentStatus.CONFIRMED, LocalDateTime.now());
+		HotelReservation reservation = reservationRepository.findById(confirmed.getReservation().getId()).orElseThrow();
+		reservation.setPaymentStatus(PaymentStatus.PAID);
+		reservationRepository.save(reservation);
+		Payment pending = payment(hotel, PaymentStatus.PENDING, LocalDateTime.now());
+
+		assertEquals(PaymentStatus.REFUND_PENDING, paymentService.refundPayment(confirmed.getId()).getPaymentStatus());
+		awaitStatus(confirmed, PaymentStatus.REFUNDED);
+		assertEquals(PaymentStatus.REFUNDED, reservationRepository.findById(reservation.getId()).orElseThrow().getPaymentStatus());
+
+		// Ni un paiement non confirmé, ni un paiement déjà remboursé, ni un paiement inconnu
+		assertThrows(IllegalStateException.class, () -> paymentService.refundPayment(pending.getId()));
+		assertThrows(IllegalStateException.class, () -> paymentService.refundPayment(confirmed.getId()));
+		assertThrows(IllegalArgumentException.class, () -> paymentService.refundPayment(-1L));
+		verify(gatewayService, times(1)).refundPayment(any());
+	}
+
+	@Test
+	void keepsThePaymentConfirmedWhenTheRefundIsRefused() throws InterruptedException {
+		gatewayAnswersRefunds(new PaymentGatewayResponse(false, "REFUND_FAILED", "Le remboursement a échoué", "{}"));
+		Payment confirmed = payment(hotel(), PaymentStatus.CONFIRMED, LocalDateTime.now());
+		LocalDateTime paidAt = paymentRepository.findById(confirmed.getId()).orElseThrow().getPaymentDate();
+
+		paymentService.refundPayment(confirmed.getId());
+		awaitStatus(confirmed, PaymentStatus.CONFIRMED);
+
+		Payment refused = paymentRepository.findById(confirmed.getId()).orElseThrow();
+		assertEquals("Remboursement refusé : Le remboursement a échoué", refused.getFailureReason());
+		assertEquals(paidAt, refused.getPaymentDate());
+	}
+
+	@Test
+	void resubmitsStaleRefunds() throws InterruptedException {
+		gatewayAnswersRefunds(new PaymentGatewayResponse(true, "REFUND_SUCCESS", "Remboursement traité avec succès", "{}"));
+		Hotel hotel = hotel();
+		LocalDateTime now = LocalDateTime.now();
+		Payment recent = payment(hotel, PaymentStatus.REFUND_PENDING, now);
+		Payment interrupted = payment(hotel, PaymentStatus.REFUND_PENDING, now.minusHours(2));
+
+		paymentService.sweepPendingPayments();
+		awaitStatus(interrupted, PaymentStatus.REFUNDED);
+
+		// Un remboursement n'expire pas : seul le délai de reprise compte
+		assertEquals(PaymentStatus.REFUND_PENDING, status(recent));
+		assertNull(paymentRepository.findById(interrupted.getId()).orElseThrow().getFailureReason());
+		verify(gatewayService, times(1)).refundPayment(argThat(p -> p.getId().equals(interrupted.getId())));
+		verify(gatewayService, never()).refundPayment(argThat(p -> p.getId().equals(recent.getId())));
+	}
+
+	// Réponse rendue sur un autre thread, comme la passerelle : jamais pendant le commit de la demande
+	private void gatewayAnswersRefunds(PaymentGatewayResponse response) {
+		when(gatewayService.refundPayment(any())).thenAnswer(call -> CompletableFuture.supplyAsync(() -> response,
+				CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS)));
+	}
+
+	private void awaitStatus(Payment payment, PaymentStatus expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (status(payment) != expected && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(expected, status(payment));
+	}
+
+	private Hotel hotel() {
+		return hotelService.addHotel(new HotelDTO("Hôtel Atlas", "Ouarzazate-" + System.nanoTime(), 3,
+				"Avenue Mohammed V", null, new ArrayList<>()));
+	}
+
+	private PaymentStatus status(Payment payment) {
+		return paymentRepository.findById(payment.getId()).orElseThrow().getPaymentStatus();
+	}
+
+	private Payment payment(Hotel hotel, PaymentStatus status, LocalDateTime createdAt) {
+		User user = new User();
+		user.setEmail("payeur-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+
+		HotelReservation reservation = new HotelReservation();
+		reservation.setUser(userRepository.save(user));
+		reservation.setHotel(hotel);
+		reservation.setStartDate(LocalDate.of(2030, 6, 20));
+		reservation.setEndDate(LocalDate.of(2030, 6, 22));
+		reservation.setNumberOfRooms(1);
+		reservation.setNumberOfGuests(2);
+		reservation.setTotalPrice(new BigDecimal("1300.00"));
+		reservation.setPaymentStatus(PaymentStatus.PENDING);
+		reservation.setCreatedAt(LocalDate.now());
+
+		Payment payment = new Payment(reservationRepository.save(reservation), new BigDecimal("1300.00"), PaymentMethod.CREDIT_CARD);
+		payment.setPaymentStatus(status);
+		payment.setTransactionId("TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+		payment.setCreatedAt(createdAt);
+		payment.setUpdatedAt(createdAt);
+		return paymentRepository.save(payment);
+	}
+}
@@ -0,0 +1,147 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Payment;
+import com.worldcup2030.backend.model.PaymentMethod;
+import com.worldcup2030.backend.service.PaymentGatewayService.PaymentGatewayResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Couche de résilience devant un client de lots simulé : cloisonnement par moyen de paiement,
+ * disjoncteur, nouvelles tentatives et requête doublée réglée une seule fois.
+ */
+class ResilientPaymentGatewayClientTests {
+
+	private BatchingPaymentGatewayClient delegate;
+
+	@BeforeEach
+	void setUp() {
+		delegate = mock(BatchingPaymentGatewayClient.class);
+	}
+
+	@Test
+	void bulkheadRejectsBeyondItsSizePerPaymentMethod() throws Exception {
+		CompletableFuture<PaymentGatewayResponse> slow = new CompletableFuture<>();
+		when(delegate.authorize(any())).thenReturn(slow, new CompletableFuture<>(), CompletableFuture.completedFuture(success()));
+		ResilientPaymentGatewayClient client = client(2, 1, 60_000, 60_000);
+
+		CompletableFuture<PaymentGatewayResponse> first = client.authorize(payment("TX-1", PaymentMethod.CREDIT_CARD));
+		client.authorize(payment("TX-2", PaymentMethod.CREDIT_CARD));
+		PaymentGatewayResponse rejected = client.authorize(payment("TX-3", PaymentMethod.CREDIT_CARD)).get();
+		assertEquals("BULKHEAD_FULL", rejected.getCode());
+		// Cloison propre à chaque moyen de paiement
+		assertTrue(client.authorize(payment("TX-4", PaymentMethod.PAYPAL)).get(1, TimeUnit.SECONDS).isSuccess());
+
+		slow.complete(success());
+		assertTrue(first.get(1, TimeUnit.SECONDS).isSuccess());
+		when(delegate.authorize(any())).thenReturn(CompletableFuture.completedFuture(success()));
+		assertTrue(client.authorize(payment("TX-5", PaymentMethod.CREDIT_CARD)).get(1, TimeUnit.SECONDS).isSuccess());
+		assertEquals(1L, client.stats().get("bulkheadRejected"));
+	}
+
+	@Test
+	void shortCircuitsOnceTheBreakerIsOpen() throws Exception {
+		when(delegate.authorize(any())).thenReturn(CompletableFuture.completedFuture(failure("GATEWAY_ERROR")));
+		ResilientPaymentGatewayClient client = client(100, 1, 60_000, 60_000);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals("GATEWAY_ERROR", client.authorize(payment("TX-" + i, PaymentMethod.CREDIT_CARD)).get().getCode());
+		}
+		assertEquals("CIRCUIT_OPEN", client.authorize(payment("TX-5", PaymentMethod.CREDIT_CARD)).get().getCode());
+		verify(delegate, times(4)).authorize(any());
+		assertEquals(1L, client.stats().get("shortCircuited"));
+	}
+
+	@Test
+	void retriesTechnicalFailuresButNotDeclines() throws Exception {
+		when(delegate.authorize(any())).thenReturn(
+				CompletableFuture.completedFuture(failure("TEMPORARY_ISSUE")),
+				CompletableFuture.completedFuture(success()),
+				CompletableFuture.completedFuture(failure("CARD_DECLINED")));
+		ResilientPaymentGatewayClient client = client(100, 3, 60_000, 60_000);
+
+		assertTrue(client.authorize(payment("TX-1", PaymentMethod.CREDIT_CARD)).get(5, TimeUnit.SECONDS).isSuccess());
+		assertEquals("CARD_DECLINED", client.authorize(payment("TX-2", PaymentMethod.CREDIT_CARD)).get(5, TimeUnit.SECONDS).getCode());
+		verify(delegate, times(3)).authorize(any());
+		assertEquals(1L, client.stats().get("retries"));
+	}
+
+	@Test
+	void hedgedCallSkipsTheBatchWindowAndSettlesOnce() throws Exception {
+		CompletableFuture<PaymentGatewayResponse> original = new CompletableFuture<>();
+		CompletableFuture<PaymentGatewayResponse> hedge = new CompletableFuture<>();
+		when(delegate.authorize(any())).thenReturn(original);
+		when(delegate.authorizeNow(any())).thenReturn(hedge);
+		ResilientPaymentGatewayClient client = client(100, 3, 50, 60_000);
+
+		Payment payment = payment("TX-1", PaymentMethod.CREDIT_CARD);
+		CompletableFuture<PaymentGatewayResponse> result = client.authorize(payment);
+		verify(delegate, timeout(2000)).authorizeNow(payment);
+		assertFalse(result.isDone());
+
+		hedge.complete(success());
+		original.complete(failure("TIMEOUT"));
+		assertTrue(result.get(1, TimeUnit.SECONDS).isSuccess());
+		verify(delegate, times(1)).authorize(any());
+
+		Map<String, Object> stats = client.stats();
+		assertEquals(1L, stats.get("hedges"));
+		assertEquals(1L, stats.get("hedgeWins"));
+		assertEquals(0L, stats.get("retries"));
+		@SuppressWarnings("unchecked")
+		Map<String, Object> breaker = (Map<String, Object>) stats.get("circuitBreaker");
+		assertEquals(1, breaker.get("recordedCalls"));
+		@SuppressWarnings("unchecked")
+		Map<String, Object> latency = (Map<String, Object>) stats.get("latency");
+		assertEquals(1L, latency.get("count"));
+	}
+
+	@Test
+	void noHedgeWhenTheAnswerComesInTime() throws Exception {
+		when(delegate.authorize(any())).thenReturn(CompletableFuture.completedFuture(success()));
+		ResilientPaymentGatewayClient client = client(100, 3, 50, 60_000);
+
+		assertTrue(client.authorize(payment("TX-1", PaymentMethod.CREDIT_CARD)).get().isSuccess());
+		Thread.sleep(150);
+		verify(delegate, never()).authorizeNow(any());
+		assertEquals(0L, client.stats().get("hedges"));
+	}
+
+	// Disjoncteur : fenêtre de 4 appels, ouverture à 50 % d'échecs, 2 appels d'essai
+	private ResilientPaymentGatewayClient client(int bulkhead, int maxAttempts, long hedgeDelayMs, long breakerOpenMs) {
+		return new ResilientPaymentGatewayClient(delegate, bulkhead, maxAttempts, 1, hedgeDelayMs,
+				4, 4, 50, breakerOpenMs, 2);
+	}
+
+	private static Payment payment(String transactionId, PaymentMethod method) {
+		Payment payment = new Payment();
+		payment.setTransactionId(transactionId);
+		payment.setAmount(new BigDecimal("500.00"));
+		payment.setPaymentMethod(method);
+		return payment;
+	}
+
+	private static PaymentGatewayResponse success() {
+		return new PaymentGatewayResponse(true, "PAYMENT_SUCCESS", "Paiement traité avec succès", "{}");
+	}
+
+	private static PaymentGatewayResponse failure(String code) {
+		return new PaymentGatewayResponse(false, code, "Échec", "{}");
+	}
+}
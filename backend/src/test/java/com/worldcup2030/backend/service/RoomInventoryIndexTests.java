@@ -0,0 +1,175 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.HotelDTO;
+import com.worldcup2030.backend.dto.HotelReservationDTO;
+import com.worldcup2030.backend.dto.RoomTypeAvailabilityDTO;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Réservations par type de chambre contrôlées par l'index en mémoire, puis attribution de chambres
+ * précises à l'arrivée ; la capacité de l'hôtel est celle de ses chambres.
+ */
+@SpringBootTest
+class RoomInventoryIndexTests {
+
+	private static final LocalDate NIGHT = LocalDate.of(2030, 6, 12);
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private HotelReservationService reservationService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HotelAvailabilityIndex availabilityIndex;
+
+	// Ville propre à chaque test : pas de majoration de match sur les prix
+	private String city;
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		city = "Chefchaouen-" + System.nanoTime();
+		User user = new User();
+		user.setEmail("voyageur-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		userId = userRepository.save(user).getId();
+	}
+
+	@Test
+	void checksCapacityPerRoomType() {
+		Long hotelId = hotel();
+		hotelService.addRooms(hotelId, "Double", new BigDecimal("1000.00"), 2);
+		assertEquals(3, hotelService.addRooms(hotelId, "Suite", new BigDecimal("3000.00"), 1));
+
+		HotelReservationDTO suite = reservationService.createReservation(request(hotelId, "suite", NIGHT, NIGHT.plusDays(2), 1));
+		assertEquals("Suite", suite.getRoomType());
+		assertEquals(0, new BigDecimal("6000.00").compareTo(suite.getTotalPrice()), suite.getTotalPrice().toString());
+		assertThrows(RuntimeException.class,
+				() -> reservationService.createReservation(request(hotelId, "Suite", NIGHT.plusDays(1), NIGHT.plusDays(3), 1)));
+
+		reservationService.createReservation(request(hotelId, "Double", NIGHT.plusDays(1), NIGHT.plusDays(2), 2));
+		// Les trois chambres de l'hôtel sont prises la nuit du 13
+		assertThrows(RuntimeException.class,
+				() -> reservationService.createReservation(request(hotelId, null, NIGHT.plusDays(1), NIGHT.plusDays(2), 1)));
+		assertThrows(IllegalArgumentException.class,
+				() -> reservationService.createReservation(request(hotelId, "Penthouse", NIGHT, NIGHT.plusDays(1), 1)));
+
+		List<RoomTypeAvailabilityDTO> availability = hotelService.getRoomAvailability(hotelId, NIGHT, NIGHT.plusDays(3));
+		assertArrayEquals(new int[]{2, 0, 2}, type(availability, "Double").getAvailableRooms());
+		assertArrayEquals(new int[]{0, 0, 1}, type(availability, "Suite").getAvailableRooms());
+		assertEquals(0, new BigDecimal("3000.00").compareTo(type(availability, "Suite").getPricePerNight()));
+
+		reservationService.cancelReservation(suite.getId());
+		reservationService.createReservation(request(hotelId, "Suite", NIGHT.plusDays(2), NIGHT.plusDays(3), 1));
+		assertArrayEquals(new int[]{1, 1, 0},
+				type(hotelService.getRoomAvailability(hotelId, NIGHT, NIGHT.plusDays(3)), "Suite").getAvailableRooms());
+	}
+
+	@Test
+	void allocatesDistinctRoomsAtCheckIn() throws Exception {
+		Long hotelId = hotel();
+		hotelService.addRooms(hotelId, "Double", new BigDecimal("800.00"), 2);
+		hotelService.addRooms(hotelId, "Suite", new BigDecimal("2000.00"), 1);
+		LocalDate today = LocalDate.now();
+		Long first = reservationService.createReservation(request(hotelId, "Double", today, today.plusDays(2), 1)).getId();
+		Long second = reservationService.createReservation(request(hotelId, "Double", today, today.plusDays(1), 1)).getId();
+		// Hors de la fenêtre du tournoi : capacité du type vérifiée en base
+		assertThrows(RuntimeException.class,
+				() -> reservationService.createReservation(request(hotelId, "Double", today, today.plusDays(1), 1)));
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		Future<HotelReservationDTO> a = pool.submit(() -> reservationService.checkIn(first));
+		Future<HotelReservationDTO> b = pool.submit(() -> reservationService.checkIn(second));
+		List<Long> rooms = new ArrayList<>(a.get(10, TimeUnit.SECONDS).getRoomIds());
+		rooms.addAll(b.get(10, TimeUnit.SECONDS).getRoomIds());
+		pool.shutdown();
+		Set<Long> distinct = new HashSet<>(rooms);
+		assertEquals(2, distinct.size(), rooms.toString());
+
+		// Déjà attribuée : mêmes chambres
+		assertEquals(a.get().getRoomIds(), reservationService.checkIn(first).getRoomIds());
+
+		Long later = reservationService.createReservation(request(hotelId, "Suite", NIGHT, NIGHT.plusDays(1), 1)).getId();
+		assertThrows(RuntimeException.class, () -> reservationService.checkIn(later));
+	}
+
+	@Test
+	void declaredRoomsAreKeptWhenTypedRoomsAreAdded() {
+		Long hotelId = hotel(200);
+		assertEquals(210, hotelService.addRooms(hotelId, "Suite", new BigDecimal("2500.00"), 10));
+		assertEquals(210, availabilityIndex.totalRooms(hotelId));
+		assertEquals(220, hotelService.addRooms(hotelId, "Double", new BigDecimal("900.00"), 10));
+
+		// La capacité suit les chambres : elle ne se modifie plus à la main
+		assertThrows(IllegalArgumentException.class, () -> hotelService.updateHotel(hotelId, dto(150)));
+		assertEquals(220, hotelService.updateHotel(hotelId, dto(220)).getTotalRooms().intValue());
+		assertEquals(220, availabilityIndex.totalRooms(hotelId));
+	}
+
+	@Test
+	void untypedStaysCheckInWithoutTakingRoomsOwedToTypedStays() {
+		Long hotelId = hotel(1);
+		hotelService.addRooms(hotelId, "Suite", new BigDecimal("2000.00"), 1);
+		hotelService.addRooms(hotelId, "Double", new BigDecimal("800.00"), 1);
+		LocalDate today = LocalDate.now();
+		Long suite = reservationService.createReservation(request(hotelId, "Suite", today, today.plusDays(1), 1)).getId();
+		Long untyped = reservationService.createReservation(request(hotelId, null, today, today.plusDays(1), 2)).getId();
+
+		assertEquals(2, reservationService.checkIn(untyped).getRoomIds().size());
+		assertEquals(1, reservationService.checkIn(suite).getRoomIds().size());
+	}
+
+	private Long hotel() {
+		return hotelService.addHotel(new HotelDTO("Dar Azul", city, 3, "Place Outa el Hammam", null, new ArrayList<>())).getId();
+	}
+
+	private Long hotel(int totalRooms) {
+		return hotelService.addHotel(dto(totalRooms)).getId();
+	}
+
+	private HotelDTO dto(int totalRooms) {
+		HotelDTO dto = new HotelDTO("Dar Azul", city, 3, "Place Outa el Hammam", null, new ArrayList<>());
+		dto.setTotalRooms(totalRooms);
+		return dto;
+	}
+
+	private HotelReservationDTO request(Long hotelId, String roomType, LocalDate start, LocalDate end, int rooms) {
+		HotelReservationDTO request = new HotelReservationDTO();
+		request.setUserId(userId);
+		request.setHotelId(hotelId);
+		request.setRoomType(roomType);
+		request.setStartDate(start);
+		request.setEndDate(end);
+		request.setNumberOfRooms(rooms);
+		request.setNumberOfGuests(rooms * 2);
+		return request;
+	}
+
+	private static RoomTypeAvailabilityDTO type(List<RoomTypeAvailabilityDTO> availability, String roomType) {
+		return availability.stream().filter(type -> type.getRoomType().equals(roomType)).findFirst().orElseThrow();
+	}
+}
@@ -0,0 +1,137 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.TransportType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plan de sièges en bits : libellés par type de transport, premier siège libre au-delà d'un mot,
+ * groupes placés dans une même rangée et aucun siège attribué deux fois sous concurrence.
+ */
+class SeatMapTests {
+
+	@Test
+	void labelsFollowTheTransportType() {
+		SeatLayout plane = SeatLayout.of(TransportType.PLANE, 180);
+		assertEquals("1A", plane.label(0));
+		assertEquals("12C", plane.label(68));
+		assertEquals(68, plane.indexOf("12c"));
+		assertEquals(-1, plane.indexOf("12G"));
+		assertEquals(-1, plane.indexOf("31A"));
+
+		SeatLayout train = SeatLayout.of(TransportType.TRAIN, 120);
+		assertEquals("Car2-17", train.label(66));
+		assertEquals(66, train.indexOf("Car2-17"));
+		assertEquals(-1, train.indexOf("Car3-21"));
+
+		SeatLayout bus = SeatLayout.of(TransportType.BUS, 50);
+		assertEquals("17", bus.label(16));
+		assertEquals(-1, bus.indexOf("0"));
+		assertEquals(-1, bus.indexOf("A1"));
+		assertEquals("R12-7", SeatLayout.section(20, 30).label(336));
+	}
+
+	@Test
+	void claimsTheFirstFreeSeatAcrossWords() {
+		SeatMap seatMap = new SeatMap(SeatLayout.of(TransportType.BUS, 130));
+		for (int seat = 0; seat < 129; seat++) {
+			assertEquals(seat, seatMap.claimNext());
+		}
+		assertEquals(1, seatMap.remaining());
+
+		seatMap.release(70);
+		seatMap.release(3);
+		assertFalse(seatMap.isTaken(3));
+		assertEquals(3, seatMap.claimNext());
+		assertEquals(70, seatMap.claimNext());
+		assertEquals(129, seatMap.claimNext());
+		assertEquals(-1, seatMap.claimNext());
+		assertFalse(seatMap.claim(12));
+		assertFalse(seatMap.claim(130));
+	}
+
+	@Test
+	void placesGroupsWithinOneRow() {
+		SeatMap seatMap = new SeatMap(SeatLayout.of(TransportType.PLANE, 18));
+		assertTrue(seatMap.claim(2));
+
+		// Rangée 1 coupée au siège C : le groupe de 4 va en rangée 2
+		assertArrayEquals(new int[]{6, 7, 8, 9}, seatMap.claimContiguous(4));
+		assertArrayEquals(new int[]{3, 4, 5}, seatMap.claimContiguous(3));
+		assertArrayEquals(new int[]{12, 13, 14, 15, 16, 17}, seatMap.claimContiguous(6));
+		assertArrayEquals(new int[0], seatMap.claimContiguous(3));
+		assertArrayEquals(new int[0], seatMap.claimContiguous(7));
+		assertEquals(List.of("1A", "1B", "2E", "2F"), free(seatMap));
+	}
+
+	@Test
+	void neverHandsTheSameSeatTwice() throws Exception {
+		SeatMap seatMap = new SeatMap(SeatLayout.of(TransportType.TRAIN, 1000));
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<List<Integer>>> results = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			boolean groups = t % 2 == 0;
+			results.add(pool.submit(() -> {
+				start.await();
+				List<Integer> claimed = new ArrayList<>();
+				while (true) {
+					if (groups) {
+						int[] seats = seatMap.claimContiguous(3);
+						if (seats.length == 0) {
+							break;
+						}
+						for (int seat : seats) {
+							claimed.add(seat);
+						}
+					} else {
+						int seat = seatMap.claimNext();
+						if (seat < 0) {
+							break;
+						}
+						claimed.add(seat);
+					}
+				}
+				return claimed;
+			}));
+		}
+		start.countDown();
+
+		List<Integer> all = new ArrayList<>();
+		for (Future<List<Integer>> result : results) {
+			all.addAll(result.get(30, TimeUnit.SECONDS));
+		}
+		pool.shutdown();
+		Set<Integer> distinct = new HashSet<>(all);
+		assertEquals(all.size(), distinct.size());
+		assertEquals(1000, distinct.size());
+		assertEquals(0, seatMap.remaining());
+		assertEquals(0, (int) Collections.min(distinct));
+	}
+
+	private static List<String> free(SeatMap seatMap) {
+		List<String> labels = new ArrayList<>();
+		for (int seat = 0; seat < seatMap.layout().capacity(); seat++) {
+			if (!seatMap.isTaken(seat)) {
+				labels.add(seatMap.layout().label(seat));
+			}
+		}
+		return labels;
+	}
+}
@@ -0,0 +1,70 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mode sans état : la requête est authentifiée à partir des claims du jeton vérifié, sans chercher
+ * l'utilisateur en base, et le jeton n'est vérifié qu'une fois puis servi depuis le cache.
+ */
+@SpringBootTest(properties = "worldcup.security.jwt.stateless=true")
+@AutoConfigureMockMvc
+class StatelessJwtAuthenticationTests {
+
+	private static final String PROTECTED = "/api/hotels/cache/stats";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private VerifiedTokenCache tokenCache;
+
+	@BeforeEach
+	void setUp() {
+		tokenCache.clear();
+	}
+
+	@Test
+	void authenticatesFromTheClaimsWithoutLoadingTheUser() throws Exception {
+		// Utilisateur jamais enregistré : seul le jeton signé l'authentifie
+		User user = new User();
+		user.setId(424242L);
+		user.setEmail("sans-etat-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		String token = jwtService.generateToken(user);
+
+		mockMvc.perform(get(PROTECTED).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+		assertEquals(1, tokenCache.size());
+		assertEquals("USER", tokenCache.get(token).getRole());
+		mockMvc.perform(get(PROTECTED).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+		assertEquals(1, tokenCache.size());
+	}
+
+	@Test
+	void rejectsMissingForgedAndWaitingRoomTokens() throws Exception {
+		mockMvc.perform(get(PROTECTED)).andExpect(status().isUnauthorized());
+
+		User user = new User();
+		user.setEmail("faussaire@worldcup2030.ma");
+		user.setRole("ADMIN");
+		String token = jwtService.generateToken(user);
+		String forged = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+		mockMvc.perform(get(PROTECTED).header("Authorization", "Bearer " + forged)).andExpect(status().isUnauthorized());
+
+		String pass = jwtService.generateWaitingRoomToken(WaitingRoom.PASS_TOKEN, WaitingRoom.HOTELS, 1, 1, 60_000);
+		mockMvc.perform(get(PROTECTED).header("Authorization", "Bearer " + pass)).andExpect(status().isUnauthorized());
+		assertEquals(0, tokenCache.size());
+	}
+}
@@ -0,0 +1,129 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tentatives d'achat par seconde sur un nœud : {@code benchmark.threads} threads achètent 1 à 4
+ * places pour des utilisateurs et des matchs tirés au hasard jusqu'à {@code benchmark.attempts}
+ * tentatives, sur {@value #MATCHES} matchs de 60 000 places (stade par défaut). La plupart des
+ * matchs sont complets avant la fin : les refus font partie de la charge mesurée.
+ * L'écriture différée tourne pendant la mesure ; la file est agrandie pour que les ventes ne soient pas
+ * suspendues par la lenteur de H2, et le temps restant pour tout écrire est mesuré à part.
+ * Lancer avec : mvn test -Dtest=TicketPurchaseBenchmark -Dbenchmark=true [-Dbenchmark.attempts=1000000] [-Dbenchmark.threads=64]
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:ticket-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=false",
+		"worldcup.tickets.admission.max-concurrent=64",
+		"worldcup.tickets.write-behind.max-pending=1000000"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TicketPurchaseBenchmark {
+
+	private static final int ATTEMPTS = Integer.getInteger("benchmark.attempts", 1_000_000);
+	private static final int THREADS = Integer.getInteger("benchmark.threads", 64);
+	private static final int MATCHES = 4;
+	private static final int USERS = 100_000;
+
+	@Autowired
+	private TicketService ticketService;
+
+	@Autowired
+	private StadiumSeatInventory inventory;
+
+	@Autowired
+	private TicketWriteBehind writeBehind;
+
+	@Autowired
+	private MatchRepository matchRepository;
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void purchaseAttemptsPerSecond() throws Exception {
+		List<Long> matchIds = new ArrayList<>();
+		for (int i = 0; i < MATCHES; i++) {
+			matchIds.add(matchRepository.save(new Match(null, "Équipe " + i, "Équipe " + (i + 1),
+					LocalDateTime.of(2030, 6, 14 + i, 21, 0), "Grand Stade Hassan II", "Casablanca", null, null)).getId());
+		}
+		List<Object[]> users = new ArrayList<>();
+		for (long id = 1; id <= USERS; id++) {
+			users.add(new Object[]{id, "supporter" + id + "@worldcup2030.ma"});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO user (id, email, role) VALUES (?, ?, 'USER')", users);
+
+		LongAdder sold = new LongAdder();
+		LongAdder refused = new LongAdder();
+		LongAdder saturated = new LongAdder();
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		long start = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(pool.submit(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < ATTEMPTS / THREADS; i++) {
+					try {
+						long userId = 1 + random.nextInt(USERS);
+						Long matchId = matchIds.get(random.nextInt(MATCHES));
+						sold.add(ticketService.purchase(userId, matchId, 1 + random.nextInt(4), null).size());
+					} catch (IllegalStateException e) {
+						refused.increment();
+					} catch (RejectedExecutionException e) {
+						saturated.increment();
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		pool.shutdown();
+
+		long flushStart = System.nanoTime();
+		writeBehind.flush();
+		double flushSeconds = (System.nanoTime() - flushStart) / 1e9;
+
+		long remaining = 0;
+		for (Long matchId : matchIds) {
+			remaining += inventory.remaining(matchId);
+		}
+		long persisted = 0;
+		for (Long matchId : matchIds) {
+			persisted += ticketRepository.countByMatchId(matchId);
+		}
+
+		System.out.printf("%n%,d tentatives d'achat, %d threads, %d matchs de %,d places%n",
+				(long) ATTEMPTS / THREADS * THREADS, THREADS, MATCHES, inventory.capacity());
+		System.out.printf("tentatives/s          : %,.0f (%.2f s)%n", ATTEMPTS / seconds, seconds);
+		System.out.printf("billets vendus        : %,d (refus : %,d, saturation : %,d)%n",
+				sold.sum(), refused.sum(), saturated.sum());
+		System.out.printf("écriture différée     : %,d billets en base, %.2f s après la fin des ventes%n", persisted, flushSeconds);
+
+		assertEquals((long) MATCHES * inventory.capacity() - remaining, sold.sum());
+		assertEquals(sold.sum(), persisted);
+	}
+}
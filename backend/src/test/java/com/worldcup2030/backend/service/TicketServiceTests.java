@@ -0,0 +1,248 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.TicketDTO;
+import com.worldcup2030.backend.dto.TicketRejectionDTO;
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.TicketRepository;
+import com.worldcup2030.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vente de billets sur un petit stade (2 tribunes de 2 rangées de 5 places) : jamais de survente
+ * sous concurrence, places côte à côte, limite par utilisateur, écriture différée par lots, place
+ * rendue (par son seul détenteur) et billet refusé consultable quand la base le refuse, acheteur
+ * pris dans le jeton.
+ */
+@SpringBootTest(properties = {
+		"worldcup.tickets.stadium.sections=2",
+		"worldcup.tickets.stadium.rows-per-section=2",
+		"worldcup.tickets.stadium.seats-per-row=5",
+		"worldcup.tickets.max-per-user=4",
+		"worldcup.tickets.write-behind.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class TicketServiceTests {
+
+	private static final int CAPACITY = 20;
+
+	@Autowired
+	private TicketService ticketService;
+
+	@Autowired
+	private StadiumSeatInventory inventory;
+
+	@Autowired
+	private TicketWriteBehind writeBehind;
+
+	@Autowired
+	private MatchRepository matchRepository;
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private Long matchId;
+
+	@BeforeEach
+	void setUp() {
+		Match match = new Match(null, "Maroc", "Espagne", LocalDateTime.of(2030, 6, 14, 21, 0),
+				"Grand Stade Hassan II", "Casablanca", null, null);
+		matchId = matchRepository.save(match).getId();
+	}
+
+	@Test
+	void concurrentPurchasesNeverOversell() throws Exception {
+		List<Long> users = users(50);
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		ConcurrentLinkedQueue<String> seats = new ConcurrentLinkedQueue<>();
+		AtomicInteger soldOut = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (Long userId : users) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				try {
+					ticketService.purchase(userId, matchId, 1, null).forEach(ticket -> seats.add(ticket.getSeatNumber()));
+				} catch (IllegalStateException e) {
+					soldOut.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertEquals(CAPACITY, seats.size());
+		assertEquals(CAPACITY, new HashSet<>(seats).size());
+		assertEquals(users.size() - CAPACITY, soldOut.get());
+		assertEquals(0, inventory.remaining(matchId));
+
+		writeBehind.flush();
+		assertEquals(0, writeBehind.pending());
+		assertEquals(CAPACITY, ticketRepository.countByMatchId(matchId));
+
+		// Rechargé depuis la base : les places vendues restent prises
+		StadiumSeatInventory reloaded = new StadiumSeatInventory(matchRepository, ticketRepository, 2, 2, 5, 4);
+		assertEquals(0, reloaded.remaining(matchId));
+		// Détenteurs relus eux aussi : seul l'acheteur rend sa place
+		Object[] sold = ticketRepository.findSoldSeatsByMatchId(matchId).get(0);
+		assertFalse(reloaded.release(matchId, -1L, (String) sold[2]));
+		assertTrue(reloaded.release(matchId, (Long) sold[1], (String) sold[2]));
+	}
+
+	@Test
+	void groupSeatsAreNextToEachOtherOnOneRow() {
+		Long userId = users(1).get(0);
+
+		List<TicketDTO> tickets = ticketService.purchase(userId, matchId, 3, 2);
+
+		assertEquals(List.of("S2-R1-1", "S2-R1-2", "S2-R1-3"), tickets.stream().map(TicketDTO::getSeatNumber).toList());
+		assertEquals(CAPACITY - 3, inventory.remaining(matchId));
+		assertThrows(IllegalArgumentException.class, () -> ticketService.purchase(userId, matchId, 1, 3));
+	}
+
+	@Test
+	void limitsTicketsPerUserAndMatch() {
+		Long userId = users(1).get(0);
+		ticketService.purchase(userId, matchId, 3, null);
+
+		assertThrows(IllegalStateException.class, () -> ticketService.purchase(userId, matchId, 2, null));
+		assertEquals(1, ticketService.purchase(userId, matchId, 1, null).size());
+		assertEquals(CAPACITY - 4, inventory.remaining(matchId));
+	}
+
+	@Test
+	void rejectedTicketGivesItsSeatBack() {
+		Long unknownUser = 987_654_321L;
+		ticketService.purchase(unknownUser, matchId, 2, null);
+		assertEquals(CAPACITY - 2, inventory.remaining(matchId));
+
+		writeBehind.flush();
+
+		assertEquals(0, writeBehind.pending());
+		assertEquals(0, ticketRepository.countByMatchId(matchId));
+		assertEquals(CAPACITY, inventory.remaining(matchId));
+		List<TicketRejectionDTO> rejected = ticketService.getRejectedTickets(unknownUser).stream()
+				.filter(ticket -> ticket.getMatchId().equals(matchId)).toList();
+		assertEquals(2, rejected.size());
+		assertEquals("Billet refusé à l'enregistrement", rejected.get(0).getReason());
+	}
+
+	@Test
+	void onlyTheHolderGivesASeatBack() {
+		List<Long> users = users(2);
+		String seat = ticketService.purchase(users.get(0), matchId, 1, null).get(0).getSeatNumber();
+
+		assertFalse(inventory.release(matchId, users.get(1), seat));
+		assertEquals(CAPACITY - 1, inventory.remaining(matchId));
+		assertTrue(inventory.release(matchId, users.get(0), seat));
+		assertFalse(inventory.release(matchId, users.get(0), seat));
+		assertEquals(CAPACITY, inventory.remaining(matchId));
+	}
+
+	@Test
+	void buyerIsTheAuthenticatedUser() throws Exception {
+		List<User> users = userRepository.saveAll(List.of(user("acheteur"), user("autre")));
+		User buyer = users.get(0);
+		String bearer = "Bearer " + jwtService.generateToken(buyer);
+
+		// Billets pour un autre utilisateur : refusés, sans prendre de place
+		mockMvc.perform(post("/api/tickets").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"userId\":" + users.get(1).getId() + ",\"matchId\":" + matchId + ",\"quantity\":4}"))
+				.andExpect(status().isForbidden());
+		assertEquals(CAPACITY, inventory.remaining(matchId));
+
+		mockMvc.perform(post("/api/tickets").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"matchId\":" + matchId + ",\"quantity\":2}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].userId").value(buyer.getId()));
+
+		mockMvc.perform(get("/api/tickets/user/" + buyer.getId() + "/rejected").header("Authorization", bearer))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/tickets/user/" + users.get(1).getId() + "/rejected").header("Authorization", bearer))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void admissionRejectsWhenSaturated() throws Exception {
+		TicketAdmissionLimiter limiter = new TicketAdmissionLimiter(1, 0);
+		CountDownLatch inside = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<Integer> first = pool.submit(() -> limiter.admit(() -> {
+			inside.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return 1;
+		}));
+		inside.await();
+
+		assertThrows(RejectedExecutionException.class, () -> limiter.admit(() -> 2));
+		release.countDown();
+		assertEquals(1, first.get(5, TimeUnit.SECONDS));
+		assertEquals(2, limiter.admit(() -> 2));
+		assertEquals(1, limiter.rejected());
+		pool.shutdown();
+	}
+
+	private List<Long> users(int count) {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			users.add(user("supporter-" + i));
+		}
+		return userRepository.saveAll(users).stream().map(User::getId).toList();
+	}
+
+	private static User user(String name) {
+		User user = new User();
+		user.setEmail(name + "-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		return user;
+	}
+}
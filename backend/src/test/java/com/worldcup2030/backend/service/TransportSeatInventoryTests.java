@@ -0,0 +1,174 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.dto.TransportDTO;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.TransportRepository;
+import com.worldcup2030.backend.repository.TransportReservationRepository;
+import com.worldcup2030.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sièges de transport pris en mémoire : un détenteur par siège, rendu sur rollback sans toucher un plan
+ * rechargé entre-temps, plan gardé quand la disposition ne change pas, écriture différée de la place
+ * et redémarrage depuis l'instantané seat_map contrôlé par les réservations.
+ */
+@SpringBootTest(properties = "worldcup.transport.inventory.flush-interval-ms=3600000")
+class TransportSeatInventoryTests {
+
+	@Autowired
+	private TransportSeatInventory seatInventory;
+
+	@Autowired
+	private TransportService transportService;
+
+	@Autowired
+	private TransportRepository transportRepository;
+
+	@Autowired
+	private TransportReservationService reservationService;
+
+	@Autowired
+	private TransportReservationRepository reservationRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void onlyTheHolderReleasesASeat() {
+		Long transportId = transport(3);
+
+		assertEquals("2", seatInventory.reserve(transportId, 1L, "2"));
+		assertThrows(RuntimeException.class, () -> seatInventory.reserve(transportId, 2L, "2"));
+		assertThrows(RuntimeException.class, () -> seatInventory.reserve(transportId, 1L, null));
+		assertThrows(IllegalArgumentException.class, () -> seatInventory.reserve(transportId, 2L, "9"));
+		assertEquals("1", seatInventory.reserve(transportId, 2L, null));
+
+		assertFalse(seatInventory.release(transportId, 2L, "2"));
+		assertFalse(seatInventory.release(transportId, 1L, "3"));
+		assertEquals(1, seatInventory.remaining(transportId));
+		assertTrue(seatInventory.release(transportId, 1L, "2"));
+		assertFalse(seatInventory.release(transportId, 1L, "2"));
+		assertEquals(2, seatInventory.remaining(transportId));
+		assertEquals("2", seatInventory.reserve(transportId, 3L, "2"));
+	}
+
+	@Test
+	void rollbackDoesNotFreeASeatOfAReloadedMap() {
+		Long transportId = transport(3);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertEquals("1", seatInventory.reserve(transportId, 100L, "1"));
+			// Autre requête : capacité modifiée (plan relu en base, sans le siège non validé), puis le siège 1 vendu
+			String seat = CompletableFuture.supplyAsync(() -> {
+				transportService.updateTransport(transportId, dto(4));
+				return seatInventory.reserve(transportId, 200L, "1");
+			}).join();
+			assertEquals("1", seat);
+			status.setRollbackOnly();
+		});
+
+		assertTrue(seatInventory.seatMap(transportId).isTaken(0));
+		assertEquals(3, seatInventory.remaining(transportId));
+		assertFalse(seatInventory.release(transportId, 100L, "1"));
+	}
+
+	@Test
+	void keepsTheSeatMapWhenTheLayoutIsUnchangedAndFlushesThePlace() {
+		Long transportId = transport(3);
+		seatInventory.reserve(transportId, 1L, null);
+
+		TransportDTO cheaper = dto(3);
+		cheaper.setPrice(80);
+		transportService.updateTransport(transportId, cheaper);
+		assertEquals(2, seatInventory.remaining(transportId));
+		assertEquals(3, transportRepository.findById(transportId).orElseThrow().getPlace());
+
+		seatInventory.flush();
+		assertEquals(2, transportRepository.findById(transportId).orElseThrow().getPlace());
+	}
+
+	@Test
+	void restartsFromTheSnapshotCheckedAgainstReservations() {
+		Long traveller = user();
+		Long other = user();
+		Long booked = transport(3);
+		reservationService.createReservation(traveller, booked, "2");
+		// Instantané sans la réservation (arrêt avant l'écriture différée) : plan reconstruit
+		Long unflushed = transport(3);
+		reservationService.createReservation(traveller, unflushed, "3");
+		// Autant de sièges pris que de réservations, mais pas les mêmes : corrigé à la première écriture
+		Long moved = transport(3);
+		reservationService.createReservation(traveller, moved, "1");
+		seatInventory.flush();
+		snapshot(unflushed, 3, new byte[]{0});
+		snapshot(moved, 2, new byte[]{0b100});
+
+		try {
+			TransportSeatInventory restarted = new TransportSeatInventory(transportRepository, reservationRepository, transactionManager);
+			restarted.loadMissing();
+
+			assertTrue(restarted.seatMap(booked).isTaken(1));
+			assertEquals(2, restarted.remaining(booked));
+			assertThrows(RuntimeException.class, () -> restarted.reserve(booked, traveller, null));
+
+			assertTrue(restarted.seatMap(unflushed).isTaken(2));
+			assertEquals(2, restarted.remaining(unflushed));
+
+			SeatMap movedSeats = restarted.seatMap(moved);
+			assertTrue(movedSeats.isTaken(2));
+			assertEquals("3", restarted.reserve(moved, other, "3"));
+			assertTrue(movedSeats.isTaken(0));
+			assertTrue(restarted.release(moved, traveller, "1"));
+			assertEquals(2, movedSeats.remaining());
+		} finally {
+			// Les tests d'import vident la table transport
+			for (Long transportId : List.of(booked, unflushed, moved)) {
+				reservationRepository.deleteAll(reservationRepository.findByTransportId(transportId));
+			}
+		}
+	}
+
+	private Long user() {
+		User user = new User();
+		user.setEmail("passager-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		return userRepository.save(user).getId();
+	}
+
+	private void snapshot(Long transportId, int place, byte[] seatMap) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(
+				status -> transportRepository.updateSeats(transportId, place, seatMap));
+	}
+
+	private Long transport(int capacity) {
+		return transportService.addTransport(dto(capacity)).getId();
+	}
+
+	private static TransportDTO dto(int capacity) {
+		TransportDTO dto = new TransportDTO();
+		dto.setType("BUS");
+		dto.setDepartureCity("Agadir");
+		dto.setArrivalCity("Essaouira");
+		dto.setDepartureTime("2030-06-15T08:00:00");
+		dto.setArrivalTime("2030-06-15T11:00:00");
+		dto.setCapacite(capacity);
+		dto.setPrice(100);
+		dto.setCompagnie("CTM");
+		return dto;
+	}
+}
@@ -0,0 +1,95 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.service.VerifiedTokenCache.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache des jetons vérifiés : entrée valable jusqu'à l'expiration du jeton (au plus le TTL), taille
+ * bornée en retirant d'abord les entrées expirées puis les plus anciennes.
+ */
+class VerifiedTokenCacheTests {
+
+	@Test
+	void servesClaimsUntilTheTokenExpires() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, 60_000);
+		assertNull(cache.get("jeton-a"));
+
+		VerifiedToken put = cache.put("jeton-a", parsed("a@worldcup2030.ma", 7L, "ADMIN", 3_600_000));
+		VerifiedToken cached = cache.get("jeton-a");
+		assertEquals(put, cached);
+		assertEquals("a@worldcup2030.ma", cached.getEmail());
+		assertEquals(7L, cached.getUserId());
+		assertEquals("ADMIN", cached.getRole());
+		assertNull(cache.get("jeton-b"));
+
+		// Expiration du jeton antérieure au TTL : c'est elle qui compte
+		cache.put("jeton-expire", parsed("b@worldcup2030.ma", 8L, "USER", -1_000));
+		assertNull(cache.get("jeton-expire"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void ttlCapsTokensThatLiveLonger() throws InterruptedException {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, 80);
+		cache.put("jeton-a", parsed("a@worldcup2030.ma", 7L, "USER", 3_600_000));
+		assertNotNull(cache.get("jeton-a"));
+
+		Thread.sleep(120);
+		assertNull(cache.get("jeton-a"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void makesRoomWithExpiredEntriesFirst() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(10, 60_000);
+		cache.put("expire", parsed("x@worldcup2030.ma", 0L, "USER", -1_000));
+		for (int i = 0; i < 9; i++) {
+			cache.put("jeton-" + i, parsed(i + "@worldcup2030.ma", (long) i, "USER", 3_600_000));
+		}
+		assertEquals(10, cache.size());
+
+		cache.put("jeton-9", parsed("9@worldcup2030.ma", 9L, "USER", 3_600_000));
+		assertEquals(10, cache.size());
+		assertNull(cache.get("expire"));
+		for (int i = 0; i < 10; i++) {
+			assertNotNull(cache.get("jeton-" + i));
+		}
+	}
+
+	@Test
+	void thenEvictsTheOldestEntries() throws InterruptedException {
+		VerifiedTokenCache cache = new VerifiedTokenCache(10, 60_000);
+		for (int i = 0; i < 10; i++) {
+			cache.put("jeton-" + i, parsed(i + "@worldcup2030.ma", (long) i, "USER", 3_600_000));
+			Thread.sleep(2);
+		}
+
+		// Plein sans entrée expirée : les plus anciennes partent jusqu'à 90 % de la capacité
+		cache.put("jeton-10", parsed("10@worldcup2030.ma", 10L, "USER", 3_600_000));
+		assertTrue(cache.size() <= 10);
+		assertNull(cache.get("jeton-0"));
+		assertNotNull(cache.get("jeton-1"));
+		assertNotNull(cache.get("jeton-10"));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	private static ParsedToken parsed(String email, Long userId, String role, long expiresInMs) {
+		Claims claims = Jwts.claims();
+		claims.setSubject(email);
+		claims.put("userId", userId);
+		claims.put("role", role);
+		claims.setExpiration(new Date(System.currentTimeMillis() + expiresInMs));
+		return new ParsedToken(claims);
+	}
+}
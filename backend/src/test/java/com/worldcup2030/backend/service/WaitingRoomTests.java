@@ -0,0 +1,222 @@
+package com.worldcup2030.backend.service;
+
+import com.worldcup2030.backend.config.WaitingRoomInterceptor;
+import com.worldcup2030.backend.controller.WaitingRoomController;
+import com.worldcup2030.backend.model.Match;
+import com.worldcup2030.backend.model.User;
+import com.worldcup2030.backend.repository.MatchRepository;
+import com.worldcup2030.backend.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Salle d'attente : ordre d'arrivée respecté, admissions limitées par le seau à jetons, jetons
+ * signés propres à chaque file, et laissez-passer unique, au nom de l'acheteur, exigé par la
+ * création de billets.
+ */
+@SpringBootTest(properties = {
+		"worldcup.waiting-room.enabled=true",
+		"worldcup.waiting-room.release-per-second=20",
+		"worldcup.waiting-room.burst=3"
+})
+@AutoConfigureMockMvc
+class WaitingRoomTests {
+
+	@Autowired
+	private WaitingRoom waitingRoom;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MatchRepository matchRepository;
+
+	@Test
+	void releasesVisitorsInArrivalOrderAtTheBucketRate() throws Exception {
+		WaitingRoom room = new WaitingRoom(jwtService, true, 20, 3, 60_000, 60_000);
+		List<Map<String, Object>> visitors = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			visitors.add(room.join(WaitingRoom.HOTELS, 1L + i));
+		}
+
+		// La rafale admet les premiers arrivés, les suivants attendent dans l'ordre
+		long admitted = visitors.stream().filter(v -> (Boolean) v.get("admitted")).count();
+		assertTrue(admitted >= 3 && admitted < 10);
+		for (int i = 1; i < visitors.size(); i++) {
+			assertTrue((Long) visitors.get(i).get("position") >= (Long) visitors.get(i - 1).get("position"));
+		}
+		Map<String, Object> last = visitors.get(visitors.size() - 1);
+		assertFalse((Boolean) last.get("admitted"));
+		assertNotNull(last.get("estimatedWaitSeconds"));
+
+		// 20 admissions par seconde : le dernier passe en moins d'une seconde
+		long startedAt = System.nanoTime();
+		String pass = awaitPass(room, WaitingRoom.HOTELS, last);
+		assertTrue(System.nanoTime() - startedAt >= 100_000_000L);
+		assertEquals(10, room.redeemPass(WaitingRoom.HOTELS, pass, 10L));
+	}
+
+	@Test
+	void passIsIssuedOnceAndServesOnlyItsUserOnce() {
+		WaitingRoom room = new WaitingRoom(jwtService, true, 20, 3, 60_000, 60_000);
+		Map<String, Object> joined = room.join(WaitingRoom.TICKETS, 7L);
+		String token = (String) joined.get("token");
+
+		// Admis dès l'entrée : le laissez-passer accompagne le jeton de place
+		String pass = (String) joined.get("pass");
+		assertNotNull(pass);
+		// Les suivis suivants ne réémettent pas de laissez-passer
+		Map<String, Object> again = room.status(WaitingRoom.TICKETS, token);
+		assertTrue((Boolean) again.get("admitted"));
+		assertTrue((Boolean) again.get("passIssued"));
+		assertNull(again.get("pass"));
+
+		assertEquals(-1, room.redeemPass(WaitingRoom.TICKETS, pass, 8L));
+		assertEquals(-1, room.redeemPass(WaitingRoom.HOTELS, pass, 7L));
+		assertEquals(1, room.redeemPass(WaitingRoom.TICKETS, pass, 7L));
+		assertEquals(-1, room.redeemPass(WaitingRoom.TICKETS, pass, 7L));
+
+		// Réservation échouée : le laissez-passer resservira
+		room.restorePass(WaitingRoom.TICKETS, 1);
+		assertEquals(1, room.redeemPass(WaitingRoom.TICKETS, pass, 7L));
+	}
+
+	@Test
+	void tokensBelongToOneQueueAndNeverAuthenticate() {
+		Map<String, Object> first = waitingRoom.join(WaitingRoom.TICKETS, 1L);
+		String token = (String) first.get("token");
+
+		assertThrows(JwtException.class, () -> waitingRoom.status(WaitingRoom.HOTELS, token));
+		assertThrows(IllegalArgumentException.class, () -> waitingRoom.join("concerts", 1L));
+		assertEquals(-1, waitingRoom.redeemPass(WaitingRoom.TICKETS, token, 1L));
+		assertEquals(-1, waitingRoom.redeemPass(WaitingRoom.TICKETS, token + "x", 1L));
+
+		User user = new User();
+		user.setEmail("supporter-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		user = userRepository.save(user);
+		assertEquals(-1, waitingRoom.redeemPass(WaitingRoom.TICKETS, jwtService.generateToken(user), user.getId()));
+	}
+
+	@Test
+	void ticketPurchaseRequiresAPass() throws Exception {
+		User user = new User();
+		user.setEmail("supporter-" + System.nanoTime() + "@worldcup2030.ma");
+		user.setRole("USER");
+		user = userRepository.save(user);
+		Long matchId = matchRepository.save(new Match(null, "Maroc", "Portugal", LocalDateTime.of(2030, 6, 20, 21, 0),
+				"Grand Stade Hassan II", "Casablanca", null, null)).getId();
+		String bearer = "Bearer " + jwtService.generateToken(user);
+		String body = "{\"userId\":" + user.getId() + ",\"matchId\":" + matchId + ",\"quantity\":1}";
+
+		mockMvc.perform(post("/api/tickets").header("Authorization", bearer)
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isForbidden())
+				.andExpect(jsonPath("$.queue").value(WaitingRoom.TICKETS));
+
+		// Entrée dans la file réservée aux utilisateurs authentifiés
+		mockMvc.perform(post("/api/waiting-room/tickets/join")).andExpect(status().isUnauthorized());
+		Map<String, Object> joined = JsonPath.read(mockMvc.perform(post("/api/waiting-room/tickets/join").header("Authorization", bearer))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(), "$");
+		String queueToken = (String) joined.get("token");
+
+		// Un jeton de file ne sert pas à s'authentifier
+		mockMvc.perform(get("/api/tickets/stats").header("Authorization", "Bearer " + queueToken))
+				.andExpect(status().isUnauthorized());
+
+		// Suivi public, sans authentification
+		String pass = awaitPass(waitingRoom, WaitingRoom.TICKETS, joined);
+		mockMvc.perform(get("/api/waiting-room/tickets/status").header(WaitingRoomController.TOKEN_HEADER, queueToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.admitted").value(true));
+
+		// Laissez-passer au nom d'un autre utilisateur
+		User other = new User();
+		other.setEmail("autre-" + System.nanoTime() + "@worldcup2030.ma");
+		other.setRole("USER");
+		String otherBearer = "Bearer " + jwtService.generateToken(userRepository.save(other));
+		mockMvc.perform(post("/api/tickets").header("Authorization", otherBearer)
+						.header(WaitingRoomInterceptor.PASS_HEADER, pass)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"matchId\":" + matchId + ",\"quantity\":1}"))
+				.andExpect(status().isForbidden())
+				.andExpect(jsonPath("$.queue").value(WaitingRoom.TICKETS));
+
+		// Achat refusé (trop de billets) : le laissez-passer est rendu
+		mockMvc.perform(post("/api/tickets").header("Authorization", bearer)
+						.header(WaitingRoomInterceptor.PASS_HEADER, pass)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"matchId\":" + matchId + ",\"quantity\":9}"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(post("/api/tickets").header("Authorization", bearer)
+						.header(WaitingRoomInterceptor.PASS_HEADER, pass)
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].matchId").value(matchId));
+
+		// Un seul achat par laissez-passer
+		mockMvc.perform(post("/api/tickets").header("Authorization", bearer)
+						.header(WaitingRoomInterceptor.PASS_HEADER, pass)
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void farVisitorsAreAskedToPollLessOften() throws Exception {
+		String token = null;
+		for (int i = 0; i < 20; i++) {
+			token = (String) waitingRoom.join(WaitingRoom.HOTELS, 1L).get("token");
+		}
+
+		mockMvc.perform(get("/api/waiting-room/hotels/status").header(WaitingRoomController.TOKEN_HEADER, token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.admitted").value(false))
+				.andExpect(header().exists("Retry-After"));
+		mockMvc.perform(get("/api/waiting-room/hotels/status").header(WaitingRoomController.TOKEN_HEADER, "abc"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	// Laissez-passer émis une seule fois : à l'entrée si le visiteur est admis d'emblée, sinon au premier suivi admis
+	private static String awaitPass(WaitingRoom room, String queue, Map<String, Object> joined) throws InterruptedException {
+		if ((Boolean) joined.get("admitted")) {
+			return (String) joined.get("pass");
+		}
+		for (int i = 0; i < 100; i++) {
+			Map<String, Object> status = room.status(queue, (String) joined.get("token"));
+			if ((Boolean) status.get("admitted")) {
+				return (String) status.get("pass");
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Toujours dans la file après 5 s");
+	}
+}
@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders, HttpErrorResponse } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpErrorResponse, HttpParams } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
 import { catchError } from 'rxjs/operators';
 import { AuthService } from './auth.service';
@@ -15,6 +15,19 @@ export interface HotelDTO {
   photoPath?: string; // Nouveau champ
 }
 
+// Tarifs calculés par le serveur (GET /api/hotels/prices), montants en centimes de dirham
+export interface HotelPriceCalendarDTO {
+  hotelId: number;
+  from: string;
+  to: string;
+  currency: string;
+  rooms: number;
+  nightlyPrices: number[]; // Prix d'une chambre par nuit, de "from" à "to" (exclu)
+  availableRooms: number[];
+  totalPrice: number; // Séjour complet pour "rooms" chambres
+  bookable: boolean;
+}
+
 @Injectable({ 
   providedIn: 'root' 
 })
@@ -106,6 +119,17 @@ export class HotelService {
       .pipe(catchError(this.handleError));
   }
 
+  // Prix par nuit et disponibilités de "from" à "to" (exclu), dates au format AAAA-MM-JJ
+  getPriceCalendar(from: string, to: string, rooms: number = 1, hotelIds?: number[]): Observable<HotelPriceCalendarDTO[]> {
+    const headers = this.createAuthHeaders();
+    let params = new HttpParams().set('from', from).set('to', to).set('rooms', rooms);
+    if (hotelIds && hotelIds.length > 0) {
+      params = params.set('hotelIds', hotelIds.join(','));
+    }
+    return this.http.get<HotelPriceCalendarDTO[]>(`${this.apiUrl}/prices`, { headers, params })
+      .pipe(catchError(this.handleError));
+  }
+
   getImageUrl(filename: string): string {
     return `${this.apiUrl}/images/${filename}`;
   }
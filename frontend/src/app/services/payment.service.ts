@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpHeaders, HttpErrorResponse } from '@angular/common/http';
-import { Observable, throwError } from 'rxjs';
-import { catchError, tap } from 'rxjs/operators';
+import { Observable, throwError, timer } from 'rxjs';
+import { catchError, exhaustMap, first, switchMap, tap, timeout } from 'rxjs/operators';
 import { AuthService } from './auth.service'; // Importer votre AuthService
 
 export type PaymentMethod = 'CREDIT_CARD' | 'DEBIT_CARD' | 'PAYPAL' | 'BANK_TRANSFER';
@@ -26,6 +26,8 @@ export interface PaymentDTO {
 })
 export class PaymentService {
   private apiUrl = 'http://localhost:8081/api/payments';
+  private pollIntervalMs = 1000;
+  private pollTimeoutMs = 30000;
 
   constructor(
     private http: HttpClient,
@@ -44,8 +46,11 @@ export class PaymentService {
 
     console.log('🌐 Making HTTP POST request to:', `${this.apiUrl}/pay`);
     
+    // Le serveur répond 202 avec un paiement PENDING : on suit son statut jusqu'à la réponse de la banque
     return this.http.post<PaymentDTO>(`${this.apiUrl}/pay`, cleanPayment, { headers })
       .pipe(
+        tap(accepted => console.log('⏳ Payment accepted, waiting for gateway:', accepted)),
+        switchMap(accepted => this.waitForCompletion(accepted.id!)),
         tap(response => {
           console.log('✅ Payment processed successfully:', response);
         }),
@@ -53,6 +58,14 @@ export class PaymentService {
       );
   }
 
+  private waitForCompletion(paymentId: number): Observable<PaymentDTO> {
+    return timer(this.pollIntervalMs, this.pollIntervalMs).pipe(
+      exhaustMap(() => this.http.get<PaymentDTO>(`${this.apiUrl}/${paymentId}`, { headers: this.createAuthHeaders() })),
+      first(payment => payment.paymentStatus !== 'PENDING'),
+      timeout(this.pollTimeoutMs)
+    );
+  }
+
   private createAuthHeaders(): HttpHeaders {
     // Utiliser votre AuthService pour récupérer le token
     const token = this.authService.getToken();
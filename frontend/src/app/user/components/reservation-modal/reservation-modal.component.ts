@@ -3,12 +3,13 @@ import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { HotelReservationService, HotelReservationDTO } from '../../../services/hotel.reservation.service';
 import { AuthService } from '../../../services/auth.service';
+import { HotelService, HotelPriceCalendarDTO } from '../../../services/hotel.service';
 
 interface Hotel {
   id?: number;
   title: string;
   city: string;
-  price: number; // Ajout du prix par nuit
+  price: number | null; // Prix de la nuit de ce soir, affiché dans la liste
   image: string;
 }
 
@@ -50,6 +51,7 @@ interface Hotel {
                 name="endDate"
                 required
                 [min]="minEndDate"
+                (change)="refreshQuote()"
                 class="w-full border border-gray-300 rounded-md p-2 focus:ring-2 focus:ring-red-500 focus:border-transparent">
             </div>
 
@@ -57,7 +59,8 @@ interface Hotel {
               <div>
                 <label class="block text-gray-700 font-medium mb-2">Nombre de chambres</label>
                 <select 
-                  [(ngModel)]="reservation.numberOfRooms" 
+                  [ngModel]="reservation.numberOfRooms" 
+                  (ngModelChange)="onRoomsChange($event)"
                   name="numberOfRooms"
                   required
                   class="w-full border border-gray-300 rounded-md p-2 focus:ring-2 focus:ring-red-500 focus:border-transparent">
@@ -77,13 +80,18 @@ interface Hotel {
               </div>
             </div>
 
-            <div *ngIf="totalPrice > 0" class="bg-gray-50 p-4 rounded-md">
+            <div *ngIf="quoteLoading" class="text-sm text-gray-500">Calcul du prix…</div>
+
+            <div *ngIf="quote && !quoteLoading" class="bg-gray-50 p-4 rounded-md">
               <div class="flex justify-between items-center">
                 <span class="text-gray-700">Prix total:</span>
                 <span class="text-2xl font-bold text-red-600">{{ totalPrice }} MAD</span>
               </div>
               <div class="text-sm text-gray-500 mt-1">
-                {{ numberOfNights }} nuit(s) × {{ reservation.numberOfRooms }} chambre(s) × {{ hotel?.price || 0 }} MAD
+                {{ numberOfNights }} nuit(s) × {{ reservation.numberOfRooms }} chambre(s), prix par nuit selon les dates et les matchs
+              </div>
+              <div *ngIf="!quote.bookable" class="text-sm text-red-600 mt-1">
+                Plus assez de chambres libres pour ces dates
               </div>
             </div>
           </div>
@@ -97,7 +105,7 @@ interface Hotel {
             </button>
             <button 
               type="submit" 
-              [disabled]="!reservationForm.valid || isLoading || !isAuthenticated || reservation.userId <= 0"
+              [disabled]="!reservationForm.valid || isLoading || !isAuthenticated || reservation.userId <= 0 || !quote?.bookable"
               class="flex-1 bg-red-600 hover:bg-red-700 text-white font-semibold py-2 px-4 rounded transition duration-300 disabled:opacity-50 disabled:cursor-not-allowed">
               <span *ngIf="!isLoading">Confirmer la réservation</span>
               <span *ngIf="isLoading">Réservation en cours...</span>
@@ -138,9 +146,15 @@ export class ReservationModalComponent implements OnInit, OnChanges {
   successMessage: string = '';
   isAuthenticated: boolean = false;
 
+  // Devis du serveur pour les dates et le nombre de chambres choisis (montants en centimes)
+  quote: HotelPriceCalendarDTO | null = null;
+  quoteLoading: boolean = false;
+  private quoteRequest = 0;
+
   constructor(
     private reservationService: HotelReservationService,
-    private authService: AuthService
+    private authService: AuthService,
+    private hotelService: HotelService
   ) {
     const today = new Date();
     this.today = today.toISOString().split('T')[0];
@@ -190,6 +204,40 @@ export class ReservationModalComponent implements OnInit, OnChanges {
         this.reservation.endDate = '';
       }
     }
+    this.refreshQuote();
+  }
+
+  onRoomsChange(rooms: number | string) {
+    this.reservation.numberOfRooms = Number(rooms);
+    this.refreshQuote();
+  }
+
+  // Redemande le prix au serveur ; seule la réponse à la dernière demande est gardée
+  refreshQuote() {
+    const request = ++this.quoteRequest;
+    this.quote = null;
+    const { hotelId, startDate, endDate, numberOfRooms } = this.reservation;
+    if (!hotelId || !startDate || !endDate || startDate >= endDate) {
+      this.quoteLoading = false;
+      return;
+    }
+
+    this.quoteLoading = true;
+    this.hotelService.getPriceCalendar(startDate, endDate, Number(numberOfRooms), [hotelId]).subscribe({
+      next: (calendars: HotelPriceCalendarDTO[]) => {
+        if (request !== this.quoteRequest) return;
+        this.quoteLoading = false;
+        this.quote = calendars.find((calendar) => calendar.hotelId === hotelId) || null;
+        if (!this.quote) {
+          this.errorMessage = 'Prix indisponible pour cet hôtel';
+        }
+      },
+      error: (error) => {
+        if (request !== this.quoteRequest) return;
+        this.quoteLoading = false;
+        this.errorMessage = error.message || 'Impossible de calculer le prix du séjour';
+      }
+    });
   }
 
   get numberOfNights(): number {
@@ -203,10 +251,7 @@ export class ReservationModalComponent implements OnInit, OnChanges {
   }
 
   get totalPrice(): number {
-    if (this.hotel && this.numberOfNights > 0 && this.reservation.numberOfRooms > 0) {
-      return this.numberOfNights * this.reservation.numberOfRooms * this.hotel.price;
-    }
-    return 0;
+    return this.quote ? this.quote.totalPrice / 100 : 0;
   }
 
   onSubmit() {
@@ -253,7 +298,8 @@ export class ReservationModalComponent implements OnInit, OnChanges {
           ...createdReservation,
           hotelName: this.hotel?.title || '',
           hotelCity: this.hotel?.city || '',
-          totalPrice: this.totalPrice
+          // Total enregistré par le serveur, à défaut le devis affiché
+          totalPrice: createdReservation.totalPrice ?? this.totalPrice
         };
 
         this.successMessage = 'Réservation créée avec succès !';
@@ -289,5 +335,8 @@ export class ReservationModalComponent implements OnInit, OnChanges {
     this.errorMessage = '';
     this.successMessage = '';
     this.isLoading = false;
+    this.quote = null;
+    this.quoteLoading = false;
+    this.quoteRequest++;
   }
 }
\ No newline at end of file
@@ -3,7 +3,7 @@ import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Router } from '@angular/router';
 
-import { HotelService, HotelDTO } from '../../services/hotel.service';
+import { HotelService, HotelDTO, HotelPriceCalendarDTO } from '../../services/hotel.service';
 import { AuthService } from '../../services/auth.service';
 import { ReservationModalComponent } from '../components/reservation-modal/reservation-modal.component';
 import { PaymentModalComponent } from '../components/reservation-modal/PaymentModal.component';
@@ -18,7 +18,7 @@ interface Hotel {
   rating: number;
   ratingHalf?: boolean;
   features: string[];
-  price: number;
+  price: number | null; // Prix de la nuit de ce soir (MAD), null tant qu'il n'est pas chargé
   status: 'confirmed' | 'pending';
   image: string;
   alt: string;
@@ -38,6 +38,7 @@ export class HotelsUser implements OnInit {
   ratingFilter = '';
 
   hotels: Hotel[] = [];
+  pricesLoaded = false;
   userEmail: string = '';
   userDropdownOpen = false;
 
@@ -88,13 +89,14 @@ export class HotelsUser implements OnInit {
           distanceToStadium: 'Proche du stade',
           rating: dto.stars,
           features: dto.services,
-          price: 1000,
+          price: null,
           status: 'confirmed',
           image: dto.photoPath ? this.hotelService.getImageUrl(dto.photoPath) : 'https://via.placeholder.com/600x400',
           alt: dto.name,
         }));
         
         console.log('Hotels mapped:', this.hotels);
+        this.loadPrices();
       },
       error: (err) => {
         console.error('Erreur récupération hôtels', err);
@@ -102,12 +104,43 @@ export class HotelsUser implements OnInit {
     });
   }
 
+  // Prix de la nuit de ce soir calculés par le serveur (saison, jours de match, remplissage)
+  loadPrices(): void {
+    const from = new Date();
+    const to = new Date(from);
+    to.setDate(from.getDate() + 1);
+    this.hotelService.getPriceCalendar(this.isoDate(from), this.isoDate(to)).subscribe({
+      next: (calendars: HotelPriceCalendarDTO[]) => {
+        const byHotel = new Map(calendars.map((calendar) => [calendar.hotelId, calendar]));
+        this.hotels = this.hotels.map((hotel): Hotel => {
+          const calendar = hotel.id !== undefined ? byHotel.get(hotel.id) : undefined;
+          if (!calendar) return hotel;
+          return {
+            ...hotel,
+            price: Math.round(calendar.nightlyPrices[0]) / 100,
+            status: calendar.bookable ? 'confirmed' : 'pending',
+          };
+        });
+        this.pricesLoaded = true;
+      },
+      error: (err) => {
+        console.error('Erreur récupération des prix', err);
+        this.pricesLoaded = true;
+      }
+    });
+  }
+
+  private isoDate(date: Date): string {
+    return date.toISOString().split('T')[0];
+  }
+
   get filteredHotels() {
     return this.hotels.filter(hotel => {
       const cityMatch = this.cityFilter ? hotel.city.toLowerCase() === this.cityFilter.toLowerCase() : true;
       const ratingMatch = this.ratingFilter ? hotel.rating === +this.ratingFilter : true;
       const priceMatch = (() => {
         if (!this.priceFilter) return true;
+        if (hotel.price === null) return false;
         if (this.priceFilter === '2000+') return hotel.price > 2000;
         const [min, max] = this.priceFilter.split('-').map(Number);
         return hotel.price >= min && hotel.price <= max;